@@ -28,4 +28,19 @@ public abstract class DialogController {
     alert.show();
   }
 
+  /**
+   * Shows an information box. Informs the player about the result of an operation.
+   *
+   * @param header  The header and title text of the dialog box.
+   * @param context The information that is shown.
+   */
+  public void displayInformationBox(String header, String context) {
+    Alert alert = new Alert(AlertType.INFORMATION);
+    alert.setTitle(header);
+    alert.setHeaderText(header);
+    alert.setContentText(context);
+
+    alert.show();
+  }
+
 }
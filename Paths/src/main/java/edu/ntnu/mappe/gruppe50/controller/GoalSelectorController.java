@@ -1,15 +1,23 @@
 package edu.ntnu.mappe.gruppe50.controller;
 
+import edu.ntnu.mappe.gruppe50.model.analysis.GoalExploration;
+import edu.ntnu.mappe.gruppe50.model.analysis.GoalExplorer;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
 import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
 import edu.ntnu.mappe.gruppe50.model.data.goals.GoalFactory;
 import edu.ntnu.mappe.gruppe50.model.data.goals.GoalType;
 import edu.ntnu.mappe.gruppe50.model.data.goals.GoalsRegister;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GameFileHandling;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GoalFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.PlayerFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryCache;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import edu.ntnu.mappe.gruppe50.view.scenes.GoalSelector;
 import java.io.File;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
@@ -31,6 +39,12 @@ import org.controlsfx.control.CheckComboBox;
 
 public class GoalSelectorController extends DialogController implements SwitchSceneController {
 
+  /**
+   * The maximum number of states that are explored when checking if a goal can be achieved, which
+   * keeps the check quick enough to run while the player is choosing goals.
+   */
+  private static final int MAX_EXPLORED_STATES = 100_000;
+
   /**
    * Empty constructor for the controller. Only used as a means for instantiating the controller.
    */
@@ -96,7 +110,8 @@ public class GoalSelectorController extends DialogController implements SwitchSc
 
   /**
    * The method attempts to add a goal to the goalsregister. To indicate if this was successful or
-   * not, a boolean value is returned.
+   * not, a boolean value is returned. If the goal is added, but it cannot be achieved in the
+   * selected story, the player is warned through the message label.
    *
    * @param goals  The GoalsRegister that the goal is being added to.
    * @param parent The view object for goal selection.
@@ -116,9 +131,11 @@ public class GoalSelectorController extends DialogController implements SwitchSc
         String itemsAsString = items.getCheckModel().getCheckedItems().toString();
         goal = GoalFactory.buildGoal(type.getValue(), itemsAsString);
         goals.addGoal(goal);
+        warnIfUnachievable(goal, msg);
       } else if (!value.getText().isBlank()) {
         goal = GoalFactory.buildGoal(type.getValue(), value.getText());
         goals.addGoal(goal);
+        warnIfUnachievable(goal, msg);
       } else if (!type.getSelectionModel().isEmpty()) {
         formatErrorMsg(msg,
             "The selected list of items for a inventory goal cannot be empty "
@@ -140,6 +157,34 @@ public class GoalSelectorController extends DialogController implements SwitchSc
     parent.clearFields(value, items);
   }
 
+  /**
+   * Explores the selected story with the selected player, and shows a warning in the message label
+   * if the goal cannot be achieved. Nothing is shown if the exploration had to stop before every
+   * state of the story was explored.
+   *
+   * @param goal The goal that is checked.
+   * @param msg  Label for displaying the warning.
+   */
+  private void warnIfUnachievable(Goal goal, Label msg) {
+    try {
+      String gameFilePath =
+          System.getProperty("user.dir") + "/src/main/resources/gameFiles/game.game";
+      Player player = PlayerFileHandling.readPlayerFromFile(
+          GameFileHandling.readSecondLineFromFile(gameFilePath),
+          gameFilePath.replace("gameFiles/game.game", "playerFiles/players.players"));
+      Story story = StoryCache.getSharedCache().getStory(
+          GameFileHandling.readFirstLineFromFile(gameFilePath));
+
+      GoalExploration exploration = new GoalExplorer(ForkJoinPool.commonPool(),
+          MAX_EXPLORED_STATES).explore(story, player, List.of(goal));
+      if (exploration.isComplete() && !exploration.isAchievable(goal)) {
+        formatErrorMsg(msg, "The goal " + goal + " cannot be achieved in this story");
+      }
+    } catch (Exception e) {
+      displayErrorBox("Could not check if the goal can be achieved", e.getMessage());
+    }
+  }
+
   /**
    * Method for deleting a goal from the GoalsRegister. Thereafter, the tableview is updated.
    *
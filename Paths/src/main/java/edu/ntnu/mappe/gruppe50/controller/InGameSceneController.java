@@ -1,12 +1,26 @@
 package edu.ntnu.mappe.gruppe50.controller;
 
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
 import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
 import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.fileutils.FileWatcher;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GameFileHandling;
 import edu.ntnu.mappe.gruppe50.model.fileutils.LinkFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.LinkJournal;
+import edu.ntnu.mappe.gruppe50.model.fileutils.SnapshotFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryReload;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryReloader;
 import edu.ntnu.mappe.gruppe50.view.Main;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.Pane;
@@ -22,6 +36,21 @@ import javafx.scene.layout.Pane;
  */
 public class InGameSceneController extends DialogController implements SwitchSceneController {
 
+  /**
+   * The time in milliseconds without changes before a changed story file is reloaded.
+   */
+  private static final long HOT_RELOAD_DEBOUNCE_MILLIS = 300;
+
+  /**
+   * The number of visited links between each checkpoint that is saved while a game is played.
+   */
+  public static final int CHECKPOINT_INTERVAL = 20;
+
+  private FileWatcher storyWatcher;
+  private LinkJournal journal;
+  private Game journaledGame;
+  private String journaledLinkFilePath;
+
   /**
    * Empty constructor for the controller.
    */
@@ -44,15 +73,88 @@ public class InGameSceneController extends DialogController implements SwitchSce
     }
   }
 
+  /**
+   * Creates a task that reads a Game object from a file, specified by the method parameter, on a
+   * background thread. The progress of the task is the progress of reading the story of the game.
+   * The task is not started, so the handlers can be set before it is started with
+   * {@link LoadTask#start()}.
+   *
+   * @param filePath The absolute path of the file.
+   * @return The task that reads the Game.
+   */
+  public LoadTask<Game> loadGame(String filePath) {
+    return new LoadTask<>(progress -> GameFileHandling.readGameFromFile(filePath, true, progress));
+  }
+
+  /**
+   * Starts reloading the story of the game whenever its .paths file is changed, so a story can be
+   * edited while it is played. The file is read on a background thread, where only the passages
+   * that changed are parsed, and the reloaded story is then passed on to the JavaFX application
+   * thread. A file that is not a valid story is not reloaded, so the game goes on with the last
+   * valid version of the story while the file is edited.
+   *
+   * @param gameFilePath The absolute file path to the game.game file, whose first line is the path
+   *                     of the .paths file.
+   * @param onReload     Receives the reloaded story on the JavaFX application thread.
+   */
+  public void startHotReload(String gameFilePath, Consumer<Story> onReload) {
+    stopHotReload();
+    try {
+      String storyFilePath = GameFileHandling.readFirstLineFromFile(gameFilePath);
+      StoryReloader reloader = new StoryReloader(storyFilePath);
+      storyWatcher = new FileWatcher(HOT_RELOAD_DEBOUNCE_MILLIS, 1, "Story reloader", file -> {
+        try {
+          StoryReload reload = reloader.read();
+          Platform.runLater(() -> onReload.accept(reloader.apply(reload)));
+        } catch (IOException | InvalidStoryFormatException e) {
+          //The file is most likely being edited, and is reloaded once it is valid again
+        }
+      });
+      storyWatcher.watch(Path.of(storyFilePath));
+
+      //Reads the file once in the background, so the first change only parses what changed
+      Thread primer = new Thread(() -> {
+        try {
+          reloader.read();
+        } catch (IOException | InvalidStoryFormatException e) {
+          //The next change reads the whole file instead
+        }
+      }, "Story reloader primer");
+      primer.setDaemon(true);
+      primer.start();
+    } catch (IOException | IllegalArgumentException e) {
+      displayErrorBox("Could not watch the story for changes", e.getMessage());
+    }
+  }
+
+  /**
+   * Stops reloading the story of the game when its file is changed. Used when the game scene is
+   * left.
+   */
+  public void stopHotReload() {
+    try {
+      if (storyWatcher != null) {
+        storyWatcher.close();
+        storyWatcher = null;
+      }
+    } catch (IOException e) {
+      displayErrorBox("Could not stop watching the story for changes", e.getMessage());
+    }
+  }
+
   /**
    * Resets the progress of a game by clearing a file, specified by the parameter. This method is
-   * used on the links.links file that tracks visited links.
+   * used on the links.links file that tracks visited links. The journal of the game is closed and
+   * deleted, so none of its links are saved afterwards, and the snapshot of the game is deleted.
    *
    * @param filePath The absolute path of the file.
    */
   public void clearProgress(String filePath) {
+    closeJournal();
     try {
       LinkFileHandling.removeAllLinesFromFile(filePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(filePath));
+      SnapshotFileHandling.deleteSnapshot(SnapshotFileHandling.getSnapshotFilePath(filePath));
     } catch (Exception e) {
       displayErrorBox("Could not clear the links.links file",
           System.getProperty("user.dir") + "/src/main/resources/linkFiles/links.links");
@@ -61,24 +163,32 @@ public class InGameSceneController extends DialogController implements SwitchSce
 
   /**
    * Gets the first passage in the game. The first passage varies depending on if the game is a new
-   * game or a saved game.
+   * game or a saved game. A saved game is resumed from its snapshot if it has one, so only the
+   * links visited after the snapshot was taken are replayed, and otherwise by replaying every
+   * visited link.
    *
-   * @param game         The game that is currently played.
-   * @param gameFilePath The absolute file path to the game.game file where games are saved.
-   * @param linkFilePath The absolute file path to the links.links file where visited links are
-   *                     saved.
+   * @param game             The game that is currently played.
+   * @param gameFilePath     The absolute file path to the game.game file where games are saved.
+   * @param linkFilePath     The absolute file path to the links.links file where visited links
+   *                         are saved.
+   * @param snapshotFilePath The absolute file path to the .snapshot file where the snapshot of the
+   *                         game is saved.
    * @return The first passage if the game is a new play through, or if the method cannot match the
    *     link to the saved passage with a link in the game. The link of the saved passage
    *     if this is a saved game and the method manages to match the saved
    *     link with a link in the game.
    */
-  public Passage getFirstPassage(Game game, String gameFilePath, String linkFilePath) {
+  public Passage getFirstPassage(Game game, String gameFilePath, String linkFilePath,
+      String snapshotFilePath) {
     try {
       if (game.isNewPlayThrough()) {
         return game.getStory().getOpeningPassage();
-      } else {
-        return game.getSavedPassage();
       }
+      GameSnapshot snapshot = readSnapshot(snapshotFilePath);
+      if (snapshot != null) {
+        return game.resume(snapshot);
+      }
+      return game.getSavedPassage();
     } catch (Exception e) {
       clearProgress(linkFilePath);
       displayErrorBox("Could not read the saved passage - you will start from the opening passage",
@@ -88,6 +198,190 @@ public class InGameSceneController extends DialogController implements SwitchSce
     return game.getStory().getOpeningPassage();
   }
 
+  /**
+   * Reads the snapshot of a saved game. A snapshot that cannot be read is ignored, as the game can
+   * still be resumed by replaying its visited links.
+   *
+   * @param snapshotFilePath The absolute file path to the .snapshot file.
+   * @return The snapshot, or null if there is no valid snapshot.
+   */
+  private GameSnapshot readSnapshot(String snapshotFilePath) {
+    try {
+      return SnapshotFileHandling.readSnapshotFromFile(snapshotFilePath);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts saving every link that is visited in a game as it is visited, by appending it to the
+   * journal of the .links file. Saving a move then takes the same time no matter how long the game
+   * has been played, and the links are written in the background. If the journal fails, every
+   * visited link is written to the .links file instead, and the journal is no longer used.
+   *
+   * @param game         The game that is currently played.
+   * @param linkFilePath The absolute file path to the links.links file where visited links are
+   *                     saved.
+   */
+  public void openJournal(Game game, String linkFilePath) {
+    closeJournal();
+    try {
+      journal = new LinkJournal.Builder(linkFilePath, LinkJournal.getJournalFilePath(linkFilePath))
+          .build();
+      journaledGame = game;
+      journaledLinkFilePath = linkFilePath;
+      game.setLinkVisitedListener(this::journalLink);
+    } catch (IOException | IllegalArgumentException e) {
+      journal = null;
+      displayErrorBox("Visited links are only saved when the game is saved", e.getMessage());
+    }
+  }
+
+  /**
+   * Appends a visited link to the journal. If the journal has failed, it is closed, which saves
+   * every visited link to the .links file instead.
+   *
+   * @param link The visited link.
+   */
+  private void journalLink(Link link) {
+    try {
+      journal.append(link);
+    } catch (IllegalStateException e) {
+      closeJournal();
+    }
+  }
+
+  /**
+   * Writes the links that are queued in the journal, and stops saving visited links as they are
+   * visited. Used when the game scene is left, and before the progress is cleared or the game is
+   * saved from the settings. If the journal has failed, the links it holds may be missing some
+   * of the visited links, so every visited link is written to the .links file instead, and the
+   * journal is deleted.
+   */
+  public void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    Game game = journaledGame;
+    String linkFilePath = journaledLinkFilePath;
+    game.setLinkVisitedListener(null);
+    try {
+      journal.close();
+    } catch (IOException e) {
+      if (journal.isFailed()) {
+        saveAllLinks(game, linkFilePath);
+      } else {
+        displayErrorBox("Could not save the visited links", e.getMessage());
+      }
+    } finally {
+      journal = null;
+      journaledGame = null;
+      journaledLinkFilePath = null;
+    }
+  }
+
+  /**
+   * Writes every visited link of a game to the .links file, and deletes the journal of the file,
+   * whose records the .links file now holds. Used when the journal has failed.
+   *
+   * @param game         The game that is currently played.
+   * @param linkFilePath The absolute file path to the links.links file where visited links are
+   *                     saved.
+   */
+  private void saveAllLinks(Game game, String linkFilePath) {
+    try {
+      LinkFileHandling.writeLinksToFile(game.getVisitedLinks(), linkFilePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(linkFilePath));
+    } catch (Exception e) {
+      displayErrorBox("Could not save the visited links", e.getMessage());
+    }
+  }
+
+  /**
+   * Saves a checkpoint of a game, being its visited links followed by a snapshot of the game. The
+   * links are written first, so a snapshot is never ahead of the saved links. If the visited links
+   * are saved in a journal, the snapshot is queued behind them instead, so the checkpoint is
+   * written in the background. If the journal has failed, it is closed, and the checkpoint is
+   * written as a whole.
+   *
+   * @param game             The game that is currently played.
+   * @param linkFilePath     The absolute file path to the links.links file where visited links
+   *                         are saved.
+   * @param snapshotFilePath The absolute file path to the .snapshot file where the snapshot of the
+   *                         game is saved.
+   */
+  public void saveCheckpoint(Game game, String linkFilePath, String snapshotFilePath) {
+    try {
+      if (journal != null && journaledGame == game) {
+        try {
+          journal.checkpoint(game.checkpoint(), snapshotFilePath);
+          return;
+        } catch (IllegalStateException e) {
+          closeJournal();
+        }
+      }
+      LinkFileHandling.writeLinksToFile(game.getVisitedLinks(), linkFilePath);
+      SnapshotFileHandling.writeSnapshotToFile(game.checkpoint(), snapshotFilePath);
+    } catch (Exception e) {
+      displayErrorBox("Could not save a checkpoint of the game", e.getMessage());
+    }
+  }
+
+  /**
+   * Rewinds a game by a number of visited links, and saves the rewound game. If the visited links
+   * are saved in a journal, the rewind and a new snapshot are queued in the journal, so an undo
+   * takes the same time no matter how long the game has been played. Otherwise the remaining
+   * visited links and the snapshot are written to their files, each replacing its file only once
+   * it has been written, and the journal is deleted after them. If the rewound game cannot be
+   * saved, the rewound links are visited again, so the game is left as it was.
+   *
+   * @param game             The game that is currently played.
+   * @param steps            The number of visited links to rewind.
+   * @param linkFilePath     The absolute file path to the links.links file where visited links
+   *                         are saved.
+   * @param snapshotFilePath The absolute file path to the .snapshot file where the snapshot of the
+   *                         game is saved.
+   * @return The passage the game was rewound to, or null if the game could not be rewound.
+   */
+  public Passage rewind(Game game, int steps, String linkFilePath, String snapshotFilePath) {
+    List<Link> visitedLinks = game.getVisitedLinks().getLinks();
+    List<Link> rewoundLinks = new ArrayList<>(
+        visitedLinks.subList(Math.max(0, visitedLinks.size() - steps), visitedLinks.size()));
+    Passage passage;
+    try {
+      passage = game.rewind(steps);
+    } catch (IllegalArgumentException e) {
+      displayErrorBox("Could not rewind the game", e.getMessage());
+      return null;
+    }
+
+    if (journal != null && journaledGame == game) {
+      try {
+        journal.rewind(steps);
+        journal.checkpoint(game.checkpoint(), snapshotFilePath);
+        return passage;
+      } catch (IllegalStateException e) {
+        closeJournal();
+      }
+    }
+    try {
+      LinkFileHandling.writeLinksToFile(game.getVisitedLinks(), linkFilePath);
+      SnapshotFileHandling.writeSnapshotToFile(game.checkpoint(), snapshotFilePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(linkFilePath));
+      return passage;
+    } catch (Exception e) {
+      try {
+        for (Link link : rewoundLinks) {
+          game.go(link);
+        }
+      } catch (IllegalArgumentException | NoMatchingPassageException ex) {
+        //The links were visited before, so they can be visited again
+      }
+      displayErrorBox("Could not rewind the game", e.getMessage());
+      return null;
+    }
+  }
+
   /**
    * Selects the link, given by user input and returns the corresponding passage from the game
    * object.
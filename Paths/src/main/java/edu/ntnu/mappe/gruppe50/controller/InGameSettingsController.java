@@ -1,8 +1,11 @@
 package edu.ntnu.mappe.gruppe50.controller;
 
+import edu.ntnu.mappe.gruppe50.model.data.Game;
 import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
 import edu.ntnu.mappe.gruppe50.model.fileutils.LinkFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.LinkJournal;
 import edu.ntnu.mappe.gruppe50.model.fileutils.SettingsFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.SnapshotFileHandling;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import javafx.scene.layout.Pane;
 
@@ -77,13 +80,16 @@ public class InGameSettingsController extends DialogController implements Switch
 
   /**
    * Resets the progress of a game by clearing a file, specified by the parameter. This method is
-   * used on the links.links file that tracks visited links.
+   * used on the links.links file that tracks visited links, and its journal and snapshot are
+   * deleted.
    *
    * @param filePath The absolute path of the file.
    */
   public void clearProgress(String filePath) {
     try {
       LinkFileHandling.removeAllLinesFromFile(filePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(filePath));
+      SnapshotFileHandling.deleteSnapshot(SnapshotFileHandling.getSnapshotFilePath(filePath));
     } catch (Exception e) {
       displayErrorBox("Could not clear the links.links file",
           System.getProperty("user.dir") + "/src/main/resources/linkFiles/links.links");
@@ -104,6 +110,26 @@ public class InGameSettingsController extends DialogController implements Switch
     }
   }
 
+  /**
+   * Saves a game play through to file, allowing for loading games. The visited links are saved
+   * first, followed by a snapshot of the game, so the game is resumed from the snapshot without
+   * replaying every visited link. The journal of the .links file is deleted once every visited
+   * link has been written, so it must be closed before the game is saved.
+   *
+   * @param game             The game that is saved.
+   * @param linksFilePath    The absolute path of the .links file.
+   * @param snapshotFilePath The absolute path of the .snapshot file.
+   */
+  public void saveGame(Game game, String linksFilePath, String snapshotFilePath) {
+    try {
+      LinkFileHandling.writeLinksToFile(game.getVisitedLinks(), linksFilePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(linksFilePath));
+      SnapshotFileHandling.writeSnapshotToFile(game.checkpoint(), snapshotFilePath);
+    } catch (Exception e) {
+      displayErrorBox("Could not save the game to file", e.getMessage());
+    }
+  }
+
   /**
    * Switches from one scene to another.
    *
@@ -0,0 +1,93 @@
+package edu.ntnu.mappe.gruppe50.controller;
+
+import edu.ntnu.mappe.gruppe50.model.fileutils.LoadProgress;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.concurrent.Task;
+
+/**
+ * Task that loads something from file on a background thread, so the JavaFX application thread is
+ * free to draw the window while a large story or game is read. The progress of the loading is
+ * reported through the progress property of the task, and can be bound to a progress bar.
+ *
+ * <p>The handlers of the task, such as the handler of a succeeded task, are called on the JavaFX
+ * application thread, and should be set before the task is started. A task that is cancelled stops
+ * the loading the next time the loading reports its progress.
+ *
+ * @param <T> The type of what is loaded.
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class LoadTask<T> extends Task<T> {
+
+  /**
+   * The threads that tasks are run on. The threads are daemon threads, so a task that is still
+   * loading does not keep the application running after the window is closed.
+   */
+  private static final ExecutorService loaders = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "Paths loader");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Loader<T> loader;
+
+  /**
+   * Creates a task that loads something with a loader.
+   *
+   * @param loader The loader that is run by the task.
+   * @throws IllegalArgumentException If the loader is null.
+   */
+  public LoadTask(Loader<T> loader) throws IllegalArgumentException {
+    if (loader == null) {
+      throw new IllegalArgumentException("The loader cannot be null.");
+    }
+    this.loader = loader;
+  }
+
+  /**
+   * Starts the task on a background thread.
+   *
+   * @return The task.
+   */
+  public LoadTask<T> start() {
+    loaders.execute(this);
+    return this;
+  }
+
+  /**
+   * Runs the loader, passing its progress on to the progress property of the task.
+   *
+   * @return What was loaded.
+   * @throws Exception If the loading fails, or a {@link CancellationException} if the task was
+   *                   cancelled.
+   */
+  @Override
+  protected T call() throws Exception {
+    return loader.load((done, total) -> {
+      if (isCancelled()) {
+        throw new CancellationException("The loading was cancelled");
+      }
+      updateProgress(done, total);
+    });
+  }
+
+  /**
+   * Something that is loaded from file, reporting its progress while loading.
+   *
+   * @param <T> The type of what is loaded.
+   */
+  @FunctionalInterface
+  public interface Loader<T> {
+
+    /**
+     * Loads something from file.
+     *
+     * @param progress The receiver of the progress of the loading.
+     * @return What was loaded.
+     * @throws Exception If the loading fails.
+     */
+    T load(LoadProgress progress) throws Exception;
+  }
+}
@@ -2,6 +2,8 @@ package edu.ntnu.mappe.gruppe50.controller;
 
 import edu.ntnu.mappe.gruppe50.model.fileutils.BaseStoryFileHandling;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GameFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.LinkJournal;
+import edu.ntnu.mappe.gruppe50.model.fileutils.SnapshotFileHandling;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import javafx.scene.layout.Pane;
 
@@ -17,13 +19,15 @@ public class MainMenuController extends DialogController implements SwitchSceneC
   /**
    * Method for removing all visited links from file. This is used whenever the user chooses the
    * "New Game" option, so that when the game starts the program attempts to create a new game,
-   * rather than loading an old one.
+   * rather than loading an old one. The journal and snapshot of the file are deleted as well.
    *
    * @param filePath The absolute file path of the .links file.
    */
   public void removeAllLinksFromFile(String filePath) {
     try {
       BaseStoryFileHandling.removeAllLinesFromFile(filePath);
+      LinkJournal.delete(LinkJournal.getJournalFilePath(filePath));
+      SnapshotFileHandling.deleteSnapshot(SnapshotFileHandling.getSnapshotFilePath(filePath));
     } catch (Exception e) {
       displayErrorBox("Cannot remove links from file", e.getMessage());
     }
@@ -1,21 +1,36 @@
 package edu.ntnu.mappe.gruppe50.controller;
 
+import edu.ntnu.mappe.gruppe50.model.analysis.StoryAnalysis;
+import edu.ntnu.mappe.gruppe50.model.analysis.StoryAnalyzer;
 import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidGoalFormatException;
 import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
 import edu.ntnu.mappe.gruppe50.model.data.Story;
 import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
 import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfoRegister;
 import edu.ntnu.mappe.gruppe50.model.data.goals.GoalsRegister;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchHit;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchIndex;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GameFileHandling;
 import edu.ntnu.mappe.gruppe50.model.fileutils.GoalFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.SearchIndexFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryCache;
 import edu.ntnu.mappe.gruppe50.model.fileutils.StoryFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.UserStoryImportResult;
+import edu.ntnu.mappe.gruppe50.model.fileutils.UserStoryImporter;
 import edu.ntnu.mappe.gruppe50.model.fileutils.UserStoryInfoFileHandling;
+import edu.ntnu.mappe.gruppe50.model.fileutils.UserStoryWatcher;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import edu.ntnu.mappe.gruppe50.view.scenes.UserStories;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javafx.application.Platform;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.Pane;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 
 /**
@@ -29,6 +44,18 @@ import javafx.stage.FileChooser;
  */
 public class UserStoriesController extends DialogController implements SwitchSceneController {
 
+  /**
+   * The maximum number of hits that a search of the stories gives.
+   */
+  public static final int SEARCH_HIT_LIMIT = 50;
+
+  private static final String searchIndexFilePath = System.getProperty("user.dir")
+      + "/src/main/resources/userStoryInfoFiles/userStories.index";
+
+  private UserStoryWatcher watcher;
+
+  private SearchIndex searchIndex;
+
   /**
    * Empty constructor whose only purpose is to instantiate the controller.
    */
@@ -48,6 +75,7 @@ public class UserStoriesController extends DialogController implements SwitchSce
       if (userStoryInfo != null) {
         storyRegister.addUserStoryInfo(userStoryInfo);
         parent.updateObservableList();
+        watchStory(userStoryInfo);
       }
     } catch (IndexOutOfBoundsException e) {
       displayErrorBox("Invalid UserStoryInfo format",
@@ -57,6 +85,79 @@ public class UserStoriesController extends DialogController implements SwitchSce
     }
   }
 
+  /**
+   * Creates a task that imports every .paths file of a directory chosen by the user. The files are
+   * parsed, validated and given .goals files in parallel on background threads. When the task has
+   * succeeded, the imported stories are added to the UserStoryInfoRegister and written to the
+   * .userStoryInfo file in one batch, and a summary of the import is displayed. The task is not
+   * started, so the handlers can be bound before it is started with {@link LoadTask#start()}.
+   *
+   * @param storyRegister The register that the stories are added to.
+   * @param parent        The view class that displays a table of the stories.
+   * @return The task that imports the stories, or null if no directory was chosen.
+   */
+  public LoadTask<UserStoryImportResult> importStories(UserStoryInfoRegister storyRegister,
+      UserStories parent) {
+    DirectoryChooser directoryChooser = new DirectoryChooser();
+    directoryChooser.setTitle("Select a folder of .paths files");
+    File selectedDirectory = directoryChooser.showDialog(null);
+    if (selectedDirectory == null) {
+      return null;
+    }
+
+    //The paths are copied on the JavaFX application thread, as the register is not thread safe
+    List<String> addedFilePaths = storyRegister.getUserStoryInfoPaths();
+    LoadTask<UserStoryImportResult> task = new LoadTask<>(
+        progress -> new UserStoryImporter(UserStoryImporter.DEFAULT_MAX_THREADS).importDirectory(
+            selectedDirectory.getPath(),
+            System.getProperty("user.dir") + "/src/main/resources/goalFiles",
+            addedFilePaths, progress));
+    task.setOnSucceeded(event -> addImportedStories(task.getValue(), storyRegister, parent));
+    task.setOnFailed(event -> displayErrorBox("Could not import the stories",
+        task.getException().getMessage()));
+    return task;
+  }
+
+  /**
+   * Adds imported stories to a UserStoryInfoRegister and the table of the view, writes them to the
+   * .userStoryInfo file in one batch and displays a summary of the import.
+   *
+   * @param result        The result of the import.
+   * @param storyRegister The register that the stories are added to.
+   * @param parent        The view class that displays a table of the stories.
+   */
+  private void addImportedStories(UserStoryImportResult result,
+      UserStoryInfoRegister storyRegister, UserStories parent) {
+    List<UserStoryInfo> added = new ArrayList<>();
+    for (UserStoryInfo userStoryInfo : result.getImported()) {
+      //A story may have been added on its own while the directory was imported
+      if (!storyRegister.contains(userStoryInfo)) {
+        storyRegister.addUserStoryInfo(userStoryInfo);
+        added.add(userStoryInfo);
+      }
+    }
+    parent.updateObservableList();
+
+    try {
+      UserStoryInfoFileHandling.writeUserStoryInfosToFile(added, System.getProperty("user.dir")
+          + "/src/main/resources/userStoryInfoFiles/userStoryInfo.userStoryInfo");
+      for (UserStoryInfo userStoryInfo : added) {
+        watchStory(userStoryInfo);
+      }
+    } catch (Exception e) {
+      displayErrorBox("Could not save the imported stories to file", e.getMessage());
+    }
+
+    StringBuilder summary = new StringBuilder("Imported stories: ").append(added.size());
+    if (!result.getFailures().isEmpty()) {
+      summary.append("\nStories that could not be imported: ")
+          .append(result.getFailures().size()).append('\n');
+      result.getFailures().entrySet().stream().limit(10).forEach(failure -> summary
+          .append("\n").append(failure.getKey()).append(": ").append(failure.getValue()));
+    }
+    displayInformationBox("Imported stories", summary.toString());
+  }
+
   /**
    * Deletes the selected entry from a table and removes it from the UserStoryInfoRegister.
    *
@@ -70,6 +171,9 @@ public class UserStoriesController extends DialogController implements SwitchSce
       UserStoryInfo usi = storyTable.getSelectionModel().getSelectedItem();
       storyRegister.removeUserStoryInfo(usi);
       parent.updateObservableList();
+      if (watcher != null) {
+        watcher.unwatch(usi.getFilePath());
+      }
 
       UserStoryInfoFileHandling.removeUserStoryInfoFromFile(usi.getFilePath(),
           System.getProperty("user.dir")
@@ -82,6 +186,104 @@ public class UserStoriesController extends DialogController implements SwitchSce
     }
   }
 
+  /**
+   * Starts watching the story files of a UserStoryInfoRegister for changes. When a story file is
+   * changed, its broken links are counted again on a background thread, and the entry of the story
+   * is replaced in the register and in the table of the view. Only the changed entry is updated.
+   * Story files that do not exist are not watched.
+   *
+   * @param storyRegister The register with the stories that are watched.
+   * @param parent        The view class that displays a table of the stories.
+   */
+  public void watchStories(UserStoryInfoRegister storyRegister, UserStories parent) {
+    try {
+      watcher = new UserStoryWatcher(UserStoryWatcher.DEFAULT_DEBOUNCE_MILLIS,
+          userStoryInfo -> Platform.runLater(() -> {
+            if (storyRegister.contains(userStoryInfo)) {
+              parent.updateUserStoryInfo(storyRegister.replaceUserStoryInfo(userStoryInfo),
+                  userStoryInfo);
+            }
+          }));
+      for (UserStoryInfo userStoryInfo : storyRegister.getUserStoryInfos()) {
+        watchStory(userStoryInfo);
+      }
+    } catch (IOException e) {
+      displayErrorBox("Could not watch the stories for changes", e.getMessage());
+    }
+  }
+
+  /**
+   * Stops watching the story files for changes. Used before switching scene.
+   */
+  public void stopWatchingStories() {
+    try {
+      if (watcher != null) {
+        watcher.close();
+        watcher = null;
+      }
+    } catch (IOException e) {
+      displayErrorBox("Could not stop watching the stories for changes", e.getMessage());
+    }
+  }
+
+  /**
+   * Starts watching the story file of a UserStoryInfo, if the stories are watched and the file
+   * exists.
+   *
+   * @param userStoryInfo The UserStoryInfo of the story file.
+   * @throws IOException If the directory of the story file cannot be watched.
+   */
+  private void watchStory(UserStoryInfo userStoryInfo) throws IOException {
+    if (watcher != null && isFileExists(userStoryInfo.getFilePath())) {
+      watcher.watch(userStoryInfo);
+    }
+  }
+
+  /**
+   * Creates a task that searches the passage titles and contents of the stories of a
+   * UserStoryInfoRegister on a background thread. The search index is read from the .index file
+   * the first time, and is then brought up to date before every search by indexing only the story
+   * files that have been added or changed since they were indexed. The index is written back to
+   * file when it has changed. An error box is displayed if the search fails. The task is not
+   * started, so the handlers can be set before it is started with {@link LoadTask#start()}.
+   *
+   * @param storyRegister The register with the stories that are searched.
+   * @param query         The query, where double quotes surround phrases.
+   * @return The task that searches the stories, giving at most {@link #SEARCH_HIT_LIMIT} hits.
+   */
+  public LoadTask<List<SearchHit>> searchStories(UserStoryInfoRegister storyRegister,
+      String query) {
+    //The paths are copied on the JavaFX application thread, as the register is not thread safe
+    List<String> filePaths = storyRegister.getUserStoryInfoPaths();
+    LoadTask<List<SearchHit>> task = new LoadTask<>(progress -> {
+      SearchIndex index = getSearchIndex();
+      if (SearchIndexFileHandling.updateIndex(index, filePaths, progress)) {
+        SearchIndexFileHandling.writeIndexToFile(index, searchIndexFilePath);
+      }
+      return index.search(query, SEARCH_HIT_LIMIT);
+    });
+    task.setOnFailed(event -> displayErrorBox("Could not search the stories",
+        task.getException().getMessage()));
+    return task;
+  }
+
+  /**
+   * Gets the search index of the stories, reading it from the .index file the first time. An
+   * index that cannot be read is built again from the story files.
+   *
+   * @return The search index.
+   */
+  private synchronized SearchIndex getSearchIndex() {
+    if (searchIndex == null) {
+      try {
+        searchIndex = SearchIndexFileHandling.readIndexFromFile(searchIndexFilePath);
+      } catch (IOException e) {
+        searchIndex = new SearchIndex();
+      }
+    }
+    return searchIndex;
+  }
+
   /**
    * Saves the selected story to file by replacing the first line in the game file, being the story
    * file.
@@ -99,7 +301,11 @@ public class UserStoriesController extends DialogController implements SwitchSce
 
   /**
    * Creates a user story info by reading it from a file that is uploaded from the user's computer.
-   * The method creates a .goals file for the .paths file.
+   * The method creates a .goals file for the .paths file, and shows the result of analysing the
+   * structure of the story. The broken links are counted while the file is streamed, and the
+   * structure is analysed on a story whose passage contents are left in the file, so a large
+   * story is never loaded into memory as a whole. The import does not go through the story cache,
+   * which is left to the games and dialogs that need the whole story.
    *
    * @return A UserStoryInfo based on the file provided by the user.
    * @throws InvalidStoryFormatException If the .paths formatting is invalid.
@@ -117,18 +323,51 @@ public class UserStoriesController extends DialogController implements SwitchSce
     File selectedFile = fileChooser.showOpenDialog(null);
 
     if (selectedFile != null) {
-      Story story = StoryFileHandling.readStoryFromFile(selectedFile.getPath());
       userStoryInfo = new UserStoryInfo(selectedFile.getName(),
-          selectedFile.getPath(), story.getBrokenLinks().size());
+          selectedFile.getPath(), StoryFileHandling.countBrokenLinks(selectedFile.getPath()));
 
       GoalsRegister gr = new GoalsRegister();
       GoalFileHandling.writeGoalsToFile(gr,
           System.getProperty("user.dir") + "/src/main/resources/goalFiles/"
               + selectedFile.getName().replace(".paths", ".goals"));
+
+      Story story = StoryFileHandling.readLazyStoryFromFile(selectedFile.getPath());
+      displayInformationBox("Story analysis of " + selectedFile.getName(),
+          describeAnalysis(new StoryAnalyzer().analyze(story)));
     }
     return userStoryInfo;
   }
 
+  /**
+   * Creates a short description of the structure of a story, listing the number of reachable and
+   * unreachable passages, dead ends and loops, followed by the titles of the passages that cannot
+   * be reached and the dead ends.
+   *
+   * @param analysis The analysis of the story.
+   * @return A description of the analysis.
+   */
+  private String describeAnalysis(StoryAnalysis analysis) {
+    StringBuilder description = new StringBuilder()
+        .append("Reachable passages: ").append(analysis.getReachablePassages().size())
+        .append("\nUnreachable passages: ").append(analysis.getUnreachablePassages().size())
+        .append("\nDead ends: ").append(analysis.getDeadEnds().size())
+        .append("\nLoops: ").append(analysis.getLoops().size());
+
+    if (!analysis.getUnreachablePassages().isEmpty()) {
+      description.append("\n\nUnreachable: ").append(analysis.getUnreachablePassages().stream()
+          .map(Passage::getTitle)
+          .limit(10)
+          .collect(Collectors.joining(", ")));
+    }
+    if (!analysis.getDeadEnds().isEmpty()) {
+      description.append("\n\nDead ends: ").append(analysis.getDeadEnds().stream()
+          .map(Passage::getTitle)
+          .limit(10)
+          .collect(Collectors.joining(", ")));
+    }
+    return description.toString();
+  }
+
   /**
    * Method for validating that a file exists.
    *
@@ -166,7 +405,7 @@ public class UserStoriesController extends DialogController implements SwitchSce
    */
   public Story readStoryFromFile(String filePath) {
     try {
-      return StoryFileHandling.readStoryFromFile(filePath);
+      return StoryCache.getSharedCache().getStory(filePath);
     } catch (Exception e) {
       displayErrorBox("Could not read the story that is used to display the dialog from file",
           e.getMessage());
@@ -174,6 +413,24 @@ public class UserStoriesController extends DialogController implements SwitchSce
     return null;
   }
 
+  /**
+   * Creates a task that reads a story from a specified file path in the parameter on a background
+   * thread. Used to display the dialog box of the story's broken links without freezing the window
+   * while a large story is read. An error box is displayed if the story cannot be read. The task is
+   * not started, so the handlers can be set before it is started with {@link LoadTask#start()}.
+   *
+   * @param filePath The absolute path of the file.
+   * @return The task that reads the story.
+   */
+  public LoadTask<Story> loadStory(String filePath) {
+    LoadTask<Story> task = new LoadTask<>(
+        progress -> StoryCache.getSharedCache().getStory(filePath, progress));
+    task.setOnFailed(event -> displayErrorBox(
+        "Could not read the story that is used to display the dialog from file",
+        task.getException().getMessage()));
+    return task;
+  }
+
   /**
    * Switches from one scene to another.
    *
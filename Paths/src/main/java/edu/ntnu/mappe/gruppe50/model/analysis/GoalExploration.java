@@ -0,0 +1,135 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class that represents the result of exploring a story with a {@link GoalExplorer}. For every
+ * goal that can be achieved, the result holds a witness path, which is a list of links that leads
+ * from the opening passage to a state where the goal is fulfilled. If the exploration stopped
+ * because it reached the maximum number of states, the result is not complete, and a goal that was
+ * not achieved might still be achievable.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class GoalExploration {
+
+  private final List<Goal> goals;
+  private final List<List<Link>> witnessPaths;
+  private final int exploredStates;
+  private final boolean complete;
+
+  /**
+   * Creates the result of an exploration. Use {@link GoalExplorer} to create instances of this
+   * class.
+   *
+   * @param goals          The goals that were checked.
+   * @param witnessPaths   The witness path of each goal, or null if the goal was not achieved.
+   * @param exploredStates The number of states that were explored.
+   * @param complete       If every reachable state was explored.
+   */
+  GoalExploration(List<Goal> goals, List<List<Link>> witnessPaths, int exploredStates,
+      boolean complete) {
+    this.goals = List.copyOf(goals);
+    this.witnessPaths = new ArrayList<>(witnessPaths);
+    this.exploredStates = exploredStates;
+    this.complete = complete;
+  }
+
+  /**
+   * Checks if a goal can be achieved.
+   *
+   * @param goal The goal.
+   * @return True, if a state where the goal is fulfilled was found.
+   * @throws IllegalArgumentException If the goal was not part of the exploration.
+   */
+  public boolean isAchievable(Goal goal) throws IllegalArgumentException {
+    return witnessPaths.get(indexOf(goal)) != null;
+  }
+
+  /**
+   * Gets the links that lead from the opening passage to a state where the goal is fulfilled. The
+   * path is empty if the goal is fulfilled at the start of the game. The path is not necessarily
+   * the shortest one.
+   *
+   * @param goal The goal.
+   * @return A read-only list of the links of the witness path.
+   * @throws IllegalArgumentException If the goal was not part of the exploration, or if it was not
+   *                                  achieved.
+   */
+  public List<Link> getWitnessPath(Goal goal) throws IllegalArgumentException {
+    List<Link> path = witnessPaths.get(indexOf(goal));
+    if (path == null) {
+      throw new IllegalArgumentException("The goal " + goal + " was not achieved.");
+    }
+    return List.copyOf(path);
+  }
+
+  /**
+   * Gets the goals that can be achieved.
+   *
+   * @return A list of the achievable goals.
+   */
+  public List<Goal> getAchievableGoals() {
+    List<Goal> achievable = new ArrayList<>();
+    for (int i = 0; i < goals.size(); i++) {
+      if (witnessPaths.get(i) != null) {
+        achievable.add(goals.get(i));
+      }
+    }
+    return achievable;
+  }
+
+  /**
+   * Gets the goals that were not achieved. If the exploration is complete, these goals can never be
+   * achieved.
+   *
+   * @return A list of the goals that were not achieved.
+   */
+  public List<Goal> getUnachievedGoals() {
+    List<Goal> unachieved = new ArrayList<>();
+    for (int i = 0; i < goals.size(); i++) {
+      if (witnessPaths.get(i) == null) {
+        unachieved.add(goals.get(i));
+      }
+    }
+    return unachieved;
+  }
+
+  /**
+   * Gets the number of states that were explored.
+   *
+   * @return The number of explored states.
+   */
+  public int getExploredStates() {
+    return exploredStates;
+  }
+
+  /**
+   * Checks if every reachable state was explored, or if every goal was achieved. If not, the
+   * exploration stopped at the maximum number of states.
+   *
+   * @return True, if the exploration is complete.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Finds the index of a goal in the list of goals.
+   *
+   * @param goal The goal.
+   * @return The index of the goal.
+   * @throws IllegalArgumentException If the goal was not part of the exploration.
+   */
+  private int indexOf(Goal goal) throws IllegalArgumentException {
+    int index = goals.indexOf(goal);
+    if (index == -1) {
+      throw new IllegalArgumentException("The goal " + goal + " was not part of the exploration.");
+    }
+    return index;
+  }
+}
@@ -0,0 +1,259 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Class that finds out which goals can be achieved in a story. The explorer walks every state that
+ * a game can be in, where a state is the passage the player is at together with the player's
+ * health, score, gold and inventory. Links are only taken if their goals are fulfilled, and their
+ * actions are applied the same way {@link edu.ntnu.mappe.gruppe50.model.data.Game#go(Link)} does.
+ * The game is over when the health of the player reaches zero.
+ *
+ * <p>The states are explored in parallel on a fork-join pool, where each state is a task that is
+ * forked for every new state it leads to, so idle threads can steal work from busy ones. Visited
+ * states are remembered in a concurrent hash set, so no state is explored twice. Since stories with
+ * loops can have an endless number of states, for instance by collecting gold over and over, the
+ * explorer stops after a maximum number of states. The exploration also stops as soon as every
+ * goal has been achieved.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class GoalExplorer {
+
+  /**
+   * The maximum number of states that are explored if no other maximum is given.
+   */
+  public static final int DEFAULT_MAX_STATES = 1_000_000;
+
+  private final ForkJoinPool pool;
+  private final int maxStates;
+
+  /**
+   * Creates an explorer that runs on the common fork-join pool, and explores at most
+   * {@link #DEFAULT_MAX_STATES} states.
+   */
+  public GoalExplorer() {
+    this(ForkJoinPool.commonPool(), DEFAULT_MAX_STATES);
+  }
+
+  /**
+   * Creates an explorer.
+   *
+   * @param pool      The pool that the exploration runs on.
+   * @param maxStates The maximum number of states that are explored.
+   * @throws IllegalArgumentException If the pool is null, or if the maximum number of states is
+   *                                  less than one.
+   */
+  public GoalExplorer(ForkJoinPool pool, int maxStates) throws IllegalArgumentException {
+    if (pool == null) {
+      throw new IllegalArgumentException("The pool of the explorer cannot be null.");
+    }
+    if (maxStates < 1) {
+      throw new IllegalArgumentException("The maximum number of states must be at least one.");
+    }
+    this.pool = pool;
+    this.maxStates = maxStates;
+  }
+
+  /**
+   * Explores a story to find out which goals can be achieved.
+   *
+   * @param story  The story that is explored.
+   * @param player The player at the start of the game.
+   * @param goals  The goals that are checked.
+   * @return The result of the exploration.
+   * @throws IllegalArgumentException If any argument is null, if a goal or action cannot be
+   *                                  explored, or if the story uses more than 64 different items.
+   */
+  public GoalExploration explore(Story story, Player player, List<Goal> goals)
+      throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot explore the story because it is null.");
+    }
+    return explore(story.compile(), player, goals);
+  }
+
+  /**
+   * Explores a compiled story to find out which goals can be achieved.
+   *
+   * @param compiledStory The compiled story that is explored.
+   * @param player        The player at the start of the game.
+   * @param goals         The goals that are checked.
+   * @return The result of the exploration.
+   * @throws IllegalArgumentException If any argument is null, if a goal or action cannot be
+   *                                  explored, or if the story uses more than 64 different items.
+   */
+  public GoalExploration explore(CompiledStory compiledStory, Player player, List<Goal> goals)
+      throws IllegalArgumentException {
+    StateModel model = new StateModel(compiledStory, player, goals);
+    Search search = new Search(model, maxStates);
+
+    Node root = new Node(model.getInitialState(), null, -1);
+    search.visit(root);
+    pool.invoke(new ExpandTask(null, search, root));
+
+    List<List<Link>> witnessPaths = new ArrayList<>(goals.size());
+    for (int goal = 0; goal < goals.size(); goal++) {
+      Node witness = search.witnesses.get(goal);
+      witnessPaths.add(witness == null ? null : witness.getPath(compiledStory));
+    }
+    return new GoalExploration(goals, witnessPaths, search.stateCount.get(),
+        !search.truncated || search.isDone());
+  }
+
+  /**
+   * A visited state, together with the state and the link it was reached from. Nodes are compared
+   * by their state only.
+   */
+  private static final class Node {
+
+    private final StoryState state;
+    private final Node parent;
+    private final int edge;
+
+    Node(StoryState state, Node parent, int edge) {
+      this.state = state;
+      this.parent = parent;
+      this.edge = edge;
+    }
+
+    /**
+     * Gets the links that were taken from the initial state to reach this node.
+     *
+     * @param compiledStory The compiled story the links are taken from.
+     * @return The links in the order they were taken.
+     */
+    List<Link> getPath(CompiledStory compiledStory) {
+      List<Link> path = new ArrayList<>();
+      for (Node node = this; node.parent != null; node = node.parent) {
+        path.add(compiledStory.getLink(node.edge));
+      }
+      Collections.reverse(path);
+      return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || o instanceof Node that && state.equals(that.state);
+    }
+
+    @Override
+    public int hashCode() {
+      return state.hashCode();
+    }
+  }
+
+  /**
+   * The shared state of one exploration.
+   */
+  private static final class Search {
+
+    private final StateModel model;
+    private final int maxStates;
+    private final Set<Node> visited;
+    private final AtomicInteger stateCount;
+    private final AtomicReferenceArray<Node> witnesses;
+    private final AtomicInteger remainingGoals;
+    private volatile boolean truncated;
+
+    Search(StateModel model, int maxStates) {
+      this.model = model;
+      this.maxStates = maxStates;
+      this.visited = ConcurrentHashMap.newKeySet();
+      this.stateCount = new AtomicInteger();
+      this.witnesses = new AtomicReferenceArray<>(model.getGoalCount());
+      this.remainingGoals = new AtomicInteger(model.getGoalCount());
+    }
+
+    /**
+     * Marks a node as visited and records it as the witness of the goals it is the first to
+     * fulfil.
+     *
+     * @param node The node.
+     * @return True, if the node has not been visited before and should be expanded.
+     */
+    boolean visit(Node node) {
+      if (visited.contains(node) || !visited.add(node)) {
+        return false;
+      }
+      //The count is only raised if it is below the cap, so concurrent tasks cannot explore more
+      //states than the cap allows
+      int count;
+      do {
+        count = stateCount.get();
+        if (count >= maxStates) {
+          visited.remove(node);
+          truncated = true;
+          return false;
+        }
+      } while (!stateCount.compareAndSet(count, count + 1));
+      for (int goal = 0; goal < model.getGoalCount(); goal++) {
+        if (witnesses.get(goal) == null && model.isFulfilled(goal, node.state)
+            && witnesses.compareAndSet(goal, null, node)) {
+          remainingGoals.decrementAndGet();
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Checks if every goal has been achieved, in which case there is nothing left to explore.
+     *
+     * @return True, if every goal has been achieved.
+     */
+    boolean isDone() {
+      return remainingGoals.get() == 0;
+    }
+  }
+
+  /**
+   * Task that expands a node, forking a new task for every state that has not been visited yet.
+   */
+  @SuppressWarnings("serial")
+  private static final class ExpandTask extends CountedCompleter<Void> {
+
+    private final Search search;
+    private final Node node;
+
+    ExpandTask(ExpandTask parent, Search search, Node node) {
+      super(parent);
+      this.search = search;
+      this.node = node;
+    }
+
+    @Override
+    public void compute() {
+      StoryState state = node.state;
+      StateModel model = search.model;
+      CompiledStory compiledStory = model.getCompiledStory();
+
+      if (!search.isDone()) {
+        int end = compiledStory.getLinkEnd(state.getPassage());
+        for (int edge = compiledStory.getLinkStart(state.getPassage()); edge < end; edge++) {
+          if (model.canTake(state, edge)) {
+            Node child = new Node(model.take(state, edge), node, edge);
+            if (search.visit(child)) {
+              addToPendingCount(1);
+              new ExpandTask(this, search, child).fork();
+            }
+          }
+        }
+      }
+      tryComplete();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that represents the passages of a compiled story as a directed graph, where every passage
+ * is a node and every link that resolves to a passage is an edge. Broken links are left out. The
+ * edges leaving node {@code i} are stored in {@code targets}, between {@code offsets[i]}
+ * (inclusive) and {@code offsets[i + 1]} (exclusive).
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+final class PassageGraph {
+
+  private final int[] offsets;
+  private final int[] targets;
+
+  /**
+   * Creates a graph from its offset and target arrays.
+   *
+   * @param offsets The index of each node's first edge, followed by the total number of edges.
+   * @param targets The node each edge points to.
+   */
+  private PassageGraph(int[] offsets, int[] targets) {
+    this.offsets = offsets;
+    this.targets = targets;
+  }
+
+  /**
+   * Creates the graph of the links in a compiled story, following the direction of the links.
+   *
+   * @param compiledStory The compiled story.
+   * @return The graph of the story's resolved links.
+   */
+  static PassageGraph of(CompiledStory compiledStory) {
+    int passageCount = compiledStory.getPassageCount();
+    int[] offsets = new int[passageCount + 1];
+    int[] targets = new int[compiledStory.getLinkCount()];
+    int edgeCount = 0;
+
+    for (int id = 0; id < passageCount; id++) {
+      offsets[id] = edgeCount;
+      for (int edge = compiledStory.getLinkStart(id); edge < compiledStory.getLinkEnd(id);
+          edge++) {
+        int target = compiledStory.getLinkTarget(edge);
+        if (target != CompiledStory.NO_PASSAGE) {
+          targets[edgeCount++] = target;
+        }
+      }
+    }
+    offsets[passageCount] = edgeCount;
+    return new PassageGraph(offsets, targets);
+  }
+
+  /**
+   * Creates the graph with every edge of this graph turned the other way.
+   *
+   * @return The reversed graph.
+   */
+  PassageGraph reverse() {
+    int nodeCount = getNodeCount();
+    int[] reverseOffsets = new int[nodeCount + 1];
+    int[] reverseTargets = new int[offsets[nodeCount]];
+
+    for (int edge = 0; edge < offsets[nodeCount]; edge++) {
+      reverseOffsets[targets[edge] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      reverseOffsets[node + 1] += reverseOffsets[node];
+    }
+
+    int[] cursor = new int[nodeCount];
+    for (int node = 0; node < nodeCount; node++) {
+      for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+        int target = targets[edge];
+        reverseTargets[reverseOffsets[target] + cursor[target]++] = node;
+      }
+    }
+    return new PassageGraph(reverseOffsets, reverseTargets);
+  }
+
+  /**
+   * Gets the number of nodes, which is the number of passages.
+   *
+   * @return The number of nodes.
+   */
+  int getNodeCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Gets the index of the first edge leaving a node.
+   *
+   * @param node The node.
+   * @return The index of the node's first edge.
+   */
+  int getEdgeStart(int node) {
+    return offsets[node];
+  }
+
+  /**
+   * Gets the index after the last edge leaving a node.
+   *
+   * @param node The node.
+   * @return The index after the node's last edge.
+   */
+  int getEdgeEnd(int node) {
+    return offsets[node + 1];
+  }
+
+  /**
+   * Gets the node an edge points to.
+   *
+   * @param edge The index of the edge.
+   * @return The node the edge points to.
+   */
+  int getTarget(int edge) {
+    return targets[edge];
+  }
+
+  /**
+   * Finds the strongly connected components of the graph, using an iterative version of Tarjan's
+   * algorithm. A component is only added after every component that its edges point to, so the
+   * components are in reverse topological order.
+   *
+   * @return The nodes of each component.
+   */
+  List<int[]> getComponents() {
+    int nodeCount = getNodeCount();
+    int[] index = new int[nodeCount];
+    int[] lowLink = new int[nodeCount];
+    boolean[] onStack = new boolean[nodeCount];
+    int[] stack = new int[nodeCount];
+    int[] callStack = new int[nodeCount];
+    int[] nextEdge = new int[nodeCount];
+    Arrays.fill(index, -1);
+
+    List<int[]> components = new ArrayList<>();
+    int nextIndex = 0;
+    int stackSize = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+      int depth = 0;
+      callStack[depth++] = root;
+      index[root] = lowLink[root] = nextIndex++;
+      nextEdge[root] = getEdgeStart(root);
+      stack[stackSize++] = root;
+      onStack[root] = true;
+
+      while (depth > 0) {
+        int node = callStack[depth - 1];
+        if (nextEdge[node] < getEdgeEnd(node)) {
+          int target = getTarget(nextEdge[node]++);
+          if (index[target] == -1) {
+            index[target] = lowLink[target] = nextIndex++;
+            nextEdge[target] = getEdgeStart(target);
+            stack[stackSize++] = target;
+            onStack[target] = true;
+            callStack[depth++] = target;
+          } else if (onStack[target]) {
+            lowLink[node] = Math.min(lowLink[node], index[target]);
+          }
+          continue;
+        }
+
+        depth--;
+        if (depth > 0) {
+          int parent = callStack[depth - 1];
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+        }
+        if (lowLink[node] == index[node]) {
+          int start = stackSize;
+          do {
+            onStack[stack[--start]] = false;
+          } while (stack[start] != node);
+          components.add(Arrays.copyOfRange(stack, start, stackSize));
+          stackSize = start;
+        }
+      }
+    }
+    return components;
+  }
+}
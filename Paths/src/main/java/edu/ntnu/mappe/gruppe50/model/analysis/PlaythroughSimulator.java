@@ -0,0 +1,253 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.analysis.SimulationResult.Outcome;
+import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryFileHandling;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class that plays a story many times without a user interface, choosing a random link at every
+ * passage. Each playthrough is a new {@link Game} on a compiled story, where the links are taken
+ * with {@link Game#go(Link)}, so goals and actions behave exactly like they do in the game. Only
+ * links that the player can access and that are not broken are chosen.
+ *
+ * <p>The playthroughs are split between the threads of a fork-join pool. Every task gets its own
+ * {@link SplittableRandom}, split from the random of the task that created it, so a simulation
+ * with the same seed gives the same result no matter how many threads run it.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class PlaythroughSimulator {
+
+  /**
+   * The maximum number of links taken in a playthrough if no other maximum is given.
+   */
+  public static final int DEFAULT_MAX_STEPS = 1_000;
+
+  /**
+   * The number of playthroughs below which a task is not split further.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 512;
+
+  private final ForkJoinPool pool;
+  private final int maxSteps;
+
+  /**
+   * Creates a simulator that runs on the common fork-join pool, and stops each playthrough after
+   * {@link #DEFAULT_MAX_STEPS} links.
+   */
+  public PlaythroughSimulator() {
+    this(ForkJoinPool.commonPool(), DEFAULT_MAX_STEPS);
+  }
+
+  /**
+   * Creates a simulator.
+   *
+   * @param pool     The pool that the playthroughs run on.
+   * @param maxSteps The maximum number of links taken in a playthrough.
+   * @throws IllegalArgumentException If the pool is null, or if the maximum number of steps is
+   *                                  less than one.
+   */
+  public PlaythroughSimulator(ForkJoinPool pool, int maxSteps) throws IllegalArgumentException {
+    if (pool == null) {
+      throw new IllegalArgumentException("The pool of the simulator cannot be null.");
+    }
+    if (maxSteps < 1) {
+      throw new IllegalArgumentException("The maximum number of steps must be at least one.");
+    }
+    this.pool = pool;
+    this.maxSteps = maxSteps;
+  }
+
+  /**
+   * Simulates playthroughs of a compiled story.
+   *
+   * @param compiledStory The compiled story that is played.
+   * @param player        The player at the start of every playthrough. The player is copied, and
+   *                      is not changed by the simulation.
+   * @param playthroughs  The number of playthroughs.
+   * @param seed          The seed of the random choices.
+   * @return The combined result of the playthroughs.
+   * @throws IllegalArgumentException If the compiled story or player is null, or if the number of
+   *                                  playthroughs is negative.
+   */
+  public SimulationResult simulate(CompiledStory compiledStory, Player player, long playthroughs,
+      long seed) throws IllegalArgumentException {
+    if (compiledStory == null) {
+      throw new IllegalArgumentException("Cannot simulate the story because it is null.");
+    }
+    if (player == null) {
+      throw new IllegalArgumentException("Cannot simulate the story because the player is null.");
+    }
+    if (playthroughs < 0) {
+      throw new IllegalArgumentException("The number of playthroughs cannot be negative.");
+    }
+
+    long start = System.nanoTime();
+    SimulationResult result = pool.invoke(new SimulationTask(compiledStory, player, maxSteps,
+        new SplittableRandom(seed), playthroughs));
+    result.setElapsedNanos(System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Plays one playthrough of a compiled story and adds it to a result.
+   *
+   * @param compiledStory The compiled story.
+   * @param startPlayer   The player at the start of the playthrough, which is copied.
+   * @param maxSteps      The maximum number of links taken.
+   * @param random        The random that chooses the links.
+   * @param result        The result the playthrough is added to.
+   */
+  private static void play(CompiledStory compiledStory, Player startPlayer, int maxSteps,
+      SplittableRandom random, SimulationResult result) {
+    Player player = copyOf(startPlayer);
+    Game game = Game.fromCompiledStory(player, compiledStory, new ArrayList<>(),
+        new LinkRegister());
+    Passage passage = compiledStory.getOpeningPassage();
+    Outcome outcome = null;
+    int steps = 0;
+
+    while (outcome == null) {
+      if (player.getHealth() == 0) {
+        outcome = Outcome.DIED;
+        continue;
+      }
+      List<Link> links = game.getAccessibleLinks(passage, player);
+      int choices = 0;
+      for (int i = 0; i < links.size(); i++) {
+        if (!compiledStory.isBroken(links.get(i))) {
+          choices++;
+        }
+      }
+      if (choices == 0) {
+        outcome = passage.hasLinks() ? Outcome.STUCK : Outcome.FINISHED;
+      } else if (steps == maxSteps) {
+        outcome = Outcome.UNFINISHED;
+      } else {
+        try {
+          passage = game.go(choose(compiledStory, links, random.nextInt(choices)));
+          steps++;
+        } catch (IllegalArgumentException | NoMatchingPassageException e) {
+          outcome = Outcome.STUCK;
+        }
+      }
+    }
+
+    result.add(outcome, passage.getTitle(), steps, player.getGold(), player.getScore(),
+        new LinkedHashSet<>(player.getInventory()));
+  }
+
+  /**
+   * Finds the link that is not broken with the given index among the links that are not broken.
+   *
+   * @param compiledStory The compiled story.
+   * @param links         The links.
+   * @param choice        The index of the chosen link among the links that are not broken.
+   * @return The chosen link.
+   */
+  private static Link choose(CompiledStory compiledStory, List<Link> links, int choice) {
+    for (int i = 0; i < links.size(); i++) {
+      Link link = links.get(i);
+      if (!compiledStory.isBroken(link) && choice-- == 0) {
+        return link;
+      }
+    }
+    throw new IllegalStateException("The chosen link does not exist.");
+  }
+
+  /**
+   * Creates a copy of a player, with the same name, stats and inventory.
+   *
+   * @param player The player that is copied.
+   * @return The copy of the player.
+   */
+  private static Player copyOf(Player player) {
+    Player copy = new Player.Builder(player.getName())
+        .score(player.getScore())
+        .gold(player.getGold())
+        .build();
+    copy.setHealth(player.getHealth());
+    player.getInventory().forEach(copy::addToInventory);
+    return copy;
+  }
+
+  /**
+   * Task that plays a number of playthroughs, splitting them in two if there are too many.
+   */
+  @SuppressWarnings("serial")
+  private static final class SimulationTask extends RecursiveTask<SimulationResult> {
+
+    private final CompiledStory compiledStory;
+    private final Player player;
+    private final int maxSteps;
+    private final SplittableRandom random;
+    private final long playthroughs;
+
+    SimulationTask(CompiledStory compiledStory, Player player, int maxSteps,
+        SplittableRandom random, long playthroughs) {
+      this.compiledStory = compiledStory;
+      this.player = player;
+      this.maxSteps = maxSteps;
+      this.random = random;
+      this.playthroughs = playthroughs;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+      if (playthroughs > SEQUENTIAL_THRESHOLD) {
+        long half = playthroughs / 2;
+        SimulationTask left = new SimulationTask(compiledStory, player, maxSteps, random.split(),
+            half);
+        left.fork();
+        SimulationResult result = new SimulationTask(compiledStory, player, maxSteps, random,
+            playthroughs - half).compute();
+        result.combine(left.join());
+        return result;
+      }
+
+      SimulationResult result = new SimulationResult();
+      for (long i = 0; i < playthroughs; i++) {
+        play(compiledStory, player, maxSteps, random, result);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Simulates playthroughs of a story file and prints the result. The arguments are the path of
+   * the .paths file, followed by the number of playthroughs, the starting health and the seed,
+   * which are optional.
+   *
+   * @param args The command line arguments.
+   * @throws Exception If the story cannot be read.
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.out.println(
+          "Usage: PlaythroughSimulator <story.paths> [playthroughs] [health] [seed]");
+      return;
+    }
+    Story story = StoryFileHandling.readStoryFromFile(args[0]);
+    long playthroughs = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+    int health = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+    long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+    Player player = new Player.Builder("Simulator").health(health).build();
+    System.out.println(new PlaythroughSimulator().simulate(story.compile(), player,
+        playthroughs, seed));
+  }
+}
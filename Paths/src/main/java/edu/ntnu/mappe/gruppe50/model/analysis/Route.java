@@ -0,0 +1,124 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import java.util.List;
+
+/**
+ * Class that represents a route found by a {@link RouteSolver}. A route is the list of links taken
+ * from the opening passage, together with the stats and inventory of the player at the end of it.
+ * If no route was found, the route is empty and {@link #isFound()} returns false. A route is only
+ * known to be the best one if the solver explored every state that was not dominated by another,
+ * which {@link #isOptimal()} tells.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class Route {
+
+  private final List<Link> links;
+  private final boolean found;
+  private final int health;
+  private final int score;
+  private final int gold;
+  private final List<String> inventory;
+  private final boolean optimal;
+  private final int exploredStates;
+
+  /**
+   * Creates a route. Use {@link RouteSolver} to create instances of this class.
+   *
+   * @param links          The links of the route, in the order they are taken.
+   * @param found          If a route was found.
+   * @param health         The health at the end of the route.
+   * @param score          The score at the end of the route.
+   * @param gold           The gold at the end of the route.
+   * @param inventory      The distinct items in the inventory at the end of the route.
+   * @param optimal        If every state that was not dominated was explored.
+   * @param exploredStates The number of states that were explored.
+   */
+  Route(List<Link> links, boolean found, int health, int score, int gold,
+      List<String> inventory, boolean optimal, int exploredStates) {
+    this.links = List.copyOf(links);
+    this.found = found;
+    this.health = health;
+    this.score = score;
+    this.gold = gold;
+    this.inventory = List.copyOf(inventory);
+    this.optimal = optimal;
+    this.exploredStates = exploredStates;
+  }
+
+  /**
+   * Gets the links of the route, in the order they are taken from the opening passage.
+   *
+   * @return A read-only list of the links.
+   */
+  public List<Link> getLinks() {
+    return links;
+  }
+
+  /**
+   * Checks if a route was found.
+   *
+   * @return True, if a route was found.
+   */
+  public boolean isFound() {
+    return found;
+  }
+
+  /**
+   * Gets the health of the player at the end of the route.
+   *
+   * @return The health.
+   */
+  public int getHealth() {
+    return health;
+  }
+
+  /**
+   * Gets the score of the player at the end of the route.
+   *
+   * @return The score.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Gets the gold of the player at the end of the route.
+   *
+   * @return The gold.
+   */
+  public int getGold() {
+    return gold;
+  }
+
+  /**
+   * Gets the distinct items in the inventory of the player at the end of the route.
+   *
+   * @return A read-only list of the items.
+   */
+  public List<String> getInventory() {
+    return inventory;
+  }
+
+  /**
+   * Checks if the route is known to be the best one. This is false if the solver stopped at its
+   * maximum number of states, for instance because a loop in the story can raise the stat without
+   * end.
+   *
+   * @return True, if no better route exists.
+   */
+  public boolean isOptimal() {
+    return optimal;
+  }
+
+  /**
+   * Gets the number of states the solver explored to find the route.
+   *
+   * @return The number of explored states.
+   */
+  public int getExploredStates() {
+    return exploredStates;
+  }
+}
@@ -0,0 +1,487 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Class that finds the best route through a story for a given player. The solver can either find
+ * the route that ends with the highest health, score or gold, or the route to a given passage that
+ * keeps as much health as possible. Links are only taken if their goals are fulfilled, and their
+ * actions are applied the same way {@link edu.ntnu.mappe.gruppe50.model.data.Game#go(Link)} does.
+ * A route never ends with the player dead.
+ *
+ * <p>The solver runs a best-first search, always expanding the state that could reach the highest
+ * value of the chosen stat. That value is bounded by the most the stat can grow after each passage,
+ * found once from the strongly connected components of the story, and the search stops as soon as
+ * the best route found is at least as good as every bound that is left. A state is also dropped if
+ * another state at the same passage has at least as much health, score and gold, and every item in
+ * its inventory. Since goals only ask for minimum stats and items, and actions never punish a
+ * player for having more, the dropped state can never lead to a better route than the state that
+ * dominates it. Score, gold and items that no goal asks for, and that are not maximized, are left
+ * out of the comparison. Stories with loops that raise the stat without end have no best route, so
+ * the search stops after a maximum number of states.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class RouteSolver {
+
+  /**
+   * The maximum number of states that are expanded if no other maximum is given.
+   */
+  public static final int DEFAULT_MAX_STATES = 1_000_000;
+
+  /**
+   * The bound of a passage from which a stat can grow without end.
+   */
+  private static final long UNBOUNDED = Long.MAX_VALUE;
+
+  /**
+   * The bound of a passage from which no route can end.
+   */
+  private static final long UNREACHABLE = -1;
+
+  /**
+   * The stats that a route can maximize.
+   */
+  public enum Stat {
+    HEALTH,
+    SCORE,
+    GOLD;
+
+    /**
+     * Gets the value of the stat in a state.
+     *
+     * @param state The state.
+     * @return The value of the stat.
+     */
+    int of(StoryState state) {
+      return switch (this) {
+        case HEALTH -> state.getHealth();
+        case SCORE -> state.getScore();
+        case GOLD -> state.getGold();
+      };
+    }
+  }
+
+  private final int maxStates;
+
+  /**
+   * Creates a solver that expands at most {@link #DEFAULT_MAX_STATES} states.
+   */
+  public RouteSolver() {
+    this(DEFAULT_MAX_STATES);
+  }
+
+  /**
+   * Creates a solver.
+   *
+   * @param maxStates The maximum number of states that are expanded.
+   * @throws IllegalArgumentException If the maximum number of states is less than one.
+   */
+  public RouteSolver(int maxStates) throws IllegalArgumentException {
+    if (maxStates < 1) {
+      throw new IllegalArgumentException("The maximum number of states must be at least one.");
+    }
+    this.maxStates = maxStates;
+  }
+
+  /**
+   * Finds the route through a story that ends with the highest value of a stat.
+   *
+   * @param story  The story.
+   * @param player The player at the start of the game.
+   * @param stat   The stat that is maximized.
+   * @return The best route that was found.
+   * @throws IllegalArgumentException If any argument is null, or if the story cannot be modelled.
+   */
+  public Route maximize(Story story, Player player, Stat stat) throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot find a route because the story is null.");
+    }
+    return maximize(story.compile(), player, stat);
+  }
+
+  /**
+   * Finds the route through a compiled story that ends with the highest value of a stat.
+   *
+   * @param compiledStory The compiled story.
+   * @param player        The player at the start of the game.
+   * @param stat          The stat that is maximized.
+   * @return The best route that was found.
+   * @throws IllegalArgumentException If any argument is null, or if the story cannot be modelled.
+   */
+  public Route maximize(CompiledStory compiledStory, Player player, Stat stat)
+      throws IllegalArgumentException {
+    if (stat == null) {
+      throw new IllegalArgumentException("Cannot find a route because the stat is null.");
+    }
+    return solve(new StateModel(compiledStory, player, List.of()), stat,
+        CompiledStory.NO_PASSAGE);
+  }
+
+  /**
+   * Finds the route through a story to a passage that loses as little health as possible.
+   *
+   * @param story  The story.
+   * @param player The player at the start of the game.
+   * @param target The passage the route ends at.
+   * @return The best route that was found.
+   * @throws IllegalArgumentException If any argument is null, if the passage is not in the story,
+   *                                  or if the story cannot be modelled.
+   */
+  public Route reach(Story story, Player player, Passage target) throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot find a route because the story is null.");
+    }
+    return reach(story.compile(), player, target);
+  }
+
+  /**
+   * Finds the route through a compiled story to a passage that loses as little health as
+   * possible.
+   *
+   * @param compiledStory The compiled story.
+   * @param player        The player at the start of the game.
+   * @param target        The passage the route ends at.
+   * @return The best route that was found.
+   * @throws IllegalArgumentException If any argument is null, if the passage is not in the story,
+   *                                  or if the story cannot be modelled.
+   */
+  public Route reach(CompiledStory compiledStory, Player player, Passage target)
+      throws IllegalArgumentException {
+    if (target == null) {
+      throw new IllegalArgumentException("Cannot find a route because the passage is null.");
+    }
+    StateModel model = new StateModel(compiledStory, player, List.of());
+    int id = compiledStory.getPassageId(target.getTitle());
+    if (id == CompiledStory.NO_PASSAGE || compiledStory.getPassage(id) != target) {
+      throw new IllegalArgumentException("The passage " + target.getTitle()
+          + " is not in the story.");
+    }
+    return solve(model, Stat.HEALTH, id);
+  }
+
+  /**
+   * Runs the best-first search. Labels are expanded in order of the highest value the stat could
+   * reach from them, which is the value of the label plus the bound of its passage, then by their
+   * own value, and then by the fewest links a route through them could have. Once the best route
+   * found so far is at least as good as the bound, no other label can improve it.
+   *
+   * @param model  The state model of the story.
+   * @param stat   The stat that is maximized.
+   * @param target The id of the passage the route must end at, or {@link CompiledStory#NO_PASSAGE}
+   *               if the route can end anywhere.
+   * @return The best route that was found.
+   */
+  private Route solve(StateModel model, Stat stat, int target) {
+    CompiledStory compiledStory = model.getCompiledStory();
+    long[] bounds = findBounds(model, stat, target);
+    int[] distances = findDistances(compiledStory, target);
+    Dominance dominance = Dominance.of(model, stat);
+    Label[] fronts = new Label[compiledStory.getPassageCount()];
+    PriorityQueue<Label> queue = new PriorityQueue<>(
+        Comparator.comparingLong((Label label) -> -label.bound)
+            .thenComparingInt(label -> -stat.of(label.state))
+            .thenComparingInt(label -> label.length));
+
+    StoryState initialState = model.getInitialState();
+    int opening = initialState.getPassage();
+    Label best = null;
+    if (bounds[opening] != UNREACHABLE && !initialState.isDead()) {
+      Label root = new Label(initialState, null, -1, bounds[opening], distances[opening], stat);
+      insert(fronts, root, dominance);
+      queue.add(root);
+      if (opening == target || target == CompiledStory.NO_PASSAGE) {
+        best = root;
+      }
+    }
+
+    int expanded = 0;
+    boolean optimal = true;
+    while (!queue.isEmpty()) {
+      Label label = queue.poll();
+      if (label.dominated) {
+        continue;
+      }
+      if (best != null && !canImprove(label, best, stat)) {
+        if (label.bound < stat.of(best.state)) {
+          break;
+        }
+        continue;
+      }
+      if (expanded == maxStates) {
+        optimal = false;
+        break;
+      }
+      expanded++;
+
+      StoryState state = label.state;
+      int end = compiledStory.getLinkEnd(state.getPassage());
+      for (int edge = compiledStory.getLinkStart(state.getPassage()); edge < end; edge++) {
+        if (!model.canTake(state, edge)) {
+          continue;
+        }
+        StoryState next = model.take(state, edge);
+        long bound = bounds[next.getPassage()];
+        if (next.isDead() || bound == UNREACHABLE) {
+          continue;
+        }
+        Label child = new Label(next, label, edge, bound, distances[next.getPassage()], stat);
+        if (best != null && !canImprove(child, best, stat)
+            || !insert(fronts, child, dominance)) {
+          continue;
+        }
+        queue.add(child);
+        if ((target == CompiledStory.NO_PASSAGE || next.getPassage() == target)
+            && (best == null || isBetter(child, best, stat))) {
+          best = child;
+        }
+      }
+    }
+
+    if (best == null) {
+      return new Route(List.of(), false, 0, 0, 0, List.of(), optimal, expanded);
+    }
+    StoryState state = best.state;
+    return new Route(best.getPath(compiledStory), true, state.getHealth(), state.getScore(),
+        state.getGold(), model.getItems(state), optimal, expanded);
+  }
+
+  /**
+   * Finds, for every passage, the most a stat can grow on the way from the passage to a passage
+   * where the route can end. Goals and decreases are ignored, so the bound is never too low. The
+   * bound is the same for every passage in a strongly connected component, since the passages can
+   * reach each other. If a link inside a component raises the stat, the stat can grow without end.
+   *
+   * @param model  The state model of the story.
+   * @param stat   The stat that is maximized.
+   * @param target The id of the passage the route must end at, or {@link CompiledStory#NO_PASSAGE}
+   *               if the route can end anywhere.
+   * @return The bound of every passage, {@link #UNBOUNDED} if the stat can grow without end, or
+   *         {@link #UNREACHABLE} if the route cannot end after the passage.
+   */
+  private static long[] findBounds(StateModel model, Stat stat, int target) {
+    CompiledStory compiledStory = model.getCompiledStory();
+    List<int[]> components = PassageGraph.of(compiledStory).getComponents();
+    int[] componentOf = new int[compiledStory.getPassageCount()];
+    for (int component = 0; component < components.size(); component++) {
+      for (int id : components.get(component)) {
+        componentOf[id] = component;
+      }
+    }
+
+    long[] componentBounds = new long[components.size()];
+    for (int component = 0; component < components.size(); component++) {
+      long bound = UNREACHABLE;
+      boolean growing = false;
+      for (int id : components.get(component)) {
+        if (target == CompiledStory.NO_PASSAGE || id == target) {
+          bound = Math.max(bound, 0);
+        }
+        for (int edge = compiledStory.getLinkStart(id); edge < compiledStory.getLinkEnd(id);
+            edge++) {
+          if (model.isBlocked(edge)) {
+            continue;
+          }
+          int increase = model.getIncrease(edge, stat);
+          int next = componentOf[compiledStory.getLinkTarget(edge)];
+          if (next == component) {
+            growing |= increase > 0;
+          } else if (componentBounds[next] == UNBOUNDED) {
+            bound = UNBOUNDED;
+          } else if (componentBounds[next] != UNREACHABLE) {
+            bound = Math.max(bound, increase + componentBounds[next]);
+          }
+        }
+      }
+      componentBounds[component] = growing && bound != UNREACHABLE ? UNBOUNDED : bound;
+    }
+
+    long[] bounds = new long[componentOf.length];
+    for (int id = 0; id < bounds.length; id++) {
+      bounds[id] = componentBounds[componentOf[id]];
+    }
+    return bounds;
+  }
+
+  /**
+   * Finds, for every passage, the fewest links from the passage to a passage where the route can
+   * end. Goals and actions are ignored, so the distance is never too high.
+   *
+   * @param compiledStory The compiled story.
+   * @param target        The id of the passage the route must end at, or
+   *                      {@link CompiledStory#NO_PASSAGE} if the route can end anywhere.
+   * @return The distance of every passage, or {@link Integer#MAX_VALUE} if the route cannot end
+   *         after the passage.
+   */
+  private static int[] findDistances(CompiledStory compiledStory, int target) {
+    int[] distances = new int[compiledStory.getPassageCount()];
+    if (target == CompiledStory.NO_PASSAGE) {
+      return distances;
+    }
+    Arrays.fill(distances, Integer.MAX_VALUE);
+    PassageGraph reverse = PassageGraph.of(compiledStory).reverse();
+    int[] queue = new int[distances.length];
+    int head = 0;
+    int tail = 0;
+    distances[target] = 0;
+    queue[tail++] = target;
+    while (head < tail) {
+      int node = queue[head++];
+      for (int edge = reverse.getEdgeStart(node); edge < reverse.getEdgeEnd(node); edge++) {
+        int previous = reverse.getTarget(edge);
+        if (distances[previous] == Integer.MAX_VALUE) {
+          distances[previous] = distances[node] + 1;
+          queue[tail++] = previous;
+        }
+      }
+    }
+    return distances;
+  }
+
+  /**
+   * Checks if a label could lead to a better route than the best one found so far, either with a
+   * higher value of the stat, or with the same value in fewer links.
+   *
+   * @param label The label.
+   * @param best  The label that ends the best route found so far.
+   * @param stat  The stat that is maximized.
+   * @return True, if the label could lead to a better route.
+   */
+  private static boolean canImprove(Label label, Label best, Stat stat) {
+    int bestValue = stat.of(best.state);
+    return label.bound > bestValue || label.bound == bestValue && label.length < best.steps;
+  }
+
+  /**
+   * Checks if a label ends a better route than another, having a higher value of the stat, or the
+   * same value in fewer steps.
+   *
+   * @param label The label.
+   * @param other The other label.
+   * @param stat  The stat that is maximized.
+   * @return True, if the label is better.
+   */
+  private static boolean isBetter(Label label, Label other, Stat stat) {
+    int value = stat.of(label.state);
+    int otherValue = stat.of(other.state);
+    return value > otherValue || value == otherValue && label.steps < other.steps;
+  }
+
+  /**
+   * Adds a label to the front of non-dominated labels at its passage, unless it is dominated by a
+   * label that is already there. Labels that the new label dominates are marked and removed.
+   *
+   * @param fronts    The first label of the front at each passage.
+   * @param label     The label that is added.
+   * @param dominance The parts of the states that are compared.
+   * @return True, if the label was added.
+   */
+  private static boolean insert(Label[] fronts, Label label, Dominance dominance) {
+    int passage = label.state.getPassage();
+    Label previous = null;
+    for (Label other = fronts[passage]; other != null; other = other.next) {
+      if (dominance.dominates(other.state, label.state)) {
+        return false;
+      }
+      if (dominance.dominates(label.state, other.state)) {
+        other.dominated = true;
+        if (previous == null) {
+          fronts[passage] = other.next;
+        } else {
+          previous.next = other.next;
+        }
+      } else {
+        previous = other;
+      }
+    }
+    label.next = fronts[passage];
+    fronts[passage] = label;
+    return true;
+  }
+
+  /**
+   * The parts of a state that can make a route better, which are compared to decide if one state
+   * dominates another. Health is always compared, since the player dies without it. Score and gold
+   * are compared if they are maximized or checked by a goal, and items if they are checked by a
+   * goal. Anything else cannot change which links are taken or the value of the route.
+   *
+   * @param score If the score is compared.
+   * @param gold  If the gold is compared.
+   * @param items The items that are compared, as a bit mask.
+   */
+  private record Dominance(boolean score, boolean gold, long items) {
+
+    static Dominance of(StateModel model, Stat stat) {
+      return new Dominance(stat == Stat.SCORE || model.isChecked(Stat.SCORE),
+          stat == Stat.GOLD || model.isChecked(Stat.GOLD), model.getCheckedItems());
+    }
+
+    /**
+     * Checks if a state dominates another state at the same passage, having at least as much of
+     * everything that is compared.
+     *
+     * @param state The state.
+     * @param other The other state.
+     * @return True, if the state dominates the other.
+     */
+    boolean dominates(StoryState state, StoryState other) {
+      long otherItems = other.getItems() & items;
+      return state.getHealth() >= other.getHealth()
+          && (!score || state.getScore() >= other.getScore())
+          && (!gold || state.getGold() >= other.getGold())
+          && (state.getItems() & otherItems) == otherItems;
+    }
+  }
+
+  /**
+   * A state reached by the search, together with the label and link it was reached from, the
+   * highest value the stat could reach from it, and the fewest links a route through it could
+   * have.
+   */
+  private static final class Label {
+
+    private final StoryState state;
+    private final Label parent;
+    private final int edge;
+    private final int steps;
+    private final long bound;
+    private final int length;
+    private Label next;
+    private boolean dominated;
+
+    Label(StoryState state, Label parent, int edge, long passageBound, int distance, Stat stat) {
+      this.state = state;
+      this.parent = parent;
+      this.edge = edge;
+      this.steps = parent == null ? 0 : parent.steps + 1;
+      this.bound = passageBound == UNBOUNDED ? UNBOUNDED : stat.of(state) + passageBound;
+      this.length = steps + distance;
+    }
+
+    /**
+     * Gets the links that were taken from the initial state to reach this label.
+     *
+     * @param compiledStory The compiled story the links are taken from.
+     * @return The links in the order they were taken.
+     */
+    List<Link> getPath(CompiledStory compiledStory) {
+      List<Link> path = new ArrayList<>(steps);
+      for (Label label = this; label.parent != null; label = label.parent) {
+        path.add(compiledStory.getLink(label.edge));
+      }
+      Collections.reverse(path);
+      return path;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class that represents the combined result of many simulated playthroughs of a story. Every
+ * playthrough ends in one of four ways. The player either reaches a final passage, dies because
+ * the health reaches zero, gets stuck at a passage where none of the links can be taken, or is
+ * still playing when the maximum number of steps is reached. The result counts each outcome, how
+ * often each passage was the last one, the gold and score at the end, and how often each item was
+ * in the inventory at the end.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class SimulationResult {
+
+  private long playthroughs;
+  private long finished;
+  private long deaths;
+  private long stuck;
+  private long unfinished;
+  private long steps;
+  private final Map<String, Long> endPassages;
+  private final Map<String, Long> items;
+  private final LongSummaryStatistics gold;
+  private final LongSummaryStatistics score;
+  private long elapsedNanos;
+
+  /**
+   * Creates an empty result. Use {@link PlaythroughSimulator} to create results.
+   */
+  SimulationResult() {
+    this.endPassages = new HashMap<>();
+    this.items = new HashMap<>();
+    this.gold = new LongSummaryStatistics();
+    this.score = new LongSummaryStatistics();
+  }
+
+  /**
+   * The ways a playthrough can end.
+   */
+  enum Outcome {
+    FINISHED,
+    DIED,
+    STUCK,
+    UNFINISHED
+  }
+
+  /**
+   * Adds the end of one playthrough to the result.
+   *
+   * @param outcome    How the playthrough ended.
+   * @param endPassage The title of the last passage of the playthrough.
+   * @param steps      The number of links that were taken.
+   * @param gold       The gold of the player at the end.
+   * @param score      The score of the player at the end.
+   * @param inventory  The distinct items in the inventory of the player at the end.
+   */
+  void add(Outcome outcome, String endPassage, int steps, int gold, int score,
+      Iterable<String> inventory) {
+    playthroughs++;
+    switch (outcome) {
+      case FINISHED -> finished++;
+      case DIED -> deaths++;
+      case STUCK -> stuck++;
+      default -> unfinished++;
+    }
+    this.steps += steps;
+    endPassages.merge(endPassage, 1L, Long::sum);
+    this.gold.accept(gold);
+    this.score.accept(score);
+    for (String item : inventory) {
+      items.merge(item, 1L, Long::sum);
+    }
+  }
+
+  /**
+   * Adds the playthroughs of another result to this result.
+   *
+   * @param other The other result.
+   */
+  void combine(SimulationResult other) {
+    playthroughs += other.playthroughs;
+    finished += other.finished;
+    deaths += other.deaths;
+    stuck += other.stuck;
+    unfinished += other.unfinished;
+    steps += other.steps;
+    other.endPassages.forEach((title, count) -> endPassages.merge(title, count, Long::sum));
+    other.items.forEach((item, count) -> items.merge(item, count, Long::sum));
+    gold.combine(other.gold);
+    score.combine(other.score);
+  }
+
+  /**
+   * Sets the time the simulation took.
+   *
+   * @param elapsedNanos The time in nanoseconds.
+   */
+  void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Gets the number of simulated playthroughs.
+   *
+   * @return The number of playthroughs.
+   */
+  public long getPlaythroughs() {
+    return playthroughs;
+  }
+
+  /**
+   * Gets the number of playthroughs that reached a final passage.
+   *
+   * @return The number of finished playthroughs.
+   */
+  public long getFinished() {
+    return finished;
+  }
+
+  /**
+   * Gets the number of playthroughs where the health of the player reached zero.
+   *
+   * @return The number of deaths.
+   */
+  public long getDeaths() {
+    return deaths;
+  }
+
+  /**
+   * Gets the number of playthroughs that got stuck at a passage where none of the links could be
+   * taken.
+   *
+   * @return The number of stuck playthroughs.
+   */
+  public long getStuck() {
+    return stuck;
+  }
+
+  /**
+   * Gets the number of playthroughs that were stopped at the maximum number of steps.
+   *
+   * @return The number of unfinished playthroughs.
+   */
+  public long getUnfinished() {
+    return unfinished;
+  }
+
+  /**
+   * Gets the share of playthroughs where the player died.
+   *
+   * @return The death rate, between zero and one.
+   */
+  public double getDeathRate() {
+    return playthroughs == 0 ? 0 : (double) deaths / playthroughs;
+  }
+
+  /**
+   * Gets the average number of links taken in a playthrough.
+   *
+   * @return The average number of steps.
+   */
+  public double getAverageSteps() {
+    return playthroughs == 0 ? 0 : (double) steps / playthroughs;
+  }
+
+  /**
+   * Gets how many playthroughs ended at each passage, sorted by passage title.
+   *
+   * @return A read-only map from passage title to number of playthroughs.
+   */
+  public Map<String, Long> getEndPassages() {
+    return Collections.unmodifiableMap(new TreeMap<>(endPassages));
+  }
+
+  /**
+   * Gets how many playthroughs ended with each item in the inventory, sorted by item.
+   *
+   * @return A read-only map from item to number of playthroughs.
+   */
+  public Map<String, Long> getItems() {
+    return Collections.unmodifiableMap(new TreeMap<>(items));
+  }
+
+  /**
+   * Gets the minimum, maximum and average gold at the end of the playthroughs.
+   *
+   * @return The statistics of the final gold.
+   */
+  public LongSummaryStatistics getGold() {
+    LongSummaryStatistics copy = new LongSummaryStatistics();
+    copy.combine(gold);
+    return copy;
+  }
+
+  /**
+   * Gets the minimum, maximum and average score at the end of the playthroughs.
+   *
+   * @return The statistics of the final score.
+   */
+  public LongSummaryStatistics getScore() {
+    LongSummaryStatistics copy = new LongSummaryStatistics();
+    copy.combine(score);
+    return copy;
+  }
+
+  /**
+   * Gets the time the simulation took.
+   *
+   * @return The time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Gets the number of playthroughs that were simulated per second.
+   *
+   * @return The throughput of the simulation.
+   */
+  public double getPlaythroughsPerSecond() {
+    return elapsedNanos == 0 ? 0 : playthroughs * 1_000_000_000.0 / elapsedNanos;
+  }
+
+  /**
+   * Returns a summary of the result, with one statistic per line.
+   *
+   * @return The summary of the result.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "Playthroughs: %d%nFinished: %d%nDeaths: %d (%.2f%%)%nStuck: %d%nUnfinished: %d%n"
+            + "Average steps: %.2f%nGold: min %d, avg %.2f, max %d%n"
+            + "Score: min %d, avg %.2f, max %d%nPlaythroughs per second: %.0f",
+        playthroughs, finished, deaths, getDeathRate() * 100, stuck, unfinished,
+        getAverageSteps(), gold.getMin(), gold.getAverage(), gold.getMax(),
+        score.getMin(), score.getAverage(), score.getMax(), getPlaythroughsPerSecond());
+  }
+}
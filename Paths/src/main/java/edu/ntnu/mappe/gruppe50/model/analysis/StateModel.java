@@ -0,0 +1,399 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ScoreAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.HealthGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.ScoreGoal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents the goals and actions of a compiled story in a form that can be evaluated
+ * without a {@link Player}. The goals of every link, and the goals that are explored, are turned
+ * into minimum values of health, score and gold, and a bit mask of required items. The actions of
+ * every link are turned into a list of changes that are applied in order, the same way
+ * {@link edu.ntnu.mappe.gruppe50.model.data.Game#go(Link)} executes them on the player. Health,
+ * score and gold never go below zero, and a link with an action whose value is zero can never be
+ * taken, since executing it throws an exception.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+final class StateModel {
+
+  /**
+   * The maximum number of different items, which is the number of bits in the inventory mask.
+   */
+  static final int MAX_ITEMS = Long.SIZE;
+
+  private static final byte HEALTH = 0;
+  private static final byte SCORE = 1;
+  private static final byte GOLD = 2;
+  private static final byte INVENTORY = 3;
+
+  private final CompiledStory compiledStory;
+  private final Map<String, Integer> items;
+  private final Requirement[] linkRequirements;
+  private final boolean[] blockedLinks;
+  private final int[] actionOffsets;
+  private final byte[] actionTypes;
+  private final long[] actionValues;
+  private final Requirement[] goalRequirements;
+  private final Requirement checkedByLinks;
+  private final StoryState initialState;
+
+  /**
+   * Creates the state model of a compiled story.
+   *
+   * @param compiledStory The compiled story.
+   * @param player        The player at the start of the game.
+   * @param goals         The goals that are evaluated against the states of the model.
+   * @throws IllegalArgumentException If any argument is null, if a goal or action is of an unknown
+   *                                  type, or if the story uses more than {@link #MAX_ITEMS}
+   *                                  different items.
+   */
+  StateModel(CompiledStory compiledStory, Player player, List<Goal> goals)
+      throws IllegalArgumentException {
+    if (compiledStory == null) {
+      throw new IllegalArgumentException("The compiled story cannot be null.");
+    }
+    if (player == null) {
+      throw new IllegalArgumentException("The player cannot be null.");
+    }
+    if (goals == null) {
+      throw new IllegalArgumentException("The list of goals cannot be null.");
+    }
+
+    this.compiledStory = compiledStory;
+    this.items = new LinkedHashMap<>();
+
+    int linkCount = compiledStory.getLinkCount();
+    this.linkRequirements = new Requirement[linkCount];
+    this.blockedLinks = new boolean[linkCount];
+    this.actionOffsets = new int[linkCount + 1];
+    for (int edge = 0; edge < linkCount; edge++) {
+      actionOffsets[edge + 1] = actionOffsets[edge]
+          + compiledStory.getLink(edge).getActions().size();
+    }
+    this.actionTypes = new byte[actionOffsets[linkCount]];
+    this.actionValues = new long[actionOffsets[linkCount]];
+
+    List<Goal> linkGoals = new ArrayList<>();
+    for (int edge = 0; edge < linkCount; edge++) {
+      Link link = compiledStory.getLink(edge);
+      if (link.hasGoals()) {
+        linkRequirements[edge] = compileGoals(link.getGoals());
+        linkGoals.addAll(link.getGoals());
+      }
+      int index = actionOffsets[edge];
+      for (Action action : link.getActions()) {
+        compileAction(action, index++);
+      }
+      blockedLinks[edge] = compiledStory.getLinkTarget(edge) == CompiledStory.NO_PASSAGE
+          || hasZeroAction(edge);
+    }
+
+    this.checkedByLinks = compileGoals(linkGoals);
+
+    this.goalRequirements = new Requirement[goals.size()];
+    for (int i = 0; i < goals.size(); i++) {
+      goalRequirements[i] = compileGoals(List.of(goals.get(i)));
+    }
+
+    long inventory = 0;
+    for (String item : player.getInventory()) {
+      inventory |= itemBit(item);
+    }
+    this.initialState = new StoryState(compiledStory.getOpeningPassageId(), player.getHealth(),
+        player.getScore(), player.getGold(), inventory);
+  }
+
+  /**
+   * Gets the compiled story of the model.
+   *
+   * @return The compiled story.
+   */
+  CompiledStory getCompiledStory() {
+    return compiledStory;
+  }
+
+  /**
+   * Gets the state at the start of the game, where the player is at the opening passage.
+   *
+   * @return The initial state.
+   */
+  StoryState getInitialState() {
+    return initialState;
+  }
+
+  /**
+   * Checks if the link at an index in the compiled story can be taken from a state. A link can be
+   * taken if the player is alive, the link is not broken, the goals of the link are fulfilled, and
+   * none of its actions have the value zero.
+   *
+   * @param state The state the link is taken from.
+   * @param edge  The index of the link in the compiled story.
+   * @return True, if the link can be taken.
+   */
+  boolean canTake(StoryState state, int edge) {
+    if (state.isDead() || blockedLinks[edge]) {
+      return false;
+    }
+    Requirement requirement = linkRequirements[edge];
+    return requirement == null || requirement.isMetBy(state);
+  }
+
+  /**
+   * Takes the link at an index in the compiled story from a state, applying the actions of the
+   * link in order.
+   *
+   * @param state The state the link is taken from.
+   * @param edge  The index of the link in the compiled story.
+   * @return The state after the link has been taken.
+   */
+  StoryState take(StoryState state, int edge) {
+    int health = state.getHealth();
+    int score = state.getScore();
+    int gold = state.getGold();
+    long inventory = state.getItems();
+
+    for (int i = actionOffsets[edge]; i < actionOffsets[edge + 1]; i++) {
+      long value = actionValues[i];
+      switch (actionTypes[i]) {
+        case HEALTH -> health = apply(health, (int) value);
+        case SCORE -> score = apply(score, (int) value);
+        case GOLD -> gold = apply(gold, (int) value);
+        default -> inventory |= value;
+      }
+    }
+    return new StoryState(compiledStory.getLinkTarget(edge), health, score, gold, inventory);
+  }
+
+  /**
+   * Checks if the link at an index can never be taken, because it is broken or has an action with
+   * the value zero.
+   *
+   * @param edge The index of the link in the compiled story.
+   * @return True, if the link can never be taken.
+   */
+  boolean isBlocked(int edge) {
+    return blockedLinks[edge];
+  }
+
+  /**
+   * Gets how much the actions of a link can raise health, score or gold. Only the actions that
+   * add to the stat are counted, so this is the most the stat can grow by taking the link.
+   *
+   * @param edge The index of the link in the compiled story.
+   * @param stat The stat.
+   * @return The sum of the positive changes to the stat.
+   */
+  int getIncrease(int edge, RouteSolver.Stat stat) {
+    byte type = switch (stat) {
+      case HEALTH -> HEALTH;
+      case SCORE -> SCORE;
+      case GOLD -> GOLD;
+    };
+    int increase = 0;
+    for (int i = actionOffsets[edge]; i < actionOffsets[edge + 1]; i++) {
+      if (actionTypes[i] == type && actionValues[i] > 0) {
+        increase += (int) actionValues[i];
+      }
+    }
+    return increase;
+  }
+
+  /**
+   * Checks if a goal of any link in the story asks for a minimum of a stat. A stat that is never
+   * checked cannot decide which links are taken.
+   *
+   * @param stat The stat.
+   * @return True, if a link has a goal for the stat.
+   */
+  boolean isChecked(RouteSolver.Stat stat) {
+    return switch (stat) {
+      case HEALTH -> checkedByLinks.minimumHealth() > 0;
+      case SCORE -> checkedByLinks.minimumScore() > 0;
+      case GOLD -> checkedByLinks.minimumGold() > 0;
+    };
+  }
+
+  /**
+   * Gets the items that a goal of any link in the story asks for.
+   *
+   * @return The checked items, as a bit mask.
+   */
+  long getCheckedItems() {
+    return checkedByLinks.requiredItems();
+  }
+
+  /**
+   * Gets the number of goals that are evaluated by the model.
+   *
+   * @return The number of goals.
+   */
+  int getGoalCount() {
+    return goalRequirements.length;
+  }
+
+  /**
+   * Checks if a goal is fulfilled in a state.
+   *
+   * @param goal  The index of the goal in the list the model was created with.
+   * @param state The state that is checked.
+   * @return True, if the goal is fulfilled.
+   */
+  boolean isFulfilled(int goal, StoryState state) {
+    return goalRequirements[goal].isMetBy(state);
+  }
+
+  /**
+   * Gets the items that a state has in its inventory, in the order they were first seen.
+   *
+   * @param state The state.
+   * @return The items in the inventory of the state.
+   */
+  List<String> getItems(StoryState state) {
+    return items.entrySet().stream()
+        .filter(entry -> (state.getItems() & (1L << entry.getValue())) != 0)
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  /**
+   * Applies a change in health, score or gold the same way the player does, where the value never
+   * goes below zero.
+   *
+   * @param current The current value.
+   * @param change  The change, which is never zero.
+   * @return The value after the change.
+   */
+  private static int apply(int current, int change) {
+    if (change > 0) {
+      return current + change;
+    }
+    return -change > current ? 0 : current + change;
+  }
+
+  /**
+   * Checks if the link at an index has an action with the value zero, which throws an exception
+   * when it is executed.
+   *
+   * @param edge The index of the link.
+   * @return True, if the link has an action with the value zero.
+   */
+  private boolean hasZeroAction(int edge) {
+    for (int i = actionOffsets[edge]; i < actionOffsets[edge + 1]; i++) {
+      if (actionTypes[i] != INVENTORY && actionValues[i] == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compiles an action into the action arrays.
+   *
+   * @param action The action.
+   * @param index  The index of the action in the action arrays.
+   * @throws IllegalArgumentException If the action is of an unknown type.
+   */
+  private void compileAction(Action action, int index) throws IllegalArgumentException {
+    if (action instanceof HealthAction healthAction) {
+      actionTypes[index] = HEALTH;
+      actionValues[index] = healthAction.getValue();
+    } else if (action instanceof ScoreAction scoreAction) {
+      actionTypes[index] = SCORE;
+      actionValues[index] = scoreAction.getValue();
+    } else if (action instanceof GoldAction goldAction) {
+      actionTypes[index] = GOLD;
+      actionValues[index] = goldAction.getValue();
+    } else if (action instanceof InventoryAction inventoryAction) {
+      actionTypes[index] = INVENTORY;
+      actionValues[index] = itemBit(inventoryAction.getValue());
+    } else {
+      throw new IllegalArgumentException("Cannot model the action " + action);
+    }
+  }
+
+  /**
+   * Compiles a list of goals into one requirement that is met if every goal is fulfilled.
+   *
+   * @param goals The goals.
+   * @return The requirement of the goals.
+   * @throws IllegalArgumentException If a goal is of an unknown type.
+   */
+  private Requirement compileGoals(List<Goal> goals) throws IllegalArgumentException {
+    int minimumHealth = 0;
+    int minimumScore = 0;
+    int minimumGold = 0;
+    long requiredItems = 0;
+
+    for (Goal goal : goals) {
+      if (goal instanceof HealthGoal healthGoal) {
+        minimumHealth = Math.max(minimumHealth, healthGoal.getValue());
+      } else if (goal instanceof ScoreGoal scoreGoal) {
+        minimumScore = Math.max(minimumScore, scoreGoal.getValue());
+      } else if (goal instanceof GoldGoal goldGoal) {
+        minimumGold = Math.max(minimumGold, goldGoal.getValue());
+      } else if (goal instanceof InventoryGoal inventoryGoal) {
+        for (String item : inventoryGoal.getValue()) {
+          requiredItems |= itemBit(item);
+        }
+      } else {
+        throw new IllegalArgumentException("Cannot model the goal " + goal);
+      }
+    }
+    return new Requirement(minimumHealth, minimumScore, minimumGold, requiredItems);
+  }
+
+  /**
+   * Gets the bit of an item in the inventory mask, giving the item the next free bit if it has not
+   * been seen before.
+   *
+   * @param item The item.
+   * @return The bit of the item.
+   * @throws IllegalArgumentException If there are no free bits left.
+   */
+  private long itemBit(String item) throws IllegalArgumentException {
+    Integer bit = items.get(item);
+    if (bit == null) {
+      if (items.size() == MAX_ITEMS) {
+        throw new IllegalArgumentException(
+            "Cannot model a story with more than " + MAX_ITEMS + " different items.");
+      }
+      bit = items.size();
+      items.put(item, bit);
+    }
+    return 1L << bit;
+  }
+
+  /**
+   * The minimum stats and required items of one or more goals.
+   *
+   * @param minimumHealth The minimum health.
+   * @param minimumScore  The minimum score.
+   * @param minimumGold   The minimum gold.
+   * @param requiredItems The required items, as a bit mask.
+   */
+  private record Requirement(int minimumHealth, int minimumScore, int minimumGold,
+                             long requiredItems) {
+
+    boolean isMetBy(StoryState state) {
+      return state.getHealth() >= minimumHealth && state.getScore() >= minimumScore
+          && state.getGold() >= minimumGold
+          && (state.getItems() & requiredItems) == requiredItems;
+    }
+  }
+}
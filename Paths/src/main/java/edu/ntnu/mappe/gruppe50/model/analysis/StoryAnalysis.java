@@ -0,0 +1,78 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import java.util.List;
+
+/**
+ * Class that represents the result of analysing the structure of a story. The analysis tells which
+ * passages can be reached from the opening passage, which passages are dead ends, and which groups
+ * of passages form loops. A dead end is a passage that has links, but from which no final passage
+ * can be reached, either because its links are broken or because they only lead into a loop. A
+ * loop is a group of passages where every passage can be reached from every other, such as two
+ * passages linking back and forth.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class StoryAnalysis {
+
+  private final List<Passage> reachablePassages;
+  private final List<Passage> unreachablePassages;
+  private final List<Passage> deadEnds;
+  private final List<List<Passage>> loops;
+
+  /**
+   * Creates the result of an analysis. Use {@link StoryAnalyzer} to create instances of this
+   * class.
+   *
+   * @param reachablePassages   The passages that can be reached from the opening passage.
+   * @param unreachablePassages The passages that cannot be reached from the opening passage.
+   * @param deadEnds            The passages from which no final passage can be reached.
+   * @param loops               The groups of passages that form loops.
+   */
+  StoryAnalysis(List<Passage> reachablePassages, List<Passage> unreachablePassages,
+      List<Passage> deadEnds, List<List<Passage>> loops) {
+    this.reachablePassages = List.copyOf(reachablePassages);
+    this.unreachablePassages = List.copyOf(unreachablePassages);
+    this.deadEnds = List.copyOf(deadEnds);
+    this.loops = loops.stream().map(List::copyOf).toList();
+  }
+
+  /**
+   * Gets the passages that can be reached from the opening passage, including the opening passage
+   * itself.
+   *
+   * @return A read-only list of the reachable passages.
+   */
+  public List<Passage> getReachablePassages() {
+    return reachablePassages;
+  }
+
+  /**
+   * Gets the passages that cannot be reached from the opening passage.
+   *
+   * @return A read-only list of the unreachable passages.
+   */
+  public List<Passage> getUnreachablePassages() {
+    return unreachablePassages;
+  }
+
+  /**
+   * Gets the passages that have links, but from which no final passage can be reached.
+   *
+   * @return A read-only list of the dead ends.
+   */
+  public List<Passage> getDeadEnds() {
+    return deadEnds;
+  }
+
+  /**
+   * Gets the groups of passages that form loops. A single passage is only a loop if it links to
+   * itself.
+   *
+   * @return A read-only list of the loops.
+   */
+  public List<List<Passage>> getLoops() {
+    return loops;
+  }
+}
@@ -0,0 +1,243 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Class that analyses the structure of stories. The analysis runs on a fork-join pool. Reachable
+ * passages are found with a breadth-first search, where each level of the search is split between
+ * the threads of the pool. Dead ends are found the same way, by searching backwards from the final
+ * passages. Loops are found with Tarjan's algorithm for strongly connected components, which runs
+ * as a separate task while the searches are running.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class StoryAnalyzer {
+
+  /**
+   * The number of passages in a level of the search below which the level is not split further.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates an analyzer that runs on the common fork-join pool.
+   */
+  public StoryAnalyzer() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates an analyzer that runs on the given fork-join pool.
+   *
+   * @param pool The pool that the analysis runs on.
+   * @throws IllegalArgumentException If the pool is null.
+   */
+  public StoryAnalyzer(ForkJoinPool pool) throws IllegalArgumentException {
+    if (pool == null) {
+      throw new IllegalArgumentException("The pool of the analyzer cannot be null.");
+    }
+    this.pool = pool;
+  }
+
+  /**
+   * Analyses the structure of a story.
+   *
+   * @param story The story that is analysed.
+   * @return The result of the analysis.
+   * @throws IllegalArgumentException If the story is null.
+   */
+  public StoryAnalysis analyze(Story story) throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot analyze the story because it is null.");
+    }
+    return analyze(story.compile());
+  }
+
+  /**
+   * Analyses the structure of a compiled story.
+   *
+   * @param compiledStory The compiled story that is analysed.
+   * @return The result of the analysis.
+   * @throws IllegalArgumentException If the compiled story is null.
+   */
+  public StoryAnalysis analyze(CompiledStory compiledStory) throws IllegalArgumentException {
+    if (compiledStory == null) {
+      throw new IllegalArgumentException("Cannot analyze the story because it is null.");
+    }
+
+    PassageGraph graph = PassageGraph.of(compiledStory);
+    ForkJoinTask<List<int[]>> loopsTask = pool.submit(() -> findLoops(graph));
+
+    boolean[] reachable = search(graph, new int[]{compiledStory.getOpeningPassageId()});
+
+    int[] endPassages = new int[graph.getNodeCount()];
+    int endPassageCount = 0;
+    for (int id = 0; id < compiledStory.getPassageCount(); id++) {
+      if (compiledStory.getLinkStart(id) == compiledStory.getLinkEnd(id)) {
+        endPassages[endPassageCount++] = id;
+      }
+    }
+    boolean[] canFinish = search(graph.reverse(), Arrays.copyOf(endPassages, endPassageCount));
+
+    List<Passage> reachablePassages = new ArrayList<>();
+    List<Passage> unreachablePassages = new ArrayList<>();
+    List<Passage> deadEnds = new ArrayList<>();
+    for (int id = 0; id < compiledStory.getPassageCount(); id++) {
+      Passage passage = compiledStory.getPassage(id);
+      if (reachable[id]) {
+        reachablePassages.add(passage);
+      } else {
+        unreachablePassages.add(passage);
+      }
+      if (!canFinish[id]) {
+        deadEnds.add(passage);
+      }
+    }
+
+    List<List<Passage>> loops = new ArrayList<>();
+    for (int[] component : loopsTask.join()) {
+      List<Passage> loop = new ArrayList<>(component.length);
+      for (int id : component) {
+        loop.add(compiledStory.getPassage(id));
+      }
+      loops.add(loop);
+    }
+
+    return new StoryAnalysis(reachablePassages, unreachablePassages, deadEnds, loops);
+  }
+
+  /**
+   * Finds every node that can be reached from the source nodes with a breadth-first search. Each
+   * level of the search is split between the threads of the pool, and a node is claimed by the
+   * first thread that marks it as visited.
+   *
+   * @param graph   The graph that is searched.
+   * @param sources The nodes the search starts from.
+   * @return An array where the entry of each node tells whether the node was reached.
+   */
+  private boolean[] search(PassageGraph graph, int[] sources) {
+    AtomicIntegerArray visited = new AtomicIntegerArray(graph.getNodeCount());
+    for (int source : sources) {
+      visited.set(source, 1);
+    }
+
+    int[] frontier = sources;
+    while (frontier.length > 0) {
+      frontier = pool.invoke(new FrontierTask(graph, visited, frontier, 0, frontier.length));
+    }
+
+    boolean[] reached = new boolean[graph.getNodeCount()];
+    for (int node = 0; node < reached.length; node++) {
+      reached[node] = visited.get(node) == 1;
+    }
+    return reached;
+  }
+
+  /**
+   * Finds the strongly connected components of a graph that form loops. A component forms a loop
+   * if it has more than one node, or if its only node has an edge to itself.
+   *
+   * @param graph The graph that is searched.
+   * @return The nodes of each loop.
+   */
+  private static List<int[]> findLoops(PassageGraph graph) {
+    List<int[]> loops = new ArrayList<>();
+    for (int[] component : graph.getComponents()) {
+      if (component.length > 1 || hasEdge(graph, component[0], component[0])) {
+        loops.add(component);
+      }
+    }
+    return loops;
+  }
+
+  /**
+   * Checks if a graph has an edge from one node to another.
+   *
+   * @param graph  The graph.
+   * @param source The node the edge leaves.
+   * @param target The node the edge points to.
+   * @return True, if the edge exists.
+   */
+  private static boolean hasEdge(PassageGraph graph, int source, int target) {
+    for (int edge = graph.getEdgeStart(source); edge < graph.getEdgeEnd(source); edge++) {
+      if (graph.getTarget(edge) == target) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Task that expands one level of a breadth-first search. The task returns the nodes that were
+   * visited for the first time, which make up the next level of the search.
+   */
+  @SuppressWarnings("serial")
+  private static class FrontierTask extends RecursiveTask<int[]> {
+
+    private final PassageGraph graph;
+    private final AtomicIntegerArray visited;
+    private final int[] frontier;
+    private final int start;
+    private final int end;
+
+    /**
+     * Creates a task that expands the nodes of the frontier between start and end.
+     *
+     * @param graph    The graph that is searched.
+     * @param visited  The nodes that have been visited.
+     * @param frontier The nodes of the current level.
+     * @param start    The first node of the frontier that is expanded, inclusive.
+     * @param end      The last node of the frontier that is expanded, exclusive.
+     */
+    FrontierTask(PassageGraph graph, AtomicIntegerArray visited, int[] frontier, int start,
+        int end) {
+      this.graph = graph;
+      this.visited = visited;
+      this.frontier = frontier;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (end - start > SEQUENTIAL_THRESHOLD) {
+        int middle = (start + end) >>> 1;
+        FrontierTask left = new FrontierTask(graph, visited, frontier, start, middle);
+        left.fork();
+        int[] rightNodes = new FrontierTask(graph, visited, frontier, middle, end).compute();
+        int[] leftNodes = left.join();
+
+        int[] nodes = Arrays.copyOf(leftNodes, leftNodes.length + rightNodes.length);
+        System.arraycopy(rightNodes, 0, nodes, leftNodes.length, rightNodes.length);
+        return nodes;
+      }
+
+      int[] nodes = new int[16];
+      int nodeCount = 0;
+      for (int i = start; i < end; i++) {
+        int node = frontier[i];
+        for (int edge = graph.getEdgeStart(node); edge < graph.getEdgeEnd(node); edge++) {
+          int target = graph.getTarget(edge);
+          if (visited.get(target) == 0 && visited.compareAndSet(target, 0, 1)) {
+            if (nodeCount == nodes.length) {
+              nodes = Arrays.copyOf(nodes, nodeCount * 2);
+            }
+            nodes[nodeCount++] = target;
+          }
+        }
+      }
+      return Arrays.copyOf(nodes, nodeCount);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+/**
+ * Class that represents the state of a game at one point in a story, being the passage the player
+ * is at and the stats of the player. The inventory is stored as a bit mask, where each bit is an
+ * item in the item table of a {@link StateModel}. States are immutable and are compared by value,
+ * so they can be used as keys when remembering which states have been visited.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+final class StoryState {
+
+  private final int passage;
+  private final int health;
+  private final int score;
+  private final int gold;
+  private final long items;
+
+  /**
+   * Creates a state.
+   *
+   * @param passage The id of the passage in the compiled story.
+   * @param health  The health of the player.
+   * @param score   The score of the player.
+   * @param gold    The gold of the player.
+   * @param items   The items in the inventory of the player, as a bit mask.
+   */
+  StoryState(int passage, int health, int score, int gold, long items) {
+    this.passage = passage;
+    this.health = health;
+    this.score = score;
+    this.gold = gold;
+    this.items = items;
+  }
+
+  int getPassage() {
+    return passage;
+  }
+
+  int getHealth() {
+    return health;
+  }
+
+  int getScore() {
+    return score;
+  }
+
+  int getGold() {
+    return gold;
+  }
+
+  long getItems() {
+    return items;
+  }
+
+  /**
+   * Checks if the player has died, meaning that the health has reached zero.
+   *
+   * @return True, if the health is zero.
+   */
+  boolean isDead() {
+    return health == 0;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof StoryState that)) {
+      return false;
+    }
+    return passage == that.passage && health == that.health && score == that.score
+        && gold == that.gold && items == that.items;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = passage;
+    result = 31 * result + health;
+    result = 31 * result + score;
+    result = 31 * result + gold;
+    result = 31 * result + Long.hashCode(items);
+    return result;
+  }
+}
@@ -0,0 +1,273 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents a compiled story. A compiled story is an immutable, index-based snapshot of
+ * a {@link Story}. Each passage is given an integer id, in the order the passages were added to the
+ * story, meaning that the opening passage always has the id zero. The outgoing links of all
+ * passages are stored in one flat array, where the links of a passage with id {@code i} lie between
+ * {@code getLinkStart(i)} (inclusive) and {@code getLinkEnd(i)} (exclusive). The id of the passage
+ * each link references is stored in a parallel array, so moving from one passage to another does
+ * not require building lookup keys or copying collections.
+ *
+ * <p>The compiled story does not observe the story it was compiled from. Passages or links that
+ * are added to or removed from the story afterwards are not reflected, and the story must be
+ * compiled again.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class CompiledStory {
+
+  /**
+   * The id that is returned for titles and references that do not match any passage.
+   */
+  public static final int NO_PASSAGE = -1;
+
+  private final Story story;
+  private final Passage[] passages;
+  private final Map<String, Integer> passageIds;
+  private final int[] linkOffsets;
+  private final Link[] links;
+  private final int[] linkTargets;
+  private final boolean[] gatedPassages;
+  private final List<List<Link>> passageLinks;
+  private final List<Passage> endPassages;
+
+  /**
+   * Compiles a story. Use {@link Story#compile()} to create instances of this class.
+   *
+   * @param story The story that is compiled.
+   * @throws IllegalArgumentException If the story is null.
+   */
+  CompiledStory(Story story) throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot compile a story that is null.");
+    }
+
+    this.story = story;
+    this.passages = story.getPassages().toArray(new Passage[0]);
+    this.passageIds = new HashMap<>(passages.length * 2);
+    for (int id = 0; id < passages.length; id++) {
+      passageIds.put(passages[id].getTitle(), id);
+    }
+
+    this.linkOffsets = new int[passages.length + 1];
+    for (int id = 0; id < passages.length; id++) {
+      linkOffsets[id + 1] = linkOffsets[id] + passages[id].getLinks().size();
+    }
+
+    this.links = new Link[linkOffsets[passages.length]];
+    this.linkTargets = new int[links.length];
+    this.gatedPassages = new boolean[passages.length];
+    List<Link> allLinks = Arrays.asList(links);
+    List<List<Link>> linksPerPassage = new ArrayList<>(passages.length);
+    List<Passage> ends = new ArrayList<>();
+
+    for (int id = 0; id < passages.length; id++) {
+      int edge = linkOffsets[id];
+      for (Link link : passages[id].getLinks()) {
+        links[edge] = link;
+        linkTargets[edge] = getPassageId(link.getReference());
+        gatedPassages[id] |= link.hasGoals();
+        edge++;
+      }
+      linksPerPassage.add(Collections.unmodifiableList(
+          allLinks.subList(linkOffsets[id], linkOffsets[id + 1])));
+      if (linkOffsets[id] == linkOffsets[id + 1]) {
+        ends.add(passages[id]);
+      }
+    }
+
+    this.passageLinks = Collections.unmodifiableList(linksPerPassage);
+    this.endPassages = Collections.unmodifiableList(ends);
+  }
+
+  /**
+   * Gets the story that was compiled.
+   *
+   * @return The story that this is a snapshot of.
+   */
+  public Story getStory() {
+    return story;
+  }
+
+  /**
+   * Gets the title of the compiled story.
+   *
+   * @return The story title.
+   */
+  public String getTitle() {
+    return story.getTitle();
+  }
+
+  /**
+   * Gets the number of passages in the compiled story. Passage ids range from zero to this number,
+   * exclusive.
+   *
+   * @return The number of passages.
+   */
+  public int getPassageCount() {
+    return passages.length;
+  }
+
+  /**
+   * Gets the total number of links in the compiled story, across all passages.
+   *
+   * @return The number of links.
+   */
+  public int getLinkCount() {
+    return links.length;
+  }
+
+  /**
+   * Gets the id of the opening passage, which is always zero.
+   *
+   * @return The id of the opening passage.
+   */
+  public int getOpeningPassageId() {
+    return 0;
+  }
+
+  /**
+   * Gets the opening passage of the compiled story.
+   *
+   * @return The opening passage.
+   */
+  public Passage getOpeningPassage() {
+    return passages[0];
+  }
+
+  /**
+   * Gets the id of the passage with the given title.
+   *
+   * @param title The title of the passage, or the reference of a link.
+   * @return The id of the passage, or {@link #NO_PASSAGE} if no passage has the title.
+   */
+  public int getPassageId(String title) {
+    Integer id = passageIds.get(title);
+    return id == null ? NO_PASSAGE : id;
+  }
+
+  /**
+   * Gets the passage with the given id.
+   *
+   * @param id The id of the passage.
+   * @return The passage with the given id.
+   * @throws IllegalArgumentException If there is no passage with the id.
+   */
+  public Passage getPassage(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= passages.length) {
+      throw new IllegalArgumentException("There is no passage with the id " + id);
+    }
+    return passages[id];
+  }
+
+  /**
+   * Gets the passage that is referenced by the input link.
+   *
+   * @param link The link that references the passage.
+   * @return The passage that the link references.
+   * @throws IllegalArgumentException If the link is null, or if it references a passage that does
+   *                                  not exist.
+   */
+  public Passage getPassage(Link link) throws IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException("Cannot get the passage because the link is null.");
+    }
+    int id = getPassageId(link.getReference());
+    if (id == NO_PASSAGE) {
+      throw new IllegalArgumentException("This link links to a passage that does not exist");
+    }
+    return passages[id];
+  }
+
+  /**
+   * Checks if a link is broken, meaning that it references a passage that does not exist in the
+   * compiled story.
+   *
+   * @param link The link that is checked.
+   * @return True, if the link is broken.
+   */
+  public boolean isBroken(Link link) {
+    return getPassageId(link.getReference()) == NO_PASSAGE;
+  }
+
+  /**
+   * Gets the index of the first link of a passage in the flat link array.
+   *
+   * @param id The id of the passage.
+   * @return The index of the passage's first link.
+   */
+  public int getLinkStart(int id) {
+    return linkOffsets[id];
+  }
+
+  /**
+   * Gets the index after the last link of a passage in the flat link array.
+   *
+   * @param id The id of the passage.
+   * @return The index after the passage's last link.
+   */
+  public int getLinkEnd(int id) {
+    return linkOffsets[id + 1];
+  }
+
+  /**
+   * Gets the link at an index in the flat link array.
+   *
+   * @param edge The index of the link.
+   * @return The link at the index.
+   */
+  public Link getLink(int edge) {
+    return links[edge];
+  }
+
+  /**
+   * Gets the id of the passage referenced by the link at an index in the flat link array.
+   *
+   * @param edge The index of the link.
+   * @return The id of the referenced passage, or {@link #NO_PASSAGE} if the link is broken.
+   */
+  public int getLinkTarget(int edge) {
+    return linkTargets[edge];
+  }
+
+  /**
+   * Gets the links of a passage as a read-only list. The list is created when the story is
+   * compiled, so calling this method does not allocate.
+   *
+   * @param id The id of the passage.
+   * @return A read-only list of the passage's links.
+   */
+  public List<Link> getLinks(int id) {
+    return passageLinks.get(id);
+  }
+
+  /**
+   * Checks if any link of a passage has goals, meaning that the player might not be able to choose
+   * every link of the passage.
+   *
+   * @param id The id of the passage.
+   * @return True, if at least one link of the passage has goals.
+   */
+  public boolean hasGatedLinks(int id) {
+    return gatedPassages[id];
+  }
+
+  /**
+   * Gets all the final passages of the compiled story. A final passage is a passage with no links.
+   * The list is created when the story is compiled.
+   *
+   * @return A read-only list of passages with no links.
+   */
+  public List<Passage> getEndPassages() {
+    return endPassages;
+  }
+}
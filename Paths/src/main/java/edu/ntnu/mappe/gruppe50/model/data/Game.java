@@ -4,6 +4,7 @@ import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException
 import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -18,8 +19,11 @@ import java.util.stream.Collectors;
 public class Game extends AbstractGame {
 
   private final Player player;
-  private final Story story;
+  private Story story;
+  private CompiledStory compiledStory;
   private final LinkRegister visitedLinks;
+  private Consumer<Link> linkVisitedListener;
+  private Step history;
 
   /**
    * Creates an instance of a game object.
@@ -32,6 +36,41 @@ public class Game extends AbstractGame {
    */
   public Game(Player player, Story story, List<Goal> goals, LinkRegister visitedLinks)
       throws IllegalArgumentException {
+    this(player, story, null, goals, visitedLinks);
+  }
+
+  /**
+   * Creates an instance of a game object that is played on a compiled story. Moving between
+   * passages and finding accessible links then uses the compiled story's passage ids instead of
+   * looking up and copying the passages of the story.
+   *
+   * @param player        The player character that will be used to play the story.
+   * @param compiledStory The compiled story that will be played.
+   * @param goals         A list of goals for the game.
+   * @param visitedLinks  The list of links that have been visited in the game.
+   * @return A game that is played on the compiled story.
+   * @throws IllegalArgumentException If player, compiledStory, goals or visitedLinks is null.
+   */
+  public static Game fromCompiledStory(Player player, CompiledStory compiledStory,
+      List<Goal> goals, LinkRegister visitedLinks) throws IllegalArgumentException {
+    if (compiledStory == null) {
+      throw new IllegalArgumentException("Story cannot be null");
+    }
+    return new Game(player, compiledStory.getStory(), compiledStory, goals, visitedLinks);
+  }
+
+  /**
+   * Creates an instance of a game object with an optional compiled story.
+   *
+   * @param player        The player character that will be used to play the story.
+   * @param story         The story that will be played.
+   * @param compiledStory The compiled form of the story, or null.
+   * @param goals         A list of goals for the game.
+   * @param visitedLinks  The list of links that have been visited in the game.
+   * @throws IllegalArgumentException If player, story, goals or visitedLinks is null.
+   */
+  private Game(Player player, Story story, CompiledStory compiledStory, List<Goal> goals,
+      LinkRegister visitedLinks) throws IllegalArgumentException {
     super(goals);
     if (player == null) {
       throw new IllegalArgumentException("Player cannot be null");
@@ -45,6 +84,7 @@ public class Game extends AbstractGame {
 
     this.player = player;
     this.story = story;
+    this.compiledStory = compiledStory;
     this.visitedLinks = visitedLinks;
   }
 
@@ -66,6 +106,15 @@ public class Game extends AbstractGame {
     return story;
   }
 
+  /**
+   * Gets the compiled story that the game is played on.
+   *
+   * @return The compiled story, or null if the game is played directly on a story.
+   */
+  public CompiledStory getCompiledStory() {
+    return compiledStory;
+  }
+
   /**
    * Returns a deep copied arraylist containing the custom goals that have been added to the game.
    *
@@ -85,6 +134,49 @@ public class Game extends AbstractGame {
     return visitedLinks;
   }
 
+  /**
+   * Sets the listener that is told about every link that is visited with {@link #go(Link)}, after
+   * it has been added to the visited links. Used to save each visited link as it is visited,
+   * instead of saving every visited link at once.
+   *
+   * @param linkVisitedListener The listener, or null to remove the listener.
+   */
+  public void setLinkVisitedListener(Consumer<Link> linkVisitedListener) {
+    this.linkVisitedListener = linkVisitedListener;
+  }
+
+  /**
+   * Replaces the story of the game with a story that has been reloaded from its file, which may be
+   * the same story after some of its passages were replaced. A game that is played on a compiled
+   * story compiles the reloaded story. The player, the goals and the visited links are kept, so
+   * the game continues from the passage that has the same title as the current passage.
+   *
+   * @param story          The reloaded story.
+   * @param currentPassage The passage that the player is currently on.
+   * @return The passage of the reloaded story with the same title as the current passage, or the
+   *     current passage itself if the reloaded story has no passage with that title.
+   * @throws IllegalArgumentException If the story or the current passage is null.
+   */
+  public Passage reloadStory(Story story, Passage currentPassage)
+      throws IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Story cannot be null");
+    }
+    if (currentPassage == null) {
+      throw new IllegalArgumentException("The current passage cannot be null");
+    }
+    this.story = story;
+    if (compiledStory != null) {
+      this.compiledStory = story.compile();
+    }
+
+    Link currentLink = new Link(currentPassage.getTitle(), currentPassage.getTitle());
+    if (story.isBroken(currentLink)) {
+      return currentPassage;
+    }
+    return story.getPassage(currentLink);
+  }
+
   /**
    * Gets the opening passage for the story in the game.
    *
@@ -110,30 +202,54 @@ public class Game extends AbstractGame {
     if (link == null) {
       throw new IllegalArgumentException("Cannot go the next passage because the link is null");
     }
-    if (story.getBrokenLinks().contains(link)) {
+    if (isBroken(link)) {
       throw new NoMatchingPassageException("The referenced passage does not exist");
     }
-    if (link.getGoals().stream().anyMatch(goal -> !goal.isFulfilled(player))) {
+    if (!link.isAccessible(player)) {
       throw new IllegalArgumentException(
           "All the goals in the link must be fulfilled to access the passage");
     }
 
+    if (history == null) {
+      history = new Step(null, player.getState(), 0);
+    }
     update(player);
-    link.getActions().forEach(action -> action.execute(player));
+    link.executeActions(player);
     visitedLinks.addLink(link);
+    history = history.next(player.getState());
+    if (linkVisitedListener != null) {
+      linkVisitedListener.accept(link);
+    }
 
+    if (compiledStory != null) {
+      return compiledStory.getPassage(link);
+    }
     return story.getPassage(link);
   }
 
+  /**
+   * Checks if a link is broken, using the compiled story if the game has one.
+   *
+   * @param link The link that is checked.
+   * @return True, if the link references a passage that does not exist.
+   */
+  private boolean isBroken(Link link) {
+    if (compiledStory != null) {
+      return compiledStory.isBroken(link);
+    }
+    return story.isBroken(link);
+  }
+
   /**
    * Gets the passage where the game was last saved. This would be the passage referenced by the
    * last link visited in the game. To keep player stats consistent, each link in the list of
    * visited links is looped through and executed.
    *
    * @return The passage where the game was saved. If no links have been visited, the opening
-   *     passage is returned.
+   *     passage is returned. The game cannot be rewound to before the saved passage.
    */
   public Passage getSavedPassage() {
+    history = null;
     if (visitedLinks.isEmpty()) {
       return story.getOpeningPassage();
     }
@@ -148,18 +264,145 @@ public class Game extends AbstractGame {
     return story.getPassage(recentLink);
   }
 
+  /**
+   * Takes a snapshot of the game at its current checkpoint, being the passage referenced by the
+   * last visited link, or the opening passage if no links have been visited.
+   *
+   * @return A snapshot of the player and the passage the game would be resumed on.
+   */
+  public GameSnapshot checkpoint() {
+    return GameSnapshot.of(player, getCheckpointTitle(), visitedLinks.size(),
+        GameSnapshot.identify(story.getTitle(), visitedLinks, visitedLinks.size()));
+  }
+
+  /**
+   * Gets the title of the passage referenced by the last visited link, or of the opening passage
+   * if no links have been visited.
+   *
+   * @return The title of the passage.
+   */
+  private String getCheckpointTitle() {
+    return visitedLinks.isEmpty() ? story.getOpeningPassage().getTitle()
+        : visitedLinks.getLink(visitedLinks.size() - 1).getReference();
+  }
+
+  /**
+   * Gets the number of links that the game can be rewound by, being the links visited since the
+   * game was started or resumed.
+   *
+   * @return The number of steps the game can be rewound.
+   */
+  public int getRewindableSteps() {
+    return history == null ? 0 : history.depth;
+  }
+
+  /**
+   * Rewinds the game by a number of visited links, as if they had not been visited. The player is
+   * restored to the state it had before the first of them was visited, and the links are removed
+   * from the visited links.
+   *
+   * <p>Every visited link keeps the state of the player after it was visited, in a history where
+   * each step only points to the step before it. A state is only kept when it differs from the
+   * previous state, and states share the items of their inventories, so the history only grows
+   * with what changed. Rewinding walks back one step for each link, and does not execute any
+   * actions. Links visited after rewinding start a new branch of the history, which shares the
+   * steps before it with the old branch.
+   *
+   * @param steps The number of visited links to rewind.
+   * @return The passage referenced by the last visited link after rewinding, or the opening
+   *     passage if no links remain or the passage is no longer in the story.
+   * @throws IllegalArgumentException If the number of steps is negative or greater than
+   *                                  {@link #getRewindableSteps()}.
+   */
+  public Passage rewind(int steps) throws IllegalArgumentException {
+    if (steps < 0 || steps > getRewindableSteps()) {
+      throw new IllegalArgumentException("Cannot rewind " + steps + " steps, only "
+          + getRewindableSteps() + " links can be rewound");
+    }
+    if (steps > 0) {
+      Step step = history;
+      for (int i = 0; i < steps; i++) {
+        step = step.previous;
+      }
+      history = step;
+      player.restoreState(step.state);
+      visitedLinks.removeLastLinks(steps);
+    }
+
+    String passageTitle = getCheckpointTitle();
+    Link passageLink = new Link(passageTitle, passageTitle);
+    if (isBroken(passageLink)) {
+      return story.getOpeningPassage();
+    }
+    if (compiledStory != null) {
+      return compiledStory.getPassage(passageLink);
+    }
+    return story.getPassage(passageLink);
+  }
+
+  /**
+   * Gets the passage where the game was last saved, like {@link #getSavedPassage()}, but restores
+   * the player from a snapshot instead of executing the actions of every visited link. Only the
+   * links that were visited after the snapshot was taken are executed, so a game that is saved
+   * together with its snapshot is resumed in constant time.
+   *
+   * <p>If the snapshot does not belong to the visited links of the game, because it was taken of
+   * more links than the game has visited, the link it was taken at does not reference its passage,
+   * or it was taken of another play through, the snapshot is ignored and every visited link is
+   * executed instead.
+   *
+   * @param snapshot The snapshot of the game.
+   * @return The passage where the game was saved. If the passage of the snapshot is no longer in
+   *     the story, the opening passage is returned. The game cannot be rewound to before the
+   *     saved passage.
+   * @throws IllegalArgumentException If the snapshot is null.
+   */
+  public Passage resume(GameSnapshot snapshot) throws IllegalArgumentException {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("The snapshot cannot be null");
+    }
+    history = null;
+    int count = snapshot.getVisitedLinkCount();
+    if (count > visitedLinks.size() || count > 0 && !visitedLinks.getLink(count - 1)
+        .getReference().equals(snapshot.getPassageTitle())
+        || snapshot.getPlayThroughId()
+        != GameSnapshot.identify(story.getTitle(), visitedLinks, count)) {
+      return getSavedPassage();
+    }
+
+    snapshot.restore(player);
+    for (int i = count; i < visitedLinks.size(); i++) {
+      visitedLinks.getLink(i).executeActions(player);
+    }
+    String passageTitle = count == visitedLinks.size() ? snapshot.getPassageTitle()
+        : visitedLinks.getLink(visitedLinks.size() - 1).getReference();
+    Link passageLink = new Link(passageTitle, passageTitle);
+    if (story.isBroken(passageLink)) {
+      return story.getOpeningPassage();
+    }
+    return story.getPassage(passageLink);
+  }
+
   /**
    * Method for finding links that can be accessed with the players current stats and inventory in a
    * given passage. This is done by comparing the player stats with the link's goals and seeing if
-   * they are fulfilled.
+   * they are fulfilled. If the game is played on a compiled story and none of the passage's links
+   * have goals, the compiled story's read-only list of the passage's links is returned as is.
    *
    * @param passage The passage whose links are evaluated.
    * @param player  The player that the links are evaluated against.
    * @return List of links that can be accessed by the player.
    */
   public List<Link> getAccessibleLinks(Passage passage, Player player) {
-    return passage.getLinks().stream().filter(link -> link.getGoals()
-        .stream().allMatch(goal -> goal.isFulfilled(player))).collect(Collectors.toList());
+    if (compiledStory != null) {
+      int id = compiledStory.getPassageId(passage.getTitle());
+      if (id != CompiledStory.NO_PASSAGE && compiledStory.getPassage(id) == passage
+          && !compiledStory.hasGatedLinks(id)) {
+        return compiledStory.getLinks(id);
+      }
+    }
+    return passage.getLinks().stream().filter(link -> link.isAccessible(player))
+        .collect(Collectors.toList());
   }
 
   /**
@@ -171,6 +414,41 @@ public class Game extends AbstractGame {
     return visitedLinks.getLinks().size() == 0;
   }
 
+  /**
+   * A step in the history of a game, being the state of the player after a link was visited. The
+   * first step is the state before any link in the history was visited.
+   */
+  private static final class Step {
+
+    private final Step previous;
+    private final PlayerState state;
+    private final int depth;
+
+    /**
+     * Creates a step of the history.
+     *
+     * @param previous The step before, or null for the first step.
+     * @param state    The state of the player.
+     * @param depth    The number of steps before this step.
+     */
+    private Step(Step previous, PlayerState state, int depth) {
+      this.previous = previous;
+      this.state = state;
+      this.depth = depth;
+    }
+
+    /**
+     * Creates the step after this step. The state of this step is kept instead if the player has
+     * not changed, so moves without actions only cost the step itself.
+     *
+     * @param state The state of the player after the next link was visited.
+     * @return The next step.
+     */
+    private Step next(PlayerState state) {
+      return new Step(this, state.equals(this.state) ? this.state : state, depth + 1);
+    }
+  }
+
   /**
    * Returns a concatenated string of the game's formatted story title and player name.
    *
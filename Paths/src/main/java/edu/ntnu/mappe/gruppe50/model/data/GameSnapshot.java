@@ -0,0 +1,225 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class that represents a snapshot of a game at a checkpoint. The snapshot holds the state of the
+ * player, being its health, score, gold and inventory, the title of the passage the player is on,
+ * and the number of visited links that had been followed when the snapshot was taken. A saved game
+ * is resumed by restoring the snapshot, instead of executing the actions of every visited link
+ * again, so resuming a game does not take longer the longer it has been played.
+ *
+ * <p>The visited links are still saved, so a game can be replayed and checked link by link. The
+ * number of visited links ties the snapshot to the links, so links that were visited after the
+ * snapshot was taken can be replayed on top of it. The snapshot also holds an identifier of the
+ * play through, being a hash of the title of the story and the links that had been visited, so a
+ * snapshot that is left behind by another play through is not restored.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class GameSnapshot {
+
+  private final String passageTitle;
+  private final int health;
+  private final int score;
+  private final int gold;
+  private final List<String> inventory;
+  private final int visitedLinkCount;
+  private final long playThroughId;
+
+  /**
+   * Creates a snapshot of a game.
+   *
+   * @param passageTitle     The title of the passage the player is on.
+   * @param health           The health of the player.
+   * @param score            The score of the player.
+   * @param gold             The gold of the player.
+   * @param inventory        The items in the inventory of the player.
+   * @param visitedLinkCount The number of links that had been visited.
+   * @param playThroughId    The identifier of the play through, as given by
+   *                         {@link #identify(String, LinkRegister, int)}.
+   * @throws IllegalArgumentException If the passage title or inventory is null, the passage title
+   *                                  is blank, an item is null or blank, or the number of visited
+   *                                  links, the health, score or gold are negative.
+   */
+  public GameSnapshot(String passageTitle, int health, int score, int gold, List<String> inventory,
+      int visitedLinkCount, long playThroughId) throws IllegalArgumentException {
+    if (passageTitle == null || passageTitle.isBlank()) {
+      throw new IllegalArgumentException("The passage title cannot be null or blank");
+    }
+    if (health < 0 || score < 0 || gold < 0) {
+      throw new IllegalArgumentException("Health, score and gold cannot be less than zero");
+    }
+    if (inventory == null) {
+      throw new IllegalArgumentException("The inventory cannot be null");
+    }
+    for (String item : inventory) {
+      if (item == null || item.isBlank()) {
+        throw new IllegalArgumentException("An item in the inventory cannot be null or blank");
+      }
+    }
+    if (visitedLinkCount < 0) {
+      throw new IllegalArgumentException("The number of visited links cannot be less than zero");
+    }
+    this.passageTitle = passageTitle;
+    this.health = health;
+    this.score = score;
+    this.gold = gold;
+    this.inventory = List.copyOf(inventory);
+    this.visitedLinkCount = visitedLinkCount;
+    this.playThroughId = playThroughId;
+  }
+
+  /**
+   * Creates a snapshot of the current state of a player.
+   *
+   * @param player           The player.
+   * @param passageTitle     The title of the passage the player is on.
+   * @param visitedLinkCount The number of links that have been visited.
+   * @param playThroughId    The identifier of the play through.
+   * @return The snapshot.
+   * @throws IllegalArgumentException If the player is null, or the snapshot is invalid.
+   */
+  public static GameSnapshot of(Player player, String passageTitle, int visitedLinkCount,
+      long playThroughId) throws IllegalArgumentException {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return new GameSnapshot(passageTitle, player.getHealth(), player.getScore(), player.getGold(),
+        player.getInventory(), visitedLinkCount, playThroughId);
+  }
+
+  /**
+   * Identifies a play through by hashing the title of its story and the text and reference of the
+   * first visited links, so two play throughs only share an identifier if they visited the same
+   * links of the same story.
+   *
+   * @param storyTitle The title of the story.
+   * @param links      The visited links of the play through.
+   * @param count      The number of visited links that are hashed, from the first one.
+   * @return The identifier of the play through.
+   * @throws IllegalArgumentException If the story title or links are null, or the count is
+   *                                  negative or larger than the number of visited links.
+   */
+  public static long identify(String storyTitle, LinkRegister links, int count)
+      throws IllegalArgumentException {
+    if (storyTitle == null || links == null) {
+      throw new IllegalArgumentException("The story title and links cannot be null");
+    }
+    if (count < 0 || count > links.size()) {
+      throw new IllegalArgumentException("The number of hashed links must be between zero and "
+          + links.size());
+    }
+    long hash = storyTitle.hashCode();
+    for (int i = 0; i < count; i++) {
+      Link link = links.getLink(i);
+      hash = 31 * (31 * hash + link.getText().hashCode()) + link.getReference().hashCode();
+    }
+    return hash;
+  }
+
+  /**
+   * Restores the state of a player to the state in the snapshot. The inventory of the player is
+   * replaced by the inventory in the snapshot.
+   *
+   * @param player The player that is restored.
+   * @throws IllegalArgumentException If the player is null.
+   */
+  public void restore(Player player) throws IllegalArgumentException {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    player.restoreState(new PlayerState(health, score, gold, PersistentInventory.of(inventory)));
+  }
+
+  /**
+   * Gets the title of the passage the player is on.
+   *
+   * @return The passage title.
+   */
+  public String getPassageTitle() {
+    return passageTitle;
+  }
+
+  /**
+   * Gets the health of the player.
+   *
+   * @return The health.
+   */
+  public int getHealth() {
+    return health;
+  }
+
+  /**
+   * Gets the score of the player.
+   *
+   * @return The score.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Gets the gold of the player.
+   *
+   * @return The gold.
+   */
+  public int getGold() {
+    return gold;
+  }
+
+  /**
+   * Gets the items in the inventory of the player.
+   *
+   * @return An unmodifiable list of the items.
+   */
+  public List<String> getInventory() {
+    return inventory;
+  }
+
+  /**
+   * Gets the number of links that had been visited when the snapshot was taken.
+   *
+   * @return The number of visited links.
+   */
+  public int getVisitedLinkCount() {
+    return visitedLinkCount;
+  }
+
+  /**
+   * Gets the identifier of the play through the snapshot was taken of.
+   *
+   * @return The identifier of the play through.
+   */
+  public long getPlayThroughId() {
+    return playThroughId;
+  }
+
+  /**
+   * Equals method for snapshots. Equality is achieved if every part of the snapshots are equal.
+   *
+   * @param obj The object that the caller is compared to.
+   * @return True, if the snapshots are equal.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    GameSnapshot other = (GameSnapshot) obj;
+    return health == other.health && score == other.score && gold == other.gold
+        && visitedLinkCount == other.visitedLinkCount && playThroughId == other.playThroughId
+        && passageTitle.equals(other.passageTitle) && inventory.equals(other.inventory);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(passageTitle, health, score, gold, inventory, visitedLinkCount,
+        playThroughId);
+  }
+}
@@ -171,6 +171,51 @@ public class Link {
     return new ArrayList<>(goals);
   }
 
+  /**
+   * Checks if a player fulfills all the goals of the link, and may therefore choose it. Unlike
+   * {@link #getGoals()}, the goals are not copied.
+   *
+   * @param player The player that the goals are evaluated against.
+   * @return True, if every goal of the link is fulfilled by the player. Else, returns false.
+   * @throws IllegalArgumentException If the player is null.
+   */
+  public boolean isAccessible(Player player) throws IllegalArgumentException {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    for (int i = 0; i < goals.size(); i++) {
+      if (!goals.get(i).isFulfilled(player)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the link has any goals that must be fulfilled before the link can be chosen.
+   *
+   * @return True, if the link has one or more goals.
+   */
+  public boolean hasGoals() {
+    return !goals.isEmpty();
+  }
+
+  /**
+   * Executes all the actions of the link on a player, in the order they were added. Unlike
+   * {@link #getActions()}, the actions are not copied.
+   *
+   * @param player The player whose state is changed by the actions.
+   * @throws IllegalArgumentException If the player is null, or if an action cannot be executed.
+   */
+  public void executeActions(Player player) throws IllegalArgumentException {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    for (int i = 0; i < actions.size(); i++) {
+      actions.get(i).execute(player);
+    }
+  }
+
   /**
    * Returns a concatenated string of the attributes of the Link class, being the text, reference,
    * each goal as a string and each action as a string.
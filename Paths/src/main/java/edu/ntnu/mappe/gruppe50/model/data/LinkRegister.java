@@ -30,6 +30,29 @@ public class LinkRegister {
     return new ArrayList<>(links);
   }
 
+  /**
+   * Gets the link at a position in the register, without copying the register.
+   *
+   * @param index The position of the link, where the first visited link is at zero.
+   * @return The link at the position.
+   * @throws IllegalArgumentException If the index is negative or not less than the size.
+   */
+  public Link getLink(int index) throws IllegalArgumentException {
+    if (index < 0 || index >= links.size()) {
+      throw new IllegalArgumentException("There is no link at index " + index);
+    }
+    return links.get(index);
+  }
+
+  /**
+   * Gets the number of links in the register.
+   *
+   * @return The number of links.
+   */
+  public int size() {
+    return links.size();
+  }
+
   /**
    * Adds a link to the register. The same link can be added multiple times, in case the player
    * decides to go back to a passage.
@@ -61,6 +84,20 @@ public class LinkRegister {
     links.remove(link);
   }
 
+  /**
+   * Removes the links that were added last to the register, such as when a game is rewound.
+   *
+   * @param count The number of links that are removed.
+   * @throws IllegalArgumentException If the count is negative or greater than the size.
+   */
+  public void removeLastLinks(int count) throws IllegalArgumentException {
+    if (count < 0 || count > links.size()) {
+      throw new IllegalArgumentException("Cannot remove " + count + " links from a register of "
+          + links.size() + " links");
+    }
+    links.subList(links.size() - count, links.size()).clear();
+  }
+
   /**
    * Method that checks if the register contains a link equal to the parameter link. The result is
    * indicated by the boolean value.
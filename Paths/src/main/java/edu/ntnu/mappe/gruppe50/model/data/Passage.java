@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Class that represents a passage. A passage is a smaller part of a story. If a story is an entire
  * house, then the passage are the rooms, connected by doors. It is possible to move from one
- * passage to another using links, which are the doors between rooms.
+ * passage to another using links, which are the doors between rooms. The content of a passage can
+ * either be given directly, or be loaded from its source the first time it is needed.
  *
  * @author Harry Xu and Lars Mikkel Lødeng Nilsen
  * @since 9.2.2022
@@ -17,7 +19,9 @@ public class Passage {
 
   private final String title;
   private final String content;
+  private final Supplier<String> contentSource;
   private final List<Link> links;
+  private final List<Story> stories;
 
   /**
    * Creates an instance of the Passage class.
@@ -42,7 +46,50 @@ public class Passage {
 
     this.title = title;
     this.content = content;
+    this.contentSource = null;
     this.links = new ArrayList<>();
+    this.stories = new ArrayList<>();
+  }
+
+  /**
+   * Creates a passage from a title and either a content or a content source, without checking
+   * them.
+   *
+   * @param title         Description that dual functions as an identifier.
+   * @param content       The content, or null if it is loaded from the content source.
+   * @param contentSource The source of the content, or null if the content is given.
+   */
+  private Passage(String title, String content, Supplier<String> contentSource) {
+    this.title = title;
+    this.content = content;
+    this.contentSource = contentSource;
+    this.links = new ArrayList<>();
+    this.stories = new ArrayList<>();
+  }
+
+  /**
+   * Creates a passage where the content is loaded when it is needed. The source is asked for the
+   * content every time {@link #getContent()} is called, so it is up to the source to cache it. The
+   * source must never return null or blank content.
+   *
+   * @param title         Description that dual functions as an identifier.
+   * @param contentSource The source of the text that functions as a paragraph or a part of
+   *                      dialogue.
+   * @return The passage.
+   * @throws IllegalArgumentException if title is null or blank, or if the content source is null.
+   */
+  public static Passage withContentSource(String title, Supplier<String> contentSource)
+      throws IllegalArgumentException {
+    if (title == null) {
+      throw new IllegalArgumentException("Title cannot be null.");
+    }
+    if (title.isBlank()) {
+      throw new IllegalArgumentException("Title cannot be blank.");
+    }
+    if (contentSource == null) {
+      throw new IllegalArgumentException("Content source cannot be null.");
+    }
+    return new Passage(title, null, contentSource);
   }
 
   /**
@@ -60,7 +107,7 @@ public class Passage {
    * @return The passage's content as a string
    */
   public String getContent() {
-    return this.content;
+    return this.content != null ? this.content : this.contentSource.get();
   }
 
   /**
@@ -74,7 +121,9 @@ public class Passage {
     if (link == null) {
       throw new IllegalArgumentException("Cannot add a link to a passage if it is null.");
     }
-    return this.links.add(link);
+    this.links.add(link);
+    stories.forEach(story -> story.linkAdded(this, link));
+    return true;
   }
 
   /**
@@ -89,11 +138,14 @@ public class Passage {
     if (link == null) {
       throw new IllegalArgumentException("Cannot add a link to a passage if it is null.");
     }
-    if (!links.contains(link)) {
+    int index = links.indexOf(link);
+    if (index == -1) {
       throw new IllegalArgumentException(
           "The link that is attempted to be removed does not exist in the passage's list of links");
     }
-    return this.links.remove(link);
+    Link removedLink = this.links.remove(index);
+    stories.forEach(story -> story.linkRemoved(this, removedLink));
+    return true;
   }
 
   /**
@@ -114,6 +166,25 @@ public class Passage {
     return !this.links.isEmpty();
   }
 
+  /**
+   * Registers a story that the passage has been added to. The story is notified whenever a link is
+   * added to or removed from the passage, so that it can keep its indexes of links up to date.
+   *
+   * @param story The story that the passage has been added to.
+   */
+  void addStory(Story story) {
+    stories.add(story);
+  }
+
+  /**
+   * Unregisters a story that the passage has been removed from.
+   *
+   * @param story The story that the passage has been removed from.
+   */
+  void removeStory(Story story) {
+    stories.remove(story);
+  }
+
   /**
    * Returns a concatenated, formatted string of the Passage class's attributes, being the title,
    * content and links.
@@ -126,7 +197,7 @@ public class Passage {
     for (Link link : links) {
       linkString.append("\n").append(link.toString());
     }
-    return "::" + title + '\n' + content + linkString;
+    return "::" + title + '\n' + getContent() + linkString;
   }
 
 
@@ -145,14 +216,38 @@ public class Passage {
     if (!(o instanceof Passage passage)) {
       return false;
     }
-    return Objects.equals(title, passage.title) && Objects.equals(content, passage.content)
+    return Objects.equals(title, passage.title) && hasEqualContent(passage)
         && (new HashSet<>(links).containsAll(passage.links) && new HashSet<>(
             passage.links).containsAll(links));
   }
 
+  /**
+   * Checks if the content of the passage is equal to the content of another passage. Passages that
+   * load their content from the same source have the same content, so their content is only
+   * loaded if it cannot be compared in any other way.
+   *
+   * @param passage The passage that is compared against.
+   * @return True, if the contents are equal.
+   */
+  private boolean hasEqualContent(Passage passage) {
+    if (content != null && passage.content != null) {
+      return content.equals(passage.content);
+    }
+    if (contentSource != null && contentSource == passage.contentSource) {
+      return true;
+    }
+    return getContent().equals(passage.getContent());
+  }
+
+  /**
+   * Returns the hash code of the passage, from its title and links. The content is left out, so a
+   * passage that loads its content when it is needed is not loaded when it is put in a set or map.
+   *
+   * @return The hash code.
+   */
   @Override
   public int hashCode() {
-    return Objects.hash(title, content, links);
+    return Objects.hash(title, links);
   }
 }
 
@@ -0,0 +1,213 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class that represents an immutable inventory of items. Adding or removing an item returns a new
+ * inventory that shares the unchanged items with the inventory it was made from, instead of
+ * copying them. This lets the states of a player throughout a game be kept, such as for rewinding
+ * the game, while only storing the items that were added between them.
+ *
+ * <p>The items are kept as a chain of cells, where each cell holds the item that was added last
+ * and the rest of the inventory. Adding an item is therefore constant time. Removing an item
+ * copies the cells of the items that were added after it, and shares the rest.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class PersistentInventory {
+
+  private static final PersistentInventory EMPTY = new PersistentInventory(null, null, 0);
+
+  private final String item;
+  private final PersistentInventory rest;
+  private final int size;
+
+  /**
+   * Creates a cell of an inventory.
+   *
+   * @param item The item that was added last.
+   * @param rest The items that were added before it.
+   * @param size The number of items in the inventory.
+   */
+  private PersistentInventory(String item, PersistentInventory rest, int size) {
+    this.item = item;
+    this.rest = rest;
+    this.size = size;
+  }
+
+  /**
+   * Gets the inventory without any items.
+   *
+   * @return The empty inventory.
+   */
+  public static PersistentInventory empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates an inventory of items, in the order they were added.
+   *
+   * @param items The items.
+   * @return The inventory.
+   * @throws IllegalArgumentException If the items or any of the items are null or blank.
+   */
+  public static PersistentInventory of(List<String> items) throws IllegalArgumentException {
+    if (items == null) {
+      throw new IllegalArgumentException("The items cannot be null");
+    }
+    PersistentInventory inventory = EMPTY;
+    for (String added : items) {
+      inventory = inventory.add(added);
+    }
+    return inventory;
+  }
+
+  /**
+   * Gets an inventory with an item added to the end of this inventory.
+   *
+   * @param item The item that is added.
+   * @return The inventory with the item.
+   * @throws IllegalArgumentException If the item is null or blank.
+   */
+  public PersistentInventory add(String item) throws IllegalArgumentException {
+    if (item == null || item.isBlank()) {
+      throw new IllegalArgumentException("An item in the inventory cannot be null or blank");
+    }
+    return new PersistentInventory(item, this, size + 1);
+  }
+
+  /**
+   * Gets an inventory with the first occurrence of an item removed from this inventory, like
+   * {@link List#remove(Object)}.
+   *
+   * @param item The item that is removed.
+   * @return The inventory without the item, or this inventory if it does not contain the item.
+   */
+  public PersistentInventory remove(String item) {
+    //The first occurrence is the one that was added first, being the one furthest down the chain
+    int depth = -1;
+    int index = 0;
+    for (PersistentInventory cell = this; cell.size > 0; cell = cell.rest) {
+      if (cell.item.equals(item)) {
+        depth = index;
+      }
+      index++;
+    }
+    if (depth == -1) {
+      return this;
+    }
+
+    String[] newerItems = new String[depth];
+    PersistentInventory cell = this;
+    for (int i = 0; i < depth; i++) {
+      newerItems[i] = cell.item;
+      cell = cell.rest;
+    }
+    PersistentInventory inventory = cell.rest;
+    for (int i = depth - 1; i >= 0; i--) {
+      inventory = inventory.add(newerItems[i]);
+    }
+    return inventory;
+  }
+
+  /**
+   * Checks if the inventory contains an item.
+   *
+   * @param item The item.
+   * @return True, if the inventory contains the item.
+   */
+  public boolean contains(String item) {
+    for (PersistentInventory cell = this; cell.size > 0; cell = cell.rest) {
+      if (cell.item.equals(item)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of items in the inventory.
+   *
+   * @return The number of items.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if the inventory is empty.
+   *
+   * @return True, if the inventory has no items.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Copies the items to a list, in the order they were added.
+   *
+   * @return A new list of the items.
+   */
+  public List<String> toList() {
+    String[] items = new String[size];
+    int index = size;
+    for (PersistentInventory cell = this; cell.size > 0; cell = cell.rest) {
+      items[--index] = cell.item;
+    }
+    return new ArrayList<>(List.of(items));
+  }
+
+  /**
+   * Equals method for inventories. Equality is achieved if the inventories have the same items in
+   * the same order.
+   *
+   * @param obj The object that the caller is compared to.
+   * @return True, if the inventories are equal.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    PersistentInventory other = (PersistentInventory) obj;
+    if (size != other.size) {
+      return false;
+    }
+    PersistentInventory cell = this;
+    PersistentInventory otherCell = other;
+    //Stops at the first cell that is shared, as the rest of the items are then the same
+    while (cell != otherCell) {
+      if (!cell.item.equals(otherCell.item)) {
+        return false;
+      }
+      cell = cell.rest;
+      otherCell = otherCell.rest;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (PersistentInventory cell = this; cell.size > 0; cell = cell.rest) {
+      hash = 31 * hash + Objects.hashCode(cell.item);
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the items of the inventory, in the order they were added.
+   *
+   * @return A string of the items.
+   */
+  @Override
+  public String toString() {
+    return toList().toString();
+  }
+}
@@ -1,6 +1,5 @@
 package edu.ntnu.mappe.gruppe50.model.data;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -17,7 +16,7 @@ public class Player {
   private int health;
   private int score;
   private int gold;
-  private final List<String> inventory;
+  private PersistentInventory inventory;
 
   /**
    * Constructor for a player instance. The constructor uses a Builder pattern to instantiate the
@@ -33,7 +32,7 @@ public class Player {
     health = builder.health;
     score = builder.score;
     gold = builder.gold;
-    inventory = new ArrayList<>();
+    inventory = PersistentInventory.empty();
   }
 
   /**
@@ -211,7 +210,33 @@ public class Player {
    * @return A deep copied list containing items.
    */
   public List<String> getInventory() {
-    return new ArrayList<>(inventory);
+    return inventory.toList();
+  }
+
+  /**
+   * Gets the current state of the player, being its health, score, gold and inventory. The state
+   * shares the inventory with the player, so it is taken in constant time.
+   *
+   * @return The state of the player.
+   */
+  public PlayerState getState() {
+    return new PlayerState(health, score, gold, inventory);
+  }
+
+  /**
+   * Restores the player to a state that was taken earlier with {@link #getState()}.
+   *
+   * @param state The state that the player is restored to.
+   * @throws IllegalArgumentException If the state is null.
+   */
+  public void restoreState(PlayerState state) throws IllegalArgumentException {
+    if (state == null) {
+      throw new IllegalArgumentException("The player state cannot be null");
+    }
+    health = state.getHealth();
+    score = state.getScore();
+    gold = state.getGold();
+    inventory = state.getInventory();
   }
 
   /**
@@ -228,7 +253,7 @@ public class Player {
       throw new IllegalArgumentException("Cannot add item to inventory because it is blank.");
     }
 
-    this.inventory.add(item);
+    this.inventory = inventory.add(item);
   }
 
   /**
@@ -249,7 +274,7 @@ public class Player {
       throw new IllegalArgumentException("Item cannot be removed if it is not in the inventory.");
     }
 
-    this.inventory.remove(item);
+    this.inventory = inventory.remove(item);
   }
 
   /**
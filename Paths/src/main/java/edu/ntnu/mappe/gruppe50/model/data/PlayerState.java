@@ -0,0 +1,102 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import java.util.Objects;
+
+/**
+ * Class that represents the state of a player at one point in a game, being its health, score,
+ * gold and inventory. The state is immutable, and its inventory is a {@link PersistentInventory}
+ * that is shared with the player, so taking the state of a player does not copy its items.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class PlayerState {
+
+  private final int health;
+  private final int score;
+  private final int gold;
+  private final PersistentInventory inventory;
+
+  /**
+   * Creates the state of a player.
+   *
+   * @param health    The health of the player.
+   * @param score     The score of the player.
+   * @param gold      The gold of the player.
+   * @param inventory The inventory of the player.
+   * @throws IllegalArgumentException If any of the numbers are negative, or the inventory is null.
+   */
+  public PlayerState(int health, int score, int gold, PersistentInventory inventory)
+      throws IllegalArgumentException {
+    if (health < 0 || score < 0 || gold < 0) {
+      throw new IllegalArgumentException("Health, score and gold cannot be less than zero");
+    }
+    if (inventory == null) {
+      throw new IllegalArgumentException("The inventory cannot be null");
+    }
+    this.health = health;
+    this.score = score;
+    this.gold = gold;
+    this.inventory = inventory;
+  }
+
+  /**
+   * Gets the health of the player.
+   *
+   * @return The health.
+   */
+  public int getHealth() {
+    return health;
+  }
+
+  /**
+   * Gets the score of the player.
+   *
+   * @return The score.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Gets the gold of the player.
+   *
+   * @return The gold.
+   */
+  public int getGold() {
+    return gold;
+  }
+
+  /**
+   * Gets the inventory of the player.
+   *
+   * @return The inventory.
+   */
+  public PersistentInventory getInventory() {
+    return inventory;
+  }
+
+  /**
+   * Equals method for player states. Equality is achieved if every part of the states are equal.
+   *
+   * @param obj The object that the caller is compared to.
+   * @return True, if the states are equal.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    PlayerState other = (PlayerState) obj;
+    return health == other.health && score == other.score && gold == other.gold
+        && inventory.equals(other.inventory);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(health, score, gold, inventory);
+  }
+}
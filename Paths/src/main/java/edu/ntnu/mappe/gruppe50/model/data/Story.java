@@ -2,7 +2,9 @@ package edu.ntnu.mappe.gruppe50.model.data;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -11,7 +13,15 @@ import java.util.stream.Collectors;
  * Class that represents the story. A story is an interactive, non-linear narrative that consists of
  * a collection of passages. The story can be thought of as a house, consisting of many room. These
  * are the passages. The passages are connected by doors, which is represented by links. Each
- * passage in the story has a corresponding link mapping to it.
+ * passage in the story has a corresponding link mapping to it. Passages are keyed by their title,
+ * which is what a link references, and are kept in the order they were added, so the opening
+ * passage always comes first. The story also keeps an index of its broken links and an index of
+ * which passages link to each passage. Both are updated whenever a passage is added or removed,
+ * and whenever a link is added to or removed from one of its passages. The titles and references
+ * that key the maps are interned in the story's {@link SymbolTable}, so every distinct key is
+ * stored once. A reader that interns the titles, references and texts in the same table before it
+ * creates the passages and links lets them share the strings of the keys as well, so map lookups
+ * between links and passages compare the same instance.
  *
  * @author Lars Mikkel Lødeng Nilsen
  * @since 9.2.2023
@@ -19,8 +29,12 @@ import java.util.stream.Collectors;
 public class Story {
 
   private final String title;
-  private final Map<Link, Passage> passages;
-  private final Passage openingPassage;
+  private final Map<String, Passage> passages;
+  private final Map<String, List<Link>> brokenLinks;
+  private final Map<String, Map<String, Integer>> inboundLinks;
+  private final Map<String, Integer> inDegrees;
+  private Passage openingPassage;
+  private final SymbolTable symbols;
 
   /**
    * Creates an instance of a story object.
@@ -31,6 +45,23 @@ public class Story {
    * @throws IllegalArgumentException if title is null or blank, or if openingPassage is null.
    */
   public Story(String title, Passage openingPassage) throws IllegalArgumentException {
+    this(title, openingPassage, new SymbolTable());
+  }
+
+  /**
+   * Creates an instance of a story object that interns its strings in an existing symbol table.
+   * This lets a reader that already interned the strings of the passages share them with the
+   * story.
+   *
+   * @param title          The title of the story.
+   * @param openingPassage The first passage of the story. This passage is also included in the
+   *                       stories list of passages.
+   * @param symbols        The symbol table that the titles, references and texts are interned in.
+   * @throws IllegalArgumentException if title is null or blank, or if openingPassage or symbols is
+   *                                  null.
+   */
+  public Story(String title, Passage openingPassage, SymbolTable symbols)
+      throws IllegalArgumentException {
     if (title == null) {
       throw new IllegalArgumentException("The title of the story cannot be null.");
     }
@@ -40,10 +71,17 @@ public class Story {
     if (openingPassage == null) {
       throw new IllegalArgumentException("The opening passage of the story cannot be null.");
     }
+    if (symbols == null) {
+      throw new IllegalArgumentException("The symbol table of the story cannot be null.");
+    }
 
     this.title = title;
     this.openingPassage = openingPassage;
-    this.passages = new HashMap<>();
+    this.passages = new LinkedHashMap<>();
+    this.brokenLinks = new LinkedHashMap<>();
+    this.inboundLinks = new HashMap<>();
+    this.inDegrees = new HashMap<>();
+    this.symbols = symbols;
     addPassage(openingPassage);
   }
 
@@ -66,9 +104,18 @@ public class Story {
   }
 
   /**
-   * Adds a passage with a link as key to the passages hashmap. The link's text and reference are
-   * both created from the passages title. The link's reference will therefore link to the passage's
-   * title.
+   * Gets the symbol table that the passage titles, link references and link texts of the story are
+   * interned in.
+   *
+   * @return The symbol table of the story.
+   */
+  public SymbolTable getSymbols() {
+    return this.symbols;
+  }
+
+  /**
+   * Adds a passage to the passages map, using the passage's title as key. A link whose reference is
+   * the title of the passage will therefore link to the passage.
    *
    * @param passage The passage that is added as value to the passages hashmap.
    * @throws IllegalArgumentException if passage in null, or if there already exists a key-value
@@ -81,12 +128,15 @@ public class Story {
           "Cannot add passage to story because the passage is null.");
     }
 
-    Link key = new Link(passage.getTitle(), passage.getTitle());
-    if (passages.containsKey(key)) {
+    if (passages.containsKey(passage.getTitle())) {
       throw new IllegalArgumentException("Cannot add a duplicate link-key to the passages hashmap");
     }
 
-    passages.put(key, passage);
+    String passageTitle = symbols.intern(passage.getTitle());
+    passages.put(passageTitle, passage);
+    brokenLinks.remove(passageTitle);
+    passage.getLinks().forEach(link -> linkAdded(passage, link));
+    passage.addStory(this);
   }
 
   /**
@@ -103,36 +153,223 @@ public class Story {
       throw new IllegalArgumentException(
           "Cannot remove passage from story because the link is null.");
     }
-    if (passages.get(link) == null) {
+    if (passages.get(link.getReference()) == null) {
       throw new IllegalArgumentException("The linked passage does not exist.");
     }
-    if (getPassages().stream().anyMatch(passage -> passage.getLinks().contains(link))) {
+    if (getInDegree(link) > 0) {
       throw new IllegalArgumentException(
           "Cannot remove a passage that has other passages linking to it.");
     }
-    passages.remove(link);
+    Passage removedPassage = passages.remove(link.getReference());
+    removedPassage.removeStory(this);
+    removedPassage.getLinks().forEach(removedLink -> linkRemoved(removedPassage, removedLink));
+  }
+
+  /**
+   * Replaces the passage with the same title as the input passage, keeping its place in the order
+   * of the passages. Links that reference the title reference the new passage, and the indexes of
+   * broken and inbound links are updated for the links of the old and the new passage. If the
+   * replaced passage is the opening passage, the new passage becomes the opening passage.
+   *
+   * @param passage The passage that replaces the passage with the same title.
+   * @return The passage that was replaced.
+   * @throws IllegalArgumentException If the passage is null, or if the story has no passage with
+   *                                  the same title.
+   */
+  public Passage replacePassage(Passage passage) throws IllegalArgumentException {
+    if (passage == null) {
+      throw new IllegalArgumentException("Cannot replace a passage with a passage that is null.");
+    }
+    Passage replacedPassage = passages.get(passage.getTitle());
+    if (replacedPassage == null) {
+      throw new IllegalArgumentException("The story has no passage with the same title.");
+    }
+    if (replacedPassage == passage) {
+      return replacedPassage;
+    }
+
+    replacedPassage.removeStory(this);
+    replacedPassage.getLinks().forEach(link -> linkRemoved(replacedPassage, link));
+    passages.put(symbols.intern(passage.getTitle()), passage);
+    passage.getLinks().forEach(link -> linkAdded(passage, link));
+    passage.addStory(this);
+    if (replacedPassage == openingPassage) {
+      openingPassage = passage;
+    }
+    return replacedPassage;
+  }
+
+  /**
+   * Deletes the passage with the given title. Unlike {@link #removePassage(Link)}, the passage is
+   * deleted even if other passages link to it, and those links become broken. This is used when a
+   * passage has been deleted from the file of the story.
+   *
+   * @param title The title of the passage.
+   * @return The passage that was deleted.
+   * @throws IllegalArgumentException If the title is null, if the story has no passage with the
+   *                                  title, or if the passage is the opening passage.
+   */
+  public Passage deletePassage(String title) throws IllegalArgumentException {
+    if (title == null) {
+      throw new IllegalArgumentException("Cannot delete a passage because the title is null.");
+    }
+    Passage deletedPassage = passages.get(title);
+    if (deletedPassage == null) {
+      throw new IllegalArgumentException("The story has no passage with the title " + title);
+    }
+    if (deletedPassage == openingPassage) {
+      throw new IllegalArgumentException("The opening passage of the story cannot be deleted.");
+    }
+
+    passages.remove(title);
+    deletedPassage.removeStory(this);
+    deletedPassage.getLinks().forEach(link -> linkRemoved(deletedPassage, link));
+
+    //The links of the other passages that reference the deleted passage are now broken
+    Map<String, Integer> sources = inboundLinks.get(title);
+    if (sources != null) {
+      for (String source : sources.keySet()) {
+        for (Link link : passages.get(source).getLinks()) {
+          if (link.getReference().equals(title)) {
+            brokenLinks.computeIfAbsent(link.getReference(), reference -> new ArrayList<>())
+                .add(link);
+          }
+        }
+      }
+    }
+    return deletedPassage;
+  }
+
+  /**
+   * Checks if the passage referenced by the input link can be removed from the story. A passage
+   * can be removed if it exists and no passage in the story links to it.
+   *
+   * @param link The link that references the passage.
+   * @return True, if {@link #removePassage(Link)} would remove the passage.
+   * @throws IllegalArgumentException If the link is null.
+   */
+  public boolean canRemovePassage(Link link) throws IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException("Cannot check the passage because the link is null.");
+    }
+    return passages.containsKey(link.getReference()) && getInDegree(link) == 0;
   }
 
   /**
-   * Finds and returns a list of dead links. A link is dead if it references a passage that is
-   * non-existent in the passages hashmap.
+   * Gets the number of links in the story that reference the same passage as the input link. A
+   * passage linking to itself is counted as well.
+   *
+   * @param link The link that references the passage.
+   * @return The number of links in the story with the same reference as the link.
+   * @throws IllegalArgumentException If the link is null.
+   */
+  public int getInDegree(Link link) throws IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException("Cannot get the in-degree because the link is null.");
+    }
+    return inDegrees.getOrDefault(link.getReference(), 0);
+  }
+
+  /**
+   * Gets the passages in the story that have at least one link referencing the same passage as the
+   * input link, in the order they first linked to it.
+   *
+   * @param link The link that references the passage.
+   * @return A collection of the passages that link to the referenced passage.
+   * @throws IllegalArgumentException If the link is null.
+   */
+  public Collection<Passage> getInboundPassages(Link link) throws IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException(
+          "Cannot get the inbound passages because the link is null.");
+    }
+    Map<String, Integer> sources = inboundLinks.get(link.getReference());
+    if (sources == null) {
+      return Collections.emptyList();
+    }
+    return sources.keySet().stream()
+        .map(passages::get)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns a list of dead links. A link is dead if it references a passage that is non-existent in
+   * the passages hashmap. The list is built from the story's index of broken links, so its cost
+   * only depends on the number of broken links, not on the size of the story.
    *
    * @return A list of story's dead links.
    */
   public List<Link> getBrokenLinks() {
-    return getLinks().stream()
-        .filter(link -> passages.get(link) == null)
-        .toList();
+    List<Link> brokenLinkList = new ArrayList<>();
+    brokenLinks.values().forEach(brokenLinkList::addAll);
+    return brokenLinkList;
+  }
+
+  /**
+   * Checks if a link is broken, meaning that it references a passage that does not exist in the
+   * story. The link does not have to belong to a passage in the story.
+   *
+   * @param link The link that is checked.
+   * @return True, if the link references a passage that does not exist.
+   * @throws IllegalArgumentException If the link is null.
+   */
+  public boolean isBroken(Link link) throws IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException("Cannot check if the link is broken because it is null.");
+    }
+    return !passages.containsKey(link.getReference());
   }
 
   /**
-   * Gets all links that are contained by all passages in the passages hashmap..
+   * Updates the indexes of broken and inbound links after a link has been added to one of the
+   * story's passages. The reference of the link and the title of the passage are interned as the
+   * keys of the indexes.
    *
-   * @return A list of all links in the story.
+   * @param source The passage that the link was added to.
+   * @param link   The link that was added.
    */
-  private List<Link> getLinks() {
-    return getPassages().stream().map(Passage::getLinks).toList().stream()
-        .flatMap(Collection::stream).toList();
+  void linkAdded(Passage source, Link link) {
+    String linkReference = symbols.intern(link.getReference());
+    inboundLinks.computeIfAbsent(linkReference, reference -> new LinkedHashMap<>())
+        .merge(symbols.intern(source.getTitle()), 1, Integer::sum);
+    inDegrees.merge(linkReference, 1, Integer::sum);
+    if (!passages.containsKey(linkReference)) {
+      brokenLinks.computeIfAbsent(linkReference, reference -> new ArrayList<>()).add(link);
+    }
+  }
+
+  /**
+   * Updates the indexes of broken and inbound links after a link has been removed from one of the
+   * story's passages.
+   *
+   * @param source The passage that the link was removed from.
+   * @param link   The link that was removed.
+   */
+  void linkRemoved(Passage source, Link link) {
+    Map<String, Integer> sources = inboundLinks.get(link.getReference());
+    if (sources.merge(source.getTitle(), -1, Integer::sum) == 0) {
+      sources.remove(source.getTitle());
+    }
+    if (sources.isEmpty()) {
+      inboundLinks.remove(link.getReference());
+    }
+    if (inDegrees.merge(link.getReference(), -1, Integer::sum) == 0) {
+      inDegrees.remove(link.getReference());
+    }
+
+    List<Link> links = brokenLinks.get(link.getReference());
+    if (links == null) {
+      return;
+    }
+    for (int i = 0; i < links.size(); i++) {
+      if (links.get(i) == link) {
+        links.remove(i);
+        break;
+      }
+    }
+    if (links.isEmpty()) {
+      brokenLinks.remove(link.getReference());
+    }
   }
 
   /**
@@ -146,24 +383,22 @@ public class Story {
     if (link == null) {
       throw new IllegalArgumentException("Cannot get the passage because the link is null.");
     }
-    if (passages.get(link) == null) {
+    Passage passage = passages.get(link.getReference());
+    if (passage == null) {
       throw new IllegalArgumentException("This link links to a passage that does not exist");
     }
 
-    return passages.get(link);
+    return passage;
   }
 
   /**
-   * Gets all passages from passages map.
+   * Gets all passages from passages map. The returned collection is a read-only view of the map,
+   * so no copy is made and later changes to the story are reflected in it.
    *
-   * @return A Collection of all values in the passages map.
+   * @return A Collection of all values in the passages map, in the order they were added.
    */
   public Collection<Passage> getPassages() {
-    Collection<Passage> passageCollection = new ArrayList<>();
-    for (Map.Entry<Link, Passage> entry : passages.entrySet()) {
-      passageCollection.add(entry.getValue());
-    }
-    return passageCollection;
+    return Collections.unmodifiableCollection(passages.values());
   }
 
   /**
@@ -178,6 +413,16 @@ public class Story {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Compiles the story into an immutable, index-based form. The compiled story is a snapshot of the
+   * story's passages and links at the time this method is called.
+   *
+   * @return A compiled snapshot of the story.
+   */
+  public CompiledStory compile() {
+    return new CompiledStory(this);
+  }
+
   @Override
   public String toString() {
 
@@ -0,0 +1,203 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import java.util.Arrays;
+
+/**
+ * Class that stores one instance of every distinct passage title, link reference and link text in
+ * a story. Large stories repeat the same titles and texts many times, once for every link that
+ * references a passage, so without the table each repetition would be its own string. Every symbol
+ * is also given an id, counting from zero in the order the symbols were added. Symbols are never
+ * removed, so an id stays valid for as long as the table exists.
+ *
+ * <p>The symbols are kept in an array, and found with an open addressing hash table of ids, so the
+ * table does not need an object for each symbol other than the symbol itself. The hash code of
+ * each symbol is kept next to it, so a lookup only compares characters with symbols that have the
+ * same hash code.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class SymbolTable {
+
+  /**
+   * The id returned for a string that is not in the table.
+   */
+  public static final int NO_SYMBOL = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private String[] symbols;
+  private int[] hashes;
+  private int[] slots;
+  private int size;
+
+  /**
+   * Creates an empty symbol table.
+   */
+  public SymbolTable() {
+    this.symbols = new String[INITIAL_CAPACITY];
+    this.hashes = new int[INITIAL_CAPACITY];
+    this.slots = new int[INITIAL_CAPACITY * 2];
+  }
+
+  /**
+   * Gets the instance of a string that is stored in the table, adding the string if the table does
+   * not already contain an equal string.
+   *
+   * @param symbol The string.
+   * @return The stored string that is equal to the input string.
+   * @throws IllegalArgumentException If the string is null.
+   */
+  public String intern(String symbol) throws IllegalArgumentException {
+    if (symbol == null) {
+      throw new IllegalArgumentException("Cannot intern a symbol that is null.");
+    }
+    return intern(symbol, 0, symbol.length(), symbol.hashCode(), true);
+  }
+
+  /**
+   * Gets the instance of a part of a string that is stored in the table, adding the part if the
+   * table does not already contain an equal string. The part is only copied into a new string if
+   * it is added, so a symbol that is already in the table is found without creating a string.
+   *
+   * @param source The string that contains the part.
+   * @param start  The index of the first character of the part.
+   * @param end    The index after the last character of the part.
+   * @return The stored string that is equal to the part.
+   * @throws IllegalArgumentException If the string is null, or if the indexes are out of bounds.
+   */
+  public String intern(String source, int start, int end) throws IllegalArgumentException {
+    if (source == null) {
+      throw new IllegalArgumentException("Cannot intern a symbol that is null.");
+    }
+    if (start < 0 || end > source.length() || start > end) {
+      throw new IllegalArgumentException("The part " + start + " to " + end
+          + " is not inside the string.");
+    }
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + source.charAt(i);
+    }
+    return intern(source, start, end, hash,
+        start == 0 && end == source.length());
+  }
+
+  /**
+   * Gets the id of a string in the table.
+   *
+   * @param symbol The string.
+   * @return The id of the string, or {@link #NO_SYMBOL} if the table does not contain it.
+   * @throws IllegalArgumentException If the string is null.
+   */
+  public int getId(String symbol) throws IllegalArgumentException {
+    if (symbol == null) {
+      throw new IllegalArgumentException("Cannot get the id of a symbol that is null.");
+    }
+    return slots[findSlot(symbol, 0, symbol.length(), symbol.hashCode())] - 1;
+  }
+
+  /**
+   * Gets the string with an id.
+   *
+   * @param id The id.
+   * @return The string with the id.
+   * @throws IllegalArgumentException If no string has the id.
+   */
+  public String getSymbol(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= size) {
+      throw new IllegalArgumentException("There is no symbol with the id " + id + ".");
+    }
+    return symbols[id];
+  }
+
+  /**
+   * Gets the number of strings in the table.
+   *
+   * @return The number of strings.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the stored instance of a part of a string, adding the part if it is not in the table.
+   *
+   * @param source The string that contains the part.
+   * @param start  The index of the first character of the part.
+   * @param end    The index after the last character of the part.
+   * @param hash   The hash code of the part, computed the same way as {@link String#hashCode()}.
+   * @param whole  True, if the part is the whole string, so the string itself can be stored.
+   * @return The stored string that is equal to the part.
+   */
+  private String intern(String source, int start, int end, int hash, boolean whole) {
+    int slot = findSlot(source, start, end, hash);
+    if (slots[slot] != 0) {
+      return symbols[slots[slot] - 1];
+    }
+
+    if (size == symbols.length) {
+      grow();
+      slot = findSlot(source, start, end, hash);
+    }
+    String symbol = whole ? source : source.substring(start, end);
+    symbols[size] = symbol;
+    hashes[size++] = hash;
+    slots[slot] = size;
+    return symbol;
+  }
+
+  /**
+   * Finds the slot that holds the id of a part of a string, or the empty slot where it would be
+   * added.
+   *
+   * @param source The string that contains the part.
+   * @param start  The index of the first character of the part.
+   * @param end    The index after the last character of the part.
+   * @param hash   The hash code of the part.
+   * @return The index of the slot.
+   */
+  private int findSlot(String source, int start, int end, int hash) {
+    int mask = slots.length - 1;
+    int length = end - start;
+    int slot = findHomeSlot(hash);
+    while (slots[slot] != 0) {
+      int id = slots[slot] - 1;
+      if (hashes[id] == hash && symbols[id].length() == length
+          && (symbols[id] == source || source.regionMatches(start, symbols[id], 0, length))) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Finds the first slot that is tried for a hash code. The hash code is spread over the slots by
+   * multiplying it with a large odd number, since similar strings, such as titles that only differ
+   * in a number at the end, have hash codes that are close to each other, and would otherwise fill
+   * long runs of neighbouring slots.
+   *
+   * @param hash The hash code.
+   * @return The index of the slot.
+   */
+  private int findHomeSlot(int hash) {
+    return (hash * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(slots.length - 1);
+  }
+
+  /**
+   * Doubles the capacity of the table, keeping the slots at most half full.
+   */
+  private void grow() {
+    symbols = Arrays.copyOf(symbols, symbols.length * 2);
+    hashes = Arrays.copyOf(hashes, symbols.length);
+    slots = new int[symbols.length * 2];
+    int mask = slots.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = findHomeSlot(hashes[id]);
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = id + 1;
+    }
+  }
+}
@@ -77,6 +77,27 @@ public class UserStoryInfoRegister {
     return userStoryInfos.remove(userStoryInfo);
   }
 
+  /**
+   * Replaces the UserStoryInfo with the same file path as the given UserStoryInfo, keeping its
+   * place in the register. Used to update the number of broken links of a story whose file has
+   * changed.
+   *
+   * @param userStoryInfo The userStoryInfo that replaces the one with the same file path.
+   * @return The index of the replaced userStoryInfo in the register.
+   * @throws IllegalArgumentException If the userStoryInfo is null or if there is no userStoryInfo
+   *                                  with the same file path in the register.
+   */
+  public int replaceUserStoryInfo(UserStoryInfo userStoryInfo) throws IllegalArgumentException {
+    if (userStoryInfo == null) {
+      throw new IllegalArgumentException("UserStoryInfo cannot be null");
+    }
+    int index = userStoryInfos.indexOf(userStoryInfo);
+    if (index < 0) {
+      throw new IllegalArgumentException("UserStoryInfo is not in UserStoryInfoRegister");
+    }
+    userStoryInfos.set(index, userStoryInfo);
+    return index;
+  }
 
   /**
    * Method that checks if the register contains a userStoryInfo equal to the parameter
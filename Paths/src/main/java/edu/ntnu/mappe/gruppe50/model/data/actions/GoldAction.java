@@ -23,6 +23,24 @@ public class GoldAction implements Action {
     this.gold = gold;
   }
 
+  /**
+   * Returns the action type enum of the action. In this case, the type is GOLD.
+   *
+   * @return An instance of ActionType
+   */
+  public ActionType getType() {
+    return ActionType.GOLD;
+  }
+
+  /**
+   * Returns the gold value by which the player gold is changed.
+   *
+   * @return An integer representing the change in gold.
+   */
+  public int getValue() {
+    return this.gold;
+  }
+
   /**
    * Method that changes the state of the player.
    *
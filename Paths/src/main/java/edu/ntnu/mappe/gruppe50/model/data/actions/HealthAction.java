@@ -23,6 +23,24 @@ public class HealthAction implements Action {
     this.health = health;
   }
 
+  /**
+   * Returns the action type enum of the action. In this case, the type is HEALTH.
+   *
+   * @return An instance of ActionType
+   */
+  public ActionType getType() {
+    return ActionType.HEALTH;
+  }
+
+  /**
+   * Returns the health value by which the player health is changed.
+   *
+   * @return An integer representing the change in health.
+   */
+  public int getValue() {
+    return this.health;
+  }
+
   /**
    * Method that changes the state of the player.
    *
@@ -30,6 +30,24 @@ public class InventoryAction implements Action {
     this.item = item;
   }
 
+  /**
+   * Returns the action type enum of the action. In this case, the type is INVENTORY.
+   *
+   * @return An instance of ActionType
+   */
+  public ActionType getType() {
+    return ActionType.INVENTORY;
+  }
+
+  /**
+   * Returns the item that is added to the player inventory.
+   *
+   * @return The item that is added.
+   */
+  public String getValue() {
+    return this.item;
+  }
+
   /**
    * Changes the inventory of the player by adding or removing the item attribute from the player
    * inventory.
@@ -23,6 +23,24 @@ public class ScoreAction implements Action {
     this.score = score;
   }
 
+  /**
+   * Returns the action type enum of the action. In this case, the type is SCORE.
+   *
+   * @return An instance of ActionType
+   */
+  public ActionType getType() {
+    return ActionType.SCORE;
+  }
+
+  /**
+   * Returns the score value by which the player score is changed.
+   *
+   * @return An integer representing the change in score.
+   */
+  public int getValue() {
+    return this.score;
+  }
+
   /**
    * Method that changes the state of the player.
    *
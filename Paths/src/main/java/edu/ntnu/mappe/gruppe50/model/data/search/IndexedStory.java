@@ -0,0 +1,359 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents the search index of a single story file. The index maps every term of the
+ * passage titles and contents to its postings, being the passages and positions where the term
+ * occurs. Each posting is a long, with the id of the passage in the high 32 bits and the position
+ * in the low 32 bits, and the postings of a term are sorted. This makes checking whether a phrase
+ * continues at the next position a binary search.
+ *
+ * <p>The terms of a passage title start at position zero, while the terms of its content start at
+ * {@link #CONTENT_START}, so a match can be told to be in the title, and no phrase spans both the
+ * title and the content. The index remembers the size and last modified time of the file it was
+ * built from, so a story only has to be indexed again when its file has changed.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class IndexedStory {
+
+  /**
+   * The position of the first term of the content of a passage.
+   */
+  public static final int CONTENT_START = 1 << 24;
+
+  /**
+   * The number of characters of the content of a passage that is kept as a snippet.
+   */
+  public static final int SNIPPET_LENGTH = 80;
+
+  private static final int TITLE_WEIGHT = 3;
+
+  private final String filePath;
+  private final String storyTitle;
+  private final long size;
+  private final long lastModified;
+  private final List<String> passageTitles;
+  private final List<String> snippets;
+  private final Map<String, long[]> postings;
+
+  /**
+   * Creates the index of a story from its parts. Use {@link Builder} to index a story that is
+   * read.
+   *
+   * @param filePath      The file path of the story.
+   * @param storyTitle    The title of the story.
+   * @param size          The size of the file when it was indexed.
+   * @param lastModified  The last modified time of the file when it was indexed.
+   * @param passageTitles The titles of the passages, in the order of their ids.
+   * @param snippets      The snippets of the passages, in the order of their ids.
+   * @param postings      The sorted postings of each term.
+   * @throws IllegalArgumentException If any of the parameters are null, if the number of titles
+   *                                  and snippets differ, or if a posting references a passage
+   *                                  that does not exist.
+   */
+  public IndexedStory(String filePath, String storyTitle, long size, long lastModified,
+      List<String> passageTitles, List<String> snippets, Map<String, long[]> postings)
+      throws IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (storyTitle == null) {
+      throw new IllegalArgumentException("The title of the story cannot be null.");
+    }
+    if (passageTitles == null || snippets == null || passageTitles.size() != snippets.size()) {
+      throw new IllegalArgumentException("Every passage must have a title and a snippet.");
+    }
+    if (postings == null) {
+      throw new IllegalArgumentException("The postings cannot be null.");
+    }
+    for (long[] termPostings : postings.values()) {
+      for (long posting : termPostings) {
+        if ((posting >>> 32) >= passageTitles.size()) {
+          throw new IllegalArgumentException("A posting references a passage that does not exist.");
+        }
+      }
+    }
+    this.filePath = filePath;
+    this.storyTitle = storyTitle;
+    this.size = size;
+    this.lastModified = lastModified;
+    this.passageTitles = List.copyOf(passageTitles);
+    this.snippets = List.copyOf(snippets);
+    this.postings = postings;
+  }
+
+  /**
+   * Gets the file path of the story.
+   *
+   * @return The file path.
+   */
+  public String getFilePath() {
+    return filePath;
+  }
+
+  /**
+   * Gets the title of the story.
+   *
+   * @return The title of the story.
+   */
+  public String getStoryTitle() {
+    return storyTitle;
+  }
+
+  /**
+   * Gets the size of the file when it was indexed.
+   *
+   * @return The size of the file in bytes.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the last modified time of the file when it was indexed.
+   *
+   * @return The last modified time in milliseconds.
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Gets the titles of the passages, in the order of their ids.
+   *
+   * @return An unmodifiable list of the titles.
+   */
+  public List<String> getPassageTitles() {
+    return passageTitles;
+  }
+
+  /**
+   * Gets the snippets of the passages, in the order of their ids.
+   *
+   * @return An unmodifiable list of the snippets.
+   */
+  public List<String> getSnippets() {
+    return snippets;
+  }
+
+  /**
+   * Gets the postings of every term. The arrays are shared with the index, and must not be
+   * changed.
+   *
+   * @return An unmodifiable map from each term to its sorted postings.
+   */
+  public Map<String, long[]> getPostings() {
+    return Collections.unmodifiableMap(postings);
+  }
+
+  /**
+   * Checks if the index was built from a file with the given size and last modified time.
+   *
+   * @param size         The size of the file.
+   * @param lastModified The last modified time of the file.
+   * @return True, if the file has not changed since it was indexed.
+   */
+  public boolean isUpToDate(long size, long lastModified) {
+    return this.size == size && this.lastModified == lastModified;
+  }
+
+  /**
+   * Finds the passages that contain every phrase of a query, and adds them as hits in the order
+   * of the passages.
+   *
+   * @param query The query.
+   * @param hits  The list the hits are added to.
+   */
+  void search(SearchQuery query, List<SearchHit> hits) {
+    int[] scores = null;
+    for (List<String> phrase : query.getPhrases()) {
+      int[] phraseScores = matchPhrase(phrase);
+      if (phraseScores == null) {
+        return;
+      }
+      if (scores == null) {
+        scores = phraseScores;
+      } else {
+        for (int id = 0; id < scores.length; id++) {
+          scores[id] = scores[id] == 0 || phraseScores[id] == 0 ? 0 : scores[id] + phraseScores[id];
+        }
+      }
+    }
+    if (scores == null) {
+      return;
+    }
+    for (int id = 0; id < scores.length; id++) {
+      if (scores[id] > 0) {
+        hits.add(new SearchHit(filePath, storyTitle, passageTitles.get(id), snippets.get(id),
+            scores[id]));
+      }
+    }
+  }
+
+  /**
+   * Scores each passage by the number of times it contains a phrase, counting matches in the
+   * title more.
+   *
+   * @param phrase The terms of the phrase.
+   * @return The score of each passage, or null if no passage contains the phrase.
+   */
+  private int[] matchPhrase(List<String> phrase) {
+    long[][] termPostings = new long[phrase.size()][];
+    int rarest = 0;
+    for (int i = 0; i < phrase.size(); i++) {
+      termPostings[i] = postings.get(phrase.get(i));
+      if (termPostings[i] == null) {
+        return null;
+      }
+      if (termPostings[i].length < termPostings[rarest].length) {
+        rarest = i;
+      }
+    }
+    //The postings of the rarest term are walked, and the other terms are looked up around them
+    int[] phraseScores = new int[passageTitles.size()];
+    boolean matched = false;
+    for (long rarestPosting : termPostings[rarest]) {
+      if ((int) rarestPosting % CONTENT_START < rarest) {
+        continue;
+      }
+      long posting = rarestPosting - rarest;
+      int next = 0;
+      while (next < termPostings.length && (next == rarest
+          || Arrays.binarySearch(termPostings[next], posting + next) >= 0)) {
+        next++;
+      }
+      if (next == termPostings.length) {
+        int position = (int) posting;
+        phraseScores[(int) (posting >>> 32)] += position < CONTENT_START ? TITLE_WEIGHT : 1;
+        matched = true;
+      }
+    }
+    return matched ? phraseScores : null;
+  }
+
+  /**
+   * Builder that indexes a story one passage at a time, in the order of the file, so the story
+   * does not have to be kept in memory while it is indexed.
+   */
+  public static final class Builder {
+
+    private final String filePath;
+    private final long size;
+    private final long lastModified;
+    private String storyTitle = "";
+    private final List<String> passageTitles = new ArrayList<>();
+    private final List<String> snippets = new ArrayList<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Creates a builder of the index of a story file.
+     *
+     * @param filePath     The file path of the story.
+     * @param size         The size of the file.
+     * @param lastModified The last modified time of the file.
+     * @throws IllegalArgumentException If the file path is null.
+     */
+    public Builder(String filePath, long size, long lastModified)
+        throws IllegalArgumentException {
+      if (filePath == null) {
+        throw new IllegalArgumentException("FilePath cannot be null.");
+      }
+      this.filePath = filePath;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    /**
+     * Sets the title of the story.
+     *
+     * @param storyTitle The title of the story.
+     * @return The builder.
+     * @throws IllegalArgumentException If the title is null.
+     */
+    public Builder storyTitle(String storyTitle) throws IllegalArgumentException {
+      if (storyTitle == null) {
+        throw new IllegalArgumentException("The title of the story cannot be null.");
+      }
+      this.storyTitle = storyTitle;
+      return this;
+    }
+
+    /**
+     * Indexes the next passage of the story.
+     *
+     * @param title   The title of the passage.
+     * @param content The content of the passage.
+     * @return The builder.
+     * @throws IllegalArgumentException If the title or content is null.
+     */
+    public Builder passage(String title, String content) throws IllegalArgumentException {
+      if (title == null || content == null) {
+        throw new IllegalArgumentException("The title and content of a passage cannot be null.");
+      }
+      long id = (long) passageTitles.size() << 32;
+      passageTitles.add(title);
+      snippets.add(content.length() > SNIPPET_LENGTH
+          ? content.substring(0, SNIPPET_LENGTH) : content);
+
+      int position = 0;
+      for (String term : SearchQuery.tokenize(title)) {
+        postings.computeIfAbsent(term, key -> new PostingList()).add(id | position++);
+      }
+      position = CONTENT_START;
+      for (String term : SearchQuery.tokenize(content)) {
+        postings.computeIfAbsent(term, key -> new PostingList()).add(id | position++);
+      }
+      return this;
+    }
+
+    /**
+     * Builds the index of the story.
+     *
+     * @return The index of the story.
+     */
+    public IndexedStory build() {
+      Map<String, long[]> termPostings = new HashMap<>(postings.size() * 2);
+      postings.forEach((term, list) -> termPostings.put(term, list.toArray()));
+      return new IndexedStory(filePath, storyTitle, size, lastModified, passageTitles, snippets,
+          termPostings);
+    }
+  }
+
+  /**
+   * Growable list of postings, so they are not boxed while a story is indexed.
+   */
+  private static final class PostingList {
+
+    private long[] postings = new long[4];
+    private int count;
+
+    /**
+     * Adds a posting to the end of the list.
+     *
+     * @param posting The posting.
+     */
+    private void add(long posting) {
+      if (count == postings.length) {
+        postings = Arrays.copyOf(postings, count * 2);
+      }
+      postings[count++] = posting;
+    }
+
+    /**
+     * Copies the postings to an array of their exact length.
+     *
+     * @return The postings.
+     */
+    private long[] toArray() {
+      return Arrays.copyOf(postings, count);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+/**
+ * Class that represents a passage that matches a {@link SearchQuery}. The hit has the file path
+ * and title of the story of the passage, so the story can be found among the user stories, and the
+ * start of the passage content, so the passage can be recognized without reading the story.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class SearchHit {
+
+  private final String filePath;
+  private final String storyTitle;
+  private final String passageTitle;
+  private final String snippet;
+  private final int score;
+
+  /**
+   * Creates a hit. Hits are created by {@link SearchIndex#search(SearchQuery, int)}.
+   *
+   * @param filePath     The file path of the story.
+   * @param storyTitle   The title of the story.
+   * @param passageTitle The title of the passage.
+   * @param snippet      The start of the content of the passage.
+   * @param score        How well the passage matches the query.
+   */
+  SearchHit(String filePath, String storyTitle, String passageTitle, String snippet, int score) {
+    this.filePath = filePath;
+    this.storyTitle = storyTitle;
+    this.passageTitle = passageTitle;
+    this.snippet = snippet;
+    this.score = score;
+  }
+
+  /**
+   * Gets the file path of the story of the passage.
+   *
+   * @return The file path of the story.
+   */
+  public String getFilePath() {
+    return filePath;
+  }
+
+  /**
+   * Gets the title of the story of the passage.
+   *
+   * @return The title of the story.
+   */
+  public String getStoryTitle() {
+    return storyTitle;
+  }
+
+  /**
+   * Gets the title of the passage.
+   *
+   * @return The title of the passage.
+   */
+  public String getPassageTitle() {
+    return passageTitle;
+  }
+
+  /**
+   * Gets the start of the content of the passage.
+   *
+   * @return The start of the content.
+   */
+  public String getSnippet() {
+    return snippet;
+  }
+
+  /**
+   * Gets how well the passage matches the query. Every match counts, and a match in the title of
+   * the passage counts more than a match in its content.
+   *
+   * @return The score of the hit.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the titles of the story and the passage, and the start of the passage content.
+   *
+   * @return A string describing the hit.
+   */
+  @Override
+  public String toString() {
+    return storyTitle + " - " + passageTitle + ": " + snippet;
+  }
+}
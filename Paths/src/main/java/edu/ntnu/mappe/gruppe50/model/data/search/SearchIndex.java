@@ -0,0 +1,142 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents an inverted index of the passages of a library of stories, such as the
+ * user stories. The index holds an {@link IndexedStory} for each story file, keyed by its file
+ * path, so a story that has been changed, added or removed is indexed again on its own, without
+ * touching the other stories. A query is answered by looking up its terms in the index of each
+ * story, so no story file is read while searching.
+ *
+ * <p>The index is safe to use from several threads, so it can be updated on a background thread
+ * while it is searched.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class SearchIndex {
+
+  private final Map<String, IndexedStory> stories;
+
+  /**
+   * Creates an empty index.
+   */
+  public SearchIndex() {
+    this.stories = new LinkedHashMap<>();
+  }
+
+  /**
+   * Adds the index of a story, replacing the index of a story with the same file path.
+   *
+   * @param indexedStory The index of the story.
+   * @throws IllegalArgumentException If the index of the story is null.
+   */
+  public synchronized void addStory(IndexedStory indexedStory) throws IllegalArgumentException {
+    if (indexedStory == null) {
+      throw new IllegalArgumentException("The indexed story cannot be null.");
+    }
+    stories.put(indexedStory.getFilePath(), indexedStory);
+  }
+
+  /**
+   * Removes the index of a story.
+   *
+   * @param filePath The file path of the story.
+   * @return True, if the story was in the index.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public synchronized boolean removeStory(String filePath) throws IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    return stories.remove(filePath) != null;
+  }
+
+  /**
+   * Gets the index of a story.
+   *
+   * @param filePath The file path of the story.
+   * @return The index of the story, or null if the story is not in the index.
+   */
+  public synchronized IndexedStory getStory(String filePath) {
+    return stories.get(filePath);
+  }
+
+  /**
+   * Gets the indexes of all the stories, in the order they were added.
+   *
+   * @return A copy of the list of indexed stories.
+   */
+  public synchronized List<IndexedStory> getStories() {
+    return new ArrayList<>(stories.values());
+  }
+
+  /**
+   * Checks if a story is in the index, and was indexed from a file with the given size and last
+   * modified time.
+   *
+   * @param filePath     The file path of the story.
+   * @param size         The size of the file.
+   * @param lastModified The last modified time of the file.
+   * @return True, if the story does not need to be indexed again.
+   */
+  public synchronized boolean isUpToDate(String filePath, long size, long lastModified) {
+    IndexedStory indexedStory = stories.get(filePath);
+    return indexedStory != null && indexedStory.isUpToDate(size, lastModified);
+  }
+
+  /**
+   * Searches the index.
+   *
+   * @param query The query, where double quotes surround phrases.
+   * @param limit The maximum number of hits.
+   * @return The hits, best first.
+   * @throws IllegalArgumentException If the query is null, or the limit is negative.
+   * @see #search(SearchQuery, int)
+   */
+  public List<SearchHit> search(String query, int limit) throws IllegalArgumentException {
+    return search(SearchQuery.parse(query), limit);
+  }
+
+  /**
+   * Searches the index for the passages that contain every phrase of a query. The hits are sorted
+   * by their score, and hits with the same score are in the order of the stories and passages.
+   *
+   * @param query The query.
+   * @param limit The maximum number of hits.
+   * @return The hits, best first.
+   * @throws IllegalArgumentException If the query is null, or the limit is negative.
+   */
+  public synchronized List<SearchHit> search(SearchQuery query, int limit)
+      throws IllegalArgumentException {
+    if (query == null) {
+      throw new IllegalArgumentException("The search query cannot be null.");
+    }
+    if (limit < 0) {
+      throw new IllegalArgumentException("The limit cannot be negative.");
+    }
+    List<SearchHit> hits = new ArrayList<>();
+    if (query.isEmpty()) {
+      return hits;
+    }
+    for (IndexedStory indexedStory : stories.values()) {
+      indexedStory.search(query, hits);
+    }
+    hits.sort(Comparator.comparingInt(SearchHit::getScore).reversed());
+    return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+  }
+
+  /**
+   * Gets the number of stories in the index.
+   *
+   * @return The number of indexed stories.
+   */
+  public synchronized int getStoryCount() {
+    return stories.size();
+  }
+}
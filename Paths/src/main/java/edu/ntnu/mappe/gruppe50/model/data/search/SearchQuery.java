@@ -0,0 +1,111 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class that represents a query for the {@link SearchIndex}. A query is a list of phrases, where a
+ * passage matches the query if it contains every phrase. Words in double quotes form one phrase,
+ * and must follow each other in the passage. Every other word is a phrase of its own.
+ *
+ * <p>Text is split into terms in the same way for queries as for passages. A term is a run of
+ * letters and digits, in lower case, so searching is not case-sensitive, and punctuation is
+ * ignored. A word that is split into several terms, such as "don't", is searched for as a phrase.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class SearchQuery {
+
+  private final List<List<String>> phrases;
+
+  /**
+   * Creates a query of phrases.
+   *
+   * @param phrases The phrases, each being a list of terms.
+   */
+  private SearchQuery(List<List<String>> phrases) {
+    this.phrases = phrases;
+  }
+
+  /**
+   * Parses a query.
+   *
+   * @param query The query, where double quotes surround phrases.
+   * @return The parsed query.
+   * @throws IllegalArgumentException If the query is null.
+   */
+  public static SearchQuery parse(String query) throws IllegalArgumentException {
+    if (query == null) {
+      throw new IllegalArgumentException("The search query cannot be null.");
+    }
+    List<List<String>> phrases = new ArrayList<>();
+    String[] parts = query.split("\"", -1);
+    for (int i = 0; i < parts.length; i++) {
+      //Every other part is inside quotes
+      if (i % 2 == 1) {
+        addPhrase(phrases, tokenize(parts[i]));
+      } else {
+        for (String word : parts[i].split("\\s+")) {
+          addPhrase(phrases, tokenize(word));
+        }
+      }
+    }
+    return new SearchQuery(phrases);
+  }
+
+  /**
+   * Adds a phrase to a list of phrases, unless it has no terms.
+   *
+   * @param phrases The list of phrases.
+   * @param phrase  The terms of the phrase.
+   */
+  private static void addPhrase(List<List<String>> phrases, List<String> phrase) {
+    if (!phrase.isEmpty()) {
+      phrases.add(Collections.unmodifiableList(phrase));
+    }
+  }
+
+  /**
+   * Splits a text into terms, being the runs of letters and digits of the text in lower case.
+   *
+   * @param text The text.
+   * @return The terms of the text, in order.
+   */
+  static List<String> tokenize(String text) {
+    List<String> terms = new ArrayList<>();
+    StringBuilder term = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        term.append(Character.toLowerCase(c));
+      } else if (term.length() > 0) {
+        terms.add(term.toString());
+        term.setLength(0);
+      }
+    }
+    if (term.length() > 0) {
+      terms.add(term.toString());
+    }
+    return terms;
+  }
+
+  /**
+   * Gets the phrases of the query.
+   *
+   * @return An unmodifiable list of the phrases, each being a list of terms.
+   */
+  public List<List<String>> getPhrases() {
+    return Collections.unmodifiableList(phrases);
+  }
+
+  /**
+   * Checks if the query has no terms, in which case it matches nothing.
+   *
+   * @return True, if the query is empty.
+   */
+  public boolean isEmpty() {
+    return phrases.isEmpty();
+  }
+}
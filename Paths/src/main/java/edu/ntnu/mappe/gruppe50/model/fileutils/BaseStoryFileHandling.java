@@ -2,6 +2,7 @@ package edu.ntnu.mappe.gruppe50.model.fileutils;
 
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
 import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
 import edu.ntnu.mappe.gruppe50.model.data.actions.ActionFactory;
 import edu.ntnu.mappe.gruppe50.model.data.actions.ActionType;
@@ -44,6 +45,18 @@ public abstract class BaseStoryFileHandling {
         nextLine);
   }
 
+  /**
+   * Checks if a line that follows a passage title is passage content, from the kind of the line.
+   *
+   * @param token The kind of the line after the passage title.
+   * @return True, if the line is not blank, and is not a passage title OR a link OR an action.
+   *     Else, returns false.
+   */
+  static boolean isPassageContent(StoryLexer.Token token) {
+    return token != StoryLexer.Token.BLANK && token != StoryLexer.Token.PASSAGE_TITLE
+        && token != StoryLexer.Token.LINK && token != StoryLexer.Token.ACTION;
+  }
+
   /**
    * Checks if the input string is a link.
    *
@@ -89,6 +102,18 @@ public abstract class BaseStoryFileHandling {
     return new Passage(passageTitle, nextLine);
   }
 
+  /**
+   * Method for making a Passage from a .paths file, interning the title in a symbol table.
+   *
+   * @param line     first line of a passage in the .paths file. Should be a passage title.
+   * @param nextLine the line that comes after the passage title in the file.
+   * @param symbols  the symbol table of the story that is read.
+   * @return a Passage from the .paths file.
+   */
+  public static Passage readPassageFromFile(String line, String nextLine, SymbolTable symbols) {
+    return new Passage(symbols.intern(line.replace("::", "")), nextLine);
+  }
+
   /**
    * Method for making a Link from a .paths file. The method extracts a text and reference from the
    * string and creates a link.
@@ -101,6 +126,45 @@ public abstract class BaseStoryFileHandling {
         line.substring(line.indexOf("(") + 1, line.length() - 1));
   }
 
+  /**
+   * Method for making a Link from a .paths file, interning the text and reference in a symbol
+   * table.
+   *
+   * @param line    line of a link in the .paths file.
+   * @param symbols the symbol table of the story that is read.
+   * @return a Link from the .paths file.
+   */
+  public static Link readLinkFromFile(String line, SymbolTable symbols) {
+    return new Link(symbols.intern(line.substring(1, line.indexOf("]"))),
+        symbols.intern(line.substring(line.indexOf("(") + 1, line.length() - 1)));
+  }
+
+  /**
+   * Method for making a Link from the last line classified by a lexer.
+   *
+   * @param lexer the lexer that classified the line of the link.
+   * @return a Link from the file.
+   * @throws IllegalStateException If the last line classified by the lexer was not a link.
+   */
+  public static Link readLinkFromFile(StoryLexer lexer) throws IllegalStateException {
+    return new Link(lexer.getText(), lexer.getReference());
+  }
+
+  /**
+   * Method for making a Link from the last line classified by a lexer, interning the text and
+   * reference in a symbol table. The text and reference are found in the symbol table without
+   * copying them out of the line, unless they are new to the story.
+   *
+   * @param lexer   the lexer that classified the line of the link.
+   * @param symbols the symbol table of the story that is read.
+   * @return a Link from the .paths file.
+   * @throws IllegalStateException If the last line classified by the lexer was not a link.
+   */
+  public static Link readLinkFromFile(StoryLexer lexer, SymbolTable symbols)
+      throws IllegalStateException {
+    return new Link(lexer.getText(symbols), lexer.getReference(symbols));
+  }
+
   /**
    * Method for reading an action from a .paths file. The method extracts a type and a value from
    * the string and creates an action.
@@ -117,6 +181,19 @@ public abstract class BaseStoryFileHandling {
     return ActionFactory.buildAction(type, value);
   }
 
+  /**
+   * Method for reading an action from the last line classified by a lexer.
+   *
+   * @param lexer The lexer that classified the line of the action.
+   * @return An action using the type and value of the line.
+   * @throws IllegalArgumentException If the type or value parameters are invalid.
+   * @throws IllegalStateException    If the last line classified by the lexer was not an action.
+   */
+  public static Action readActionFromFile(StoryLexer lexer)
+      throws IllegalArgumentException, IllegalStateException {
+    return ActionFactory.buildAction(ActionType.of(lexer.getType()), lexer.getValue());
+  }
+
   /**
    * Method for reading a goal from a .paths file. The method extracts a type and value which are
    * used to create a goal.
@@ -133,6 +210,19 @@ public abstract class BaseStoryFileHandling {
     return GoalFactory.buildGoal(type, value);
   }
 
+  /**
+   * Method for reading a goal from the last line classified by a lexer.
+   *
+   * @param lexer The lexer that classified the line of the goal.
+   * @return A goal using the type and value of the line.
+   * @throws IllegalArgumentException If the type or value parameters are invalid.
+   * @throws IllegalStateException    If the last line classified by the lexer was not a goal.
+   */
+  public static Goal readGoalFromFile(StoryLexer lexer)
+      throws IllegalArgumentException, IllegalStateException {
+    return GoalFactory.buildGoal(GoalType.of(lexer.getType()), lexer.getValue());
+  }
+
   /**
    * Clears an entire file, specified by the parameter.
    *
@@ -0,0 +1,584 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
+import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ActionType;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ScoreAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoalType;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.HealthGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.ScoreGoal;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File handling class for reading and writing precompiled stories, from and to a binary .pathsc
+ * file. A .pathsc file holds the same story as a .paths file, but can be loaded without parsing any
+ * text, since every string is stored once and everything else refers to it by its index.
+ *
+ * <p>All numbers are big-endian. The file has these sections, in this order:
+ * <ol>
+ *   <li>The header: the int {@link #MAGIC}, the int {@link #VERSION}, and the size and last
+ *   modified time of the .paths file it was compiled from, as two longs. Both longs are zero if
+ *   the story was not compiled from a file.</li>
+ *   <li>The string table: the number of strings, followed by each string as the number of bytes
+ *   and the bytes in UTF-8.</li>
+ *   <li>The index of the story title in the string table.</li>
+ *   <li>The passage table: the number of passages, followed by the indexes of the title and the
+ *   content, and the number of links, of each passage. The opening passage is first.</li>
+ *   <li>The link table: the number of links, followed by the indexes of the text and the
+ *   reference, and the number of goals and actions, of each link, in the order of the passages.
+ *   </li>
+ *   <li>The goal table: the number of goals, followed by the type and value of each goal, in the
+ *   order of the links. The type is a byte with the ordinal of the {@link GoalType}. The value is
+ *   an int, except for inventory goals, where it is the number of items followed by the index of
+ *   each item.</li>
+ *   <li>The action table: the number of actions, followed by the type and value of each action,
+ *   in the order of the links. The type is a byte with the ordinal of the {@link ActionType}. The
+ *   value is an int, which is the index of the item for inventory actions.</li>
+ * </ol>
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class BinaryStoryFileHandling extends BaseStoryFileHandling {
+
+  private static final String binaryFileType = ".pathsc";
+  private static final String storyFileType = ".paths";
+
+  /**
+   * The first four bytes of every .pathsc file, being "PTHC" in ASCII.
+   */
+  public static final int MAGIC = 0x50544843;
+
+  /**
+   * The version of the .pathsc format. A file with another version is not read.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * Writes a story to a .pathsc file, without recording a .paths file that it was compiled from.
+   *
+   * @param story    The story that is written to file.
+   * @param filePath The absolute file path of the .pathsc file.
+   * @throws IOException                 If the file cannot be written to, or if story or filePath
+   *                                     are null.
+   * @throws InvalidStoryFormatException If the file path is not .pathsc.
+   */
+  public static void writeStoryToFile(Story story, String filePath)
+      throws IOException, InvalidStoryFormatException {
+    writeStoryToFile(story, filePath, 0, 0);
+  }
+
+  /**
+   * Compiles a .paths file to a .pathsc file with the same name, in the same directory.
+   *
+   * @param storyFilePath The absolute file path of the .paths file.
+   * @return The absolute file path of the .pathsc file.
+   * @throws IOException                 If a file cannot be read or written to, or if the file path
+   *                                     is null.
+   * @throws InvalidStoryFormatException If the .paths file is invalid.
+   */
+  public static String compileStoryFile(String storyFilePath)
+      throws IOException, InvalidStoryFormatException {
+    if (storyFilePath == null) {
+      throw new IOException("File path cannot be null");
+    }
+    if (!storyFilePath.endsWith(storyFileType)) {
+      throw new InvalidStoryFormatException(
+          "The file does not have the correct " + storyFileType + " file type");
+    }
+    File storyFile = new File(storyFilePath);
+    long size = storyFile.length();
+    long modified = storyFile.lastModified();
+    Story story = StoryFileHandling.readStoryFromFile(storyFilePath);
+
+    String binaryFilePath = getBinaryFilePath(storyFilePath);
+    writeStoryToFile(story, binaryFilePath, size, modified);
+    return binaryFilePath;
+  }
+
+  /**
+   * Reads a story from a .paths file, using the .pathsc file next to it if it is up to date. The
+   * .pathsc file is up to date if it was compiled from a .paths file with the same size and last
+   * modified time as the .paths file has now. Otherwise, the .paths file is parsed as usual.
+   *
+   * @param storyFilePath The absolute file path of the .paths file.
+   * @return The story.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the .paths file is invalid.
+   */
+  public static Story readPrecompiledStoryFromFile(String storyFilePath)
+      throws IOException, InvalidStoryFormatException {
+    return readPrecompiledStoryFromFile(storyFilePath, LoadProgress.NONE);
+  }
+
+  /**
+   * Reads a story from a .paths file like {@link #readPrecompiledStoryFromFile(String)}, reporting
+   * how much of the file has been read. A precompiled story is reported as read all at once, since
+   * it is loaded without parsing.
+   *
+   * @param storyFilePath The absolute file path of the .paths file.
+   * @param progress      The receiver of the progress, which may cancel the reading by throwing a
+   *                      {@link java.util.concurrent.CancellationException}.
+   * @return The story.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the .paths file is invalid.
+   * @throws IllegalArgumentException    If the progress is null.
+   */
+  public static Story readPrecompiledStoryFromFile(String storyFilePath, LoadProgress progress)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
+    if (storyFilePath != null && storyFilePath.endsWith(storyFileType)) {
+      File storyFile = new File(storyFilePath);
+      Path binaryFile = Path.of(getBinaryFilePath(storyFilePath));
+      if (Files.isRegularFile(binaryFile)) {
+        try {
+          ByteBuffer buffer = map(binaryFile);
+          if (isCompiledFrom(buffer, storyFile.length(), storyFile.lastModified())) {
+            Story story = readStory(buffer);
+            progress.update(storyFile.length(), storyFile.length());
+            return story;
+          }
+        } catch (IOException | InvalidStoryFormatException e) {
+          //The .paths file is read instead, as the .pathsc file is only a copy of it
+        }
+      }
+    }
+    return StoryFileHandling.readStoryFromFile(storyFilePath, progress);
+  }
+
+  /**
+   * Reads a story from a .pathsc file. The file is memory-mapped and read straight from the
+   * mapping.
+   *
+   * @param filePath The absolute file path of the .pathsc file.
+   * @return The story in the file.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the file is not .pathsc, is of another version, or is
+   *                                     not a valid .pathsc file.
+   */
+  public static Story readStoryFromFile(String filePath)
+      throws IOException, InvalidStoryFormatException {
+    if (filePath == null) {
+      throw new IOException("File path cannot be null");
+    }
+    if (!filePath.endsWith(binaryFileType)) {
+      throw new InvalidStoryFormatException(
+          "The file does not have the correct " + binaryFileType + " file type");
+    }
+
+    ByteBuffer buffer;
+    try {
+      buffer = map(Path.of(filePath));
+    } catch (IOException ioe) {
+      throw new IOException("Could not find a file in path: " + filePath, ioe);
+    }
+    return readStory(buffer);
+  }
+
+  /**
+   * Compiles every .paths file in the given directories to .pathsc files. This is used to
+   * precompile the stories that are shipped with the application when it is built.
+   *
+   * @param args The absolute paths of the directories.
+   * @throws IOException                 If a file cannot be read or written to.
+   * @throws InvalidStoryFormatException If a .paths file is invalid.
+   */
+  public static void main(String[] args) throws IOException, InvalidStoryFormatException {
+    if (args.length == 0) {
+      System.out.println("Usage: BinaryStoryFileHandling <directory> [directory...]");
+      return;
+    }
+    for (String directory : args) {
+      File[] files = new File(directory).listFiles(
+          (dir, name) -> name.endsWith(storyFileType));
+      if (files == null) {
+        throw new IOException("Could not find a directory in path: " + directory);
+      }
+      for (File file : files) {
+        System.out.println("Compiled " + compileStoryFile(file.getAbsolutePath()));
+      }
+    }
+  }
+
+  /**
+   * Gets the path of the .pathsc file of a .paths file.
+   *
+   * @param storyFilePath The path of the .paths file.
+   * @return The path of the .pathsc file.
+   */
+  static String getBinaryFilePath(String storyFilePath) {
+    return storyFilePath.substring(0, storyFilePath.length() - storyFileType.length())
+        + binaryFileType;
+  }
+
+  /**
+   * Writes a story to a .pathsc file.
+   *
+   * @param story          The story that is written to file.
+   * @param filePath       The absolute file path of the .pathsc file.
+   * @param sourceSize     The size of the .paths file the story was compiled from, or zero.
+   * @param sourceModified The last modified time of the .paths file, or zero.
+   * @throws IOException                 If the file cannot be written to, or if story or filePath
+   *                                     are null.
+   * @throws InvalidStoryFormatException If the file path is not .pathsc.
+   */
+  private static void writeStoryToFile(Story story, String filePath, long sourceSize,
+      long sourceModified) throws IOException, InvalidStoryFormatException {
+    if (story == null || filePath == null) {
+      throw new IOException("The input story and filePath cannot be null");
+    }
+    if (!filePath.endsWith(binaryFileType)) {
+      throw new InvalidStoryFormatException(
+          "The file does not have the correct " + binaryFileType + " file type");
+    }
+
+    //Collects the strings, links, goals and actions in the order they are written
+    SymbolTable strings = new SymbolTable();
+    strings.intern(story.getTitle());
+    List<Link> links = new ArrayList<>();
+    List<Goal> goals = new ArrayList<>();
+    List<Action> actions = new ArrayList<>();
+    for (Passage passage : story.getPassages()) {
+      strings.intern(passage.getTitle());
+      strings.intern(passage.getContent());
+      for (Link link : passage.getLinks()) {
+        strings.intern(link.getText());
+        strings.intern(link.getReference());
+        links.add(link);
+        for (Goal goal : link.getGoals()) {
+          if (goal instanceof InventoryGoal inventoryGoal) {
+            inventoryGoal.getValue().forEach(strings::intern);
+          }
+          goals.add(goal);
+        }
+        for (Action action : link.getActions()) {
+          if (action instanceof InventoryAction inventoryAction) {
+            strings.intern(inventoryAction.getValue());
+          }
+          actions.add(action);
+        }
+      }
+    }
+
+    try (FileOutputStream fileOutputStream = new FileOutputStream(filePath);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutputStream))) {
+
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(sourceSize);
+      out.writeLong(sourceModified);
+
+      out.writeInt(strings.size());
+      for (int i = 0; i < strings.size(); i++) {
+        byte[] bytes = strings.getSymbol(i).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      out.writeInt(strings.getId(story.getTitle()));
+
+      out.writeInt(story.getPassages().size());
+      for (Passage passage : story.getPassages()) {
+        out.writeInt(strings.getId(passage.getTitle()));
+        out.writeInt(strings.getId(passage.getContent()));
+        out.writeInt(passage.getLinks().size());
+      }
+
+      out.writeInt(links.size());
+      for (Link link : links) {
+        out.writeInt(strings.getId(link.getText()));
+        out.writeInt(strings.getId(link.getReference()));
+        out.writeInt(link.getGoals().size());
+        out.writeInt(link.getActions().size());
+      }
+
+      out.writeInt(goals.size());
+      for (Goal goal : goals) {
+        if (goal instanceof GoldGoal goldGoal) {
+          out.writeByte(GoalType.GOLD.ordinal());
+          out.writeInt(goldGoal.getValue());
+        } else if (goal instanceof HealthGoal healthGoal) {
+          out.writeByte(GoalType.HEALTH.ordinal());
+          out.writeInt(healthGoal.getValue());
+        } else if (goal instanceof ScoreGoal scoreGoal) {
+          out.writeByte(GoalType.SCORE.ordinal());
+          out.writeInt(scoreGoal.getValue());
+        } else if (goal instanceof InventoryGoal inventoryGoal) {
+          out.writeByte(GoalType.INVENTORY.ordinal());
+          out.writeInt(inventoryGoal.getValue().size());
+          for (String item : inventoryGoal.getValue()) {
+            out.writeInt(strings.getId(item));
+          }
+        }
+      }
+
+      out.writeInt(actions.size());
+      for (Action action : actions) {
+        if (action instanceof GoldAction goldAction) {
+          out.writeByte(ActionType.GOLD.ordinal());
+          out.writeInt(goldAction.getValue());
+        } else if (action instanceof HealthAction healthAction) {
+          out.writeByte(ActionType.HEALTH.ordinal());
+          out.writeInt(healthAction.getValue());
+        } else if (action instanceof ScoreAction scoreAction) {
+          out.writeByte(ActionType.SCORE.ordinal());
+          out.writeInt(scoreAction.getValue());
+        } else if (action instanceof InventoryAction inventoryAction) {
+          out.writeByte(ActionType.INVENTORY.ordinal());
+          out.writeInt(strings.getId(inventoryAction.getValue()));
+        }
+      }
+    } catch (IOException ex) {
+      throw new IOException("Error writing story to file: " + ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Maps a file into memory.
+   *
+   * @param file The path of the file.
+   * @return The mapped file.
+   * @throws IOException If the file cannot be opened, or if it is larger than 2 GB.
+   */
+  private static ByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The file is too large to be mapped: " + file);
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Checks if a mapped .pathsc file was compiled from a .paths file with a given size and last
+   * modified time.
+   *
+   * @param buffer   The mapped .pathsc file.
+   * @param size     The size of the .paths file.
+   * @param modified The last modified time of the .paths file.
+   * @return True, if the file is of the current version and was compiled from such a file.
+   */
+  private static boolean isCompiledFrom(ByteBuffer buffer, long size, long modified) {
+    return buffer.limit() >= 24 && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+        && buffer.getLong(8) == size && buffer.getLong(16) == modified && size != 0;
+  }
+
+  /**
+   * Reads a story from a mapped .pathsc file.
+   *
+   * @param buffer The mapped file.
+   * @return The story in the file.
+   * @throws InvalidStoryFormatException If the file is of another version, or is not a valid
+   *                                     .pathsc file.
+   */
+  private static Story readStory(ByteBuffer buffer) throws InvalidStoryFormatException {
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new InvalidStoryFormatException("The file is not a " + binaryFileType + " file");
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new InvalidStoryFormatException("The " + binaryFileType + " file has version "
+            + version + ", but only version " + VERSION + " can be read");
+      }
+      buffer.position(buffer.position() + 16);
+
+      //The strings in the table are unique, so equal titles and references share one instance
+      String[] strings = new String[readCount(buffer)];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[readCount(buffer)];
+        buffer.get(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+      String title = readString(buffer, strings);
+
+      Passage[] passages = new Passage[readCount(buffer)];
+      int[] passageLinks = new int[passages.length];
+      for (int i = 0; i < passages.length; i++) {
+        passages[i] = new Passage(readString(buffer, strings), readString(buffer, strings));
+        passageLinks[i] = readCount(buffer);
+      }
+
+      Link[] links = new Link[readCount(buffer)];
+      int[] linkGoals = new int[links.length];
+      int[] linkActions = new int[links.length];
+      long goalSum = 0;
+      long actionSum = 0;
+      for (int i = 0; i < links.length; i++) {
+        links[i] = new Link(readString(buffer, strings), readString(buffer, strings));
+        linkGoals[i] = readCount(buffer);
+        linkActions[i] = readCount(buffer);
+        goalSum += linkGoals[i];
+        actionSum += linkActions[i];
+      }
+
+      //Every goal and action of the links must be in the tables, so none are silently dropped
+      int goalCount = readCount(buffer);
+      if (goalCount != goalSum) {
+        throw new InvalidStoryFormatException("The goal table has " + goalCount
+            + " goals, but the links have " + goalSum);
+      }
+      int link = 0;
+      for (int i = 0; i < goalCount; i++) {
+        while (link < links.length && links[link].getGoals().size() == linkGoals[link]) {
+          link++;
+        }
+        if (link == links.length) {
+          throw new InvalidStoryFormatException("The goal table does not match the link table");
+        }
+        links[link].addGoal(readGoal(buffer, strings));
+      }
+
+      int actionCount = readCount(buffer);
+      if (actionCount != actionSum) {
+        throw new InvalidStoryFormatException("The action table has " + actionCount
+            + " actions, but the links have " + actionSum);
+      }
+      link = 0;
+      for (int i = 0; i < actionCount; i++) {
+        while (link < links.length && links[link].getActions().size() == linkActions[link]) {
+          link++;
+        }
+        if (link == links.length) {
+          throw new InvalidStoryFormatException("The action table does not match the link table");
+        }
+        links[link].addAction(readAction(buffer, strings));
+      }
+
+      link = 0;
+      for (int i = 0; i < passages.length; i++) {
+        for (int j = 0; j < passageLinks[i]; j++) {
+          if (link == links.length) {
+            throw new InvalidStoryFormatException(
+                "The passage table does not match the link table");
+          }
+          passages[i].addLink(links[link++]);
+        }
+      }
+      if (passages.length == 0) {
+        throw new InvalidStoryFormatException("Story must consist of at least one passage");
+      }
+
+      Story story = new Story(title, passages[0]);
+      for (int i = 1; i < passages.length; i++) {
+        story.addPassage(passages[i]);
+      }
+      return story;
+    } catch (BufferUnderflowException bue) {
+      throw new InvalidStoryFormatException("The " + binaryFileType + " file is truncated", bue);
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    }
+  }
+
+  /**
+   * Reads a goal from the goal table.
+   *
+   * @param buffer  The mapped file, at the start of the goal.
+   * @param strings The string table.
+   * @return The goal.
+   * @throws InvalidStoryFormatException If the goal type or an index is invalid.
+   */
+  private static Goal readGoal(ByteBuffer buffer, String[] strings)
+      throws InvalidStoryFormatException {
+    GoalType[] types = GoalType.values();
+    int type = buffer.get();
+    if (type < 0 || type >= types.length) {
+      throw new InvalidStoryFormatException("Goal type does not exist");
+    }
+    return switch (types[type]) {
+      case GOLD -> new GoldGoal(buffer.getInt());
+      case HEALTH -> new HealthGoal(buffer.getInt());
+      case SCORE -> new ScoreGoal(buffer.getInt());
+      case INVENTORY -> {
+        List<String> items = new ArrayList<>();
+        int count = readCount(buffer);
+        for (int i = 0; i < count; i++) {
+          items.add(readString(buffer, strings));
+        }
+        yield new InventoryGoal(items);
+      }
+    };
+  }
+
+  /**
+   * Reads an action from the action table.
+   *
+   * @param buffer  The mapped file, at the start of the action.
+   * @param strings The string table.
+   * @return The action.
+   * @throws InvalidStoryFormatException If the action type or an index is invalid.
+   */
+  private static Action readAction(ByteBuffer buffer, String[] strings)
+      throws InvalidStoryFormatException {
+    ActionType[] types = ActionType.values();
+    int type = buffer.get();
+    if (type < 0 || type >= types.length) {
+      throw new InvalidStoryFormatException("Action type does not exist");
+    }
+    return switch (types[type]) {
+      case GOLD -> new GoldAction(buffer.getInt());
+      case HEALTH -> new HealthAction(buffer.getInt());
+      case SCORE -> new ScoreAction(buffer.getInt());
+      case INVENTORY -> new InventoryAction(readString(buffer, strings));
+    };
+  }
+
+  /**
+   * Reads an index in the string table, and gets the string.
+   *
+   * @param buffer  The mapped file, at the index.
+   * @param strings The string table.
+   * @return The string.
+   * @throws InvalidStoryFormatException If the index is outside the string table.
+   */
+  private static String readString(ByteBuffer buffer, String[] strings)
+      throws InvalidStoryFormatException {
+    int index = buffer.getInt();
+    if (index < 0 || index >= strings.length) {
+      throw new InvalidStoryFormatException("The string index " + index + " does not exist");
+    }
+    return strings[index];
+  }
+
+  /**
+   * Reads a count, checking that there are at least as many bytes left in the file, so a corrupt
+   * count cannot make the reader allocate more memory than the file could fill.
+   *
+   * @param buffer The mapped file, at the count.
+   * @return The count.
+   * @throws InvalidStoryFormatException If the count is negative or larger than the rest of the
+   *                                     file.
+   */
+  private static int readCount(ByteBuffer buffer) throws InvalidStoryFormatException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining()) {
+      throw new InvalidStoryFormatException("The count " + count + " is invalid");
+    }
+    return count;
+  }
+}
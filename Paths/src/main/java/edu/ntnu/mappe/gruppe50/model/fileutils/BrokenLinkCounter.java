@@ -0,0 +1,88 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Story handler that counts the passages, links and broken links of a .paths file while it is
+ * parsed. A link is broken if no passage in the file has its reference as title. The counter only
+ * keeps the passage titles, and the references that no passage has had as title yet, together with
+ * how many links use them. A reference is forgotten as soon as a passage with that title is read.
+ *
+ * <p>Since the counter has every title, it also checks that no two passages have the same title,
+ * just like a story does when a passage is added.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class BrokenLinkCounter implements StoryHandler {
+
+  private final Set<String> titles = new HashSet<>();
+  private final Map<String, Integer> unresolved = new HashMap<>();
+  private int passageCount;
+  private int linkCount;
+
+  /**
+   * Receives a passage, resolving the links that reference its title.
+   *
+   * @param title   The title of the passage.
+   * @param content The content of the passage.
+   * @throws IllegalArgumentException If a passage with the same title has been read before.
+   */
+  @Override
+  public void onPassage(String title, String content) throws IllegalArgumentException {
+    if (!titles.add(title)) {
+      throw new IllegalArgumentException("Cannot add a duplicate link-key to the passages hashmap");
+    }
+    unresolved.remove(title);
+    passageCount++;
+  }
+
+  /**
+   * Receives a link, which is unresolved until a passage with its reference as title is read.
+   *
+   * @param text      The text of the link.
+   * @param reference The reference of the link.
+   */
+  @Override
+  public void onLink(String text, String reference) {
+    if (!titles.contains(reference)) {
+      unresolved.merge(reference, 1, Integer::sum);
+    }
+    linkCount++;
+  }
+
+  /**
+   * Gets the number of passages that have been read.
+   *
+   * @return The number of passages.
+   */
+  public int getPassageCount() {
+    return passageCount;
+  }
+
+  /**
+   * Gets the number of links that have been read.
+   *
+   * @return The number of links.
+   */
+  public int getLinkCount() {
+    return linkCount;
+  }
+
+  /**
+   * Gets the number of links that reference a passage that has not been read. Once the whole file
+   * has been parsed, these are the broken links of the story.
+   *
+   * @return The number of broken links.
+   */
+  public int getBrokenLinkCount() {
+    int count = 0;
+    for (int links : unresolved.values()) {
+      count += links;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,289 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches files for changes. The directories of the files are watched with a {@link WatchService}
+ * on a background thread, so nothing is read while the files are unchanged.
+ *
+ * <p>An editor often writes a file in several steps, each of which is reported as a change. The
+ * changes are therefore debounced: the listener is told about a changed file once no change has
+ * been reported for the debounce delay. Only the files that are watched are passed on, each on a
+ * pool of worker threads. The listener must pass a change on to the JavaFX application thread
+ * itself if it changes the view.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class FileWatcher implements Closeable {
+
+  private final long debounceMillis;
+  private final Listener listener;
+  private final WatchService watchService;
+  private final ScheduledExecutorService debouncer;
+  private final ExecutorService workers;
+
+  private final Set<Path> files = new HashSet<>();
+  private final Map<Path, WatchKey> directories = new HashMap<>();
+  private final Set<Path> changedFiles = new LinkedHashSet<>();
+  private ScheduledFuture<?> scheduledChange;
+  private long changeCount;
+
+  /**
+   * Creates a watcher that is not watching any files yet. The watcher runs until it is closed.
+   *
+   * @param debounceMillis The time in milliseconds without changes before a changed file is
+   *                       passed on.
+   * @param workers        The number of changed files that are passed on at a time.
+   * @param name           The name of the threads of the watcher.
+   * @param listener       The listener that is told about the files that have changed.
+   * @throws IOException              If the file system cannot be watched.
+   * @throws IllegalArgumentException If the debounce delay is negative, the number of workers is
+   *                                  less than one, or the name or listener is null.
+   */
+  public FileWatcher(long debounceMillis, int workers, String name, Listener listener)
+      throws IOException, IllegalArgumentException {
+    if (debounceMillis < 0) {
+      throw new IllegalArgumentException("The debounce delay cannot be negative.");
+    }
+    if (workers < 1) {
+      throw new IllegalArgumentException("The number of workers must be at least one.");
+    }
+    if (name == null) {
+      throw new IllegalArgumentException("The name cannot be null.");
+    }
+    if (listener == null) {
+      throw new IllegalArgumentException("The listener cannot be null.");
+    }
+    this.debounceMillis = debounceMillis;
+    this.listener = listener;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.debouncer = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + " debouncer"));
+    this.workers = Executors.newFixedThreadPool(workers, daemonThreads(name + " worker"));
+    daemonThreads(name + " watcher").newThread(this::watch).start();
+  }
+
+  /**
+   * Starts watching a file.
+   *
+   * @param file The path of the file.
+   * @throws IOException              If the directory of the file cannot be watched.
+   * @throws IllegalArgumentException If the path is null.
+   */
+  public synchronized void watch(Path file) throws IOException, IllegalArgumentException {
+    if (file == null) {
+      throw new IllegalArgumentException("The file cannot be null.");
+    }
+    file = toWatchedPath(file);
+    Path directory = file.getParent();
+    if (!directories.containsKey(directory)) {
+      directories.put(directory, directory.register(watchService,
+          StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+    }
+    files.add(file);
+  }
+
+  /**
+   * Stops watching a file. The directory of the file is no longer watched when none of its files
+   * are.
+   *
+   * @param file The path of the file.
+   * @throws IllegalArgumentException If the path is null.
+   */
+  public synchronized void unwatch(Path file) throws IllegalArgumentException {
+    if (file == null) {
+      throw new IllegalArgumentException("The file cannot be null.");
+    }
+    Path watched = toWatchedPath(file);
+    if (!files.remove(watched)) {
+      return;
+    }
+    changedFiles.remove(watched);
+    Path directory = watched.getParent();
+    if (files.stream().noneMatch(other -> directory.equals(other.getParent()))) {
+      directories.remove(directory).cancel();
+    }
+  }
+
+  /**
+   * Checks if a file is watched.
+   *
+   * @param file The path of the file.
+   * @return True, if the file is watched.
+   */
+  public synchronized boolean isWatched(Path file) {
+    return file != null && files.contains(toWatchedPath(file));
+  }
+
+  /**
+   * Gets the number of changed files that have been passed on to the listener. A file that changes
+   * several times within the debounce delay is passed on once.
+   *
+   * @return The number of changes.
+   */
+  public synchronized long getChangeCount() {
+    return changeCount;
+  }
+
+  /**
+   * Checks if the watcher has been closed.
+   *
+   * @return True, if the watcher is closed.
+   */
+  public boolean isClosed() {
+    return workers.isShutdown();
+  }
+
+  /**
+   * Stops watching the files. Changes that are being passed on are finished.
+   *
+   * @throws IOException If the watch service cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    debouncer.shutdownNow();
+    workers.shutdownNow();
+    watchService.close();
+  }
+
+  /**
+   * Converts a path to the absolute, normalized path that the files are watched by.
+   *
+   * @param file The path.
+   * @return The absolute, normalized path.
+   */
+  static Path toWatchedPath(Path file) {
+    return file.toAbsolutePath().normalize();
+  }
+
+  /**
+   * Takes the changes that are reported by the watch service until it is closed, and schedules
+   * the changed files that are watched to be passed on.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            changedAll(directory);
+          } else {
+            changed(directory.resolve((Path) event.context()));
+          }
+        }
+        key.reset();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Marks a file as changed if it is watched, and delays passing on the changed files by the
+   * debounce delay.
+   *
+   * @param file The file that has changed.
+   */
+  private synchronized void changed(Path file) {
+    if (files.contains(file)) {
+      changedFiles.add(file);
+      scheduleChanges();
+    }
+  }
+
+  /**
+   * Marks every watched file of a directory as changed, because some of its changes were lost.
+   *
+   * @param directory The directory whose changes were lost.
+   */
+  private synchronized void changedAll(Path directory) {
+    for (Path file : files) {
+      if (directory.equals(file.getParent())) {
+        changedFiles.add(file);
+      }
+    }
+    scheduleChanges();
+  }
+
+  /**
+   * Schedules passing on the changed files, replacing a schedule that has not started yet.
+   */
+  private void scheduleChanges() {
+    if (scheduledChange != null) {
+      scheduledChange.cancel(false);
+    }
+    if (!debouncer.isShutdown()) {
+      scheduledChange = debouncer.schedule(this::passOnChangedFiles, debounceMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Passes each of the changed files on to the listener on a worker thread. The changed files are
+   * dropped if the watcher is closed, since they are no longer passed on.
+   */
+  private synchronized void passOnChangedFiles() {
+    try {
+      for (Path file : changedFiles) {
+        if (isClosed()) {
+          return;
+        }
+        workers.execute(() -> listener.changed(file));
+        changeCount++;
+      }
+    } catch (RejectedExecutionException e) {
+      //The watcher was closed while the changed files were passed on
+    } finally {
+      changedFiles.clear();
+    }
+  }
+
+  /**
+   * Creates a factory of daemon threads, so the watcher does not keep the application running.
+   *
+   * @param name The name of the threads.
+   * @return The thread factory.
+   */
+  private static ThreadFactory daemonThreads(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Listener that is told about watched files that have changed.
+   */
+  @FunctionalInterface
+  public interface Listener {
+
+    /**
+     * Receives a watched file that has changed. The listener is called on a worker thread.
+     *
+     * @param file The absolute, normalized path of the file.
+     */
+    void changed(Path file);
+  }
+}
@@ -48,6 +48,35 @@ public class GameFileHandling {
   public static Game readGameFromFile(String filePath, boolean inMain)
       throws IOException, InvalidStoryFormatException, InvalidLinkFormatException,
       InvalidGoalFormatException {
+    return readGameFromFile(filePath, inMain, LoadProgress.NONE);
+  }
+
+  /**
+   * Reads a .game file like {@link #readGameFromFile(String, boolean)}, reporting how much of the
+   * story has been read. The story is by far the largest part of a game, so the progress of reading
+   * the game is the progress of reading its story. Visited links that are still in the
+   * {@link LinkJournal} of the .links file are folded into the .links file first.
+   *
+   * @param filePath The absolute file path of the file.
+   * @param inMain   Indicates if the files should be in main or test.
+   * @param progress The receiver of the progress, which may cancel the reading by throwing a
+   *                 {@link java.util.concurrent.CancellationException}.
+   * @return An instance of the Game object.
+   * @throws IOException                 If the filetype is not .game, if the formatting of the
+   *                                     .game file is invalid or if any of the constituent files
+   *                                     could not be found.
+   * @throws InvalidStoryFormatException If the formatting of the .paths file is invalid.
+   * @throws InvalidLinkFormatException  If the formatting of the .links file is invalid.
+   * @throws InvalidGoalFormatException  If the formatting of the .goals file is invalid.
+   * @throws NullPointerException        If the file has only one line.
+   * @throws IllegalArgumentException    If the progress is null.
+   */
+  public static Game readGameFromFile(String filePath, boolean inMain, LoadProgress progress)
+      throws IOException, InvalidStoryFormatException, InvalidLinkFormatException,
+      InvalidGoalFormatException {
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
     if (filePath == null) {
       throw new IllegalArgumentException("FilePath cannot be null.");
     }
@@ -69,14 +98,17 @@ public class GameFileHandling {
     Player player = PlayerFileHandling.readPlayerFromFile(
         GameFileHandling.readSecondLineFromFile(filePath),
         filePath.replace("gameFiles/game.game", "playerFiles/players.players"));
-    Story story = StoryFileHandling.readStoryFromFile(GameFileHandling.readFirstLineFromFile(
-        System.getProperty("user.dir") + "/src/" + mainOrTest + "/resources/gameFiles/game.game"));
+    Story story = StoryCache.getSharedCache().getStory(
+        GameFileHandling.readFirstLineFromFile(System.getProperty("user.dir") + "/src/"
+            + mainOrTest + "/resources/gameFiles/game.game"), progress);
     List<Goal> goals = GoalFileHandling.readGoalsFromFile(
         System.getProperty("user.dir") + "/src/" + mainOrTest + "/resources/goalFiles/"
             + gameFilesArray[gameFilesArray.length - 1].replace(".paths", ".goals")).getGoals();
-    LinkRegister links = LinkFileHandling.readLinksFromFile(
-        System.getProperty("user.dir") + "/src/" + mainOrTest + "/resources/linkFiles/links.links");
-    return new Game(player, story, goals, links);
+    String linksFilePath =
+        System.getProperty("user.dir") + "/src/" + mainOrTest + "/resources/linkFiles/links.links";
+    LinkRegister links = LinkJournal.recover(linksFilePath,
+        LinkJournal.getJournalFilePath(linksFilePath));
+    return Game.fromCompiledStory(player, story.compile(), goals, links);
   }
 
   /**
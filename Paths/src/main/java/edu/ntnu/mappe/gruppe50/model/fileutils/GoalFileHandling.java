@@ -77,6 +77,7 @@ public class GoalFileHandling extends BaseStoryFileHandling {
         throw new InvalidGoalFormatException("The file does not have the correct .goals file type");
       }
 
+      StoryLexer lexer = new StoryLexer();
       String nextLine = "";
       while (nextLine != null) {
         nextLine = br.readLine();
@@ -84,8 +85,8 @@ public class GoalFileHandling extends BaseStoryFileHandling {
         //this if branch prevents a nullpointer exception from occurring in the next else-if
         if (nextLine == null) {
           continue;
-        } else if (isGoal(nextLine)) {
-          goal = readGoalFromFile(nextLine);
+        } else if (lexer.lex(nextLine) == StoryLexer.Token.GOAL) {
+          goal = readGoalFromFile(lexer);
           goalsRegister.addGoal(goal);
         } else {
           throw new InvalidGoalFormatException("Goals file does not match .goals file format");
@@ -5,11 +5,16 @@ import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
 import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
 import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryLexer.Token;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * File handling class for reading and writing visited links in a game, from or to a .links file.
@@ -23,28 +28,36 @@ public class LinkFileHandling extends BaseStoryFileHandling {
   private static final String linkFileType = ".links";
 
   /**
-   * Writes a LinkRegister to a file, both of which are specified by the method parameters.
+   * Writes a LinkRegister to a file, both of which are specified by the method parameters. The
+   * links are written to a temporary file that then replaces the file, so a file that cannot be
+   * written keeps the links it had.
    *
    * @param links    The target LinkRegister that is written to file.
    * @param filePath The absolute file path of the file.
-   * @throws IOException                If links cannot be written to file.
-   * @throws InvalidLinkFormatException If the file type is not .link or if the links or file path
-   *                                    are null.
+   * @throws IOException                If links cannot be written to file, or if the links or file
+   *                                    path are null.
+   * @throws InvalidLinkFormatException If the file type is not .links.
    */
   public static void writeLinksToFile(LinkRegister links, String filePath)
       throws IOException, InvalidLinkFormatException {
-    try (FileWriter fileWriter = new FileWriter(filePath);
-        BufferedWriter bw = new BufferedWriter(fileWriter)) {
+    if (links == null || filePath == null) {
+      throw new IOException("The links and file path cannot be null");
+    }
+    if (!filePath.endsWith(linkFileType)) {
+      throw new InvalidLinkFormatException("The file does not have the correct .links file type");
+    }
 
-      if (!filePath.endsWith(linkFileType)) {
-        throw new InvalidLinkFormatException("The file does not have the correct .links file type");
+    Path target = new File(filePath).toPath().toAbsolutePath();
+    Path tempFile = Files.createTempFile(target.getParent(), "links", ".tmp");
+    try {
+      try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempFile.toFile()))) {
+        bw.write(links.toString());
       }
-
-      bw.write(links.toString());
+      Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
     } catch (IOException ex) {
       throw new IOException("Error writing links to file: " + ex.getMessage(), ex);
-    } catch (NullPointerException nfe) {
-      throw new IOException("The links and file path cannot be null", nfe);
+    } finally {
+      Files.deleteIfExists(tempFile);
     }
   }
 
@@ -59,8 +72,6 @@ public class LinkFileHandling extends BaseStoryFileHandling {
    */
   public static LinkRegister readLinksFromFile(String filePath)
       throws IOException, InvalidLinkFormatException {
-    LinkRegister links = new LinkRegister();
-
     try (FileReader fileReader = new FileReader(filePath);
         BufferedReader br = new BufferedReader(fileReader)) {
 
@@ -68,16 +79,43 @@ public class LinkFileHandling extends BaseStoryFileHandling {
         throw new InvalidLinkFormatException("The file does not have the correct .links file type");
       }
 
+      return readLinks(br);
+    } catch (IOException ioe) {
+      throw new IOException("Could not find a file in path: " + filePath, ioe);
+    } catch (NullPointerException nfe) {
+      throw new IOException("File path cannot be null", nfe);
+    }
+  }
+
+  /**
+   * Reads a LinkRegister from a reader of text in the .links file format. Used both for .links
+   * files and for the records of a {@link LinkJournal}, which are links in the same format.
+   *
+   * @param br The reader of the text.
+   * @return A LinkRegister of the links in the text.
+   * @throws IOException                If the text cannot be read.
+   * @throws InvalidLinkFormatException If the formatting of the text is invalid.
+   */
+  static LinkRegister readLinks(BufferedReader br) throws IOException, InvalidLinkFormatException {
+    LinkRegister links = new LinkRegister();
+
+    try {
       Link link = null;
+      StoryLexer lexer = new StoryLexer();
 
       String line;
       String nextLine = "nextLine";
+      Token token;
+      Token nextToken = Token.TEXT;
 
       while ((line = nextLine) != null) {
+        token = nextToken;
         nextLine = br.readLine();
+        nextToken = nextLine == null ? null : lexer.lex(nextLine);
 
         //Adds a link to the register at an empty line or at the end of the file
-        if (((nextLine == null) || nextLine.isBlank() && !line.isBlank()) && link != null) {
+        if (((nextLine == null) || nextToken == Token.BLANK && token != Token.BLANK)
+            && link != null) {
           links.addLink(link);
           link = null;
 
@@ -85,30 +123,26 @@ public class LinkFileHandling extends BaseStoryFileHandling {
         } else if (nextLine == null) {
           continue;
 
-        } else if (isLink(nextLine)) {
-          link = readLinkFromFile(nextLine);
+        } else if (nextToken == Token.LINK) {
+          link = readLinkFromFile(lexer);
 
           //Checks if the line is a goal. Goals are written before actions
-        } else if (isGoal(nextLine) && !isAction(line) && link != null) {
-          Goal goal = readGoalFromFile(nextLine);
+        } else if (nextToken == Token.GOAL && token != Token.ACTION && link != null) {
+          Goal goal = readGoalFromFile(lexer);
           link.addGoal(goal);
 
-        } else if (isAction(nextLine) && link != null) {
-          Action action = readActionFromFile(nextLine);
+        } else if (nextToken == Token.ACTION && link != null) {
+          Action action = readActionFromFile(lexer);
           link.addAction(action);
         } else {
           throw new InvalidLinkFormatException("File does not match .links file format");
         }
       }
-    } catch (IOException ioe) {
-      throw new IOException("Could not find a file in path: " + filePath, ioe);
     } catch (NumberFormatException sioob) {
       throw new InvalidLinkFormatException("The formatting of an action or link "
           + "is invalid", sioob);
     } catch (IllegalArgumentException iae) {
       throw new InvalidLinkFormatException(iae.getMessage(), iae);
-    } catch (NullPointerException nfe) {
-      throw new IOException("File path cannot be null", nfe);
     }
     return links;
   }
@@ -0,0 +1,882 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidLinkFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the links that are visited in a game. Saving the visited links with
+ * {@link LinkFileHandling#writeLinksToFile} writes every visited link each time, so saving takes
+ * longer the longer a game is played. The journal instead appends one record for each visited
+ * link, so saving a move takes the same time no matter how many links have been visited.
+ *
+ * <p>{@link #append(Link)} only queues the record. A background thread writes the queued records
+ * as one batch once the group commit delay has passed, so a player that moves quickly causes one
+ * write for several moves, and optionally forces the batch to the disk with
+ * {@link FileChannel#force(boolean)}. Once the journal grows past the compaction threshold, the
+ * background thread folds its records into the .links file and starts an empty journal.
+ *
+ * <p>{@link #rewind(int)} takes back the last visited links without rewriting the saved links.
+ * Links that are still queued are simply dropped. Links that are already in the journal are taken
+ * back by a rewind record, and links that are in the .links file by replacing the journal with an
+ * empty journal that follows a shorter part of the .links file.
+ *
+ * <p>The journal file starts with the int {@link #MAGIC}, the int {@link #VERSION} and the long
+ * length in bytes of the .links file that the records follow. Each record is the int length and
+ * the int CRC32 checksum of the record, followed by the kind of record in one byte. A link record
+ * holds the link in the .links file format, encoded as UTF-8, and a rewind record holds the int
+ * number of links before it that are taken back. A record that was only partly written when the
+ * game was closed fails its checksum, and is ignored together with the records after it. Folding
+ * the journal first cuts the .links file back to the length in the journal, so a fold that was
+ * interrupted is simply done again.
+ *
+ * <p>If a batch, snapshot or compaction cannot be written, the journal fails. Nothing is written
+ * to a failed journal afterwards, so its records are always a gapless prefix of the visited links,
+ * and {@link #append(Link)}, {@link #checkpoint(GameSnapshot, String)}, {@link #flush()} and
+ * {@link #close()} throw, so the caller can save the visited links in some other way.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class LinkJournal implements Closeable {
+
+  /**
+   * The first int of a journal file, being "PLNK" in ASCII.
+   */
+  public static final int MAGIC = 0x504C4E4B;
+
+  /**
+   * The version of the journal format.
+   */
+  public static final int VERSION = 2;
+
+  /**
+   * The default time in milliseconds that queued records wait for more records before they are
+   * written.
+   */
+  public static final long DEFAULT_GROUP_COMMIT_MILLIS = 50;
+
+  /**
+   * The default size in bytes of the journal file before it is folded into the .links file.
+   */
+  public static final long DEFAULT_COMPACTION_THRESHOLD = 1 << 20;
+
+  private static final String linkFileType = ".links";
+  private static final String journalFileType = ".journal";
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final byte[] LINK_SEPARATOR = "\n\n".getBytes(StandardCharsets.UTF_8);
+  private static final byte LINK_RECORD = 'L';
+  private static final byte REWIND_RECORD = 'R';
+
+  private final Path linksPath;
+  private final Path journalPath;
+  private final long groupCommitMillis;
+  private final boolean force;
+  private final long compactionThreshold;
+  private final Thread flusher;
+
+  //Only used by the background thread once the journal has been opened
+  private FileChannel channel;
+  private long journalLinksLength;
+  private int journalLinkCount;
+  //The positions of the links in the .links file before the journal, read when first needed
+  private List<Long> linkOffsets;
+
+  private final Object lock = new Object();
+  private List<byte[]> pendingRecords = new ArrayList<>();
+  private int pendingRewind;
+  private GameSnapshot pendingSnapshot;
+  private String pendingSnapshotFilePath;
+  private long requestedCount;
+  private long writtenCount;
+  private boolean flushRequested;
+  private boolean closed;
+  private IOException failure;
+  private long recordCount;
+  private long batchCount;
+  private long compactionCount;
+
+  /**
+   * Opens a journal from a builder. Any records left in the journal file are folded into the
+   * .links file first, so the journal starts out empty.
+   *
+   * @param builder The builder of the journal.
+   * @throws IOException If the journal cannot be folded or created.
+   */
+  private LinkJournal(Builder builder) throws IOException {
+    this.linksPath = Path.of(builder.linksFilePath).toAbsolutePath();
+    this.journalPath = Path.of(builder.journalFilePath).toAbsolutePath();
+    this.groupCommitMillis = builder.groupCommitMillis;
+    this.force = builder.force;
+    this.compactionThreshold = builder.compactionThreshold;
+
+    fold(linksPath, journalPath);
+    if (!Files.exists(linksPath)) {
+      Files.createFile(linksPath);
+    }
+    createJournal(Files.size(linksPath));
+    this.channel = FileChannel.open(journalPath, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+
+    this.flusher = new Thread(this::runFlusher, "Link journal");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Gets the path of the journal that belongs to a .links file, being the same path with the
+   * .journal file type.
+   *
+   * @param linksFilePath The absolute file path of the .links file.
+   * @return The absolute file path of the journal.
+   * @throws IllegalArgumentException If the file path is null or not a .links file.
+   */
+  public static String getJournalFilePath(String linksFilePath) throws IllegalArgumentException {
+    if (linksFilePath == null || !linksFilePath.endsWith(linkFileType)) {
+      throw new IllegalArgumentException("The file path must be a " + linkFileType + " file.");
+    }
+    return linksFilePath.substring(0, linksFilePath.length() - linkFileType.length())
+        + journalFileType;
+  }
+
+  /**
+   * Reads the visited links of a game, being the links in the .links file followed by the links
+   * in its journal. The journal is folded into the .links file and deleted, so the .links file
+   * holds every visited link afterwards.
+   *
+   * @param linksFilePath   The absolute file path of the .links file.
+   * @param journalFilePath The absolute file path of the journal.
+   * @return A LinkRegister of the visited links.
+   * @throws IOException                If the files cannot be read or written, or the journal file
+   *                                    is not a journal.
+   * @throws InvalidLinkFormatException If the formatting of the links is invalid.
+   * @throws IllegalArgumentException   If a file path is null, or has the wrong file type.
+   */
+  public static LinkRegister recover(String linksFilePath, String journalFilePath)
+      throws IOException, InvalidLinkFormatException, IllegalArgumentException {
+    checkFilePaths(linksFilePath, journalFilePath);
+    fold(Path.of(linksFilePath).toAbsolutePath(), Path.of(journalFilePath).toAbsolutePath());
+    return LinkFileHandling.readLinksFromFile(linksFilePath);
+  }
+
+  /**
+   * Deletes a journal without folding its records into the .links file. Used when the progress of
+   * a game is reset, or every visited link has been written to the .links file.
+   *
+   * @param journalFilePath The absolute file path of the journal.
+   * @throws IOException              If the journal cannot be deleted.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public static void delete(String journalFilePath) throws IOException, IllegalArgumentException {
+    if (journalFilePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    Files.deleteIfExists(Path.of(journalFilePath));
+  }
+
+  /**
+   * Queues a record of a visited link. The link is encoded on the calling thread, and written by
+   * the background thread, so the call does not wait for the disk.
+   *
+   * @param link The visited link.
+   * @throws IllegalArgumentException If the link is null.
+   * @throws IllegalStateException    If the journal is closed, or has failed.
+   */
+  public void append(Link link) throws IllegalArgumentException, IllegalStateException {
+    if (link == null) {
+      throw new IllegalArgumentException("The link cannot be null");
+    }
+    byte[] text = link.toString().getBytes(StandardCharsets.UTF_8);
+    byte[] record = new byte[text.length + 1];
+    record[0] = LINK_RECORD;
+    System.arraycopy(text, 0, record, 1, text.length);
+    synchronized (lock) {
+      checkOpen();
+      pendingRecords.add(record);
+      requestedCount++;
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Queues taking back the last visited links, as when a game is rewound. Links that have not been
+   * written yet are dropped, and the links that have been written are taken back by the background
+   * thread, so the call does not wait for the disk either.
+   *
+   * @param steps The number of visited links that are taken back.
+   * @throws IllegalArgumentException If the number of steps is negative.
+   * @throws IllegalStateException    If the journal is closed, or has failed.
+   */
+  public void rewind(int steps) throws IllegalArgumentException, IllegalStateException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("The number of steps cannot be negative");
+    }
+    synchronized (lock) {
+      checkOpen();
+      if (steps == 0) {
+        return;
+      }
+      int dropped = Math.min(steps, pendingRecords.size());
+      pendingRecords.subList(pendingRecords.size() - dropped, pendingRecords.size()).clear();
+      pendingRewind += steps - dropped;
+      requestedCount++;
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Queues a snapshot of the game, which is written after the records that have been queued before
+   * it, so the snapshot is never ahead of the saved links. A snapshot that has not been written
+   * yet is replaced by the next one.
+   *
+   * @param snapshot         The snapshot of the game.
+   * @param snapshotFilePath The absolute file path of the .snapshot file.
+   * @throws IllegalArgumentException If the snapshot or file path is null.
+   * @throws IllegalStateException    If the journal is closed, or has failed.
+   */
+  public void checkpoint(GameSnapshot snapshot, String snapshotFilePath)
+      throws IllegalArgumentException, IllegalStateException {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("The snapshot cannot be null");
+    }
+    if (snapshotFilePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    synchronized (lock) {
+      checkOpen();
+      pendingSnapshot = snapshot;
+      pendingSnapshotFilePath = snapshotFilePath;
+      requestedCount++;
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Writes every record and snapshot that has been queued, without waiting for the group commit
+   * delay, and waits until they have been written.
+   *
+   * @throws IOException If a record or snapshot could not be written, or the thread was
+   *                     interrupted while waiting.
+   */
+  public void flush() throws IOException {
+    synchronized (lock) {
+      long target = requestedCount;
+      flushRequested = true;
+      lock.notifyAll();
+      try {
+        while (writtenCount < target && flusher.isAlive()) {
+          lock.wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while flushing the link journal");
+      }
+      if (failure != null) {
+        throw new IOException("Could not write the link journal: " + failure.getMessage(),
+            failure);
+      }
+    }
+  }
+
+  /**
+   * Writes every queued record and snapshot, and stops the background thread. The records stay in
+   * the journal, and are folded into the .links file when the journal is opened or recovered.
+   *
+   * @throws IOException If a record or snapshot could not be written, or the journal could not be
+   *                     closed.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      lock.notifyAll();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while closing the link journal");
+    }
+    channel.close();
+    synchronized (lock) {
+      if (failure != null) {
+        throw new IOException("Could not write the link journal: " + failure.getMessage(),
+            failure);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of records that have been written.
+   *
+   * @return The number of records.
+   */
+  public long getRecordCount() {
+    synchronized (lock) {
+      return recordCount;
+    }
+  }
+
+  /**
+   * Gets the number of batches the records have been written in.
+   *
+   * @return The number of batches.
+   */
+  public long getBatchCount() {
+    synchronized (lock) {
+      return batchCount;
+    }
+  }
+
+  /**
+   * Gets the number of times the journal has been folded into the .links file.
+   *
+   * @return The number of compactions.
+   */
+  public long getCompactionCount() {
+    synchronized (lock) {
+      return compactionCount;
+    }
+  }
+
+  /**
+   * Checks whether a batch, snapshot or compaction of the journal could not be written, in which
+   * case nothing more is written to the journal.
+   *
+   * @return True, if the journal has failed.
+   */
+  public boolean isFailed() {
+    synchronized (lock) {
+      return failure != null;
+    }
+  }
+
+  /**
+   * Throws an exception if the journal is closed or has failed. Must be called while holding the
+   * lock.
+   *
+   * @throws IllegalStateException If the journal is closed, or has failed.
+   */
+  private void checkOpen() throws IllegalStateException {
+    if (closed) {
+      throw new IllegalStateException("The link journal is closed");
+    }
+    if (failure != null) {
+      throw new IllegalStateException("The link journal has failed: " + failure.getMessage(),
+          failure);
+    }
+  }
+
+  /**
+   * Runs the background thread, which writes the queued records in batches until the journal is
+   * closed and nothing is queued.
+   */
+  private void runFlusher() {
+    while (true) {
+      List<byte[]> records;
+      int rewind;
+      GameSnapshot snapshot;
+      String snapshotFilePath;
+      long batchEnd;
+      synchronized (lock) {
+        try {
+          while (requestedCount == writtenCount && !closed) {
+            lock.wait();
+          }
+          //Waits for more records to write them together, unless a flush is waiting
+          long deadline = System.currentTimeMillis() + groupCommitMillis;
+          long remaining = groupCommitMillis;
+          while (remaining > 0 && !flushRequested && !closed) {
+            lock.wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+          }
+        } catch (InterruptedException e) {
+          closed = true;
+        }
+        if (requestedCount == writtenCount) {
+          lock.notifyAll();
+          return;
+        }
+        records = pendingRecords;
+        rewind = pendingRewind;
+        snapshot = pendingSnapshot;
+        snapshotFilePath = pendingSnapshotFilePath;
+        batchEnd = requestedCount;
+        pendingRecords = new ArrayList<>();
+        pendingRewind = 0;
+        pendingSnapshot = null;
+        pendingSnapshotFilePath = null;
+        flushRequested = false;
+        //Records after a failed batch would follow a gap, or a torn record that hides them
+        if (failure != null) {
+          writtenCount = batchEnd;
+          lock.notifyAll();
+          continue;
+        }
+      }
+
+      IOException batchFailure = null;
+      boolean compacted = false;
+      try {
+        writeBatch(rewindLinks(rewind, records));
+        journalLinkCount += records.size();
+        if (snapshot != null) {
+          SnapshotFileHandling.writeSnapshotToFile(snapshot, snapshotFilePath);
+        }
+        if (channel.size() > compactionThreshold) {
+          compact();
+          compacted = true;
+        }
+      } catch (IOException e) {
+        batchFailure = e;
+      }
+
+      synchronized (lock) {
+        if (batchFailure != null && failure == null) {
+          failure = batchFailure;
+        }
+        if (!records.isEmpty() && batchFailure == null) {
+          recordCount += records.size();
+          batchCount++;
+        }
+        if (compacted) {
+          compactionCount++;
+        }
+        writtenCount = batchEnd;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Takes back the last links that have been written, before a batch of records is written. If
+   * the journal has as many link records as are taken back, a rewind record is put in front of the
+   * batch. Otherwise every link record of the journal is taken back, together with the last links
+   * of the .links file, by replacing the journal with an empty journal that follows the .links file
+   * up to the first link that is taken back. The .links file itself is cut when the journal is
+   * folded.
+   *
+   * @param steps   The number of links that are taken back.
+   * @param records The records of the batch.
+   * @return The records that are written.
+   * @throws IOException If the .links file has fewer links than are taken back, or the journal
+   *                     cannot be replaced.
+   */
+  private List<byte[]> rewindLinks(int steps, List<byte[]> records) throws IOException {
+    if (steps == 0) {
+      return records;
+    }
+    if (steps <= journalLinkCount) {
+      journalLinkCount -= steps;
+      List<byte[]> batch = new ArrayList<>(records.size() + 1);
+      batch.add(ByteBuffer.allocate(1 + Integer.BYTES).put(REWIND_RECORD).putInt(steps).array());
+      batch.addAll(records);
+      return batch;
+    }
+
+    int cut = steps - journalLinkCount;
+    if (linkOffsets == null) {
+      linkOffsets = readLinkOffsets(linksPath, journalLinksLength);
+    }
+    if (cut > linkOffsets.size()) {
+      throw new IOException("Cannot take back " + steps + " links, only "
+          + (linkOffsets.size() + journalLinkCount) + " links have been saved");
+    }
+    long linksLength = linkOffsets.get(linkOffsets.size() - cut);
+    linkOffsets.subList(linkOffsets.size() - cut, linkOffsets.size()).clear();
+    channel.close();
+    createJournal(linksLength);
+    channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    return records;
+  }
+
+  /**
+   * Reads the positions where the links of a .links file start, being the lines in the format
+   * "[text](reference)".
+   *
+   * @param linksPath   The path of the .links file.
+   * @param linksLength The length in bytes of the part of the file that is read.
+   * @return The positions in bytes of the links, in the order they are in the file.
+   * @throws IOException If the file cannot be read, or is shorter than the length.
+   */
+  private static List<Long> readLinkOffsets(Path linksPath, long linksLength) throws IOException {
+    byte[] bytes = Files.readAllBytes(linksPath);
+    if (bytes.length < linksLength) {
+      throw new IOException("The links file is shorter than the journal expects");
+    }
+    List<Long> offsets = new ArrayList<>();
+    int lineStart = 0;
+    while (lineStart < linksLength) {
+      int lineEnd = lineStart;
+      while (lineEnd < linksLength && bytes[lineEnd] != '\n') {
+        lineEnd++;
+      }
+      String line = new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+      if (StoryLexer.classifyLine(line) == StoryLexer.Token.LINK) {
+        offsets.add((long) lineStart);
+      }
+      lineStart = lineEnd + 1;
+    }
+    return offsets;
+  }
+
+  /**
+   * Writes records to the end of the journal in a single write, and forces them to the disk if
+   * the journal is set to.
+   *
+   * @param records The encoded links.
+   * @throws IOException If the records cannot be written.
+   */
+  private void writeBatch(List<byte[]> records) throws IOException {
+    if (records.isEmpty()) {
+      return;
+    }
+    int size = 0;
+    for (byte[] record : records) {
+      size += RECORD_HEADER_SIZE + record.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    CRC32 crc = new CRC32();
+    for (byte[] record : records) {
+      crc.reset();
+      crc.update(record);
+      buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+    }
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    if (force) {
+      channel.force(false);
+    }
+  }
+
+  /**
+   * Folds the records of the journal into the .links file, and starts an empty journal that
+   * follows the new end of the .links file.
+   *
+   * @throws IOException If the files cannot be read or written.
+   */
+  private void compact() throws IOException {
+    Journal journal = readJournal(journalPath);
+    long linksLength = appendRecords(linksPath, journal.linksLength, journal.records);
+    channel.close();
+    createJournal(linksLength);
+    linkOffsets = null;
+    channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Replaces the journal file with an empty journal. The journal is written to a temporary file
+   * that then replaces the journal, so the journal file always has a whole header. Must only be
+   * called by the background thread once the journal has been opened.
+   *
+   * @param linksLength The length in bytes of the .links file that the journal follows.
+   * @throws IOException If the journal cannot be written.
+   */
+  private void createJournal(long linksLength) throws IOException {
+    Path tempFile = Files.createTempFile(journalPath.getParent(), "journal", ".tmp");
+    try {
+      try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC).putInt(VERSION).putLong(linksLength);
+        header.flip();
+        while (header.hasRemaining()) {
+          tempChannel.write(header);
+        }
+        tempChannel.force(false);
+      }
+      Files.move(tempFile, journalPath, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      journalLinksLength = linksLength;
+      journalLinkCount = 0;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Folds the records of a journal into its .links file, and deletes the journal. A journal that
+   * follows a longer .links file than the one that exists was left from a game whose progress has
+   * since been reset, and is deleted without being folded.
+   *
+   * @param linksPath   The path of the .links file.
+   * @param journalPath The path of the journal.
+   * @throws IOException If the files cannot be read or written, or the journal file is not a
+   *                     journal.
+   */
+  private static void fold(Path linksPath, Path journalPath) throws IOException {
+    if (!Files.exists(journalPath)) {
+      return;
+    }
+    Journal journal = readJournal(journalPath);
+    long linksSize = Files.exists(linksPath) ? Files.size(linksPath) : 0;
+    if (linksSize >= journal.linksLength) {
+      appendRecords(linksPath, journal.linksLength, journal.records);
+    }
+    Files.delete(journalPath);
+  }
+
+  /**
+   * Cuts a .links file back to a length, and appends links to it, each followed by an empty line.
+   * The file is forced to the disk before the method returns, so the journal the links came from
+   * can be emptied.
+   *
+   * @param linksPath   The path of the .links file.
+   * @param linksLength The length in bytes the links are appended at.
+   * @param records     The links in the .links file format, encoded as UTF-8.
+   * @return The new length in bytes of the .links file.
+   * @throws IOException If the file cannot be written.
+   */
+  private static long appendRecords(Path linksPath, long linksLength, List<byte[]> records)
+      throws IOException {
+    try (FileChannel links = FileChannel.open(linksPath, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (links.size() < linksLength) {
+        throw new IOException("The links file is shorter than the journal expects");
+      }
+      links.truncate(linksLength);
+      if (records.isEmpty()) {
+        return linksLength;
+      }
+
+      ByteArrayOutputStream text = new ByteArrayOutputStream();
+      text.write(missingSeparator(links, linksLength));
+      for (byte[] record : records) {
+        text.write(record);
+        text.write(LINK_SEPARATOR);
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(text.toByteArray());
+      long position = linksLength;
+      while (buffer.hasRemaining()) {
+        position += links.write(buffer, position);
+      }
+      links.force(false);
+      return position;
+    }
+  }
+
+  /**
+   * Gets the line breaks that are missing for the end of a .links file to be an empty line, so the
+   * next link starts a new link. Files written by {@link LinkFileHandling} already end with one.
+   *
+   * @param links       The channel of the .links file.
+   * @param linksLength The length in bytes of the .links file.
+   * @return The missing line breaks.
+   * @throws IOException If the file cannot be read.
+   */
+  private static byte[] missingSeparator(FileChannel links, long linksLength) throws IOException {
+    if (linksLength == 0) {
+      return new byte[0];
+    }
+    int tailLength = (int) Math.min(LINK_SEPARATOR.length, linksLength);
+    ByteBuffer tail = ByteBuffer.allocate(tailLength);
+    while (tail.hasRemaining()) {
+      if (links.read(tail, linksLength - tailLength + tail.position()) < 0) {
+        throw new IOException("Could not read the end of the links file");
+      }
+    }
+    int lineBreaks = 0;
+    while (lineBreaks < tailLength && tail.get(tailLength - 1 - lineBreaks) == '\n') {
+      lineBreaks++;
+    }
+    return "\n".repeat(LINK_SEPARATOR.length - lineBreaks).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the header and the whole records of a journal, taking back the link records that rewind
+   * records take back. Reading stops at the first record that is cut short, fails its checksum or
+   * is not a valid record. Journals of version 1 only have link records, without the kind byte.
+   *
+   * @param journalPath The path of the journal.
+   * @return The length of the .links file the journal follows, and its links in the .links file
+   *     format.
+   * @throws IOException If the journal cannot be read, or is not a journal.
+   */
+  private static Journal readJournal(Path journalPath) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+      throw new IOException("The file is not a link journal: " + journalPath);
+    }
+    int version = buffer.getInt();
+    if (version != VERSION && version != 1) {
+      throw new IOException("The link journal has an unsupported version: " + journalPath);
+    }
+    long linksLength = buffer.getLong();
+    if (linksLength < 0) {
+      throw new IOException("The link journal has an invalid links file length: " + journalPath);
+    }
+
+    List<byte[]> records = new ArrayList<>();
+    CRC32 crc = new CRC32();
+    while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+      int length = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        break;
+      }
+      byte[] record = new byte[length];
+      buffer.get(record);
+      crc.reset();
+      crc.update(record);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      if (version == 1) {
+        records.add(record);
+      } else if (length > 0 && record[0] == LINK_RECORD) {
+        records.add(Arrays.copyOfRange(record, 1, length));
+      } else if (length == 1 + Integer.BYTES && record[0] == REWIND_RECORD) {
+        int steps = ByteBuffer.wrap(record, 1, Integer.BYTES).getInt();
+        if (steps < 1 || steps > records.size()) {
+          break;
+        }
+        records.subList(records.size() - steps, records.size()).clear();
+      } else {
+        break;
+      }
+    }
+    return new Journal(linksLength, records);
+  }
+
+  /**
+   * Checks that the file paths of a .links file and its journal are valid.
+   *
+   * @param linksFilePath   The file path of the .links file.
+   * @param journalFilePath The file path of the journal.
+   * @throws IllegalArgumentException If a file path is null, or has the wrong file type.
+   */
+  private static void checkFilePaths(String linksFilePath, String journalFilePath)
+      throws IllegalArgumentException {
+    if (linksFilePath == null || journalFilePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!linksFilePath.endsWith(linkFileType)) {
+      throw new IllegalArgumentException("The file does not have the correct " + linkFileType
+          + " file type");
+    }
+    if (!journalFilePath.endsWith(journalFileType)) {
+      throw new IllegalArgumentException("The file does not have the correct " + journalFileType
+          + " file type");
+    }
+  }
+
+  /**
+   * The contents of a journal file.
+   */
+  private static final class Journal {
+
+    private final long linksLength;
+    private final List<byte[]> records;
+
+    /**
+     * Creates the contents of a journal file.
+     *
+     * @param linksLength The length in bytes of the .links file the journal follows.
+     * @param records     The whole records of the journal.
+     */
+    private Journal(long linksLength, List<byte[]> records) {
+      this.linksLength = linksLength;
+      this.records = records;
+    }
+  }
+
+  /**
+   * Builder for a journal, where the group commit delay, whether batches are forced to the disk,
+   * and the compaction threshold are optional.
+   */
+  public static final class Builder {
+
+    private final String linksFilePath;
+    private final String journalFilePath;
+    private long groupCommitMillis = DEFAULT_GROUP_COMMIT_MILLIS;
+    private boolean force = false;
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * Creates a builder of the journal of a .links file.
+     *
+     * @param linksFilePath   The absolute file path of the .links file.
+     * @param journalFilePath The absolute file path of the journal.
+     * @throws IllegalArgumentException If a file path is null, or has the wrong file type.
+     */
+    public Builder(String linksFilePath, String journalFilePath) throws IllegalArgumentException {
+      checkFilePaths(linksFilePath, journalFilePath);
+      this.linksFilePath = linksFilePath;
+      this.journalFilePath = journalFilePath;
+    }
+
+    /**
+     * Sets the time that queued records wait for more records before they are written.
+     *
+     * @param val The delay in milliseconds, where zero writes the records right away.
+     * @return The builder.
+     * @throws IllegalArgumentException If the delay is negative.
+     */
+    public Builder groupCommitMillis(long val) throws IllegalArgumentException {
+      if (val < 0) {
+        throw new IllegalArgumentException("The group commit delay cannot be negative.");
+      }
+      groupCommitMillis = val;
+      return this;
+    }
+
+    /**
+     * Sets whether every batch of records is forced to the disk, so no saved move is lost if the
+     * computer crashes, at the cost of a slower write.
+     *
+     * @param val True, if every batch is forced to the disk.
+     * @return The builder.
+     */
+    public Builder force(boolean val) {
+      force = val;
+      return this;
+    }
+
+    /**
+     * Sets the size of the journal before it is folded into the .links file.
+     *
+     * @param val The size in bytes.
+     * @return The builder.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public Builder compactionThreshold(long val) throws IllegalArgumentException {
+      if (val <= 0) {
+        throw new IllegalArgumentException("The compaction threshold must be positive.");
+      }
+      compactionThreshold = val;
+      return this;
+    }
+
+    /**
+     * Opens the journal. Records left in the journal file by a game that was not closed properly
+     * are folded into the .links file first.
+     *
+     * @return The journal.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public LinkJournal build() throws IOException {
+      return new LinkJournal(this);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+/**
+ * Receiver of the progress of loading a file. The progress is reported as the amount of work done
+ * out of the total amount of work, such as the number of characters of a story file that have been
+ * read out of the size of the file.
+ *
+ * <p>A receiver can stop the loading by throwing a
+ * {@link java.util.concurrent.CancellationException}, which is passed on to the caller of the
+ * loading method unchanged. The progress is reported regularly while loading, so a loading that is
+ * cancelled stops soon after.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+@FunctionalInterface
+public interface LoadProgress {
+
+  /**
+   * A receiver that ignores the progress.
+   */
+  LoadProgress NONE = (done, total) -> {
+  };
+
+  /**
+   * Receives the progress of the loading.
+   *
+   * @param done  The amount of work that has been done.
+   * @param total The total amount of work.
+   */
+  void update(long done, long total);
+}
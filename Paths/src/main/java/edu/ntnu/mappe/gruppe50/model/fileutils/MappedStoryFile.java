@@ -0,0 +1,254 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that reads the lines of a memory-mapped .paths file, for stories where the content of the
+ * passages is loaded when it is needed. Passage content is not decoded while the file is read.
+ * Instead, the passage remembers where its content is in the file, and decodes it the first time
+ * it is shown. The most recently used contents are kept in a cache of bounded size.
+ *
+ * <p>A line is only skipped as content if it cannot be anything else in the .paths format. It must
+ * have a visible character, so it is not blank, and it cannot start with a colon, square bracket
+ * or curly bracket, so the {@link StoryLexer} cannot classify it as a passage title, link or
+ * action. Any other line is decoded as usual, and a passage with such a content keeps it on the
+ * heap. Files are decoded as UTF-8.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+final class MappedStoryFile implements StoryEventParser.LineReader {
+
+  /**
+   * The line returned by {@link #readContentLine()} when the content was skipped. It is compared
+   * by identity, so it can never be mistaken for a line in the file. Like the content it stands
+   * for, the text is not blank and matches none of the story element formats.
+   */
+  static final String SKIPPED_CONTENT = new String("content");
+
+  private final MappedByteBuffer buffer;
+  private final Map<Integer, String> cache;
+  private int position;
+  private int contentStart;
+  private int contentEnd;
+
+  /**
+   * Creates a reader of a mapped file.
+   *
+   * @param buffer    The mapped file.
+   * @param cacheSize The maximum number of decoded contents that are cached.
+   */
+  private MappedStoryFile(MappedByteBuffer buffer, int cacheSize) {
+    this.buffer = buffer;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Maps a file into memory. The file is closed again right away, while the mapping stays valid
+   * for as long as the reader, or a passage created by it, is in use.
+   *
+   * @param filePath  The path of the file.
+   * @param cacheSize The maximum number of decoded contents that are cached.
+   * @return A reader of the mapped file.
+   * @throws IOException If the file cannot be opened, or if it is larger than 2 GB.
+   */
+  static MappedStoryFile open(String filePath, int cacheSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The file is too large to be mapped: " + filePath);
+      }
+      return new MappedStoryFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), cacheSize);
+    }
+  }
+
+  /**
+   * Splits the file into chunks of about a given size, which can be read on their own. A chunk
+   * after the first starts at a passage title that follows a blank line, so no passage is split
+   * between two chunks, and every chunk but the last ends with a blank line.
+   *
+   * @param chunkSize The number of bytes after which a chunk ends at the next passage title.
+   * @return The readers of the chunks, in the order of the file.
+   */
+  List<MappedStoryFile> split(int chunkSize) {
+    List<MappedStoryFile> chunks = new ArrayList<>();
+    int start = 0;
+    do {
+      int end = chunkSize >= buffer.limit() - start
+          ? buffer.limit() : findPassageStart(start + chunkSize);
+      chunks.add(new MappedStoryFile(buffer.slice(start, end - start), 1));
+      start = end;
+    } while (start < buffer.limit());
+    return chunks;
+  }
+
+  /**
+   * Finds the first line at or after a position that starts with "::" and follows a blank line.
+   * Only lines of spaces and tabs are taken to be blank, so a line that only has other whitespace
+   * is never taken to be the start of a passage.
+   *
+   * @param from The position to search from.
+   * @return The position of the first byte of the line, or the end of the file if there is none.
+   */
+  private int findPassageStart(int from) {
+    int start = from;
+    if (start > 0 && buffer.get(start - 1) == '\r' && buffer.get(start) == '\n') {
+      start++;
+    } else if (start > 0 && buffer.get(start - 1) != '\n' && buffer.get(start - 1) != '\r') {
+      int end = findLineEnd(start);
+      start = skipLineEnd(end);
+    }
+
+    boolean previousBlank = false;
+    while (start < buffer.limit()) {
+      int end = findLineEnd(start);
+      if (previousBlank && end - start >= 2
+          && buffer.get(start) == ':' && buffer.get(start + 1) == ':') {
+        return start;
+      }
+      previousBlank = true;
+      for (int i = start; i < end && previousBlank; i++) {
+        byte b = buffer.get(i);
+        previousBlank = b == ' ' || b == '\t';
+      }
+      start = skipLineEnd(end);
+    }
+    return buffer.limit();
+  }
+
+  /**
+   * Reads the next line of the file, the same way {@link java.io.BufferedReader#readLine()} does.
+   * A line ends at a line feed, a carriage return, or a carriage return followed by a line feed.
+   *
+   * @return The line, without the line ending, or null at the end of the file.
+   */
+  @Override
+  public String readLine() {
+    if (position == buffer.limit()) {
+      return null;
+    }
+    int start = position;
+    int end = findLineEnd(start);
+    position = skipLineEnd(end);
+    return decode(start, end);
+  }
+
+  /**
+   * Reads a line that should be the content of a passage. If the line can only be content, it is
+   * not decoded, and {@link #SKIPPED_CONTENT} is returned instead.
+   *
+   * @return The line, {@link #SKIPPED_CONTENT}, or null at the end of the file.
+   */
+  @Override
+  public String readContentLine() {
+    if (position == buffer.limit()) {
+      return null;
+    }
+    int start = position;
+    int end = findLineEnd(start);
+    position = skipLineEnd(end);
+    if (start == end) {
+      return "";
+    }
+    byte first = buffer.get(start);
+    if (first == ':' || first == '[' || first == '{') {
+      return decode(start, end);
+    }
+    boolean visible = false;
+    for (int i = start; i < end && !visible; i++) {
+      byte b = buffer.get(i);
+      visible = b > ' ' && b < 0x7f;
+    }
+    if (!visible) {
+      return decode(start, end);
+    }
+    contentStart = start;
+    contentEnd = end;
+    return SKIPPED_CONTENT;
+  }
+
+  /**
+   * Creates a passage whose content is the last line that was skipped by
+   * {@link #readContentLine()}.
+   *
+   * @param title The title of the passage.
+   * @return The passage.
+   */
+  Passage createPassage(String title) {
+    int start = contentStart;
+    int end = contentEnd;
+    return Passage.withContentSource(title, () -> getContent(start, end));
+  }
+
+  /**
+   * Gets the content between two positions in the file, decoding it if it is not cached.
+   *
+   * @param start The position of the first byte of the content.
+   * @param end   The position after the last byte of the content.
+   * @return The content.
+   */
+  private synchronized String getContent(int start, int end) {
+    return cache.computeIfAbsent(start, key -> decode(start, end));
+  }
+
+  /**
+   * Finds the end of the line that starts at a position.
+   *
+   * @param start The position of the first byte of the line.
+   * @return The position of the line ending, or the end of the file.
+   */
+  private int findLineEnd(int start) {
+    int end = start;
+    while (end < buffer.limit()) {
+      byte b = buffer.get(end);
+      if (b == '\n' || b == '\r') {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Finds the position after the line ending at a position.
+   *
+   * @param end The position of the line ending.
+   * @return The position of the first byte of the next line.
+   */
+  private int skipLineEnd(int end) {
+    int next = end;
+    if (next < buffer.limit() && buffer.get(next++) == '\r'
+        && next < buffer.limit() && buffer.get(next) == '\n') {
+      next++;
+    }
+    return next;
+  }
+
+  /**
+   * Decodes the bytes between two positions in the file.
+   *
+   * @param start The position of the first byte.
+   * @param end   The position after the last byte.
+   * @return The decoded string.
+   */
+  private String decode(int start, int end) {
+    byte[] bytes = new byte[end - start];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,314 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.search.IndexedStory;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchIndex;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * File handling class for building the {@link SearchIndex} of the user stories, and for reading
+ * and writing it from and to a binary .index file. The index is kept next to the file of the user
+ * stories, so it survives between sessions, and only the stories whose files have changed since
+ * they were indexed have to be read again.
+ *
+ * <p>All numbers are big-endian, and every string is the number of bytes followed by the bytes in
+ * UTF-8. The file starts with the int {@link #MAGIC}, the int {@link #VERSION} and the number of
+ * stories. Each story is then its file path, title, file size and last modified time, the number
+ * of passages followed by the title and snippet of each passage, and the number of terms followed
+ * by each term, its number of postings and its postings as longs.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class SearchIndexFileHandling {
+
+  private static final String indexFileType = ".index";
+
+  /**
+   * The first four bytes of every .index file, being "PIDX" in ASCII.
+   */
+  public static final int MAGIC = 0x50494458;
+
+  /**
+   * The version of the .index format. A file with another version is not read.
+   */
+  public static final int VERSION = 1;
+
+  //The smallest number of bytes a story, a passage and a term take up in the file, being the
+  //lengths of their strings and the numbers that follow them
+  private static final int STORY_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+  private static final int PASSAGE_BYTES = 2 * Integer.BYTES;
+  private static final int TERM_BYTES = 2 * Integer.BYTES;
+
+  /**
+   * Private constructor, as the class only has static methods.
+   */
+  private SearchIndexFileHandling() {
+  }
+
+  /**
+   * Indexes a .paths file. The file is parsed by a {@link StoryEventParser}, so the story is never
+   * kept in memory as a whole.
+   *
+   * @param filePath The absolute path of the file.
+   * @return The index of the story.
+   * @throws IOException                 If the file does not exist or cannot be read.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @throws IllegalArgumentException    If the file path is null.
+   */
+  public static IndexedStory indexStory(String filePath)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    File file = new File(filePath);
+    IndexedStory.Builder builder = new IndexedStory.Builder(filePath, file.length(),
+        file.lastModified());
+    StoryEventParser.parse(filePath, new StoryHandler() {
+      @Override
+      public void onStoryTitle(String title) {
+        builder.storyTitle(title);
+      }
+
+      @Override
+      public void onPassage(String title, String content) {
+        builder.passage(title, content);
+      }
+    });
+    return builder.build();
+  }
+
+  /**
+   * Brings an index up to date with a collection of story files. Stories whose files have not
+   * changed since they were indexed are kept as they are. Stories whose files are new or have
+   * changed are indexed again, and stories that are not in the collection, or whose files no
+   * longer exist or are no longer valid stories, are removed from the index.
+   *
+   * @param index     The index that is updated.
+   * @param filePaths The file paths of the stories.
+   * @param progress  The receiver of the number of files that have been checked, which may cancel
+   *                  the update by throwing a {@link java.util.concurrent.CancellationException}.
+   * @return True, if the index was changed.
+   * @throws IllegalArgumentException If any of the parameters are null.
+   */
+  public static boolean updateIndex(SearchIndex index, Collection<String> filePaths,
+      LoadProgress progress) throws IllegalArgumentException {
+    if (index == null) {
+      throw new IllegalArgumentException("The search index cannot be null.");
+    }
+    if (filePaths == null) {
+      throw new IllegalArgumentException("The file paths cannot be null.");
+    }
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
+    boolean changed = false;
+    Set<String> paths = new LinkedHashSet<>(filePaths);
+    for (IndexedStory indexedStory : index.getStories()) {
+      if (!paths.contains(indexedStory.getFilePath())) {
+        changed |= index.removeStory(indexedStory.getFilePath());
+      }
+    }
+
+    long done = 0;
+    for (String filePath : paths) {
+      File file = new File(filePath);
+      if (!file.isFile()) {
+        changed |= index.removeStory(filePath);
+      } else if (!index.isUpToDate(filePath, file.length(), file.lastModified())) {
+        try {
+          index.addStory(indexStory(filePath));
+        } catch (IOException | InvalidStoryFormatException e) {
+          index.removeStory(filePath);
+        }
+        changed = true;
+      }
+      progress.update(++done, paths.size());
+    }
+    return changed;
+  }
+
+  /**
+   * Writes an index to a .index file. The index is written to a temporary file that then replaces
+   * the file, so a reader never sees a file that is half written.
+   *
+   * @param index    The index that is written.
+   * @param filePath The absolute path of the file.
+   * @throws IOException              If the file type is not .index, or the file cannot be
+   *                                  written.
+   * @throws IllegalArgumentException If the index or file path is null.
+   */
+  public static void writeIndexToFile(SearchIndex index, String filePath)
+      throws IOException, IllegalArgumentException {
+    if (index == null) {
+      throw new IllegalArgumentException("The search index cannot be null.");
+    }
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!filePath.endsWith(indexFileType)) {
+      throw new IOException("The file does not have the correct " + indexFileType + " file type");
+    }
+
+    Path target = new File(filePath).toPath().toAbsolutePath();
+    Path tempFile = Files.createTempFile(target.getParent(), "search", ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          new FileOutputStream(tempFile.toFile())))) {
+        List<IndexedStory> stories = index.getStories();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(stories.size());
+        for (IndexedStory indexedStory : stories) {
+          writeString(out, indexedStory.getFilePath());
+          writeString(out, indexedStory.getStoryTitle());
+          out.writeLong(indexedStory.getSize());
+          out.writeLong(indexedStory.getLastModified());
+          out.writeInt(indexedStory.getPassageTitles().size());
+          for (int i = 0; i < indexedStory.getPassageTitles().size(); i++) {
+            writeString(out, indexedStory.getPassageTitles().get(i));
+            writeString(out, indexedStory.getSnippets().get(i));
+          }
+          out.writeInt(indexedStory.getPostings().size());
+          for (Map.Entry<String, long[]> entry : indexedStory.getPostings().entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().length);
+            for (long posting : entry.getValue()) {
+              out.writeLong(posting);
+            }
+          }
+        }
+      }
+      Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads an index from a .index file. A file that does not exist gives an empty index.
+   *
+   * @param filePath The absolute path of the file.
+   * @return The index in the file.
+   * @throws IOException              If the file type is not .index, or the file cannot be read,
+   *                                  is not an index of this version, is cut short or has a count
+   *                                  that is larger than the rest of the file can hold.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public static SearchIndex readIndexFromFile(String filePath)
+      throws IOException, IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!filePath.endsWith(indexFileType)) {
+      throw new IOException("The file does not have the correct " + indexFileType + " file type");
+    }
+    SearchIndex index = new SearchIndex();
+    if (!new File(filePath).exists()) {
+      return index;
+    }
+
+    //The file is read at once, so every count can be checked against the bytes that are left
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Path.of(filePath)));
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("The file is not a search index: " + filePath);
+      }
+      if (buffer.getInt() != VERSION) {
+        throw new IOException("The search index has another version: " + filePath);
+      }
+      int storyCount = readCount(buffer, STORY_BYTES);
+      for (int s = 0; s < storyCount; s++) {
+        String storyFilePath = readString(buffer);
+        String storyTitle = readString(buffer);
+        long size = buffer.getLong();
+        long lastModified = buffer.getLong();
+        int passageCount = readCount(buffer, PASSAGE_BYTES);
+        List<String> passageTitles = new ArrayList<>(passageCount);
+        List<String> snippets = new ArrayList<>(passageCount);
+        for (int i = 0; i < passageCount; i++) {
+          passageTitles.add(readString(buffer));
+          snippets.add(readString(buffer));
+        }
+        int termCount = readCount(buffer, TERM_BYTES);
+        Map<String, long[]> postings = new HashMap<>(termCount * 2);
+        for (int t = 0; t < termCount; t++) {
+          String term = readString(buffer);
+          long[] termPostings = new long[readCount(buffer, Long.BYTES)];
+          for (int i = 0; i < termPostings.length; i++) {
+            termPostings[i] = buffer.getLong();
+          }
+          postings.put(term, termPostings);
+        }
+        index.addStory(new IndexedStory(storyFilePath, storyTitle, size, lastModified,
+            passageTitles, snippets, postings));
+      }
+    } catch (BufferUnderflowException bue) {
+      throw new IOException("The search index is cut short: " + filePath, bue);
+    } catch (IllegalArgumentException iae) {
+      throw new IOException("The search index is invalid: " + filePath, iae);
+    }
+    return index;
+  }
+
+  /**
+   * Writes a string as its number of bytes followed by its bytes in UTF-8.
+   *
+   * @param out    The stream that is written to.
+   * @param string The string.
+   * @throws IOException If the stream cannot be written to.
+   */
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string that was written by {@link #writeString(DataOutputStream, String)}.
+   *
+   * @param buffer The file, at the string.
+   * @return The string.
+   * @throws IOException If the length is invalid.
+   */
+  private static String readString(ByteBuffer buffer) throws IOException {
+    byte[] bytes = new byte[readCount(buffer, 1)];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a count, checking that there are enough bytes left in the file to hold that many
+   * elements, so a corrupt count cannot make the reader allocate more memory than the file could
+   * fill.
+   *
+   * @param buffer      The file, at the count.
+   * @param elementSize The smallest number of bytes each of the counted elements takes up.
+   * @return The count.
+   * @throws IOException If the count is negative or larger than the rest of the file can hold.
+   */
+  private static int readCount(ByteBuffer buffer, int elementSize) throws IOException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / elementSize) {
+      throw new IOException("The search index has an invalid count: " + count);
+    }
+    return count;
+  }
+}
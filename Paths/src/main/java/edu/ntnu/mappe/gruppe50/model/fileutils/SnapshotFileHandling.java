@@ -0,0 +1,160 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File handling class for reading and writing a {@link GameSnapshot} from and to a .snapshot file.
+ * The first line of the file is the title of the passage, the second line is the health, score,
+ * gold, number of visited links and identifier of the play through, separated by a comma and a
+ * space, and every following line is an item in the inventory. The file is written next to the
+ * .links file of the game, so a saved game is resumed from the snapshot instead of by replaying
+ * every visited link. A file without the identifier of the play through is invalid, so the game
+ * it was written for is resumed by replaying its visited links.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class SnapshotFileHandling {
+
+  private static final String snapshotFileType = ".snapshot";
+  private static final String linkFileType = ".links";
+
+  /**
+   * Gets the path of the snapshot that belongs to a .links file, being the same path with the
+   * .snapshot file type.
+   *
+   * @param linksFilePath The absolute file path of the .links file.
+   * @return The absolute file path of the snapshot.
+   * @throws IllegalArgumentException If the file path is null or not a .links file.
+   */
+  public static String getSnapshotFilePath(String linksFilePath) throws IllegalArgumentException {
+    if (linksFilePath == null || !linksFilePath.endsWith(linkFileType)) {
+      throw new IllegalArgumentException("The file path must be a " + linkFileType + " file.");
+    }
+    return linksFilePath.substring(0, linksFilePath.length() - linkFileType.length())
+        + snapshotFileType;
+  }
+
+  /**
+   * Deletes a snapshot, so the game it was taken of cannot be resumed from it. Used when the
+   * progress of a game is reset.
+   *
+   * @param filePath The absolute file path of the snapshot.
+   * @throws IOException              If the file type is not .snapshot, or the file cannot be
+   *                                  deleted.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public static void deleteSnapshot(String filePath) throws IOException, IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!filePath.endsWith(snapshotFileType)) {
+      throw new IOException("The file does not have the correct " + snapshotFileType
+          + " file type");
+    }
+    Files.deleteIfExists(Path.of(filePath));
+  }
+
+  /**
+   * Writes a snapshot to a file. The snapshot is written to a temporary file that then replaces
+   * the file, so a game that is closed while a checkpoint is written keeps its last snapshot.
+   *
+   * @param snapshot The snapshot that is written to file.
+   * @param filePath The absolute file path of the file.
+   * @throws IOException              If the file type is not .snapshot, or the file cannot be
+   *                                  written.
+   * @throws IllegalArgumentException If the snapshot or file path is null.
+   */
+  public static void writeSnapshotToFile(GameSnapshot snapshot, String filePath)
+      throws IOException, IllegalArgumentException {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("The snapshot cannot be null.");
+    }
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!filePath.endsWith(snapshotFileType)) {
+      throw new IOException("The file does not have the correct " + snapshotFileType
+          + " file type");
+    }
+
+    Path target = new File(filePath).toPath().toAbsolutePath();
+    Path tempFile = Files.createTempFile(target.getParent(), "snapshot", ".tmp");
+    try {
+      try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempFile.toFile()))) {
+        bw.write(snapshot.getPassageTitle());
+        bw.newLine();
+        bw.write(snapshot.getHealth() + ", " + snapshot.getScore() + ", " + snapshot.getGold()
+            + ", " + snapshot.getVisitedLinkCount() + ", " + snapshot.getPlayThroughId());
+        bw.newLine();
+        for (String item : snapshot.getInventory()) {
+          bw.write(item);
+          bw.newLine();
+        }
+      }
+      Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads a snapshot from a file. A file that does not exist or is empty has no snapshot.
+   *
+   * @param filePath The absolute file path of the file.
+   * @return The snapshot in the file, or null if there is none.
+   * @throws IOException              If the file type is not .snapshot, if the file cannot be read
+   *                                  or if the formatting of the file is invalid.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public static GameSnapshot readSnapshotFromFile(String filePath)
+      throws IOException, IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    if (!filePath.endsWith(snapshotFileType)) {
+      throw new IOException("The file does not have the correct " + snapshotFileType
+          + " file type");
+    }
+    if (!new File(filePath).exists()) {
+      return null;
+    }
+
+    try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+      String passageTitle = br.readLine();
+      if (passageTitle == null) {
+        return null;
+      }
+      String stats = br.readLine();
+      if (stats == null) {
+        throw new IOException("The snapshot needs a passage title and the player stats");
+      }
+      String[] statsArray = stats.split(", ");
+      if (statsArray.length != 5) {
+        throw new IOException("The snapshot needs a health, score, gold, number of links and "
+            + "identifier of the play through");
+      }
+      List<String> inventory = new ArrayList<>();
+      String item;
+      while ((item = br.readLine()) != null) {
+        inventory.add(item);
+      }
+      return new GameSnapshot(passageTitle, Integer.parseInt(statsArray[0]),
+          Integer.parseInt(statsArray[1]), Integer.parseInt(statsArray[2]), inventory,
+          Integer.parseInt(statsArray[3]), Long.parseLong(statsArray[4]));
+    } catch (IllegalArgumentException iae) {
+      throw new IOException("The formatting of the snapshot is invalid: " + iae.getMessage(), iae);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of stories that have been read from .paths files. A story is cached under the canonical
+ * path of its file, together with the size and last modified time the file had when it was read.
+ * A cached story is only used while the file still has that size and last modified time, so a file
+ * that is changed is read again.
+ *
+ * <p>The cache is bounded by the total size of the files of the stories it holds. When a story
+ * would make the cache too large, the least recently used stories are evicted until it fits. A
+ * story whose file alone is larger than the cache is read, but not cached.
+ *
+ * <p>The stories in the cache are shared by everyone who reads them, and must therefore not be
+ * changed. A game plays a compiled snapshot of its story, so it never changes the story itself.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryCache {
+
+  /**
+   * The default maximum total size of the files of the stories in the shared cache, in bytes.
+   */
+  public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+  private static final StoryCache sharedCache = new StoryCache(DEFAULT_MAX_SIZE);
+
+  private final long maxSize;
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * Creates an empty story cache.
+   *
+   * @param maxSize The maximum total size of the files of the cached stories, in bytes.
+   * @throws IllegalArgumentException If the maximum size is negative.
+   */
+  public StoryCache(long maxSize) throws IllegalArgumentException {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("The maximum size of the cache cannot be negative.");
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Gets the story cache that is shared by the whole application.
+   *
+   * @return The shared story cache.
+   */
+  public static StoryCache getSharedCache() {
+    return sharedCache;
+  }
+
+  /**
+   * Gets the story of a .paths file, reading the file if the story is not cached, or if the file
+   * has changed since it was cached. The story is read with
+   * {@link BinaryStoryFileHandling#readPrecompiledStoryFromFile(String)}, so a precompiled story is
+   * used if there is one.
+   *
+   * @param filePath The absolute file path of the .paths file.
+   * @return The story of the file.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the file is invalid.
+   */
+  public Story getStory(String filePath) throws IOException, InvalidStoryFormatException {
+    return getStory(filePath, LoadProgress.NONE);
+  }
+
+  /**
+   * Gets the story of a .paths file like {@link #getStory(String)}, reporting how much of the file
+   * has been read. A cached story is reported as read all at once.
+   *
+   * @param filePath The absolute file path of the .paths file.
+   * @param progress The receiver of the progress, which may cancel the reading by throwing a
+   *                 {@link java.util.concurrent.CancellationException}.
+   * @return The story of the file.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the file is invalid.
+   * @throws IllegalArgumentException    If the progress is null.
+   */
+  public Story getStory(String filePath, LoadProgress progress)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
+    if (filePath == null) {
+      throw new IOException("File path cannot be null");
+    }
+    File file = new File(filePath);
+    String key = file.getCanonicalPath();
+    long fileSize = file.length();
+    long modified = file.lastModified();
+
+    Story cachedStory = null;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.size == fileSize && entry.modified == modified) {
+        hitCount++;
+        cachedStory = entry.story;
+      } else {
+        missCount++;
+      }
+    }
+    if (cachedStory != null) {
+      progress.update(fileSize, fileSize);
+      return cachedStory;
+    }
+
+    //The file is read outside the lock, so reading a large story does not block other readers
+    Story story = BinaryStoryFileHandling.readPrecompiledStoryFromFile(filePath, progress);
+    put(key, new Entry(story, fileSize, modified));
+    return story;
+  }
+
+  /**
+   * Removes every story from the cache. The counters are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    size = 0;
+  }
+
+  /**
+   * Gets the number of times a story was found in the cache.
+   *
+   * @return The number of hits.
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Gets the number of times a story had to be read, because it was not cached or its file had
+   * changed.
+   *
+   * @return The number of misses.
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Gets the number of stories that have been evicted to keep the cache within its maximum size.
+   *
+   * @return The number of evictions.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Gets the number of stories in the cache.
+   *
+   * @return The number of stories.
+   */
+  public synchronized int getStoryCount() {
+    return entries.size();
+  }
+
+  /**
+   * Gets the total size of the files of the stories in the cache.
+   *
+   * @return The total size, in bytes.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * Adds a story to the cache, replacing an older story of the same file, and evicts the least
+   * recently used stories until the cache is within its maximum size.
+   *
+   * @param key   The canonical path of the file.
+   * @param entry The story, with the size and last modified time of the file.
+   */
+  private synchronized void put(String key, Entry entry) {
+    if (entry.size > maxSize) {
+      return;
+    }
+    Entry replaced = entries.put(key, entry);
+    if (replaced != null) {
+      size -= replaced.size;
+    }
+    size += entry.size;
+
+    Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+    while (size > maxSize) {
+      Entry evicted = leastRecentlyUsed.next();
+      leastRecentlyUsed.remove();
+      size -= evicted.size;
+      evictionCount++;
+    }
+  }
+
+  /**
+   * A cached story, with the size and last modified time its file had when it was read.
+   *
+   * @param story    The story.
+   * @param size     The size of the file, in bytes.
+   * @param modified The last modified time of the file.
+   */
+  private record Entry(Story story, long size, long modified) {
+  }
+}
@@ -1,11 +1,12 @@
 package edu.ntnu.mappe.gruppe50.model.fileutils;
 
-import java.util.regex.Pattern;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryLexer.Token;
 
 /**
- * Regex enum class for story elements. Story elements are the building blocks of a story -
- * passages, links, goals and actions. This class offers regular expressions that validate whether a
- * string input has the corrected formatting for these elements.
+ * Enum class for the formats of story elements. Story elements are the building blocks of a story -
+ * passages, links, goals and actions. This class validates whether a string input has the
+ * corrected formatting for these elements. The validation is done by the {@link StoryLexer}, so an
+ * element must start at the first character of the input.
  *
  * @author Harry Linrui Xu
  * @since 15.05.2023
@@ -16,48 +17,47 @@ public enum StoryElementFormat {
    * A passage title always starts with "::", followed by any characters. The enum only validates
    * the base formatting being the double colons.
    */
-  PASSAGE_TITLE(Pattern.compile("::(.*)", Pattern.CASE_INSENSITIVE)),
+  PASSAGE_TITLE(Token.PASSAGE_TITLE),
 
   /**
    * A link has the format "[text](reference)" where text and reference can be nearly anything. The
    * enum only validates the base formatting being the bracket pairs.
    */
-  LINK(Pattern.compile("\\[.*]\\(.*\\)", Pattern.CASE_INSENSITIVE)),
+  LINK(Token.LINK),
 
   /**
    * An action has the format "{type:value}". Though type and value have to be strictly letters,
    * numbers or spaces, this enum only validates the base formatting with the curly braces and
    * colon.
    */
-  ACTION(Pattern.compile("\\{(.*):(.*)}", Pattern.CASE_INSENSITIVE)),
+  ACTION(Token.ACTION),
 
   /**
    * A goal has the format &lt;type:value&gt; with triangle brackets. Though type and value have to
    * be strictly letters, numbers, square brackets or spaces, this enum only validates the base
    * formatting with the square brackets and colon.
    */
-  GOAL(Pattern.compile("<(.*):(.*)+>", Pattern.CASE_INSENSITIVE));
+  GOAL(Token.GOAL);
 
-  private final Pattern regex;
+  private final Token token;
 
   /**
-   * Takes in a pattern which is used to validate against inputs.
+   * Takes in the kind of line that inputs of this format are classified as.
    *
-   * @param pattern A pattern that has the value of one of the enum values above, which will be used
-   *                to validate against input values.
+   * @param token The kind of line of the format.
    */
-  StoryElementFormat(Pattern pattern) {
-    this.regex = pattern;
+  StoryElementFormat(Token token) {
+    this.token = token;
   }
 
   /**
-   * Attempts to match the chosen pattern with the input string.
+   * Checks if the input string has the chosen format.
    *
-   * @param text A string input string which is evaluated against the pattern.
+   * @param text A string input string which is evaluated against the format.
    * @return True, if the there is a match. Else, returns false.
    */
   public Boolean matches(String text) {
-    return regex.matcher(text).find();
+    return StoryLexer.classifyLine(text) == token;
   }
 
 }
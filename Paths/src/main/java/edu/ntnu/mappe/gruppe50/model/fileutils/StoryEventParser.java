@@ -0,0 +1,258 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ActionFactory;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ActionType;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoalFactory;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoalType;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryLexer.Token;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+/**
+ * Streaming parser of .paths files. Instead of building a story, the parser passes every element
+ * of the file to a {@link StoryHandler} as soon as it is read, and then forgets it. The parser
+ * itself only keeps the line it is reading, so a handler that does not keep the elements can
+ * validate, count or convert a story of any size with a small heap.
+ *
+ * <p>The parser is just as strict as {@link StoryFileHandling#readStoryFromFile(String)}. It
+ * checks the layout of the file, and that titles, texts, references, goals and actions are valid,
+ * but it does not check that the passage titles are unique, since that would mean keeping every
+ * title. That is left to the handler.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryEventParser {
+
+  private static final String storyFileType = ".paths";
+
+  /**
+   * Private constructor, as the class only has static methods.
+   */
+  private StoryEventParser() {
+  }
+
+  /**
+   * Parses a .paths file, passing its elements to a handler.
+   *
+   * @param filePath The absolute path of the file that is parsed.
+   * @param handler  The handler that receives the elements of the file.
+   * @throws IOException                 If the file does not exist, if the file path is null, or
+   *                                     if the handler fails.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format, or if the
+   *                                     handler rejects an element.
+   * @throws IllegalArgumentException    If the handler is null.
+   */
+  public static void parse(String filePath, StoryHandler handler)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (handler == null) {
+      throw new IllegalArgumentException("The story handler cannot be null.");
+    }
+
+    try (FileReader fileReader = new FileReader(filePath, StandardCharsets.UTF_8);
+        BufferedReader br = new BufferedReader(fileReader)) {
+
+      parse(filePath, br::readLine, null, handler);
+    } catch (IOException ioe) {
+      throw new IOException("Could not find a file in path: " + filePath, ioe);
+    } catch (NumberFormatException nfe) {
+      throw new InvalidStoryFormatException(
+          "The string value of value cannot be converted to a valid integer", nfe);
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    } catch (NullPointerException nfe) {
+      throw new IOException("File path cannot be null", nfe);
+    }
+  }
+
+  /**
+   * Parses the lines of a .paths file, passing its elements to a handler.
+   *
+   * @param filePath The path of the file, which is checked for the .paths file type.
+   * @param reader   The reader of the lines of the file.
+   * @param symbols  The symbol table that passage titles, link texts and link references are
+   *                 interned in, or null if they should not be interned.
+   * @param handler  The handler that receives the elements of the file.
+   * @throws IOException                 If a line cannot be read, or if the handler fails.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @throws IllegalArgumentException    If a title, text, reference, goal or action is invalid,
+   *                                     or if the handler rejects an element.
+   */
+  static void parse(String filePath, LineReader reader, SymbolTable symbols,
+      StoryHandler handler) throws IOException, InvalidStoryFormatException {
+    parse(filePath, reader, symbols, handler, true, true);
+  }
+
+  /**
+   * Parses the lines of a chunk of a .paths file, passing its elements to a handler. A file can be
+   * split into chunks at every passage title that follows a blank line, and each chunk can then be
+   * parsed on its own. Only the first chunk has the story title, and every chunk but the last ends
+   * with the blank line before the next chunk. Parsing a chunk finds the same errors, in the same
+   * order, as parsing the same lines as part of the whole file.
+   *
+   * @param filePath The path of the file, which is checked for the .paths file type.
+   * @param reader   The reader of the lines of the chunk.
+   * @param symbols  The symbol table that passage titles, link texts and link references are
+   *                 interned in, or null if they should not be interned.
+   * @param handler  The handler that receives the elements of the chunk.
+   * @param first    True, if the chunk is the first chunk of the file.
+   * @param last     True, if the chunk is the last chunk of the file.
+   * @throws IOException                 If a line cannot be read, or if the handler fails.
+   * @throws InvalidStoryFormatException If the chunk violates the .paths file format.
+   * @throws IllegalArgumentException    If a title, text, reference, goal or action is invalid,
+   *                                     or if the handler rejects an element.
+   */
+  static void parse(String filePath, LineReader reader, SymbolTable symbols,
+      StoryHandler handler, boolean first, boolean last)
+      throws IOException, InvalidStoryFormatException {
+
+    boolean storyStarted = !first;
+    boolean inPassage = false;
+    boolean inLink = false;
+    String passageTitle = null;
+    StoryLexer lexer = new StoryLexer();
+    EnumSet<GoalType> goalTypes = EnumSet.noneOf(GoalType.class);
+    EnumSet<ActionType> actionTypes = EnumSet.noneOf(ActionType.class);
+    boolean contentExpected = false;
+
+    if (!filePath.endsWith(storyFileType)) {
+      throw new InvalidStoryFormatException(
+          "The file does not have the correct " + storyFileType + " file type");
+    }
+
+    //A chunk after the first starts after a blank line
+    String nextLine = "nextLine";
+    Token nextToken = first ? Token.TEXT : Token.BLANK;
+    String line;
+    Token token;
+
+    while ((line = nextLine) != null) {
+
+      token = nextToken;
+      nextLine = contentExpected ? reader.readContentLine() : reader.readLine();
+      nextToken = nextLine == null ? null : lexer.lex(nextLine);
+      contentExpected = false;
+
+      //Reads the story title
+      if (!storyStarted) {
+
+        //Checks if file only contains a title
+        if (nextLine == null) {
+          throw new InvalidStoryFormatException("Story must consist of at least one passage");
+        }
+        String storyTitle = nextLine;
+
+        nextLine = reader.readLine();
+
+        //Checks if the line after title is null
+        if (nextLine == null) {
+          throw new InvalidStoryFormatException("Story must consist of at least one passage");
+        } else if ((nextToken = lexer.lex(nextLine)) != Token.BLANK) { //Checks if line after
+          // title is empty
+          throw new InvalidStoryFormatException("Line after story title must be blank");
+        }
+        if (storyTitle.isBlank()) {
+          throw new IllegalArgumentException("The title of the story cannot be blank.");
+        }
+
+        handler.onStoryTitle(storyTitle);
+        storyStarted = true;
+        continue;
+      }
+
+      //Check if it is the end of a block (Passage) or end of file
+      if (((nextLine == null) || nextToken == Token.BLANK && token != Token.BLANK) && inPassage) {
+        handler.onPassageEnd();
+        inPassage = false;
+        inLink = false;
+
+        //Ends a chunk before the last at the blank line before the next chunk
+      } else if (nextLine == null && !last && token == Token.BLANK) {
+        break;
+
+        //Triggers if there are trailing empty lines at the end of the file
+      } else if (nextLine == null) {
+        throw new InvalidStoryFormatException("File cannot have trailing empty lines");
+      } else if (nextToken == Token.PASSAGE_TITLE && token == Token.BLANK) { //Checks if the line
+        // is a passageTitle AND that the previous line is blank
+        passageTitle = symbols == null ? lexer.getTitle() : lexer.getTitle(symbols);
+        contentExpected = true;
+        //Checks if the line is a passage content that is not blank AND
+        // that the passage title is not null
+      } else if (token == Token.PASSAGE_TITLE && BaseStoryFileHandling.isPassageContent(nextToken)
+          && passageTitle != null) {
+        if (passageTitle.isBlank()) {
+          throw new IllegalArgumentException("Title cannot be blank.");
+        }
+        handler.onPassage(passageTitle, nextLine);
+        inPassage = true;
+
+        //Checks if the line is a link and that a passage has started
+      } else if (nextToken == Token.LINK && inPassage) {
+        String text = symbols == null ? lexer.getText() : lexer.getText(symbols);
+        String reference = symbols == null ? lexer.getReference() : lexer.getReference(symbols);
+        if (text.isBlank()) {
+          throw new IllegalArgumentException("The link text cannot be blank.");
+        }
+        if (reference.isBlank()) {
+          throw new IllegalArgumentException("The link reference cannot be blank.");
+        }
+        handler.onLink(text, reference);
+        goalTypes.clear();
+        actionTypes.clear();
+        inLink = true;
+
+        //Goals are always before actions. Also checks that a link has started
+      } else if (nextToken == Token.GOAL && token != Token.ACTION && inLink) {
+        GoalType type = GoalType.of(lexer.getType());
+        if (!goalTypes.add(type)) {
+          throw new IllegalArgumentException("Link can only contain one of each goal type");
+        }
+        handler.onGoal(GoalFactory.buildGoal(type, lexer.getValue()));
+
+        //Checks if the line is an action and that a link has started
+      } else if (nextToken == Token.ACTION && inLink) {
+        ActionType type = ActionType.of(lexer.getType());
+        if (!actionTypes.add(type)) {
+          throw new IllegalArgumentException("Link can only contain one of each goal type");
+        }
+        handler.onAction(ActionFactory.buildAction(type, lexer.getValue()));
+
+        //If else block is reached, the file contains invalid formatting
+      } else {
+        throw new InvalidStoryFormatException(
+            "File does not match " + storyFileType + " file format");
+      }
+    }
+  }
+
+  /**
+   * Reader of the lines of a .paths file.
+   */
+  interface LineReader {
+
+    /**
+     * Reads the next line.
+     *
+     * @return The line, or null at the end of the file.
+     * @throws IOException If the line cannot be read.
+     */
+    String readLine() throws IOException;
+
+    /**
+     * Reads the next line, which should be the content of a passage. A reader that loads content
+     * lazily may skip the line if it cannot be anything but content.
+     *
+     * @return The line, or null at the end of the file.
+     * @throws IOException If the line cannot be read.
+     */
+    default String readContentLine() throws IOException {
+      return readLine();
+    }
+  }
+}
@@ -5,13 +5,22 @@ import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatExceptio
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
 import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
 import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
 import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * File handling class used for reading and writing a Story instance, from and to a .paths file. The
@@ -26,7 +35,19 @@ public class StoryFileHandling extends BaseStoryFileHandling {
   private static final String storyFileType = ".paths";
 
   /**
-   * Writes an instance of Story to file a .paths file.
+   * The number of passage contents that are cached by a lazily read story if no other size is
+   * given.
+   */
+  public static final int DEFAULT_CONTENT_CACHE_SIZE = 256;
+
+  /**
+   * The number of bytes after which a file that is read in parallel is split at the next passage.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  /**
+   * Writes an instance of Story to file a .paths file. The story is streamed to the file by a
+   * {@link StoryWriter}, so it is never held in memory as one string.
    *
    * @param story    The story object that is written to file.
    * @param filePath The absolute file path of the .paths file.
@@ -37,7 +58,7 @@ public class StoryFileHandling extends BaseStoryFileHandling {
   public static void writeStoryToFile(Story story, String filePath)
       throws IOException, InvalidStoryFormatException {
 
-    try (FileWriter fileWriter = new FileWriter(filePath);
+    try (FileWriter fileWriter = new FileWriter(filePath, StandardCharsets.UTF_8);
         BufferedWriter bw = new BufferedWriter(fileWriter)) {
 
       if (!filePath.endsWith(storyFileType)) {
@@ -45,10 +66,10 @@ public class StoryFileHandling extends BaseStoryFileHandling {
             "The file does not have the correct " + storyFileType + " file type");
       }
 
-      bw.write(story.toString());
+      new StoryWriter(bw).write(story);
     } catch (IOException ex) {
       throw new IOException("Error writing story to file: " + ex.getMessage(), ex);
-    } catch (NullPointerException nfe) {
+    } catch (NullPointerException | IllegalArgumentException nfe) {
       throw new IOException("The input story and filePath cannot be null", nfe);
     }
   }
@@ -56,7 +77,10 @@ public class StoryFileHandling extends BaseStoryFileHandling {
   /**
    * Method for reading a story from a .paths file. The method is very strict on the formatting of
    * the .paths file that is read and contains extensive exception handling to prevent invalid
-   * stories from being read.
+   * stories from being read. The file is parsed by a {@link StoryEventParser}, which classifies
+   * every line once with a {@link StoryLexer}. Passage titles, link references and link texts are
+   * interned in the symbol table of the story while the file is read, so repeated strings are only
+   * kept once.
    *
    * @param filePath The absolute path of the file that is read.
    * @return A story object created from the .paths file
@@ -68,92 +92,167 @@ public class StoryFileHandling extends BaseStoryFileHandling {
    */
   public static Story readStoryFromFile(String filePath)
       throws IOException, InvalidStoryFormatException {
+    return readStoryFromFile(filePath, LoadProgress.NONE);
+  }
 
-    Story story = null;
-    Passage passage = null;
-    String passageTitle = null;
-    Link link = null;
-    String storyTitle = null;
+  /**
+   * Method for reading a story from a .paths file, reporting how much of the file has been read.
+   * The progress is the number of characters that have been read out of the size of the file, and
+   * is reported for every {@link ProgressLineReader#REPORT_INTERVAL} characters, and once the whole
+   * file has been read.
+   *
+   * @param filePath The absolute path of the file that is read.
+   * @param progress The receiver of the progress, which may cancel the reading by throwing a
+   *                 {@link java.util.concurrent.CancellationException}.
+   * @return A story object created from the .paths file
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @throws IllegalArgumentException    If the progress is null.
+   * @see #readStoryFromFile(String)
+   */
+  public static Story readStoryFromFile(String filePath, LoadProgress progress)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
 
-    try (FileReader fileReader = new FileReader(filePath);
+    try (FileReader fileReader = new FileReader(filePath, StandardCharsets.UTF_8);
         BufferedReader br = new BufferedReader(fileReader)) {
 
-      if (!filePath.endsWith(storyFileType)) {
-        throw new InvalidStoryFormatException(
-            "The file does not have the correct " + storyFileType + " file type");
+      if (progress == LoadProgress.NONE) {
+        return readStory(filePath, br::readLine, null);
       }
+      return readStory(filePath,
+          new ProgressLineReader(br, new File(filePath).length(), progress), null);
+    } catch (IOException ioe) {
+      throw new IOException("Could not find a file in path: " + filePath, ioe);
+    } catch (NumberFormatException nfe) {
+      throw new InvalidStoryFormatException(
+          "The string value of value cannot be converted to a valid integer", nfe);
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    } catch (NullPointerException nfe) {
+      throw new IOException("File path cannot be null", nfe);
+    }
+  }
 
-      String nextLine = "nextLine";
-      String line;
-
-      while ((line = nextLine) != null) {
+  /**
+   * Method for reading a story from a .paths file without loading the content of the passages,
+   * caching up to {@link #DEFAULT_CONTENT_CACHE_SIZE} passage contents.
+   *
+   * @param filePath The absolute path of the file that is read.
+   * @return A story object created from the .paths file
+   * @throws IOException                 If the file does not exist, if the file path is null, or
+   *                                     if the file cannot be mapped.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @see #readLazyStoryFromFile(String, int)
+   */
+  public static Story readLazyStoryFromFile(String filePath)
+      throws IOException, InvalidStoryFormatException {
+    return readLazyStoryFromFile(filePath, DEFAULT_CONTENT_CACHE_SIZE);
+  }
 
-        nextLine = br.readLine();
+  /**
+   * Method for reading a story from a .paths file without loading the content of the passages.
+   * The file is memory-mapped, and only the titles, links, goals and actions are read onto the
+   * heap. The content of a passage is decoded from the file the first time it is needed, and the
+   * most recently used contents are cached. The file is checked just as strictly as by
+   * {@link #readStoryFromFile(String)}, and the file must not be changed while the story is in use.
+   *
+   * @param filePath  The absolute path of the file that is read.
+   * @param cacheSize The maximum number of passage contents that are cached.
+   * @return A story object created from the .paths file
+   * @throws IOException                 If the file does not exist, if the file path is null, or
+   *                                     if the file cannot be mapped.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @throws IllegalArgumentException    If the cache size is less than one.
+   */
+  public static Story readLazyStoryFromFile(String filePath, int cacheSize)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException("The cache must hold at least one passage content.");
+    }
 
-        //Instantiates storyTitle
-        if (storyTitle == null) {
+    try {
+      MappedStoryFile mappedFile = MappedStoryFile.open(filePath, cacheSize);
+      return readStory(filePath, mappedFile, mappedFile);
+    } catch (IOException ioe) {
+      throw new IOException("Could not find a file in path: " + filePath, ioe);
+    } catch (NumberFormatException nfe) {
+      throw new InvalidStoryFormatException(
+          "The string value of value cannot be converted to a valid integer", nfe);
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    } catch (NullPointerException nfe) {
+      throw new IOException("File path cannot be null", nfe);
+    }
+  }
 
-          //Checks if file only contains a title
-          if ((storyTitle = nextLine) == null) {
-            throw new InvalidStoryFormatException("Story must consist of at least one passage");
-          }
+  /**
+   * Method for reading a story from a .paths file on several threads, splitting it into chunks of
+   * about {@link #DEFAULT_CHUNK_SIZE} bytes.
+   *
+   * @param filePath The absolute path of the file that is read.
+   * @return A story object created from the .paths file
+   * @throws IOException                 If the file does not exist, if the file path is null, or
+   *                                     if the file cannot be mapped.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @see #readParallelStoryFromFile(String, int)
+   */
+  public static Story readParallelStoryFromFile(String filePath)
+      throws IOException, InvalidStoryFormatException {
+    return readParallelStoryFromFile(filePath, DEFAULT_CHUNK_SIZE);
+  }
 
-          nextLine = br.readLine();
+  /**
+   * Method for reading a story from a .paths file on several threads. The file is memory-mapped and
+   * split into chunks at passage titles that follow a blank line, and the chunks are parsed on the
+   * common fork-join pool. The passages are then added to the story in the order of the file, so
+   * the first passage is still the opening passage. The file is checked just as strictly as by
+   * {@link #readStoryFromFile(String)}, and if it has several errors, the error that comes first in
+   * the file is thrown, as it would have been by reading the file from start to end.
+   *
+   * @param filePath  The absolute path of the file that is read.
+   * @param chunkSize The number of bytes after which a chunk ends at the next passage.
+   * @return A story object created from the .paths file
+   * @throws IOException                 If the file does not exist, if the file path is null, if
+   *                                     the file cannot be mapped, or if the reading is
+   *                                     interrupted.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   * @throws IllegalArgumentException    If the chunk size is less than one.
+   */
+  public static Story readParallelStoryFromFile(String filePath, int chunkSize)
+      throws IOException, InvalidStoryFormatException, IllegalArgumentException {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("A chunk must be at least one byte.");
+    }
 
-          //Checks if the line after title is null
-          if (nextLine == null) {
-            throw new InvalidStoryFormatException("Story must consist of at least one passage");
-          } else if (!(nextLine.isBlank())) { //Checks if line after title is empty
-            throw new InvalidStoryFormatException("Line after story title must be blank");
-          }
+    try {
+      List<MappedStoryFile> chunks = MappedStoryFile.open(filePath, 1).split(chunkSize);
+      List<Callable<ChunkBuilder>> tasks = new ArrayList<>();
+      for (int i = 0; i < chunks.size(); i++) {
+        ChunkBuilder chunk = new ChunkBuilder(i == 0, i == chunks.size() - 1);
+        MappedStoryFile lines = chunks.get(i);
+        tasks.add(() -> chunk.read(filePath, lines::readLine));
+      }
 
-          continue;
+      StoryBuilder builder = new StoryBuilder(new SymbolTable(), null);
+      for (Future<ChunkBuilder> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+        ChunkBuilder chunk = result.get();
+        if (chunk.first) {
+          builder.onStoryTitle(chunk.storyTitle);
         }
-
-        //Check if it is the end of a block (Passage) or end of file, in which case
-        //passage is added (if it is not null)
-        if (((nextLine == null) || nextLine.isBlank() && !line.isBlank()) && passage != null) {
-          if (story == null) {
-            story = new Story(storyTitle, passage);
-          } else {
-            story.addPassage(passage);
-          }
-          passage = null;
-          link = null;
-
-          //Triggers if there are trailing empty lines at the end of the file
-        } else if (nextLine == null) {
-          throw new InvalidStoryFormatException("File cannot have trailing empty lines");
-        } else if (isPassageTitle(nextLine) && line.isBlank()) { //Checks if the line is
-          // a passageTitle AND that the previous line is blank
-          passageTitle = nextLine;
-          //Checks if the line is a passage content that is not blank AND
-          // that the passage title is not null
-        } else if (isPassageContent(line, nextLine) && passageTitle != null
-            && !nextLine.isBlank()) {
-          passage = readPassageFromFile(line, nextLine);
-
-          //Checks if the line is a link and that passage is not null
-        } else if (isLink(nextLine) && passage != null) {
-          link = readLinkFromFile(nextLine);
-          passage.addLink(link);
-
-          //Goals are always before actions. Also checks that passage is not null
-        } else if (isGoal(nextLine) && !isAction(line) && link != null) {
-          Goal goal = readGoalFromFile(nextLine);
-          link.addGoal(goal);
-
-          //Checks if the line is an action and that link is not null
-        } else if (isAction(nextLine) && link != null) {
-          Action action = readActionFromFile(nextLine);
-          link.addAction(action);
-
-          //If else block is reached, the file contains invalid formatting
-        } else {
-          throw new InvalidStoryFormatException(
-              "File does not match " + storyFileType + " file format");
+        for (Passage passage : chunk.passages) {
+          builder.passageEnded(passage);
         }
+        chunk.throwFailure();
       }
+      return builder.story;
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Reading the file was interrupted: " + filePath, ie);
+    } catch (ExecutionException ee) {
+      throw new IOException("Could not read a part of the file: " + filePath, ee.getCause());
     } catch (IOException ioe) {
       throw new IOException("Could not find a file in path: " + filePath, ioe);
     } catch (NumberFormatException nfe) {
@@ -164,6 +263,252 @@ public class StoryFileHandling extends BaseStoryFileHandling {
     } catch (NullPointerException nfe) {
       throw new IOException("File path cannot be null", nfe);
     }
-    return story;
+  }
+
+  /**
+   * Method for counting the broken links of a .paths file without reading the story into memory.
+   * The file is parsed by a {@link StoryEventParser}, and is checked just as strictly as by
+   * {@link #readStoryFromFile(String)}. Only the passage titles and the references that have not
+   * been found yet are kept while the file is read.
+   *
+   * @param filePath The absolute path of the file that is read.
+   * @return The number of links that reference a passage that is not in the file.
+   * @throws IOException                 If the file does not exist or if the file path is null.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format, or has two
+   *                                     passages with the same title.
+   */
+  public static int countBrokenLinks(String filePath)
+      throws IOException, InvalidStoryFormatException {
+    BrokenLinkCounter counter = new BrokenLinkCounter();
+    StoryEventParser.parse(filePath, counter);
+    return counter.getBrokenLinkCount();
+  }
+
+  /**
+   * Reads the passages of some of the blocks of a .paths file, without the title of the story. The
+   * lines must start with a passage title and end with a blank line, like a chunk from the middle
+   * of a file. This lets a reloader parse only the passages of a file that have changed.
+   *
+   * @param filePath The path of the file, which is checked for the .paths file type.
+   * @param lines    The reader of the lines of the passages.
+   * @return The passages, in the order of the lines.
+   * @throws IOException                 If a line cannot be read.
+   * @throws InvalidStoryFormatException If the lines violate the .paths file format.
+   */
+  static List<Passage> readPassages(String filePath, StoryEventParser.LineReader lines)
+      throws IOException, InvalidStoryFormatException {
+    ChunkBuilder chunk = new ChunkBuilder(false, false).read(filePath, lines);
+    try {
+      chunk.throwFailure();
+    } catch (NumberFormatException nfe) {
+      throw new InvalidStoryFormatException(
+          "The string value of value cannot be converted to a valid integer", nfe);
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    }
+    return chunk.passages;
+  }
+
+  /**
+   * Reads a story from the lines of a .paths file.
+   *
+   * @param filePath   The path of the file, which is checked for the .paths file type.
+   * @param reader     The reader of the lines of the file.
+   * @param mappedFile The mapped file that creates passages with content that was skipped, or null
+   *                   if the content is always read.
+   * @return A story object created from the lines.
+   * @throws IOException                 If a line cannot be read.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   */
+  private static Story readStory(String filePath, StoryEventParser.LineReader reader,
+      MappedStoryFile mappedFile) throws IOException, InvalidStoryFormatException {
+    StoryBuilder builder = new StoryBuilder(new SymbolTable(), mappedFile);
+    StoryEventParser.parse(filePath, reader, builder.symbols, builder);
+    return builder.story;
+  }
+
+  /**
+   * Handler that builds a story from the elements of a .paths file. A passage is added to the story
+   * when it ends, and the first passage becomes the opening passage.
+   */
+  private static class StoryBuilder implements StoryHandler {
+
+    final SymbolTable symbols;
+    private final MappedStoryFile mappedFile;
+    String storyTitle;
+    private Story story;
+    private Passage passage;
+    private Link link;
+
+    /**
+     * Creates a builder of a story.
+     *
+     * @param symbols    The symbol table that the titles, references and texts are interned in
+     *                   before the passages and links are created, and of the story that is
+     *                   created.
+     * @param mappedFile The mapped file that creates passages with content that was skipped, or
+     *                   null if the content is always read.
+     */
+    private StoryBuilder(SymbolTable symbols, MappedStoryFile mappedFile) {
+      this.symbols = symbols;
+      this.mappedFile = mappedFile;
+    }
+
+    @Override
+    public void onStoryTitle(String title) {
+      storyTitle = title;
+    }
+
+    @Override
+    public void onPassage(String title, String content) {
+      passage = content == MappedStoryFile.SKIPPED_CONTENT
+          ? mappedFile.createPassage(title)
+          : new Passage(title, content);
+    }
+
+    @Override
+    public void onLink(String text, String reference) {
+      link = new Link(text, reference);
+      passage.addLink(link);
+    }
+
+    @Override
+    public void onGoal(Goal goal) {
+      link.addGoal(goal);
+    }
+
+    @Override
+    public void onAction(Action action) {
+      link.addAction(action);
+    }
+
+    @Override
+    public void onPassageEnd() {
+      passageEnded(passage);
+      passage = null;
+      link = null;
+    }
+
+    /**
+     * Adds a passage that has ended to the story, creating the story with the first passage.
+     *
+     * @param passage The passage.
+     */
+    void passageEnded(Passage passage) {
+      if (story == null) {
+        story = new Story(storyTitle, passage, symbols);
+      } else {
+        story.addPassage(passage);
+      }
+    }
+  }
+
+  /**
+   * Handler that reads the passages of one chunk of a .paths file, without adding them to a story.
+   * If the chunk is invalid, the passages before the error are kept together with the error, so
+   * the chunks can be merged in the order the errors would have been found in. Chunks are read at
+   * the same time, so each chunk interns its titles, references and texts in a table of its own.
+   */
+  private static final class ChunkBuilder extends StoryBuilder {
+
+    private final boolean first;
+    private final boolean last;
+    private final List<Passage> passages = new ArrayList<>();
+    private Exception failure;
+
+    /**
+     * Creates a builder of the passages of a chunk.
+     *
+     * @param first True, if the chunk is the first chunk of the file.
+     * @param last  True, if the chunk is the last chunk of the file.
+     */
+    private ChunkBuilder(boolean first, boolean last) {
+      super(new SymbolTable(), null);
+      this.first = first;
+      this.last = last;
+    }
+
+    /**
+     * Reads the passages of the chunk, keeping an error instead of throwing it.
+     *
+     * @param filePath The path of the file, which is checked for the .paths file type.
+     * @param lines    The reader of the lines of the chunk.
+     * @return This builder.
+     */
+    private ChunkBuilder read(String filePath, StoryEventParser.LineReader lines) {
+      try {
+        StoryEventParser.parse(filePath, lines, symbols, this, first, last);
+      } catch (Exception e) {
+        failure = e;
+      }
+      return this;
+    }
+
+    @Override
+    void passageEnded(Passage passage) {
+      passages.add(passage);
+    }
+
+    /**
+     * Throws the error of the chunk, if it had one.
+     *
+     * @throws IOException                 If a line of the chunk could not be read.
+     * @throws InvalidStoryFormatException If the chunk violates the .paths file format.
+     */
+    private void throwFailure() throws IOException, InvalidStoryFormatException {
+      if (failure instanceof IOException ioe) {
+        throw ioe;
+      } else if (failure instanceof InvalidStoryFormatException isfe) {
+        throw isfe;
+      } else if (failure instanceof RuntimeException re) {
+        throw re;
+      }
+    }
+  }
+
+  /**
+   * Line reader that reports how many characters of a file have been read.
+   */
+  private static final class ProgressLineReader implements StoryEventParser.LineReader {
+
+    /**
+     * The number of characters that are read between each report of the progress.
+     */
+    private static final long REPORT_INTERVAL = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final long total;
+    private final LoadProgress progress;
+    private long done;
+    private long nextReport;
+
+    /**
+     * Creates a line reader that reports its progress.
+     *
+     * @param reader   The reader of the file.
+     * @param total    The size of the file.
+     * @param progress The receiver of the progress.
+     */
+    private ProgressLineReader(BufferedReader reader, long total, LoadProgress progress) {
+      this.reader = reader;
+      this.total = total;
+      this.progress = progress;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+      String line = reader.readLine();
+      if (line == null) {
+        progress.update(total, total);
+        return null;
+      }
+      //The line break is counted as one character, as it is not part of the line
+      done += line.length() + 1;
+      if (done >= nextReport) {
+        progress.update(Math.min(done, total), total);
+        nextReport = done + REPORT_INTERVAL;
+      }
+      return line;
+    }
   }
 }
@@ -0,0 +1,76 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.io.IOException;
+
+/**
+ * Receiver of the elements of a .paths file, as they are read by a {@link StoryEventParser}. The
+ * elements are passed on in the order they appear in the file, so a link belongs to the last
+ * passage, and a goal or action belongs to the last link. Every method does nothing by default, so
+ * a handler only has to implement the elements it is interested in.
+ *
+ * <p>The parser does not keep the elements after they have been passed on. A handler that only
+ * counts or checks elements can therefore process a story of any size, as long as it does not
+ * keep the elements itself.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public interface StoryHandler {
+
+  /**
+   * Receives the title of the story, which is the first line of the file.
+   *
+   * @param title The title of the story.
+   * @throws IOException If the handler fails to process the title.
+   */
+  default void onStoryTitle(String title) throws IOException {
+  }
+
+  /**
+   * Receives the start of a passage.
+   *
+   * @param title   The title of the passage.
+   * @param content The content of the passage.
+   * @throws IOException If the handler fails to process the passage.
+   */
+  default void onPassage(String title, String content) throws IOException {
+  }
+
+  /**
+   * Receives a link of the last passage.
+   *
+   * @param text      The text of the link.
+   * @param reference The reference of the link.
+   * @throws IOException If the handler fails to process the link.
+   */
+  default void onLink(String text, String reference) throws IOException {
+  }
+
+  /**
+   * Receives a goal of the last link.
+   *
+   * @param goal The goal.
+   * @throws IOException If the handler fails to process the goal.
+   */
+  default void onGoal(Goal goal) throws IOException {
+  }
+
+  /**
+   * Receives an action of the last link.
+   *
+   * @param action The action.
+   * @throws IOException If the handler fails to process the action.
+   */
+  default void onAction(Action action) throws IOException {
+  }
+
+  /**
+   * Receives the end of the last passage, after all its links, goals and actions.
+   *
+   * @throws IOException If the handler fails to process the end of the passage.
+   */
+  default void onPassageEnd() throws IOException {
+  }
+}
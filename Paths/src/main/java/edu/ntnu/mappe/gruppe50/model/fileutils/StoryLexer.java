@@ -0,0 +1,264 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
+
+/**
+ * Lexer for the lines of story element files - .paths, .links and .goals files. A line is
+ * classified in a single pass over its characters, and the kind of line is decided by its first
+ * character. A passage title starts with "::", a link with a square bracket, an action with a curly
+ * brace and a goal with a triangle bracket. A line that looks like none of them is text, unless it
+ * only has whitespace, in which case it is blank.
+ *
+ * <p>While a line is classified, the lexer remembers where the parts of the line are, such as the
+ * text and reference of a link. The parts are only copied into strings when they are asked for, so
+ * classifying a line does not create any objects. The lexer keeps the parts of the last line it
+ * classified, and one lexer should therefore only be used by one reader at a time.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryLexer {
+
+  /**
+   * The kinds of lines in a story element file.
+   */
+  public enum Token {
+
+    /**
+     * A line that is empty or only has whitespace.
+     */
+    BLANK,
+
+    /**
+     * A line that starts with "::", followed by the title of a passage.
+     */
+    PASSAGE_TITLE,
+
+    /**
+     * A line with the format "[text](reference)".
+     */
+    LINK,
+
+    /**
+     * A line with the format "{type:value}".
+     */
+    ACTION,
+
+    /**
+     * A line with the format &lt;type:value&gt;.
+     */
+    GOAL,
+
+    /**
+     * Any other line, such as the content of a passage.
+     */
+    TEXT
+  }
+
+  private String line;
+  private Token token;
+  private int separator;
+
+  /**
+   * Classifies a line. The parts of the line can be read from the lexer afterwards.
+   *
+   * @param line The line that is classified.
+   * @return The kind of line.
+   * @throws IllegalArgumentException If the line is null.
+   */
+  public Token lex(String line) throws IllegalArgumentException {
+    if (line == null) {
+      throw new IllegalArgumentException("Cannot classify a line that is null.");
+    }
+    this.line = line;
+    this.separator = -1;
+    this.token = classify(line);
+    return token;
+  }
+
+  /**
+   * Classifies a line without keeping its parts.
+   *
+   * @param line The line that is classified.
+   * @return The kind of line.
+   * @throws IllegalArgumentException If the line is null.
+   */
+  public static Token classifyLine(String line) throws IllegalArgumentException {
+    return new StoryLexer().lex(line);
+  }
+
+  /**
+   * Gets the kind of the last line that was classified.
+   *
+   * @return The kind of line, or null if no line has been classified.
+   */
+  public Token getToken() {
+    return token;
+  }
+
+  /**
+   * Gets the title of a passage title line, being everything after the "::".
+   *
+   * @return The passage title.
+   * @throws IllegalStateException If the last line was not a passage title.
+   */
+  public String getTitle() throws IllegalStateException {
+    expect(Token.PASSAGE_TITLE);
+    return line.substring(2);
+  }
+
+  /**
+   * Gets the title of a passage title line from a symbol table.
+   *
+   * @param symbols The symbol table that the title is interned in.
+   * @return The passage title, as stored in the symbol table.
+   * @throws IllegalStateException If the last line was not a passage title.
+   */
+  public String getTitle(SymbolTable symbols) throws IllegalStateException {
+    expect(Token.PASSAGE_TITLE);
+    return symbols.intern(line, 2, line.length());
+  }
+
+  /**
+   * Gets the text of a link line, being everything between the first square brackets.
+   *
+   * @return The link text.
+   * @throws IllegalStateException If the last line was not a link.
+   */
+  public String getText() throws IllegalStateException {
+    expect(Token.LINK);
+    return line.substring(1, separator);
+  }
+
+  /**
+   * Gets the text of a link line from a symbol table.
+   *
+   * @param symbols The symbol table that the text is interned in.
+   * @return The link text, as stored in the symbol table.
+   * @throws IllegalStateException If the last line was not a link.
+   */
+  public String getText(SymbolTable symbols) throws IllegalStateException {
+    expect(Token.LINK);
+    return symbols.intern(line, 1, separator);
+  }
+
+  /**
+   * Gets the reference of a link line, being everything between the parentheses.
+   *
+   * @return The link reference.
+   * @throws IllegalStateException If the last line was not a link.
+   */
+  public String getReference() throws IllegalStateException {
+    expect(Token.LINK);
+    return line.substring(separator + 2, line.length() - 1);
+  }
+
+  /**
+   * Gets the reference of a link line from a symbol table.
+   *
+   * @param symbols The symbol table that the reference is interned in.
+   * @return The link reference, as stored in the symbol table.
+   * @throws IllegalStateException If the last line was not a link.
+   */
+  public String getReference(SymbolTable symbols) throws IllegalStateException {
+    expect(Token.LINK);
+    return symbols.intern(line, separator + 2, line.length() - 1);
+  }
+
+  /**
+   * Gets the type of an action or goal line, being everything before the first colon.
+   *
+   * @return The type.
+   * @throws IllegalStateException If the last line was not an action or a goal.
+   */
+  public String getType() throws IllegalStateException {
+    expectActionOrGoal();
+    return line.substring(1, separator);
+  }
+
+  /**
+   * Gets the value of an action or goal line, being everything after the first colon.
+   *
+   * @return The value.
+   * @throws IllegalStateException If the last line was not an action or a goal.
+   */
+  public String getValue() throws IllegalStateException {
+    expectActionOrGoal();
+    return line.substring(separator + 1, line.length() - 1);
+  }
+
+  /**
+   * Classifies a line by its first character, and finds the separator of its parts.
+   *
+   * @param line The line.
+   * @return The kind of line.
+   */
+  private Token classify(String line) {
+    int length = line.length();
+    if (length == 0) {
+      return Token.BLANK;
+    }
+    char first = line.charAt(0);
+    switch (first) {
+      case ':':
+        return length > 1 && line.charAt(1) == ':' ? Token.PASSAGE_TITLE : Token.TEXT;
+      case '[':
+        return line.charAt(length - 1) == ')' && findSeparator(line, "](", length - 1)
+            ? Token.LINK : Token.TEXT;
+      case '{':
+        return line.charAt(length - 1) == '}' && findSeparator(line, ":", length - 1)
+            ? Token.ACTION : Token.TEXT;
+      case '<':
+        return line.charAt(length - 1) == '>' && findSeparator(line, ":", length - 1)
+            ? Token.GOAL : Token.TEXT;
+      default:
+        for (int i = 0; i < length; i++) {
+          if (!Character.isWhitespace(line.charAt(i))) {
+            return Token.TEXT;
+          }
+        }
+        return Token.BLANK;
+    }
+  }
+
+  /**
+   * Finds the first occurrence of a separator after the first character of a line, and before an
+   * end index.
+   *
+   * @param line      The line.
+   * @param separator The separator.
+   * @param end       The index that the separator must end before.
+   * @return True, if the separator was found.
+   */
+  private boolean findSeparator(String line, String separator, int end) {
+    int index = line.indexOf(separator, 1);
+    if (index < 0 || index + separator.length() > end) {
+      return false;
+    }
+    this.separator = index;
+    return true;
+  }
+
+  /**
+   * Checks that the last line was of a given kind.
+   *
+   * @param expected The expected kind of line.
+   * @throws IllegalStateException If the last line was of another kind.
+   */
+  private void expect(Token expected) throws IllegalStateException {
+    if (token != expected) {
+      throw new IllegalStateException("The last line was not a " + expected + ".");
+    }
+  }
+
+  /**
+   * Checks that the last line was an action or a goal.
+   *
+   * @throws IllegalStateException If the last line was neither an action nor a goal.
+   */
+  private void expectActionOrGoal() throws IllegalStateException {
+    if (token != Token.ACTION && token != Token.GOAL) {
+      throw new IllegalStateException("The last line was not an action or a goal.");
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.util.Map;
+
+/**
+ * Class that represents a story that has been read again from its file by a {@link StoryReloader},
+ * but not yet applied to the story that is being played. The reload holds the passages of the file
+ * in the order of the file. A passage whose block of the file is unchanged is the same instance
+ * as before, so applying the reload only touches the passages that changed.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryReload {
+
+  private final long sequence;
+  private final Story story;
+  private final Map<String, Passage> passages;
+  private final boolean fullReload;
+  private final int parsedPassageCount;
+
+  /**
+   * Creates a reload. Use {@link StoryReloader#read()} to create instances of this class.
+   *
+   * @param sequence           The number of the read that created the reload.
+   * @param story              The story that the reload is applied to.
+   * @param passages           The passages of the file, keyed by their titles.
+   * @param fullReload         True, if the story was created from the whole file.
+   * @param parsedPassageCount The number of passages that were parsed.
+   */
+  StoryReload(long sequence, Story story, Map<String, Passage> passages, boolean fullReload,
+      int parsedPassageCount) {
+    this.sequence = sequence;
+    this.story = story;
+    this.passages = passages;
+    this.fullReload = fullReload;
+    this.parsedPassageCount = parsedPassageCount;
+  }
+
+  /**
+   * Gets the number of the read that created the reload. Later reads have higher numbers.
+   *
+   * @return The sequence number of the reload.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Checks if the story was created again from the whole file, which happens on the first read
+   * and when the title of the story or of its opening passage has changed.
+   *
+   * @return True, if the story was created from the whole file.
+   */
+  public boolean isFullReload() {
+    return fullReload;
+  }
+
+  /**
+   * Gets the number of passages that were parsed, being the passages whose blocks of the file had
+   * changed.
+   *
+   * @return The number of parsed passages.
+   */
+  public int getParsedPassageCount() {
+    return parsedPassageCount;
+  }
+
+  /**
+   * Gets the story that the reload is applied to.
+   *
+   * @return The story.
+   */
+  Story getStory() {
+    return story;
+  }
+
+  /**
+   * Gets the passages of the file.
+   *
+   * @return The passages, keyed by their titles, in the order of the file.
+   */
+  Map<String, Passage> getPassages() {
+    return passages;
+  }
+}
@@ -0,0 +1,301 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a .paths file again after it has been changed, and applies the changes to the story that
+ * is being played. The file is split into its blocks, being the story title and one block for each
+ * passage, separated by blank lines. Only the blocks that are not the same as when the file was
+ * last read are parsed, and applying the changes only replaces, adds or deletes the passages of
+ * those blocks, so editing one passage of a large story is fast.
+ *
+ * <p>The reloader owns the story it creates. The first read, and a read where the title of the
+ * story or of its opening passage has changed, creates the story again from the whole file. Reading
+ * a file that is not a valid story throws the error, and the story is left as it was. A passage
+ * that is added to the file is added after the other passages of the story.
+ *
+ * <p>Reading is meant to be done on a background thread, while the changes are applied on the
+ * JavaFX application thread, between the moves of the player.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryReloader {
+
+  private final String filePath;
+  private final StoryLexer lexer = new StoryLexer();
+
+  private Story story;
+  private String storyTitle;
+  private String openingTitle;
+  private Map<String, Passage> blockPassages = new HashMap<>();
+  private long readCount;
+
+  private final Object applyLock = new Object();
+  private long appliedSequence;
+  private Story appliedStory;
+
+  /**
+   * Creates a reloader of a .paths file that has not been read yet.
+   *
+   * @param filePath The absolute path of the file.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public StoryReloader(String filePath) throws IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("The file path cannot be null.");
+    }
+    this.filePath = filePath;
+  }
+
+  /**
+   * Reads the file, and parses the blocks that have changed since the last read.
+   *
+   * @return The reload, which is applied to the story with {@link #apply(StoryReload)}.
+   * @throws IOException                 If the file cannot be read.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format, or has two
+   *                                     passages with the same title.
+   */
+  public synchronized StoryReload read() throws IOException, InvalidStoryFormatException {
+    String text;
+    try {
+      //Decoded as UTF-8, like every other reader of .paths files
+      text = new String(Files.readAllBytes(Path.of(filePath)), StandardCharsets.UTF_8);
+    } catch (IOException | InvalidPathException e) {
+      throw new IOException("Could not find a file in path: " + filePath, e);
+    }
+
+    //Splits the text into the title line and the blocks, which are separated by one blank line
+    int headerEnd = lineEnd(text, 0);
+    int position = nextLine(text, headerEnd);
+    if (headerEnd == text.length() || position == text.length()
+        || !isBlank(text, position, lineEnd(text, position))) {
+      return readWholeFile();
+    }
+    String header = text.substring(0, headerEnd);
+    List<String> blocks = new ArrayList<>();
+    position = nextLine(text, lineEnd(text, position));
+    int blockStart = -1;
+    int blockEnd = -1;
+    while (position < text.length()) {
+      int end = lineEnd(text, position);
+      if (isBlank(text, position, end)) {
+        //Two blank lines in a row
+        if (blockStart < 0) {
+          return readWholeFile();
+        }
+        blocks.add(text.substring(blockStart, blockEnd));
+        blockStart = -1;
+      } else {
+        if (blockStart < 0) {
+          if (!text.startsWith("::", position)) {
+            return readWholeFile();
+          }
+          blockStart = position;
+        }
+        blockEnd = end;
+      }
+      position = nextLine(text, end);
+    }
+    //No passages, or trailing blank lines
+    if (blockStart < 0) {
+      return readWholeFile();
+    }
+    blocks.add(text.substring(blockStart, blockEnd));
+
+    String firstBlock = blocks.get(0);
+    lexer.lex(firstBlock.substring(0, lineEnd(firstBlock, 0)));
+    boolean fullReload = story == null || !header.equals(storyTitle)
+        || !lexer.getTitle().equals(openingTitle);
+    Map<String, Passage> previous = fullReload ? Map.of() : blockPassages;
+
+    //Finds the passages of the unchanged blocks, and parses the changed blocks together
+    Passage[] passages = new Passage[blocks.size()];
+    List<Integer> changed = new ArrayList<>();
+    StringBuilder changedText = new StringBuilder();
+    for (int i = 0; i < blocks.size(); i++) {
+      passages[i] = previous.get(blocks.get(i));
+      if (passages[i] == null) {
+        changed.add(i);
+        changedText.append(blocks.get(i)).append("\n\n");
+      }
+    }
+    if (!changed.isEmpty()) {
+      BufferedReader lines = new BufferedReader(new StringReader(changedText.toString()));
+      List<Passage> parsed = StoryFileHandling.readPassages(filePath, lines::readLine);
+      if (parsed.size() != changed.size()) {
+        throw new InvalidStoryFormatException("File does not match .paths file format");
+      }
+      for (int i = 0; i < changed.size(); i++) {
+        passages[changed.get(i)] = parsed.get(i);
+      }
+    }
+
+    Map<String, Passage> titles = new LinkedHashMap<>(blocks.size() * 2);
+    Map<String, Passage> nextBlockPassages = new HashMap<>(blocks.size() * 2);
+    for (int i = 0; i < blocks.size(); i++) {
+      if (titles.put(passages[i].getTitle(), passages[i]) != null) {
+        throw new InvalidStoryFormatException(
+            "The story has more than one passage with the title " + passages[i].getTitle());
+      }
+      nextBlockPassages.put(blocks.get(i), passages[i]);
+    }
+
+    Story reloadedStory = story;
+    if (fullReload) {
+      reloadedStory = createStory(header, titles.values());
+    }
+    story = reloadedStory;
+    storyTitle = header;
+    openingTitle = passages[0].getTitle();
+    blockPassages = nextBlockPassages;
+    return new StoryReload(++readCount, reloadedStory, titles, fullReload, changed.size());
+  }
+
+  /**
+   * Applies a reload to the story. The passages that are no longer in the file are deleted, the
+   * passages whose blocks changed are replaced, and the new passages are added. A reload that is
+   * older than a reload that has already been applied is ignored, since the later reload holds
+   * every change of the file.
+   *
+   * @param reload The reload that is applied.
+   * @return The story with the reload applied.
+   * @throws IllegalArgumentException If the reload is null.
+   */
+  public Story apply(StoryReload reload) throws IllegalArgumentException {
+    if (reload == null) {
+      throw new IllegalArgumentException("The reload cannot be null.");
+    }
+    synchronized (applyLock) {
+      if (reload.getSequence() <= appliedSequence) {
+        return appliedStory;
+      }
+      Story reloadedStory = reload.getStory();
+      if (!reload.isFullReload()) {
+        Map<String, Passage> target = reload.getPassages();
+        Map<String, Passage> current = new HashMap<>(target.size() * 2);
+        for (Passage passage : reloadedStory.getPassages()) {
+          current.put(passage.getTitle(), passage);
+        }
+        for (String title : current.keySet()) {
+          if (!target.containsKey(title)) {
+            reloadedStory.deletePassage(title);
+          }
+        }
+        for (Passage passage : target.values()) {
+          Passage existing = current.get(passage.getTitle());
+          if (existing == null) {
+            reloadedStory.addPassage(passage);
+          } else if (existing != passage) {
+            reloadedStory.replacePassage(passage);
+          }
+        }
+      }
+      appliedSequence = reload.getSequence();
+      appliedStory = reloadedStory;
+      return reloadedStory;
+    }
+  }
+
+  /**
+   * Reads the whole file when it could not be split into blocks. The file is then most likely
+   * not a valid story, and the error is thrown. The blocks of the file are forgotten, so the next
+   * read creates the story again.
+   *
+   * @return The reload of the whole file.
+   * @throws IOException                 If the file cannot be read.
+   * @throws InvalidStoryFormatException If the file violates the .paths file format.
+   */
+  private StoryReload readWholeFile() throws IOException, InvalidStoryFormatException {
+    Story wholeStory = StoryFileHandling.readStoryFromFile(filePath);
+    Map<String, Passage> titles = new LinkedHashMap<>();
+    wholeStory.getPassages().forEach(passage -> titles.put(passage.getTitle(), passage));
+    story = null;
+    blockPassages = new HashMap<>();
+    return new StoryReload(++readCount, wholeStory, titles, true, titles.size());
+  }
+
+  /**
+   * Creates a story from its title and passages.
+   *
+   * @param title    The title of the story.
+   * @param passages The passages, where the first is the opening passage.
+   * @return The story.
+   * @throws InvalidStoryFormatException If the title is blank.
+   */
+  private static Story createStory(String title, Iterable<Passage> passages)
+      throws InvalidStoryFormatException {
+    try {
+      Iterator<Passage> iterator = passages.iterator();
+      Story createdStory = new Story(title, iterator.next());
+      iterator.forEachRemaining(createdStory::addPassage);
+      return createdStory;
+    } catch (IllegalArgumentException iae) {
+      throw new InvalidStoryFormatException(iae.getMessage(), iae);
+    }
+  }
+
+  /**
+   * Finds the end of a line, being the index of its line terminator or the end of the text.
+   *
+   * @param text  The text.
+   * @param start The index of the start of the line.
+   * @return The index after the last character of the line.
+   */
+  private static int lineEnd(String text, int start) {
+    int end = start;
+    while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Finds the start of the next line, skipping a line terminator like a {@link BufferedReader}.
+   *
+   * @param text The text.
+   * @param end  The index of the end of the line.
+   * @return The index of the start of the next line, or the length of the text.
+   */
+  private static int nextLine(String text, int end) {
+    if (end < text.length() && text.charAt(end) == '\r') {
+      end++;
+    }
+    if (end < text.length() && text.charAt(end) == '\n') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Checks if a line is blank in the same way as the parser, being empty or only whitespace.
+   *
+   * @param text  The text.
+   * @param start The index of the start of the line.
+   * @param end   The index of the end of the line.
+   * @return True, if the line is blank.
+   */
+  private static boolean isBlank(String text, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isWhitespace(text.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,105 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming writer of stories in the .paths file format. The story is written element by element
+ * straight to a {@link Writer}, so no string with the whole story, or a whole passage, is ever
+ * built. How much of the story is held in memory at once is decided by the buffering of the
+ * writer, such as the buffer of a {@link java.io.BufferedWriter}.
+ *
+ * <p>The output is identical to {@link Story#toString()}, which is how stories were written to
+ * file before.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class StoryWriter {
+
+  private final Writer writer;
+
+  /**
+   * Creates a story writer that writes to a writer. The writer is not closed by the story writer.
+   *
+   * @param writer The writer that stories are written to.
+   * @throws IllegalArgumentException If the writer is null.
+   */
+  public StoryWriter(Writer writer) throws IllegalArgumentException {
+    if (writer == null) {
+      throw new IllegalArgumentException("The writer cannot be null.");
+    }
+    this.writer = writer;
+  }
+
+  /**
+   * Writes a story, being its title followed by every passage, each after a blank line.
+   *
+   * @param story The story that is written.
+   * @throws IOException              If the writer fails.
+   * @throws IllegalArgumentException If the story is null.
+   */
+  public void write(Story story) throws IOException, IllegalArgumentException {
+    if (story == null) {
+      throw new IllegalArgumentException("Cannot write a story that is null.");
+    }
+    writer.write(story.getTitle());
+    for (Passage passage : story.getPassages()) {
+      writer.write("\n\n");
+      write(passage);
+    }
+  }
+
+  /**
+   * Writes a passage, being its title, its content and every link, each on its own line.
+   *
+   * @param passage The passage that is written.
+   * @throws IOException              If the writer fails.
+   * @throws IllegalArgumentException If the passage is null.
+   */
+  public void write(Passage passage) throws IOException, IllegalArgumentException {
+    if (passage == null) {
+      throw new IllegalArgumentException("Cannot write a passage that is null.");
+    }
+    writer.write("::");
+    writer.write(passage.getTitle());
+    writer.write('\n');
+    writer.write(passage.getContent());
+    for (Link link : passage.getLinks()) {
+      writer.write('\n');
+      write(link);
+    }
+  }
+
+  /**
+   * Writes a link, being its text and reference, followed by its goals and then its actions, each
+   * on its own line.
+   *
+   * @param link The link that is written.
+   * @throws IOException              If the writer fails.
+   * @throws IllegalArgumentException If the link is null.
+   */
+  public void write(Link link) throws IOException, IllegalArgumentException {
+    if (link == null) {
+      throw new IllegalArgumentException("Cannot write a link that is null.");
+    }
+    writer.write('[');
+    writer.write(link.getText());
+    writer.write("](");
+    writer.write(link.getReference());
+    writer.write(')');
+    for (Goal goal : link.getGoals()) {
+      writer.write('\n');
+      writer.write(goal.toString());
+    }
+    for (Action action : link.getActions()) {
+      writer.write('\n');
+      writer.write(action.toString());
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents the result of importing a directory of .paths files as user stories. The
+ * result holds the user stories that were imported, in the order of their file names, and the
+ * reason each of the other .paths files could not be imported.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class UserStoryImportResult {
+
+  private final List<UserStoryInfo> imported;
+  private final Map<String, String> failures;
+
+  /**
+   * Creates an empty result. Use {@link UserStoryImporter} to create results.
+   */
+  UserStoryImportResult() {
+    this.imported = new ArrayList<>();
+    this.failures = new LinkedHashMap<>();
+  }
+
+  /**
+   * Adds a user story that was imported.
+   *
+   * @param userStoryInfo The user story.
+   */
+  void addImported(UserStoryInfo userStoryInfo) {
+    imported.add(userStoryInfo);
+  }
+
+  /**
+   * Adds a .paths file that could not be imported.
+   *
+   * @param fileName The name of the file.
+   * @param reason   Why the file could not be imported.
+   */
+  void addFailure(String fileName, String reason) {
+    failures.put(fileName, reason);
+  }
+
+  /**
+   * Gets the user stories that were imported.
+   *
+   * @return An unmodifiable list of the imported user stories.
+   */
+  public List<UserStoryInfo> getImported() {
+    return Collections.unmodifiableList(imported);
+  }
+
+  /**
+   * Gets the .paths files that could not be imported.
+   *
+   * @return An unmodifiable map from the name of each file to why it could not be imported.
+   */
+  public Map<String, String> getFailures() {
+    return Collections.unmodifiableMap(failures);
+  }
+}
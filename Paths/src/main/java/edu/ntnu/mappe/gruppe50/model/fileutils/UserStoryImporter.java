@@ -0,0 +1,164 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoalsRegister;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports every .paths file of a directory as a user story. Each file is parsed and validated by
+ * counting its broken links, which streams the file instead of reading the whole story into
+ * memory, and gets an empty .goals file like a story that is added on its own.
+ *
+ * <p>The files are imported in parallel, but by no more than a maximum number of threads at a
+ * time, so importing hundreds of stories does not start hundreds of threads or read hundreds of
+ * files at once. The importer does not change the user story register or its file. The imported
+ * user stories are meant to be added to the register and written to file in one batch with
+ * {@link UserStoryInfoFileHandling#writeUserStoryInfosToFile(Collection, String)}.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class UserStoryImporter {
+
+  /**
+   * The default maximum number of files that are imported at a time.
+   */
+  public static final int DEFAULT_MAX_THREADS = Runtime.getRuntime().availableProcessors();
+
+  private static final String storyFileType = ".paths";
+  private static final String goalFileType = ".goals";
+
+  private final int maxThreads;
+
+  /**
+   * Creates an importer that imports no more than a given number of files at a time.
+   *
+   * @param maxThreads The maximum number of files that are imported at a time.
+   * @throws IllegalArgumentException If the maximum number of threads is less than one.
+   */
+  public UserStoryImporter(int maxThreads) throws IllegalArgumentException {
+    if (maxThreads < 1) {
+      throw new IllegalArgumentException("The maximum number of threads must be at least one.");
+    }
+    this.maxThreads = maxThreads;
+  }
+
+  /**
+   * Imports every .paths file of a directory. Files in subdirectories are not imported. A file
+   * whose path is already added, or that is not a valid story, is not imported, and the reason is
+   * added to the result.
+   *
+   * @param directoryPath      The absolute path of the directory.
+   * @param goalsDirectoryPath The absolute path of the directory that the .goals files are written
+   *                           to.
+   * @param addedFilePaths     The file paths of the user stories that are already added.
+   * @param progress           The receiver of the number of files that have been imported, which
+   *                           may cancel the import by throwing a {@link CancellationException}.
+   * @return The user stories that were imported and the files that could not be imported.
+   * @throws IOException              If the directory does not exist.
+   * @throws IllegalArgumentException If any of the parameters are null.
+   * @throws CancellationException    If the import is cancelled or interrupted.
+   */
+  public UserStoryImportResult importDirectory(String directoryPath, String goalsDirectoryPath,
+      Collection<String> addedFilePaths, LoadProgress progress)
+      throws IOException, IllegalArgumentException {
+    if (directoryPath == null) {
+      throw new IllegalArgumentException("The directory path cannot be null.");
+    }
+    if (goalsDirectoryPath == null) {
+      throw new IllegalArgumentException("The goals directory path cannot be null.");
+    }
+    if (addedFilePaths == null) {
+      throw new IllegalArgumentException("The added file paths cannot be null.");
+    }
+    if (progress == null) {
+      throw new IllegalArgumentException("The load progress cannot be null.");
+    }
+    File[] files = new File(directoryPath).listFiles(
+        (dir, name) -> name.endsWith(storyFileType) && new File(dir, name).isFile());
+    if (files == null) {
+      throw new IOException("The directory " + directoryPath + " does not exist");
+    }
+    Arrays.sort(files, Comparator.comparing(File::getName));
+
+    UserStoryImportResult result = new UserStoryImportResult();
+    Set<String> added = new HashSet<>(addedFilePaths);
+    List<File> storyFiles = new ArrayList<>();
+    for (File file : files) {
+      if (added.contains(file.getPath())) {
+        result.addFailure(file.getName(), "A Story with the same file path has already been added");
+      } else {
+        storyFiles.add(file);
+      }
+    }
+    if (storyFiles.isEmpty()) {
+      return result;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(maxThreads, storyFiles.size()), runnable -> {
+          Thread thread = new Thread(runnable, "User story importer");
+          thread.setDaemon(true);
+          return thread;
+        });
+    try {
+      CompletionService<UserStoryInfo> completionService =
+          new ExecutorCompletionService<>(executor);
+      List<Future<UserStoryInfo>> imports = new ArrayList<>();
+      for (File file : storyFiles) {
+        imports.add(completionService.submit(() -> importFile(file, goalsDirectoryPath)));
+      }
+
+      // The progress is reported in the order the files are done, on the calling thread
+      for (int done = 1; done <= storyFiles.size(); done++) {
+        completionService.take();
+        progress.update(done, storyFiles.size());
+      }
+
+      for (int i = 0; i < storyFiles.size(); i++) {
+        try {
+          result.addImported(imports.get(i).get());
+        } catch (ExecutionException e) {
+          result.addFailure(storyFiles.get(i).getName(), e.getCause().getMessage());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("The import was interrupted");
+    } finally {
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  /**
+   * Imports a single .paths file, by counting its broken links and writing an empty .goals file
+   * for it.
+   *
+   * @param file               The .paths file.
+   * @param goalsDirectoryPath The absolute path of the directory of the .goals file.
+   * @return The user story of the file.
+   * @throws Exception If the file is not a valid story, or the .goals file cannot be written.
+   */
+  private static UserStoryInfo importFile(File file, String goalsDirectoryPath) throws Exception {
+    int numBrokenLinks = StoryFileHandling.countBrokenLinks(file.getPath());
+    GoalFileHandling.writeGoalsToFile(new GoalsRegister(), new File(goalsDirectoryPath,
+        file.getName().replace(storyFileType, goalFileType)).getPath());
+    return new UserStoryInfo(file.getName(), file.getPath(), numBrokenLinks);
+  }
+}
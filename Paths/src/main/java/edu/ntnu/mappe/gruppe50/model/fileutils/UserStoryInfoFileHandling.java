@@ -8,6 +8,12 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * File handling class for reading and writing user stories from and to file. A user story contains
@@ -67,8 +73,8 @@ public class UserStoryInfoFileHandling {
   }
 
   /**
-   * Writes a UserStoryInfoRegister object to file. Loops through user stories and writes each one
-   * to file.
+   * Writes a UserStoryInfoRegister object to file. The user stories are written to the file in one
+   * batch by {@link #writeUserStoryInfosToFile(Collection, String)}.
    *
    * @param userStoryInfoRegister The UserStoryInfoRegister instance that is written to file.
    * @param filePath              The absolute file path of the file.
@@ -90,8 +96,67 @@ public class UserStoryInfoFileHandling {
           "The file does not have the correct " + userStoryInfoFileType + " file type");
     }
 
-    for (UserStoryInfo userStoryInfo : userStoryInfoRegister.getUserStoryInfos()) {
-      writeUserStoryInfoToFile(userStoryInfo, filePath);
+    writeUserStoryInfosToFile(userStoryInfoRegister.getUserStoryInfos(), filePath);
+  }
+
+  /**
+   * Writes several instances of UserStoryInfo to file in one batch. The file is read once, the
+   * user stories that are already in the file are replaced and the new user stories are added to
+   * the end, and the result is written to a temporary file that then replaces the file. Writing
+   * hundreds of user stories therefore rewrites the file once, instead of once per user story. A
+   * file that does not exist is created.
+   *
+   * @param userStoryInfos The UserStoryInfo objects written to file.
+   * @param filePath       The absolute file path of the file.
+   * @throws IOException              If the file type is not .userStoryInfo, if the formatting of
+   *                                  the file is invalid or if the file cannot be written to.
+   * @throws IllegalArgumentException If the user stories or any of them are null, or if the file
+   *                                  path is null or blank.
+   */
+  public static void writeUserStoryInfosToFile(Collection<UserStoryInfo> userStoryInfos,
+      String filePath) throws IOException {
+    if (userStoryInfos == null) {
+      throw new IllegalArgumentException("UserStoryInfos cannot be null.");
+    }
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null");
+    }
+    if (filePath.isBlank()) {
+      throw new IllegalArgumentException("FilePath cannot be blank.");
+    }
+    if (!filePath.endsWith(userStoryInfoFileType)) {
+      throw new IOException(
+          "The file does not have the correct " + userStoryInfoFileType + " file type");
+    }
+
+    File file = new File(filePath);
+    Map<String, UserStoryInfo> merged = new LinkedHashMap<>();
+    if (file.exists()) {
+      for (UserStoryInfo userStoryInfo : readUserStoryInfoFromFile(filePath).getUserStoryInfos()) {
+        merged.put(userStoryInfo.getFilePath(), userStoryInfo);
+      }
+    }
+    for (UserStoryInfo userStoryInfo : userStoryInfos) {
+      if (userStoryInfo == null) {
+        throw new IllegalArgumentException("UserStoryInfo cannot be null.");
+      }
+      merged.put(userStoryInfo.getFilePath(), userStoryInfo);
+    }
+
+    // Write to a temporary file next to the file, so the file is replaced as a whole
+    Path target = file.toPath().toAbsolutePath();
+    Path tempFile = Files.createTempFile(target.getParent(), "userStoryInfo", ".tmp");
+    try {
+      try (BufferedWriter bw = new BufferedWriter(new FileWriter(tempFile.toFile()))) {
+        for (UserStoryInfo userStoryInfo : merged.values()) {
+          bw.write(userStoryInfo.getFileName() + ", " + userStoryInfo.getFilePath() + ", "
+              + userStoryInfo.getNumBrokenLinks());
+          bw.newLine();
+        }
+      }
+      Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
     }
   }
 
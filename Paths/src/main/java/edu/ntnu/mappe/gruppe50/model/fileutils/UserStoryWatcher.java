@@ -0,0 +1,199 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watches the .paths files of user stories, and counts the broken links of a file again when the
+ * file is changed. The files are watched by a {@link FileWatcher}, so nothing is read while the
+ * files are unchanged, and several changes in a row are checked once.
+ *
+ * <p>Only the files that changed are checked, each on a pool of worker threads, and the listener
+ * is only told about a story whose number of broken links is different from before. A file that
+ * is deleted, or that is no longer a valid story, keeps its last number of broken links. A file is
+ * only checked by one thread at a time, and a file that changes while it is checked is checked
+ * again when the check is finished, so the last number of broken links is always from the newest
+ * version of the file.
+ *
+ * <p>The listener is called on a worker thread, and must pass the update on to the JavaFX
+ * application thread itself if it changes the view.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class UserStoryWatcher implements Closeable {
+
+  /**
+   * The default debounce delay, in milliseconds.
+   */
+  public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+  private final Listener listener;
+  private final FileWatcher fileWatcher;
+  private final Map<Path, UserStoryInfo> userStoryInfos = new HashMap<>();
+  //The files that are being checked, and the ones among them that changed during the check
+  private final Set<Path> checking = new HashSet<>();
+  private final Set<Path> changedWhileChecking = new HashSet<>();
+
+  /**
+   * Creates a watcher that is not watching any files yet. The watcher runs until it is closed.
+   *
+   * @param debounceMillis The time in milliseconds without changes before a changed file is
+   *                       checked.
+   * @param listener       The listener that is told about stories whose number of broken links has
+   *                       changed.
+   * @throws IOException              If the file system cannot be watched.
+   * @throws IllegalArgumentException If the debounce delay is negative or the listener is null.
+   */
+  public UserStoryWatcher(long debounceMillis, Listener listener)
+      throws IOException, IllegalArgumentException {
+    if (debounceMillis < 0) {
+      throw new IllegalArgumentException("The debounce delay cannot be negative.");
+    }
+    if (listener == null) {
+      throw new IllegalArgumentException("The listener cannot be null.");
+    }
+    this.listener = listener;
+    this.fileWatcher = new FileWatcher(debounceMillis, Runtime.getRuntime().availableProcessors(),
+        "User story", this::check);
+  }
+
+  /**
+   * Starts watching the file of a user story. A story that is already watched gets its number of
+   * broken links replaced by the number of the given user story info.
+   *
+   * @param userStoryInfo The user story info of the file.
+   * @throws IOException              If the directory of the file cannot be watched.
+   * @throws IllegalArgumentException If the user story info is null.
+   */
+  public synchronized void watch(UserStoryInfo userStoryInfo)
+      throws IOException, IllegalArgumentException {
+    if (userStoryInfo == null) {
+      throw new IllegalArgumentException("UserStoryInfo cannot be null.");
+    }
+    Path file = FileWatcher.toWatchedPath(Path.of(userStoryInfo.getFilePath()));
+    fileWatcher.watch(file);
+    userStoryInfos.put(file, userStoryInfo);
+  }
+
+  /**
+   * Stops watching the file of a user story.
+   *
+   * @param filePath The file path of the user story.
+   * @throws IllegalArgumentException If the file path is null.
+   */
+  public synchronized void unwatch(String filePath) throws IllegalArgumentException {
+    if (filePath == null) {
+      throw new IllegalArgumentException("FilePath cannot be null.");
+    }
+    Path file = FileWatcher.toWatchedPath(Path.of(filePath));
+    if (userStoryInfos.remove(file) != null) {
+      fileWatcher.unwatch(file);
+    }
+  }
+
+  /**
+   * Gets the number of changed files that have been checked. A file that changes several times
+   * within the debounce delay is checked once.
+   *
+   * @return The number of checks.
+   */
+  public long getCheckCount() {
+    return fileWatcher.getChangeCount();
+  }
+
+  /**
+   * Stops watching the files. Checks that are running are finished, but their results are not
+   * passed on to the listener.
+   *
+   * @throws IOException If the watch service cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    fileWatcher.close();
+  }
+
+  /**
+   * Checks a changed file, unless it is already being checked, in which case the thread that checks
+   * it checks it again when it is finished.
+   *
+   * @param file The file that has changed.
+   */
+  private void check(Path file) {
+    synchronized (this) {
+      if (!checking.add(file)) {
+        changedWhileChecking.add(file);
+        return;
+      }
+    }
+    boolean again = true;
+    try {
+      while (again) {
+        countBrokenLinks(file);
+        synchronized (this) {
+          again = changedWhileChecking.remove(file);
+        }
+      }
+    } finally {
+      synchronized (this) {
+        checking.remove(file);
+        changedWhileChecking.remove(file);
+      }
+    }
+  }
+
+  /**
+   * Counts the broken links of a changed file, and tells the listener if the number has changed.
+   *
+   * @param file The file that has changed.
+   */
+  private void countBrokenLinks(Path file) {
+    UserStoryInfo userStoryInfo;
+    synchronized (this) {
+      userStoryInfo = userStoryInfos.get(file);
+    }
+    if (userStoryInfo == null) {
+      return;
+    }
+    int numBrokenLinks;
+    try {
+      numBrokenLinks = StoryFileHandling.countBrokenLinks(file.toString());
+    } catch (IOException | InvalidStoryFormatException e) {
+      return;
+    }
+    if (numBrokenLinks == userStoryInfo.getNumBrokenLinks()) {
+      return;
+    }
+    UserStoryInfo refreshed = new UserStoryInfo(userStoryInfo.getFileName(),
+        userStoryInfo.getFilePath(), numBrokenLinks);
+    synchronized (this) {
+      //The story may have been unwatched or watched again while it was read
+      if (fileWatcher.isClosed() || userStoryInfos.get(file) != userStoryInfo) {
+        return;
+      }
+      userStoryInfos.put(file, refreshed);
+    }
+    listener.refreshed(refreshed);
+  }
+
+  /**
+   * Listener that is told about user stories whose number of broken links has changed.
+   */
+  @FunctionalInterface
+  public interface Listener {
+
+    /**
+     * Receives a user story whose file has changed.
+     *
+     * @param userStoryInfo The user story info with the new number of broken links.
+     */
+    void refreshed(UserStoryInfo userStoryInfo);
+  }
+}
@@ -0,0 +1,550 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryFileHandling;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless server that lets many players play a story at once over HTTP, without JavaFX. The story
+ * is compiled once and shared by every session, while each session has its own {@link Game}, and
+ * with it its own player and visited links. The server only reads the shared story, so the
+ * sessions never wait for each other.
+ *
+ * <p>The server is built on the HTTP server of the JDK, and handles requests on a bounded pool
+ * of threads. When every thread is busy and the queue of requests is full, the thread that accepts
+ * connections handles the request itself, so it stops accepting new requests until it is done.
+ * Requests and responses are JSON objects, and the server understands the following requests:
+ *
+ * <ul>
+ *   <li>{@code POST /sessions?player=name} starts a session at the opening passage.</li>
+ *   <li>{@code GET /sessions/{id}} gets the state of a session.</li>
+ *   <li>{@code POST /sessions/{id}/go?link=index} follows a link of the current passage, by its
+ *       position among the links of the passage.</li>
+ *   <li>{@code DELETE /sessions/{id}} ends a session.</li>
+ *   <li>{@code GET /stats} gets the number of sessions in memory and on disk, and how long it
+ *       takes to rehydrate a session.</li>
+ * </ul>
+ *
+ * <p>The sessions are kept in a {@link SessionStore}, so sessions that are not used are spilled
+ * to disk, and rehydrated the next time they are used.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class GameServer implements Closeable {
+
+  /**
+   * The port the server listens on if no other port is given.
+   */
+  public static final int DEFAULT_PORT = 8050;
+
+  private static final String SESSIONS_PATH = "/sessions";
+  private static final String STATS_PATH = "/stats";
+  private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+  private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  static {
+    //The HTTP server of the JDK writes the headers and the body of a response separately, so
+    //without TCP_NODELAY every response waits for the client to acknowledge the headers, which
+    //adds about 40 milliseconds to every request on a kept alive connection
+    if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+      System.setProperty(NO_DELAY_PROPERTY, "true");
+    }
+  }
+
+  private final CompiledStory story;
+  private final int startingHealth;
+  private final HttpServer server;
+  private final ThreadPoolExecutor executor;
+  private final SessionStore sessions;
+  //The directory of the spilled sessions, if the server created it, so it is deleted on close
+  private final Path temporaryDirectory;
+
+  /**
+   * Creates and starts a server from a builder.
+   *
+   * @param builder The builder of the server.
+   * @throws IOException If the server cannot listen on the port, or the directory of the spilled
+   *                     sessions cannot be created.
+   */
+  private GameServer(Builder builder) throws IOException {
+    this.story = builder.story;
+    this.startingHealth = builder.startingHealth;
+    this.temporaryDirectory = builder.spillDirectory == null
+        ? Files.createTempDirectory("paths-sessions") : null;
+    this.sessions = new SessionStore.Builder(story, builder.spillDirectory == null
+        ? temporaryDirectory : builder.spillDirectory)
+        .goals(builder.goals)
+        .idleMillis(builder.idleMillis)
+        .capacity(builder.residentCapacity)
+        .build();
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(builder.threads, builder.threads, 0,
+        TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(builder.queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "Game server " + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    this.server = HttpServer.create(new InetSocketAddress(builder.address, builder.port),
+        builder.backlog);
+    this.server.createContext(SESSIONS_PATH, this::handle);
+    this.server.createContext(STATS_PATH, exchange -> respond(exchange, 200, sessions.toJson()));
+    this.server.setExecutor(executor);
+    this.server.start();
+  }
+
+  /**
+   * Gets the port the server listens on. If the server was built with port zero, this is the
+   * port that was picked for it.
+   *
+   * @return The port.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Gets the story that is played on the server.
+   *
+   * @return The compiled story.
+   */
+  public CompiledStory getStory() {
+    return story;
+  }
+
+  /**
+   * Gets the store of the sessions on the server, which counts how many sessions are in memory,
+   * and how often sessions are spilled and rehydrated.
+   *
+   * @return The session store.
+   */
+  public SessionStore getSessionStore() {
+    return sessions;
+  }
+
+  /**
+   * Gets the number of sessions on the server, both in memory and spilled.
+   *
+   * @return The number of sessions.
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Gets a session by its id.
+   *
+   * @param id The id of the session.
+   * @return The session, or null if there is no session with the id.
+   */
+  public GameSession getSession(String id) {
+    return sessions.get(id);
+  }
+
+  /**
+   * Starts a new session, where a new player starts at the opening passage of the story.
+   *
+   * @param playerName The name of the player.
+   * @return The session.
+   * @throws IllegalArgumentException If the name is null or blank.
+   */
+  public GameSession createSession(String playerName) throws IllegalArgumentException {
+    return sessions.create(new Player.Builder(playerName).health(startingHealth).build());
+  }
+
+  /**
+   * Ends a session.
+   *
+   * @param id The id of the session.
+   * @return True, if there was a session with the id.
+   * @throws IOException If the snapshot of a spilled session cannot be deleted.
+   */
+  public boolean removeSession(String id) throws IOException {
+    return sessions.remove(id);
+  }
+
+  /**
+   * Stops the server, waiting for the requests that are being handled, and deletes the snapshots
+   * of the spilled sessions.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    sessions.close();
+    if (temporaryDirectory != null) {
+      try {
+        Files.deleteIfExists(temporaryDirectory);
+      } catch (IOException e) {
+        //The directory is in the temporary directory of the system, which is cleaned by the system
+      }
+    }
+  }
+
+  /**
+   * Handles a request to the sessions path, answering with the status code and JSON object of the
+   * request.
+   *
+   * @param exchange The request and its response.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    int status;
+    String body;
+    try {
+      String[] path = exchange.getRequestURI().getPath().substring(SESSIONS_PATH.length())
+          .split("/");
+      Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+      String method = exchange.getRequestMethod();
+      //The path is split into "", the session id and the action
+      String id = path.length > 1 ? path[1] : null;
+      String action = path.length > 2 ? path[2] : null;
+
+      if (id == null && method.equals("POST")) {
+        String playerName = query.getOrDefault("player", "Player");
+        status = 201;
+        body = createSession(playerName).toJson();
+      } else if (id == null || path.length > 3) {
+        status = 404;
+        body = Json.error("Unknown path");
+      } else {
+        GameSession session = getSession(id);
+        if (session == null) {
+          status = 404;
+          body = Json.error("There is no session with the id " + id);
+        } else if (action == null && method.equals("GET")) {
+          status = 200;
+          body = session.toJson();
+        } else if (action == null && method.equals("DELETE")) {
+          removeSession(id);
+          status = 204;
+          body = null;
+        } else if ("go".equals(action) && method.equals("POST")) {
+          session.go(Integer.parseInt(query.getOrDefault("link", "")));
+          status = 200;
+          body = session.toJson();
+        } else {
+          status = 405;
+          body = Json.error("The method is not allowed");
+        }
+      }
+    } catch (NumberFormatException e) {
+      status = 400;
+      body = Json.error("The link must be the index of a link");
+    } catch (IllegalArgumentException e) {
+      status = 400;
+      body = Json.error(e.getMessage());
+    } catch (NoMatchingPassageException e) {
+      status = 409;
+      body = Json.error(e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      status = 500;
+      body = Json.error(e.getMessage());
+    }
+    respond(exchange, status, body);
+  }
+
+  /**
+   * Sends a response, and closes the exchange.
+   *
+   * @param exchange The request and its response.
+   * @param status   The status code.
+   * @param body     The JSON object, or null for a response without a body.
+   * @throws IOException If the response cannot be sent.
+   */
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    try (exchange; InputStream request = exchange.getRequestBody()) {
+      //The request body is read to the end, so the connection can be kept alive
+      request.transferTo(OutputStream.nullOutputStream());
+      if (body == null) {
+        exchange.sendResponseHeaders(status, -1);
+        return;
+      }
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream response = exchange.getResponseBody()) {
+        response.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Parses the query of a request into its parameters.
+   *
+   * @param rawQuery The query, which is still URL encoded, or null if there is none.
+   * @return The parameters of the query.
+   */
+  static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> parameters = new HashMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return parameters;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      int equals = parameter.indexOf('=');
+      String key = equals < 0 ? parameter : parameter.substring(0, equals);
+      String value = equals < 0 ? "" : parameter.substring(equals + 1);
+      parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return parameters;
+  }
+
+  /**
+   * Builder for a server, where everything except the story is optional.
+   */
+  public static final class Builder {
+
+    private final CompiledStory story;
+    private List<Goal> goals = List.of();
+    private InetAddress address = InetAddress.getLoopbackAddress();
+    private int port = DEFAULT_PORT;
+    private int threads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private int queueCapacity = 10_000;
+    private int backlog = 1024;
+    private int startingHealth = 100;
+    private Path spillDirectory;
+    private long idleMillis = SessionStore.DEFAULT_IDLE_MILLIS;
+    private int residentCapacity = SessionStore.DEFAULT_CAPACITY;
+
+    /**
+     * Creates a builder of a server of a story.
+     *
+     * @param story The compiled story that is shared by every session.
+     * @throws IllegalArgumentException If the story is null.
+     */
+    public Builder(CompiledStory story) throws IllegalArgumentException {
+      if (story == null) {
+        throw new IllegalArgumentException("Story cannot be null");
+      }
+      this.story = story;
+    }
+
+    /**
+     * Sets the goals of every game on the server.
+     *
+     * @param val The goals.
+     * @return The builder.
+     * @throws IllegalArgumentException If the goals are null.
+     */
+    public Builder goals(List<Goal> val) throws IllegalArgumentException {
+      if (val == null) {
+        throw new IllegalArgumentException("Goals cannot be null");
+      }
+      goals = val;
+      return this;
+    }
+
+    /**
+     * Sets the address the server listens on. By default, the server only listens on the loopback
+     * address, so it can only be reached from the same computer.
+     *
+     * @param val The address.
+     * @return The builder.
+     * @throws IllegalArgumentException If the address is null.
+     */
+    public Builder address(InetAddress val) throws IllegalArgumentException {
+      if (val == null) {
+        throw new IllegalArgumentException("The address cannot be null");
+      }
+      address = val;
+      return this;
+    }
+
+    /**
+     * Sets the port the server listens on.
+     *
+     * @param val The port, or zero to pick a free port.
+     * @return The builder.
+     * @throws IllegalArgumentException If the port is not between 0 and 65535.
+     */
+    public Builder port(int val) throws IllegalArgumentException {
+      if (val < 0 || val > 65535) {
+        throw new IllegalArgumentException("The port must be between 0 and 65535");
+      }
+      port = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of threads that handle requests.
+     *
+     * @param val The number of threads.
+     * @return The builder.
+     * @throws IllegalArgumentException If the number is less than one.
+     */
+    public Builder threads(int val) throws IllegalArgumentException {
+      if (val < 1) {
+        throw new IllegalArgumentException("The number of threads must be at least one");
+      }
+      threads = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of requests that can wait for a thread.
+     *
+     * @param val The capacity of the queue.
+     * @return The builder.
+     * @throws IllegalArgumentException If the capacity is less than one.
+     */
+    public Builder queueCapacity(int val) throws IllegalArgumentException {
+      if (val < 1) {
+        throw new IllegalArgumentException("The queue capacity must be at least one");
+      }
+      queueCapacity = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of connections that can wait to be accepted.
+     *
+     * @param val The backlog.
+     * @return The builder.
+     * @throws IllegalArgumentException If the backlog is less than one.
+     */
+    public Builder backlog(int val) throws IllegalArgumentException {
+      if (val < 1) {
+        throw new IllegalArgumentException("The backlog must be at least one");
+      }
+      backlog = val;
+      return this;
+    }
+
+    /**
+     * Sets the health every player starts with.
+     *
+     * @param val The starting health.
+     * @return The builder.
+     * @throws IllegalArgumentException If the health is less than one.
+     */
+    public Builder startingHealth(int val) throws IllegalArgumentException {
+      if (val < 1) {
+        throw new IllegalArgumentException("Starting health cannot be zero or less.");
+      }
+      startingHealth = val;
+      return this;
+    }
+
+    /**
+     * Sets the directory the snapshots of spilled sessions are written to. By default, the server
+     * writes them to a temporary directory, which is deleted when the server is closed.
+     *
+     * @param val The directory.
+     * @return The builder.
+     * @throws IllegalArgumentException If the directory is null.
+     */
+    public Builder spillDirectory(Path val) throws IllegalArgumentException {
+      if (val == null) {
+        throw new IllegalArgumentException("The directory cannot be null");
+      }
+      spillDirectory = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of milliseconds a session may be unused before it is spilled to disk.
+     *
+     * @param val The idle time.
+     * @return The builder.
+     * @throws IllegalArgumentException If the idle time is negative.
+     */
+    public Builder idleMillis(long val) throws IllegalArgumentException {
+      if (val < 0) {
+        throw new IllegalArgumentException("The idle time cannot be negative");
+      }
+      idleMillis = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of sessions that are kept in memory, before the sessions that were used the
+     * longest ago are spilled to disk.
+     *
+     * @param val The capacity.
+     * @return The builder.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public Builder residentCapacity(int val) throws IllegalArgumentException {
+      if (val < 0) {
+        throw new IllegalArgumentException("The capacity cannot be negative");
+      }
+      residentCapacity = val;
+      return this;
+    }
+
+    /**
+     * Creates the server, and starts listening for requests.
+     *
+     * @return The server.
+     * @throws IOException If the server cannot listen on the port, or the directory of the spilled
+     *                     sessions cannot be created.
+     */
+    public GameServer build() throws IOException {
+      return new GameServer(this);
+    }
+  }
+
+  /**
+   * Serves a story file until the program is stopped. The arguments are the path of the .paths
+   * file, followed by the port, the number of threads, the number of sessions kept in memory and
+   * the number of milliseconds a session may be idle before it is spilled, which are optional.
+   *
+   * @param args The command line arguments.
+   * @throws Exception If the story cannot be read, or the server cannot be started.
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.out.println(
+          "Usage: GameServer <story.paths> [port] [threads] [residentCapacity] [idleMillis]");
+      return;
+    }
+    CompiledStory story = StoryFileHandling.readStoryFromFile(args[0]).compile();
+    Builder builder = new Builder(story);
+    if (args.length > 1) {
+      builder.port(Integer.parseInt(args[1]));
+    }
+    if (args.length > 2) {
+      builder.threads(Integer.parseInt(args[2]));
+    }
+    if (args.length > 3) {
+      builder.residentCapacity(Integer.parseInt(args[3]));
+    }
+    if (args.length > 4) {
+      builder.idleMillis(Long.parseLong(args[4]));
+    }
+    GameServer gameServer = builder.build();
+    Runtime.getRuntime().addShutdownHook(new Thread(gameServer::close));
+    System.out.println("Serving " + story.getTitle() + " on http://localhost:"
+        + gameServer.getPort() + SESSIONS_PATH);
+  }
+}
@@ -0,0 +1,352 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Class that represents the session of one player on a {@link GameServer}. A session has its own
+ * {@link Game}, and with it its own player and visited links, while the story of the game is
+ * shared by every session. The session remembers the passage the player is on, so the player only
+ * has to tell which of its links to follow.
+ *
+ * <p>Requests of the same session may arrive on several threads at once, so every method that
+ * reads or changes the game is synchronized on the session.
+ *
+ * <p>A session that is kept in a {@link SessionStore} can be spilled to disk while it is idle.
+ * The game of a spilled session is replaced by a snapshot on disk, which holds the ids of the
+ * visited links in the shared {@link CompiledStory}, and only the id of the session and the player
+ * as it was when the session started are kept in memory. The game is rehydrated the next time the
+ * session is used, by following the visited links again from the start, so the rehydrated game has
+ * the same player, visited links and rewind history as the game that was spilled.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class GameSession {
+
+  private final String id;
+  private final String playerName;
+  //The player and the number of visited links when the session started, which rehydration
+  //follows the visited links from
+  private final GameSnapshot start;
+  private Game game;
+  private Passage currentPassage;
+  private SessionStore store;
+  private volatile long lastAccess = System.nanoTime();
+
+  /**
+   * Creates a session of a game that starts at its opening passage.
+   *
+   * @param id   The id of the session.
+   * @param game The game of the session.
+   * @throws IllegalArgumentException If the id or game is null.
+   */
+  public GameSession(String id, Game game) throws IllegalArgumentException {
+    this(id, game, game == null ? null : game.begin());
+  }
+
+  /**
+   * Creates a session of a game that continues from a passage.
+   *
+   * @param id             The id of the session.
+   * @param game           The game of the session.
+   * @param currentPassage The passage the player is on.
+   * @throws IllegalArgumentException If any of the parameters are null.
+   */
+  public GameSession(String id, Game game, Passage currentPassage)
+      throws IllegalArgumentException {
+    if (id == null) {
+      throw new IllegalArgumentException("The session id cannot be null");
+    }
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null");
+    }
+    if (currentPassage == null) {
+      throw new IllegalArgumentException("The current passage cannot be null");
+    }
+    this.id = id;
+    this.playerName = game.getPlayer().getName();
+    int visitedLinkCount = game.getVisitedLinks().size();
+    this.start = GameSnapshot.of(game.getPlayer(), currentPassage.getTitle(), visitedLinkCount,
+        GameSnapshot.identify(game.getStory().getTitle(), game.getVisitedLinks(),
+            visitedLinkCount));
+    this.game = game;
+    this.currentPassage = currentPassage;
+  }
+
+  /**
+   * Gets the id of the session.
+   *
+   * @return The id.
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the game of the session, rehydrating it if the session is spilled. The game must only be
+   * used while synchronized on the session.
+   *
+   * @return The game.
+   */
+  public synchronized Game getGame() {
+    access();
+    return game;
+  }
+
+  /**
+   * Gets the passage the player is on, rehydrating the game if the session is spilled.
+   *
+   * @return The current passage.
+   */
+  public synchronized Passage getCurrentPassage() {
+    access();
+    return currentPassage;
+  }
+
+  /**
+   * Checks if the game of the session is in memory, meaning that the session is not spilled.
+   *
+   * @return True, if the game is in memory.
+   */
+  public synchronized boolean isResident() {
+    return game != null;
+  }
+
+  /**
+   * Follows a link of the current passage, by its position among the links of the passage.
+   *
+   * @param linkIndex The position of the link, where the first link is at zero.
+   * @return The passage the link references, which is the new current passage.
+   * @throws IllegalArgumentException   If there is no link at the position, the player is dead, or
+   *                                    the player has not fulfilled the goals of the link.
+   * @throws NoMatchingPassageException If the link references a passage that does not exist.
+   */
+  public synchronized Passage go(int linkIndex)
+      throws IllegalArgumentException, NoMatchingPassageException {
+    access();
+    List<Link> links = currentPassage.getLinks();
+    if (linkIndex < 0 || linkIndex >= links.size()) {
+      throw new IllegalArgumentException("The passage has no link at index " + linkIndex);
+    }
+    if (game.getPlayer().getHealth() == 0) {
+      throw new IllegalArgumentException("The player is dead, and cannot follow any links");
+    }
+    currentPassage = game.go(links.get(linkIndex));
+    return currentPassage;
+  }
+
+  /**
+   * Writes the state of the session as a JSON object, being the current passage with its links,
+   * the positions of the links the player can follow, and the stats of the player. Broken links
+   * are not among the links the player can follow.
+   *
+   * @return The JSON object.
+   */
+  public synchronized String toJson() {
+    access();
+    Player player = game.getPlayer();
+    List<Link> links = currentPassage.getLinks();
+
+    StringBuilder json = new StringBuilder(256 + currentPassage.getContent().length());
+    json.append("{\"session\":");
+    Json.appendString(json, id);
+    json.append(",\"passage\":{\"title\":");
+    Json.appendString(json, currentPassage.getTitle());
+    json.append(",\"content\":");
+    Json.appendString(json, currentPassage.getContent());
+    json.append(",\"links\":[");
+    for (int i = 0; i < links.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      Json.appendString(json, links.get(i).getText());
+    }
+    json.append("]},\"accessibleLinks\":[");
+    boolean first = true;
+    if (player.getHealth() > 0) {
+      for (int i = 0; i < links.size(); i++) {
+        if (links.get(i).isAccessible(player) && !isBroken(links.get(i))) {
+          json.append(first ? "" : ",").append(i);
+          first = false;
+        }
+      }
+    }
+    json.append("],\"player\":{\"name\":");
+    Json.appendString(json, player.getName());
+    json.append(",\"health\":").append(player.getHealth())
+        .append(",\"score\":").append(player.getScore())
+        .append(",\"gold\":").append(player.getGold())
+        .append(",\"inventory\":[");
+    List<String> inventory = player.getInventory();
+    for (int i = 0; i < inventory.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      Json.appendString(json, inventory.get(i));
+    }
+    json.append("]},\"visitedLinks\":").append(game.getVisitedLinks().size()).append('}');
+    return json.toString();
+  }
+
+  /**
+   * Adds the session to a store, which may spill the session while it is idle.
+   *
+   * @param store The store of the session.
+   */
+  synchronized void attach(SessionStore store) {
+    this.store = store;
+    store.accessed(this);
+  }
+
+  /**
+   * Gets the time the session was last used, as given by {@link System#nanoTime()}.
+   *
+   * @return The time of the last use.
+   */
+  long getLastAccess() {
+    return lastAccess;
+  }
+
+  /**
+   * Spills the game of the session to disk, unless the session has been used since a given time.
+   * The current passage and the visited links are written by their ids in the compiled story.
+   *
+   * @param accessedBefore The time, as given by {@link System#nanoTime()}, the session must have
+   *                       been last used before to be spilled.
+   * @return True, if the session was spilled.
+   * @throws IOException If the snapshot cannot be written, in which case the session is kept in
+   *                     memory.
+   */
+  synchronized boolean spill(long accessedBefore) throws IOException {
+    if (game == null || store == null || lastAccess - accessedBefore > 0) {
+      return false;
+    }
+    CompiledStory story = game.getCompiledStory();
+    store.writeSnapshot(id, story.getPassageId(currentPassage.getTitle()), getVisitedLinkIds());
+    game = null;
+    currentPassage = null;
+    store.spilled(this);
+    return true;
+  }
+
+  /**
+   * Gets the ids of the visited links in the compiled story of the game. The visited links are a
+   * path from the opening passage, so each link is looked for among the links of the passage the
+   * link before it references.
+   *
+   * @return The ids of the visited links, in the order they were visited.
+   * @throws IOException If a visited link is not a link of the passage before it.
+   */
+  private int[] getVisitedLinkIds() throws IOException {
+    CompiledStory story = game.getCompiledStory();
+    List<Link> links = game.getVisitedLinks().getLinks();
+    int[] ids = new int[links.size()];
+    int passage = story.getOpeningPassageId();
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = CompiledStory.NO_PASSAGE;
+      for (int edge = story.getLinkStart(passage); edge < story.getLinkEnd(passage); edge++) {
+        if (story.getLink(edge) == links.get(i)) {
+          ids[i] = edge;
+          break;
+        }
+      }
+      if (ids[i] == CompiledStory.NO_PASSAGE) {
+        throw new IOException("The visited link " + i + " of the session " + id
+            + " is not a link of the passage before it");
+      }
+      passage = story.getLinkTarget(ids[i]);
+    }
+    return ids;
+  }
+
+  /**
+   * Removes the session from its store, deleting its snapshot if the session is spilled.
+   *
+   * @throws IOException If the snapshot cannot be deleted.
+   */
+  synchronized void detach() throws IOException {
+    if (store != null) {
+      store.detached(this, game == null);
+      store = null;
+    }
+  }
+
+  /**
+   * Marks the session as used, rehydrating its game from the snapshot on disk if the session is
+   * spilled.
+   *
+   * @throws IllegalStateException If the snapshot of a spilled session cannot be read, or the
+   *                               session was removed from its store while it was spilled.
+   */
+  private void access() throws IllegalStateException {
+    lastAccess = System.nanoTime();
+    if (store == null) {
+      if (game == null) {
+        throw new IllegalStateException("The session " + id + " has ended");
+      }
+      return;
+    }
+    if (game == null) {
+      long startTime = System.nanoTime();
+      try {
+        rehydrate(store.readSnapshot(id));
+      } catch (IOException e) {
+        throw new IllegalStateException("The session " + id + " could not be rehydrated", e);
+      }
+      store.rehydrated(this, System.nanoTime() - startTime);
+    } else {
+      store.accessed(this);
+    }
+  }
+
+  /**
+   * Rehydrates the game from a snapshot, by restoring the player to the state it had when the
+   * session started, and following the links that were visited after it started again. The links
+   * visited before the session started are only added to the visited links, like the game of the
+   * session had them.
+   *
+   * @param snapshot The snapshot of the session.
+   * @throws IOException If the links of the snapshot cannot be followed in the story.
+   */
+  private void rehydrate(SessionStore.Snapshot snapshot) throws IOException {
+    Player player = new Player.Builder(playerName).build();
+    start.restore(player);
+    Game rehydrated = store.createGame(player);
+    CompiledStory story = rehydrated.getCompiledStory();
+    int[] links = snapshot.getLinkIds();
+    try {
+      for (int i = 0; i < links.length; i++) {
+        if (i < start.getVisitedLinkCount()) {
+          rehydrated.getVisitedLinks().addLink(story.getLink(links[i]));
+        } else {
+          rehydrated.go(story.getLink(links[i]));
+        }
+      }
+    } catch (IllegalArgumentException | NoMatchingPassageException e) {
+      throw new IOException("The visited links cannot be followed: " + e.getMessage(), e);
+    }
+    game = rehydrated;
+    currentPassage = story.getPassage(snapshot.getPassageId());
+  }
+
+  /**
+   * Checks if a link references a passage that does not exist in the story of the game.
+   *
+   * @param link The link that is checked.
+   * @return True, if the link is broken.
+   */
+  private boolean isBroken(Link link) {
+    if (game.getCompiledStory() != null) {
+      return game.getCompiledStory().isBroken(link);
+    }
+    return game.getStory().isBroken(link);
+  }
+}
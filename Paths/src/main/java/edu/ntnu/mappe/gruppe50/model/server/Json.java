@@ -0,0 +1,55 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+/**
+ * Helper for writing the JSON responses of the {@link GameServer}, so the server does not need a
+ * JSON library for the few kinds of objects it writes.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+final class Json {
+
+  private Json() {
+  }
+
+  /**
+   * Appends a string as a quoted JSON string, escaping quotes, backslashes and control
+   * characters.
+   *
+   * @param json  The JSON that is written.
+   * @param value The string.
+   */
+  static void appendString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+
+  /**
+   * Writes an error as a JSON object.
+   *
+   * @param message The message of the error.
+   * @return The JSON object.
+   */
+  static String error(String message) {
+    StringBuilder json = new StringBuilder("{\"error\":");
+    appendString(json, message == null ? "" : message);
+    return json.append('}').toString();
+  }
+}
@@ -0,0 +1,349 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client that measures how fast a {@link GameServer} follows links, while many sessions are
+ * playing at once. The client starts every session first, and then lets a number of workers play
+ * the sessions, each following random links of its share of the sessions. A session that can not
+ * follow any more links, because the player died or the story ended, is ended and started again.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class LoadTestClient {
+
+  private static final Pattern SESSION_PATTERN = Pattern.compile("\"session\":\"([^\"]+)\"");
+  private static final Pattern ACCESSIBLE_LINKS_PATTERN =
+      Pattern.compile("\"accessibleLinks\":\\[([0-9,]*)]");
+
+  private final HttpClient client;
+  private final String baseUri;
+  private final String statsUri;
+
+  /**
+   * Creates a client of a server.
+   *
+   * @param host The host and port of the server, such as {@code localhost:8050}.
+   * @throws IllegalArgumentException If the host is null or blank.
+   */
+  public LoadTestClient(String host) throws IllegalArgumentException {
+    if (host == null || host.isBlank()) {
+      throw new IllegalArgumentException("Host cannot be null or blank");
+    }
+    this.baseUri = "http://" + host + "/sessions";
+    this.statsUri = "http://" + host + "/stats";
+    this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  /**
+   * Plays a number of sessions on the server, and measures how long it takes to follow a link.
+   *
+   * @param sessions           The number of sessions that are started.
+   * @param requestsPerSession The number of links that are followed in each session.
+   * @param concurrency        The number of workers that send requests at once.
+   * @return The result of the test.
+   * @throws IllegalArgumentException If any of the numbers are less than one.
+   * @throws IOException              If the server does not answer as expected.
+   * @throws InterruptedException     If the test is interrupted.
+   */
+  public Result run(int sessions, int requestsPerSession, int concurrency)
+      throws IllegalArgumentException, IOException, InterruptedException {
+    if (sessions < 1 || requestsPerSession < 1 || concurrency < 1) {
+      throw new IllegalArgumentException(
+          "The number of sessions, requests and workers must be at least one");
+    }
+    String[] ids = new String[sessions];
+    String[] states = new String[sessions];
+    for (int i = 0; i < sessions; i++) {
+      states[i] = createSession("Player " + i);
+      ids[i] = sessionId(states[i]);
+    }
+
+    int workers = Math.min(concurrency, sessions);
+    long[] latencies = new long[sessions * requestsPerSession];
+    AtomicLong restarts = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+    long start = System.nanoTime();
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int w = 0; w < workers; w++) {
+        int worker = w;
+        futures.add(executor.submit(() -> {
+          Random random = new Random(worker);
+          //Each worker plays every session whose number leaves the worker number when divided by
+          //the number of workers, so no session is played by two workers
+          for (int round = 0; round < requestsPerSession; round++) {
+            for (int s = worker; s < sessions; s += workers) {
+              int[] accessible = accessibleLinks(states[s]);
+              while (accessible.length == 0) {
+                delete(ids[s]);
+                states[s] = createSession("Player " + s);
+                ids[s] = sessionId(states[s]);
+                accessible = accessibleLinks(states[s]);
+                restarts.incrementAndGet();
+              }
+              int link = accessible[random.nextInt(accessible.length)];
+              long before = System.nanoTime();
+              states[s] = go(ids[s], link);
+              latencies[round * sessions + s] = System.nanoTime() - before;
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    for (String id : ids) {
+      delete(id);
+    }
+    Arrays.sort(latencies);
+    return new Result(sessions, latencies.length, restarts.get(), percentile(latencies, 50),
+        percentile(latencies, 99), latencies[latencies.length - 1], elapsed);
+  }
+
+  /**
+   * Starts a session on the server.
+   *
+   * @param playerName The name of the player.
+   * @return The state of the session.
+   * @throws IOException          If the session could not be started.
+   * @throws InterruptedException If the request is interrupted.
+   */
+  private String createSession(String playerName) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(URI.create(baseUri + "?player="
+        + URLEncoder.encode(playerName, StandardCharsets.UTF_8)))
+        .POST(HttpRequest.BodyPublishers.noBody()).build(), 201);
+  }
+
+  /**
+   * Follows a link in a session.
+   *
+   * @param id   The id of the session.
+   * @param link The position of the link in the current passage.
+   * @return The new state of the session.
+   * @throws IOException          If the link could not be followed.
+   * @throws InterruptedException If the request is interrupted.
+   */
+  private String go(String id, int link) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(URI.create(baseUri + "/" + id + "/go?link=" + link))
+        .POST(HttpRequest.BodyPublishers.noBody()).build(), 200);
+  }
+
+  /**
+   * Ends a session.
+   *
+   * @param id The id of the session.
+   * @throws IOException          If the session could not be ended.
+   * @throws InterruptedException If the request is interrupted.
+   */
+  private void delete(String id) throws IOException, InterruptedException {
+    send(HttpRequest.newBuilder(URI.create(baseUri + "/" + id)).DELETE().build(), 204);
+  }
+
+  /**
+   * Gets the counters of the session store of the server, being the number of sessions in memory,
+   * and how often sessions have been spilled and rehydrated.
+   *
+   * @return The counters as a JSON object.
+   * @throws IOException          If the counters could not be read.
+   * @throws InterruptedException If the request is interrupted.
+   */
+  public String getStats() throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(URI.create(statsUri)).GET().build(), 200);
+  }
+
+  /**
+   * Sends a request, and checks the status code of the response.
+   *
+   * @param request        The request.
+   * @param expectedStatus The status code of a successful response.
+   * @return The body of the response.
+   * @throws IOException          If the status code is not the expected one.
+   * @throws InterruptedException If the request is interrupted.
+   */
+  private String send(HttpRequest request, int expectedStatus)
+      throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != expectedStatus) {
+      throw new IOException(request.method() + " " + request.uri() + " answered "
+          + response.statusCode() + ": " + response.body());
+    }
+    return response.body();
+  }
+
+  /**
+   * Gets the id of a session from its state.
+   *
+   * @param state The state of the session.
+   * @return The id of the session.
+   * @throws IOException If the state has no id.
+   */
+  private static String sessionId(String state) throws IOException {
+    Matcher matcher = SESSION_PATTERN.matcher(state);
+    if (!matcher.find()) {
+      throw new IOException("The session has no id: " + state);
+    }
+    return matcher.group(1);
+  }
+
+  /**
+   * Gets the positions of the links the player can follow from the state of a session.
+   *
+   * @param state The state of the session.
+   * @return The positions of the links.
+   * @throws IOException If the state has no accessible links.
+   */
+  static int[] accessibleLinks(String state) throws IOException {
+    Matcher matcher = ACCESSIBLE_LINKS_PATTERN.matcher(state);
+    if (!matcher.find()) {
+      throw new IOException("The session has no accessible links: " + state);
+    }
+    if (matcher.group(1).isEmpty()) {
+      return new int[0];
+    }
+    return Arrays.stream(matcher.group(1).split(",")).mapToInt(Integer::parseInt).toArray();
+  }
+
+  /**
+   * Gets a percentile of sorted values, using the nearest rank.
+   *
+   * @param sorted  The values, sorted from smallest to largest.
+   * @param percent The percentile, from 0 to 100.
+   * @return The value at the percentile.
+   * @throws IllegalArgumentException If there are no values, or the percentile is not between 0
+   *                                  and 100.
+   */
+  static long percentile(long[] sorted, double percent) throws IllegalArgumentException {
+    if (sorted == null || sorted.length == 0) {
+      throw new IllegalArgumentException("There must be at least one value");
+    }
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100");
+    }
+    int rank = (int) Math.ceil(percent / 100 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * The result of a load test.
+   */
+  public static final class Result {
+
+    private final int sessions;
+    private final int requests;
+    private final long restarts;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the result of a load test.
+     *
+     * @param sessions     The number of sessions.
+     * @param requests     The number of links that were followed.
+     * @param restarts     The number of sessions that were started again.
+     * @param p50Nanos     The median time it took to follow a link.
+     * @param p99Nanos     The 99th percentile of the time it took to follow a link.
+     * @param maxNanos     The longest time it took to follow a link.
+     * @param elapsedNanos The time the whole test took.
+     */
+    Result(int sessions, int requests, long restarts, long p50Nanos, long p99Nanos,
+        long maxNanos, long elapsedNanos) {
+      this.sessions = sessions;
+      this.requests = requests;
+      this.restarts = restarts;
+      this.p50Nanos = p50Nanos;
+      this.p99Nanos = p99Nanos;
+      this.maxNanos = maxNanos;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getSessions() {
+      return sessions;
+    }
+
+    public int getRequests() {
+      return requests;
+    }
+
+    public long getRestarts() {
+      return restarts;
+    }
+
+    public long getP50Nanos() {
+      return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+      return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+    /**
+     * Gets the number of links that were followed per second.
+     *
+     * @return The throughput.
+     */
+    public double getThroughput() {
+      return requests / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d sessions, %d links followed, %d restarts: p50 %.2f ms, "
+              + "p99 %.2f ms, max %.2f ms, %.0f links/s", sessions, requests, restarts,
+          p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6, getThroughput());
+    }
+  }
+
+  /**
+   * Runs a load test against a running server. The arguments are the host and port of the
+   * server, the number of sessions, the number of links followed in each session and the number
+   * of workers, which are all optional.
+   *
+   * @param args The command line arguments.
+   * @throws Exception If the test fails.
+   */
+  public static void main(String[] args) throws Exception {
+    String host = args.length > 0 ? args[0] : "localhost:" + GameServer.DEFAULT_PORT;
+    int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+    int requestsPerSession = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+    LoadTestClient client = new LoadTestClient(host);
+    System.out.println(client.run(sessions, requestsPerSession, concurrency));
+    System.out.println(client.getStats());
+  }
+}
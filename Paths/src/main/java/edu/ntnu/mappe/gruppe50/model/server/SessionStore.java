@@ -0,0 +1,600 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of the sessions of a {@link GameServer}, which keeps the sessions that are in use in
+ * memory, and spills the others to disk. A session is spilled when it has not been used for a
+ * while, or when more sessions are in memory than the store has room for, in which case the
+ * sessions that were used the longest ago are spilled first. A spilled session only keeps its id
+ * and its player as it started in memory, while the passage it is on and the links it has visited
+ * are written to a small snapshot file, by their ids in the shared {@link CompiledStory}. The game
+ * is rehydrated from the snapshot the next time the session is used, with the same player, visited
+ * links and rewind history, so the sessions that are handed out by the store can always be used
+ * as they are.
+ *
+ * <p>Sessions are spilled by a background thread, which checks the sessions at a regular interval,
+ * and as soon as there are more sessions in memory than the store has room for. The number of
+ * sessions in memory may therefore be above the capacity for a short while.
+ *
+ * <p>The snapshot file starts with {@link #MAGIC} and {@link #VERSION}, followed by the int id of
+ * the passage the session is on, the int number of visited links, and the int id of each visited
+ * link.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public final class SessionStore implements Closeable {
+
+  /**
+   * The number that every snapshot file starts with.
+   */
+  public static final int MAGIC = 0x50534553;
+
+  /**
+   * The version of the snapshot files written by the store.
+   */
+  public static final int VERSION = 2;
+
+  /**
+   * The number of milliseconds a session may be unused before it is spilled, if no other time is
+   * given.
+   */
+  public static final long DEFAULT_IDLE_MILLIS = 5 * 60 * 1000;
+
+  /**
+   * The number of sessions that are kept in memory, if no other capacity is given.
+   */
+  public static final int DEFAULT_CAPACITY = 10_000;
+
+  private static final String SNAPSHOT_FILE_TYPE = ".session";
+  private static final int HEADER_SIZE = 16;
+
+  private final CompiledStory story;
+  private final List<Goal> goals;
+  private final Path directory;
+  private final long idleNanos;
+  private final int capacity;
+  private final long evictionIntervalMillis;
+  private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+  //The sessions that are in memory, from the one that was used the longest ago to the last one
+  private final LinkedHashMap<String, GameSession> resident =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final Thread evictor;
+  private boolean closed;
+
+  private final AtomicLong spillCount = new AtomicLong();
+  private final AtomicLong spillFailureCount = new AtomicLong();
+  private final AtomicLong rehydrationCount = new AtomicLong();
+  private final AtomicLong rehydrationNanos = new AtomicLong();
+  private final AtomicLong maxRehydrationNanos = new AtomicLong();
+
+  /**
+   * Creates a store from a builder, and starts the thread that spills sessions.
+   *
+   * @param builder The builder of the store.
+   * @throws IOException If the directory of the snapshots cannot be created.
+   */
+  private SessionStore(Builder builder) throws IOException {
+    this.story = builder.story;
+    this.goals = List.copyOf(builder.goals);
+    this.directory = Files.createDirectories(builder.directory);
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(builder.idleMillis);
+    this.capacity = builder.capacity;
+    this.evictionIntervalMillis = builder.evictionIntervalMillis;
+    this.evictor = new Thread(this::runEvictor, "Session evictor");
+    this.evictor.setDaemon(true);
+    this.evictor.start();
+  }
+
+  /**
+   * Starts a new session, where a player starts at the opening passage of the story.
+   *
+   * @param player The player of the session.
+   * @return The session.
+   * @throws IllegalArgumentException If the player is null.
+   */
+  public GameSession create(Player player) throws IllegalArgumentException {
+    GameSession session = new GameSession(UUID.randomUUID().toString(), createGame(player));
+    sessions.put(session.getId(), session);
+    session.attach(this);
+    return session;
+  }
+
+  /**
+   * Gets a session by its id. A spilled session is rehydrated when it is next used.
+   *
+   * @param id The id of the session.
+   * @return The session, or null if there is no session with the id.
+   */
+  public GameSession get(String id) {
+    return id == null ? null : sessions.get(id);
+  }
+
+  /**
+   * Ends a session, deleting its snapshot if it is spilled.
+   *
+   * @param id The id of the session.
+   * @return True, if there was a session with the id.
+   * @throws IOException If the snapshot of the session cannot be deleted.
+   */
+  public boolean remove(String id) throws IOException {
+    GameSession session = id == null ? null : sessions.remove(id);
+    if (session == null) {
+      return false;
+    }
+    session.detach();
+    return true;
+  }
+
+  /**
+   * Spills the sessions that have been unused for longer than the idle time, and the sessions
+   * that were used the longest ago while there are more sessions in memory than the capacity.
+   * This is done by the background thread of the store, but can also be done right away.
+   *
+   * @return The number of sessions that were spilled.
+   */
+  public int evict() {
+    long now = System.nanoTime();
+    List<GameSession> candidates = new ArrayList<>();
+    synchronized (resident) {
+      int overCapacity = resident.size() - capacity;
+      Iterator<GameSession> iterator = resident.values().iterator();
+      while (iterator.hasNext()) {
+        GameSession session = iterator.next();
+        if (overCapacity > 0 || now - session.getLastAccess() >= idleNanos) {
+          candidates.add(session);
+          overCapacity--;
+        } else {
+          break;
+        }
+      }
+    }
+
+    //The sessions are spilled without holding the lock of the resident sessions, since a session
+    //that is used holds its own lock while it tells the store
+    int spilled = 0;
+    for (GameSession session : candidates) {
+      try {
+        if (session.spill(now)) {
+          spilled++;
+        }
+      } catch (IOException e) {
+        spillFailureCount.incrementAndGet();
+      }
+    }
+    return spilled;
+  }
+
+  /**
+   * Gets the number of sessions in the store, both in memory and spilled.
+   *
+   * @return The number of sessions.
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Gets the number of sessions that are in memory.
+   *
+   * @return The number of resident sessions.
+   */
+  public int getResidentCount() {
+    synchronized (resident) {
+      return resident.size();
+    }
+  }
+
+  /**
+   * Gets the number of times a session has been spilled to disk.
+   *
+   * @return The number of spills.
+   */
+  public long getSpillCount() {
+    return spillCount.get();
+  }
+
+  /**
+   * Gets the number of times a session could not be spilled, because its snapshot could not be
+   * written. A session that could not be spilled is kept in memory.
+   *
+   * @return The number of failed spills.
+   */
+  public long getSpillFailureCount() {
+    return spillFailureCount.get();
+  }
+
+  /**
+   * Gets the number of times a spilled session has been rehydrated.
+   *
+   * @return The number of rehydrations.
+   */
+  public long getRehydrationCount() {
+    return rehydrationCount.get();
+  }
+
+  /**
+   * Gets the average time it took to rehydrate a session, from reading its snapshot to having
+   * its game back in memory.
+   *
+   * @return The average time in nanoseconds, or zero if no session has been rehydrated.
+   */
+  public long getAverageRehydrationNanos() {
+    long count = rehydrationCount.get();
+    return count == 0 ? 0 : rehydrationNanos.get() / count;
+  }
+
+  /**
+   * Gets the longest time it took to rehydrate a session.
+   *
+   * @return The longest time in nanoseconds, or zero if no session has been rehydrated.
+   */
+  public long getMaxRehydrationNanos() {
+    return maxRehydrationNanos.get();
+  }
+
+  /**
+   * Writes the counters of the store as a JSON object, being the number of sessions, the number
+   * of sessions in memory, the number of spills and rehydrations, and the average and longest
+   * time it took to rehydrate a session in microseconds.
+   *
+   * @return The JSON object.
+   */
+  public String toJson() {
+    return "{\"sessions\":" + size()
+        + ",\"resident\":" + getResidentCount()
+        + ",\"spills\":" + getSpillCount()
+        + ",\"spillFailures\":" + getSpillFailureCount()
+        + ",\"rehydrations\":" + getRehydrationCount()
+        + ",\"averageRehydrationMicros\":" + getAverageRehydrationNanos() / 1000
+        + ",\"maxRehydrationMicros\":" + getMaxRehydrationNanos() / 1000 + "}";
+  }
+
+  /**
+   * Stops spilling sessions, and deletes the snapshots of the spilled sessions.
+   */
+  @Override
+  public void close() {
+    synchronized (resident) {
+      closed = true;
+      resident.notifyAll();
+    }
+    try {
+      evictor.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (String id : new ArrayList<>(sessions.keySet())) {
+      try {
+        remove(id);
+      } catch (IOException e) {
+        //The snapshot is left on disk, and the other snapshots are still deleted
+      }
+    }
+  }
+
+  /**
+   * Creates the game of a session, where the player plays the story of the store.
+   *
+   * @param player The player of the game.
+   * @return The game.
+   * @throws IllegalArgumentException If the player is null.
+   */
+  Game createGame(Player player) throws IllegalArgumentException {
+    return Game.fromCompiledStory(player, story, new ArrayList<>(goals), new LinkRegister());
+  }
+
+  /**
+   * Tells the store that a session in memory was used, so it is spilled after the sessions that
+   * were used before it.
+   *
+   * @param session The session.
+   */
+  void accessed(GameSession session) {
+    synchronized (resident) {
+      resident.put(session.getId(), session);
+      if (resident.size() > capacity) {
+        resident.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Tells the store that a session was spilled.
+   *
+   * @param session The session.
+   */
+  void spilled(GameSession session) {
+    synchronized (resident) {
+      resident.remove(session.getId());
+    }
+    spillCount.incrementAndGet();
+  }
+
+  /**
+   * Tells the store that a spilled session was rehydrated, and deletes its snapshot.
+   *
+   * @param session The session.
+   * @param nanos   The time it took to rehydrate the session.
+   */
+  void rehydrated(GameSession session, long nanos) {
+    rehydrationCount.incrementAndGet();
+    rehydrationNanos.addAndGet(nanos);
+    maxRehydrationNanos.accumulateAndGet(nanos, Math::max);
+    try {
+      Files.deleteIfExists(getSnapshotFile(session.getId()));
+    } catch (IOException e) {
+      //The snapshot is replaced the next time the session is spilled
+    }
+    accessed(session);
+  }
+
+  /**
+   * Tells the store that a session was removed from it.
+   *
+   * @param session The session.
+   * @param spilled True, if the session was spilled, so it has a snapshot.
+   * @throws IOException If the snapshot cannot be deleted.
+   */
+  void detached(GameSession session, boolean spilled) throws IOException {
+    synchronized (resident) {
+      resident.remove(session.getId());
+    }
+    if (spilled) {
+      Files.deleteIfExists(getSnapshotFile(session.getId()));
+    }
+  }
+
+  /**
+   * Writes the snapshot of a session to disk. The snapshot is written to a temporary file, which
+   * then replaces the snapshot file, so a failed write never leaves a partial snapshot behind.
+   *
+   * @param id        The id of the session.
+   * @param passageId The id of the passage the session is on.
+   * @param linkIds   The ids of the visited links, in the order they were visited.
+   * @throws IOException If the snapshot cannot be written.
+   */
+  void writeSnapshot(String id, int passageId, int[] linkIds) throws IOException {
+    Path tempFile = Files.createTempFile(directory, id, ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          Files.newOutputStream(tempFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(passageId);
+        out.writeInt(linkIds.length);
+        for (int linkId : linkIds) {
+          out.writeInt(linkId);
+        }
+      }
+      Files.move(tempFile, getSnapshotFile(id), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads the snapshot of a spilled session from disk.
+   *
+   * @param id The id of the session.
+   * @return The snapshot.
+   * @throws IOException If the snapshot cannot be read, is not a snapshot of the store, or has ids
+   *                     that are not in the story of the store.
+   */
+  Snapshot readSnapshot(String id) throws IOException {
+    Path file = getSnapshotFile(id);
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("The file is not a session snapshot of version " + VERSION);
+      }
+      int passageId = in.readInt();
+      if (passageId < 0 || passageId >= story.getPassageCount()) {
+        throw new IOException("The snapshot has an invalid passage id: " + passageId);
+      }
+      int linkCount = in.readInt();
+      if (linkCount < 0 || linkCount > (Files.size(file) - HEADER_SIZE) / Integer.BYTES) {
+        throw new IOException("The snapshot has an invalid number of links: " + linkCount);
+      }
+      int[] linkIds = new int[linkCount];
+      for (int i = 0; i < linkCount; i++) {
+        linkIds[i] = in.readInt();
+        if (linkIds[i] < 0 || linkIds[i] >= story.getLinkCount()) {
+          throw new IOException("The snapshot has an invalid link id: " + linkIds[i]);
+        }
+      }
+      return new Snapshot(passageId, linkIds);
+    }
+  }
+
+  /**
+   * Gets the path of the snapshot file of a session.
+   *
+   * @param id The id of the session.
+   * @return The path of the snapshot file.
+   */
+  private Path getSnapshotFile(String id) {
+    return directory.resolve(id + SNAPSHOT_FILE_TYPE);
+  }
+
+  /**
+   * Spills sessions at every interval, or as soon as there are more sessions in memory than the
+   * capacity, until the store is closed.
+   */
+  private void runEvictor() {
+    boolean spilled = false;
+    while (true) {
+      synchronized (resident) {
+        try {
+          //Waits for the next interval if the last round spilled nothing, so sessions that cannot
+          //be spilled do not keep the thread busy
+          if (!closed && (resident.size() <= capacity || !spilled)) {
+            resident.wait(evictionIntervalMillis);
+          }
+        } catch (InterruptedException e) {
+          closed = true;
+        }
+        if (closed) {
+          return;
+        }
+      }
+      spilled = evict() > 0;
+    }
+  }
+
+  /**
+   * The snapshot of a spilled session, being the passage it is on and the links it has visited,
+   * by their ids in the compiled story of the store.
+   */
+  static final class Snapshot {
+
+    private final int passageId;
+    private final int[] linkIds;
+
+    /**
+     * Creates the snapshot of a session.
+     *
+     * @param passageId The id of the passage the session is on.
+     * @param linkIds   The ids of the visited links, in the order they were visited.
+     */
+    Snapshot(int passageId, int[] linkIds) {
+      this.passageId = passageId;
+      this.linkIds = linkIds;
+    }
+
+    int getPassageId() {
+      return passageId;
+    }
+
+    int[] getLinkIds() {
+      return linkIds;
+    }
+  }
+
+  /**
+   * Builder for a store, where everything except the story and the directory is optional.
+   */
+  public static final class Builder {
+
+    private final CompiledStory story;
+    private final Path directory;
+    private List<Goal> goals = List.of();
+    private long idleMillis = DEFAULT_IDLE_MILLIS;
+    private int capacity = DEFAULT_CAPACITY;
+    private long evictionIntervalMillis = 1000;
+
+    /**
+     * Creates a builder of a store.
+     *
+     * @param story     The compiled story that is shared by every session.
+     * @param directory The directory the snapshots of spilled sessions are written to. The
+     *                  directory is created if it does not exist.
+     * @throws IllegalArgumentException If the story or directory is null.
+     */
+    public Builder(CompiledStory story, Path directory) throws IllegalArgumentException {
+      if (story == null) {
+        throw new IllegalArgumentException("Story cannot be null");
+      }
+      if (directory == null) {
+        throw new IllegalArgumentException("The directory cannot be null");
+      }
+      this.story = story;
+      this.directory = directory;
+    }
+
+    /**
+     * Sets the goals of every game in the store.
+     *
+     * @param val The goals.
+     * @return The builder.
+     * @throws IllegalArgumentException If the goals are null.
+     */
+    public Builder goals(List<Goal> val) throws IllegalArgumentException {
+      if (val == null) {
+        throw new IllegalArgumentException("Goals cannot be null");
+      }
+      goals = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of milliseconds a session may be unused before it is spilled.
+     *
+     * @param val The idle time.
+     * @return The builder.
+     * @throws IllegalArgumentException If the idle time is negative.
+     */
+    public Builder idleMillis(long val) throws IllegalArgumentException {
+      if (val < 0) {
+        throw new IllegalArgumentException("The idle time cannot be negative");
+      }
+      idleMillis = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of sessions that are kept in memory.
+     *
+     * @param val The capacity.
+     * @return The builder.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public Builder capacity(int val) throws IllegalArgumentException {
+      if (val < 0) {
+        throw new IllegalArgumentException("The capacity cannot be negative");
+      }
+      capacity = val;
+      return this;
+    }
+
+    /**
+     * Sets the number of milliseconds between each time the background thread looks for idle
+     * sessions.
+     *
+     * @param val The interval.
+     * @return The builder.
+     * @throws IllegalArgumentException If the interval is less than one.
+     */
+    public Builder evictionIntervalMillis(long val) throws IllegalArgumentException {
+      if (val < 1) {
+        throw new IllegalArgumentException("The eviction interval must be at least one");
+      }
+      evictionIntervalMillis = val;
+      return this;
+    }
+
+    /**
+     * Creates the store.
+     *
+     * @return The store.
+     * @throws IOException If the directory of the snapshots cannot be created.
+     */
+    public SessionStore build() throws IOException {
+      return new SessionStore(this);
+    }
+  }
+}
@@ -33,11 +33,22 @@ public class InGameSettingsDialogBox {
    * @param game The game that is saved if the "save and exit" button is pressed.
    */
   public InGameSettingsDialogBox(Game game) {
+    this(game, () -> { });
+  }
+
+  /**
+   * Constructor for the class, which runs a task before the game is restarted or saved.
+   *
+   * @param game        The game that is saved if the "save and exit" button is pressed.
+   * @param onLeaveGame Run before the game is restarted or saved, such as closing the journal of
+   *                    its visited links so it does not write to the files that are replaced.
+   */
+  public InGameSettingsDialogBox(Game game, Runnable onLeaveGame) {
     controller = new InGameSettingsController();
-    createContent(game);
+    createContent(game, onLeaveGame);
   }
 
-  private void createContent(Game game) {
+  private void createContent(Game game, Runnable onLeaveGame) {
     dialog = new Stage();
 
     int windowWidth = 800;
@@ -102,6 +113,7 @@ public class InGameSettingsDialogBox {
       Main.playSoundOnClick();
       String linksFilePath =
           System.getProperty("user.dir") + "/src/main/resources/linkFiles/links.links";
+      onLeaveGame.run();
       controller.clearProgress(linksFilePath);
       InGameScene igc = new InGameScene(new Stage());
 
@@ -120,7 +132,10 @@ public class InGameSettingsDialogBox {
       Main.playSoundOnClick();
       String linksFilePath =
           System.getProperty("user.dir") + "/src/main/resources/linkFiles/links.links";
-      controller.saveLinksToFile(game.getVisitedLinks(), linksFilePath);
+      String snapshotFilePath =
+          System.getProperty("user.dir") + "/src/main/resources/linkFiles/links.snapshot";
+      onLeaveGame.run();
+      controller.saveGame(game, linksFilePath, snapshotFilePath);
 
       MainMenu mm = new MainMenu();
       controller.switchScene("MainMenu.css", mm.getRoot(), "Main Menu");
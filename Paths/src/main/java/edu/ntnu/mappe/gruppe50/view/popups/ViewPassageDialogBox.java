@@ -0,0 +1,100 @@
+package edu.ntnu.mappe.gruppe50.view.popups;
+
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+/**
+ * View class that displays a dialog containing a passage of a story, being its title, content and
+ * links. Used to jump to a passage that matches a search among the user stories.
+ *
+ * @author Lars Mikkel Lødeng Nilsen
+ * @since 18.10.2026
+ */
+public class ViewPassageDialogBox {
+
+  private final Stage dialog;
+
+  /**
+   * Constructor for the dialog box. Creates a new stage and sets the center content based on the
+   * passage of the input Story.
+   *
+   * @param story        The story of the passage.
+   * @param passageTitle The title of the passage that is displayed.
+   */
+  public ViewPassageDialogBox(Story story, String passageTitle) {
+    dialog = new Stage();
+    createContent(story, passageTitle);
+  }
+
+  /**
+   * Creates the center content of the box, being the title and content of the passage followed by
+   * the text and reference of each of its links. A passage that is no longer in the story, because
+   * the story has changed since it was searched, is displayed as missing.
+   *
+   * @param story        The story of the passage.
+   * @param passageTitle The title of the passage that is displayed.
+   */
+  private void createContent(Story story, String passageTitle) {
+
+    int windowWidth = 800;
+    int windowHeight = 800;
+
+    dialog.setMinWidth(windowWidth);
+    dialog.setMinHeight(windowHeight);
+    dialog.setMaxWidth(windowWidth);
+    dialog.setMaxHeight(windowHeight);
+
+    dialog.initModality(Modality.APPLICATION_MODAL);
+    dialog.setTitle("View passage");
+
+    Label storyLabel = new Label(story.getTitle());
+    storyLabel.setFont(new Font(20));
+
+    Label titleLabel = new Label(passageTitle);
+    titleLabel.setFont(new Font(40));
+    titleLabel.setWrapText(true);
+
+    VBox root = new VBox(20, storyLabel, titleLabel);
+    Link passageLink = new Link(passageTitle, passageTitle);
+    if (story.isBroken(passageLink)) {
+      root.getChildren().add(new Label("The passage is no longer in the story"));
+    } else {
+      Passage passage = story.getPassage(passageLink);
+
+      TextArea contentArea = new TextArea(passage.getContent());
+      contentArea.setEditable(false);
+      contentArea.setWrapText(true);
+      contentArea.setPrefHeight(400);
+
+      // Add the links of the passage as their text followed by the passage they reference
+      ListView<String> linkList = new ListView<>(FXCollections.observableArrayList());
+      for (Link link : passage.getLinks()) {
+        linkList.getItems().add(link.getText() + " -> " + link.getReference());
+      }
+      linkList.setPlaceholder(new Label("The passage has no links"));
+      linkList.setPrefHeight(200);
+
+      root.getChildren().addAll(contentArea, linkList);
+    }
+    root.setAlignment(Pos.TOP_CENTER);
+    root.setPadding(new Insets(25));
+
+    // Create scene and show stage
+    Scene scene = new Scene(root, windowWidth, windowHeight);
+
+    dialog.setScene(scene);
+    dialog.showAndWait();
+  }
+}
@@ -1,10 +1,12 @@
 package edu.ntnu.mappe.gruppe50.view.scenes;
 
 import edu.ntnu.mappe.gruppe50.controller.InGameSceneController;
+import edu.ntnu.mappe.gruppe50.controller.LoadTask;
 import edu.ntnu.mappe.gruppe50.model.data.Game;
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
 import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import java.util.List;
 import javafx.beans.binding.Bindings;
@@ -12,6 +14,7 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundImage;
@@ -26,7 +29,9 @@ import javafx.stage.Stage;
  * The InGameScene represents a gameplay scene in paths. Its responsibility is displaying the
  * current in the story that the player finds themselves in. The root is assembled by the Ui
  * elements inherited from the Ui class (help/settings) as well as the Hud from the Hud class and
- * the center box used to display the story.
+ * the center box used to display the story. The game is read on a background thread, and a
+ * progress bar is displayed in the center box until it has been read. While the game is played,
+ * the story is reloaded whenever its file is changed, and the current passage is displayed again.
  *
  * @author Harry Linrui Xu
  * @since 28.3.2023
@@ -41,17 +46,23 @@ public class InGameScene extends Ui {
 
   private final BorderPane root;
 
-  private final Hud hud;
+  private Hud hud;
+
+  private Passage currentPassage;
+
+  private final VBox storyBox;
 
   private final String GAME_FILE_PATH = System.getProperty("user.dir")
       + "/src/main/resources/gameFiles/game.game";
   private final String LINK_FILE_PATH = System.getProperty("user.dir")
       + "/src/main/resources/linkFiles/links.links";
+  private final String SNAPSHOT_FILE_PATH = System.getProperty("user.dir")
+      + "/src/main/resources/linkFiles/links.snapshot";
 
   /**
    * Constructor for the all the InGameScene. The root borderpane is filled is assembled by Ui
    * elements (help/settings and Hud) as well as the background image and the center Vbox used for
-   * displaying the story.
+   * displaying the story. The Ui elements and the story are added once the game has been read.
    *
    * @param stage The window on which the GUI is displayed.
    */
@@ -59,23 +70,110 @@ public class InGameScene extends Ui {
     igsc = new InGameSceneController();
     root = new BorderPane();
     window = stage;
-    game = igsc.readGameFromFile(GAME_FILE_PATH);
+
+    storyBox = createCenterContainer();
+    root.setCenter(storyBox);
+
+    displayBackground("pixel-mountains.jpg");
+
+    //Stops reloading the story and journaling links once another scene replaces this one
+    root.sceneProperty().addListener((observable, oldScene, newScene) -> {
+      if (newScene == null) {
+        igsc.stopHotReload();
+        igsc.closeJournal();
+      }
+    });
+
+    loadGame(storyBox, false);
+  }
+
+  /**
+   * Reads the game on a background thread, displaying a progress bar and a cancel button in the
+   * center box while it is read. Returns to the main menu if the game cannot be read, or if the
+   * reading is cancelled.
+   *
+   * @param storyBox The root vbox containing the passage contents and links
+   * @param restart  True, if the game is restarted, and the Ui elements have already been added.
+   */
+  private void loadGame(VBox storyBox, boolean restart) {
+    LoadTask<Game> task = igsc.loadGame(GAME_FILE_PATH);
+    //Nothing is displayed again by a reload of the story until the game has been read
+    currentPassage = null;
+
+    ProgressBar progressBar = new ProgressBar();
+    progressBar.setPrefWidth(400);
+    progressBar.progressProperty().bind(task.progressProperty());
+
+    Button cancelBtn = new Button("Cancel");
+    cancelBtn.setOnAction(btnPress -> {
+      Main.playSoundOnClick();
+      task.cancel();
+      returnToMainMenu();
+    });
+    storyBox.getChildren().setAll(createMediumLabel("Loading story..."), progressBar, cancelBtn);
+
+    task.setOnSucceeded(event -> {
+      if (restart) {
+        game = task.getValue();
+        igsc.openJournal(game, LINK_FILE_PATH);
+        setSettingsBtn(game, igsc::closeJournal);
+        //Take player back to start with base stats
+        setCenterContent(game.getStory().getOpeningPassage(), game.getPlayer(), storyBox);
+      } else {
+        showGame(task.getValue(), storyBox);
+      }
+    });
     //Return to main menu if game cannot be read properly
+    task.setOnFailed(event -> {
+      igsc.displayErrorBox("Could not read the game from file", task.getException().getMessage());
+      returnToMainMenu();
+    });
+    task.start();
+  }
+
+  /**
+   * Displays a game that has been read, adding the Ui elements and the first passage.
+   *
+   * @param readGame The game that has been read.
+   * @param storyBox The root vbox containing the passage contents and links
+   */
+  private void showGame(Game readGame, VBox storyBox) {
+    game = readGame;
     // Instantiates the Hud
     hud = new Hud(game.getPlayer(), game.getGoals());
 
     //Add Ui related elements (help/settings and Hud)
-    //and background image and center vbox
     root.setTop(createTitleHelpSettingsInGame(game.getStory().getTitle(), game));
+    setSettingsBtn(game, igsc::closeJournal);
     root.setBottom(hud.getHud());
 
-    VBox storyBox = createCenterContainer();
-    root.setCenter(storyBox);
+    Passage firstPassage = igsc.getFirstPassage(game, GAME_FILE_PATH, LINK_FILE_PATH,
+        SNAPSHOT_FILE_PATH);
+    igsc.openJournal(game, LINK_FILE_PATH);
+    setCenterContent(firstPassage, game.getPlayer(), storyBox);
 
-    displayBackground("pixel-mountains.jpg");
+    igsc.startHotReload(GAME_FILE_PATH, this::reloadStory);
+  }
 
-    Passage firstPassage = igsc.getFirstPassage(game, GAME_FILE_PATH, LINK_FILE_PATH);
-    setCenterContent(firstPassage, game.getPlayer(), storyBox);
+  /**
+   * Swaps a story that has been reloaded from its file into the game, and displays the current
+   * passage of the reloaded story. The player, the goals and the visited links are kept.
+   *
+   * @param story The reloaded story.
+   */
+  private void reloadStory(Story story) {
+    if (game == null || currentPassage == null || root.getScene() == null) {
+      return;
+    }
+    setCenterContent(game.reloadStory(story, currentPassage), game.getPlayer(), storyBox);
+  }
+
+  /**
+   * Switches to the main menu.
+   */
+  private void returnToMainMenu() {
+    MainMenu mainMenu = new MainMenu();
+    igsc.switchScene("MainMenu.css", mainMenu.getRoot(), "Main Menu");
   }
 
 
@@ -160,6 +258,7 @@ public class InGameScene extends Ui {
     //Create the buttons, representing links
     HBox buttons = createButtons(passage, player, storyBox);
 
+    currentPassage = passage;
     Label title = createMediumLabel(passage.getTitle());
     storyBox.getChildren().clear();
     storyBox.getChildren().addAll(title, contentScrollPane, buttons);
@@ -189,19 +288,29 @@ public class InGameScene extends Ui {
         Main.playSoundOnClick();
         //Reset the visited links
         igsc.clearProgress(LINK_FILE_PATH);
-        game = igsc.readGameFromFile(GAME_FILE_PATH);
-        //Take player back to start with base stats
-        setCenterContent(game.getStory().getOpeningPassage(), game.getPlayer(), storyBox);
+        loadGame(storyBox, true);
       });
 
       Button mainMenuBtn = new Button("Main menu");
       mainMenuBtn.setOnAction(btnPress -> {
         Main.playSoundOnClick();
-        MainMenu mainMenu = new MainMenu();
-        igsc.switchScene("MainMenu.css", mainMenu.getRoot(), "Main Menu");
+        returnToMainMenu();
       });
       buttons.getChildren().addAll(restartBtn, mainMenuBtn);
     }
+
+    //Lets the player take back the last choice, also after dying
+    if (game.getRewindableSteps() > 0) {
+      Button undoBtn = new Button("Undo");
+      undoBtn.setOnAction(btnPress -> {
+        Main.playSoundOnClick();
+        Passage previousPassage = igsc.rewind(game, 1, LINK_FILE_PATH, SNAPSHOT_FILE_PATH);
+        if (previousPassage != null) {
+          setCenterContent(previousPassage, player, storyBox);
+        }
+      });
+      buttons.getChildren().add(undoBtn);
+    }
     return buttons;
   }
 
@@ -227,9 +336,13 @@ public class InGameScene extends Ui {
           Main.playSoundOnClick();
           Passage chosenPassage = igsc.selectLink(game, link);
           //Set where the game is saved if one save and quits from settings
-          setSettingsBtn(game);
+          setSettingsBtn(game, igsc::closeJournal);
           //Sets the current passage, in a recursive loop
           if (chosenPassage != null) {
+            //Saves a checkpoint at regular intervals, so a long game is resumed quickly
+            if (game.getVisitedLinks().size() % InGameSceneController.CHECKPOINT_INTERVAL == 0) {
+              igsc.saveCheckpoint(game, LINK_FILE_PATH, SNAPSHOT_FILE_PATH);
+            }
             setCenterContent(chosenPassage, player, storyBox);
           }
         });
@@ -74,9 +74,20 @@ public abstract class Ui {
    * @param game The game that is saved to file.
    */
   public void setSettingsBtn(Game game) {
+    setSettingsBtn(game, () -> { });
+  }
+
+  /**
+   * Method for setting the game that the {@link InGameSettingsDialogBox} saves to file, and what
+   * is done before the game is restarted or saved from the dialog.
+   *
+   * @param game        The game that is saved to file.
+   * @param onLeaveGame Run before the game is restarted or saved, such as closing its journal.
+   */
+  public void setSettingsBtn(Game game, Runnable onLeaveGame) {
     this.settingsBtn.setOnAction(btnPress -> {
       Main.playSoundOnClick();
-      new InGameSettingsDialogBox(game);
+      new InGameSettingsDialogBox(game, onLeaveGame);
     });
   }
 
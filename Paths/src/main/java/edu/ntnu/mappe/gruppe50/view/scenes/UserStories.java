@@ -1,12 +1,17 @@
 package edu.ntnu.mappe.gruppe50.view.scenes;
 
+import edu.ntnu.mappe.gruppe50.controller.LoadTask;
 import edu.ntnu.mappe.gruppe50.controller.UserStoriesController;
 import edu.ntnu.mappe.gruppe50.model.data.Story;
 import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
 import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfoRegister;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchHit;
+import edu.ntnu.mappe.gruppe50.model.fileutils.UserStoryImportResult;
 import edu.ntnu.mappe.gruppe50.view.Main;
 import edu.ntnu.mappe.gruppe50.view.popups.HelpDialogBox;
 import edu.ntnu.mappe.gruppe50.view.popups.ViewBrokenLinksDialogBox;
+import edu.ntnu.mappe.gruppe50.view.popups.ViewPassageDialogBox;
+import java.util.List;
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -14,9 +19,14 @@ import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -26,7 +36,9 @@ import javafx.stage.Screen;
  * View for displaying the table of all the stories that the user have created and uploaded to the
  * game engine. The table displays the file name, path and number of broken links, as well as
  * offering buttons that can upload a new story, delete a story and view the broken links of a
- * story.
+ * story. A search box above the table finds the passages of the stories that contain a query.
+ * Selecting a hit selects its story in the table, and opening it, by double-clicking it or pressing
+ * enter, displays the passage.
  *
  * @author Lars Mikkel Lødeng Nilsen
  * @since 10.05.2023
@@ -41,6 +53,10 @@ public class UserStories extends Ui {
 
   private final UserStoryInfoRegister storyRegister;
 
+  private LoadTask<Story> storyTask;
+
+  private LoadTask<List<SearchHit>> searchTask;
+
   /**
    * Constructor for the UserStory scene. Instantiates the {@link UserStoriesController} and loads
    * in story data from a file. Sets the controls of buttons and creates all the visual elements on
@@ -57,10 +73,13 @@ public class UserStories extends Ui {
 
     root = createAll("Your stories", HelpDialogBox.Mode.USER_STORIES);
     root.setCenter(createCenterContent());
+    //Refreshes the number of broken links of a story when its file is changed
+    usc.watchStories(storyRegister, this);
 
     //Saves the selected story path and user stories before switching scene
     getNextBtn().setOnAction(e -> {
       Main.playSoundOnClick();
+      usc.stopWatchingStories();
       usc.writeUserStoriesToFile(storyRegister, userStoriesFilePath);
       UserStoryInfo userStoryInfo = table.getSelectionModel().getSelectedItem();
       usc.savedSelectedStory(userStoryInfo.getFilePath());
@@ -89,6 +108,7 @@ public class UserStories extends Ui {
     //Saving user stories before switching scene
     getBackBtn().setOnAction(e -> {
       Main.playSoundOnClick();
+      usc.stopWatchingStories();
       usc.writeUserStoriesToFile(storyRegister, userStoriesFilePath);
 
       SelectStoryType sst = new SelectStoryType();
@@ -137,6 +157,13 @@ public class UserStories extends Ui {
     BorderPane tableBorderPane = new BorderPane();
     tableBorderPane.setCenter(table);
 
+    //Shows the progress of reading the story of the dialog or importing a folder of stories
+    ProgressBar storyProgressBar = new ProgressBar();
+    storyProgressBar.setPrefWidth(200);
+    storyProgressBar.setVisible(false);
+
+    tableBorderPane.setTop(createSearchContent(storyProgressBar));
+
     Button addStoryBtn = new Button("Add Story");
     addStoryBtn.setPrefSize(200, 200);
     addStoryBtn.setOnAction(e -> {
@@ -144,6 +171,19 @@ public class UserStories extends Ui {
       usc.addStory(storyRegister, this);
     });
 
+    Button importStoriesBtn = new Button("Import Folder");
+    importStoriesBtn.setPrefSize(200, 200);
+    importStoriesBtn.setOnAction(e -> {
+      Main.playSoundOnClick();
+      LoadTask<UserStoryImportResult> task = usc.importStories(storyRegister, this);
+      if (task != null) {
+        storyProgressBar.progressProperty().bind(task.progressProperty());
+        storyProgressBar.visibleProperty().bind(task.runningProperty());
+        importStoriesBtn.disableProperty().bind(task.runningProperty());
+        task.start();
+      }
+    });
+
     Button removeStoryBtn = new Button("Remove Story");
     removeStoryBtn.setPrefSize(200, 200);
     setButtonDisableProperty(removeStoryBtn,
@@ -158,23 +198,24 @@ public class UserStories extends Ui {
     setButtonDisableProperty(viewBrokenLinksBtn,
         Bindings.isEmpty(table.getSelectionModel().getSelectedItems()));
 
-    //Display dialog for given story
+    //Display dialog for given story once it has been read. No dialog is displayed if the story
+    //could not be read from file
     viewBrokenLinksBtn.setOnAction(event -> {
       Main.playSoundOnClick();
-      new ViewBrokenLinksDialogBox(
-          usc.readStoryFromFile(table.getSelectionModel().getSelectedItem().getFilePath()));
-    });
-    //Consume event if story is null - could not be read from file
-    viewBrokenLinksBtn.addEventFilter(ActionEvent.ACTION, event -> {
-      //Retrieve story based on story file path in table
-      Story story = usc.readStoryFromFile(
-          table.getSelectionModel().getSelectedItem().getFilePath());
-      if (story == null) {
-        event.consume();
+      //Only the dialog of the last selected story is displayed
+      if (storyTask != null) {
+        storyTask.cancel();
       }
+      storyTask = usc.loadStory(table.getSelectionModel().getSelectedItem().getFilePath());
+      LoadTask<Story> task = storyTask;
+      storyProgressBar.progressProperty().bind(task.progressProperty());
+      storyProgressBar.visibleProperty().bind(task.runningProperty());
+      task.setOnSucceeded(succeeded -> new ViewBrokenLinksDialogBox(task.getValue()));
+      task.start();
     });
 
-    VBox buttonsVbox = new VBox(20, addStoryBtn, removeStoryBtn, viewBrokenLinksBtn);
+    VBox buttonsVbox = new VBox(20, addStoryBtn, importStoriesBtn, removeStoryBtn,
+        viewBrokenLinksBtn, storyProgressBar);
     buttonsVbox.setAlignment(Pos.CENTER);
 
     HBox tableButtonContainer = new HBox(20, tableBorderPane, buttonsVbox);
@@ -184,6 +225,106 @@ public class UserStories extends Ui {
     return tableButtonContainer;
   }
 
+  /**
+   * Creates the search box and the list of its hits, which is hidden until a search has been made.
+   * A search is made when enter is pressed in the search box, and the passages are searched on a
+   * background thread, as stories that have changed since the last search are indexed first.
+   *
+   * @param progressBar The progress bar that shows the progress of indexing the stories.
+   * @return A VBox containing the search box and the list of hits.
+   */
+  private VBox createSearchContent(ProgressBar progressBar) {
+    TextField searchField = new TextField();
+    searchField.setPromptText("Search the passages of your stories, use \"quotes\" for phrases");
+
+    ListView<SearchHit> hitList = new ListView<>();
+    hitList.setPrefHeight(150);
+    hitList.setVisible(false);
+    hitList.managedProperty().bind(hitList.visibleProperty());
+
+    searchField.setOnAction(event -> {
+      //Only the hits of the last search are displayed
+      if (searchTask != null) {
+        searchTask.cancel();
+      }
+      if (searchField.getText().isBlank()) {
+        hitList.setVisible(false);
+        return;
+      }
+      searchTask = usc.searchStories(storyRegister, searchField.getText());
+      LoadTask<List<SearchHit>> task = searchTask;
+      progressBar.progressProperty().bind(task.progressProperty());
+      progressBar.visibleProperty().bind(task.runningProperty());
+      task.setOnSucceeded(succeeded -> {
+        hitList.getItems().setAll(task.getValue());
+        hitList.setPlaceholder(new Label("No passages match the search"));
+        hitList.setVisible(true);
+      });
+      task.start();
+    });
+
+    //Jumps to the story of the selected hit, and to its passage when the hit is opened
+    hitList.getSelectionModel().selectedItemProperty().addListener((observable, oldHit, hit) -> {
+      if (hit != null) {
+        selectStory(hit.getFilePath());
+      }
+    });
+    hitList.setOnMouseClicked(event -> {
+      if (event.getClickCount() == 2) {
+        viewPassage(hitList.getSelectionModel().getSelectedItem(), progressBar);
+      }
+    });
+    hitList.setOnKeyPressed(event -> {
+      if (event.getCode() == KeyCode.ENTER) {
+        viewPassage(hitList.getSelectionModel().getSelectedItem(), progressBar);
+      }
+    });
+
+    VBox searchVbox = new VBox(10, searchField, hitList);
+    searchVbox.setPadding(new Insets(0, 0, 10, 0));
+    return searchVbox;
+  }
+
+  /**
+   * Displays the passage of a search hit, once its story has been read. No dialog is displayed if
+   * the story could not be read from file.
+   *
+   * @param hit         The search hit, or null if no hit is selected.
+   * @param progressBar The progress bar that shows the progress of reading the story.
+   */
+  private void viewPassage(SearchHit hit, ProgressBar progressBar) {
+    if (hit == null) {
+      return;
+    }
+    Main.playSoundOnClick();
+    //Only the dialog of the last opened story is displayed
+    if (storyTask != null) {
+      storyTask.cancel();
+    }
+    storyTask = usc.loadStory(hit.getFilePath());
+    LoadTask<Story> task = storyTask;
+    progressBar.progressProperty().bind(task.progressProperty());
+    progressBar.visibleProperty().bind(task.runningProperty());
+    task.setOnSucceeded(
+        succeeded -> new ViewPassageDialogBox(task.getValue(), hit.getPassageTitle()));
+    task.start();
+  }
+
+  /**
+   * Selects the story with the given file path in the table, and scrolls to it.
+   *
+   * @param filePath The absolute path of the story file.
+   */
+  private void selectStory(String filePath) {
+    for (UserStoryInfo userStoryInfo : storyInfoObservableList) {
+      if (userStoryInfo.getFilePath().equals(filePath)) {
+        table.getSelectionModel().select(userStoryInfo);
+        table.scrollTo(userStoryInfo);
+        return;
+      }
+    }
+  }
+
   /**
    * Synchs the UserStoryInfo observable list with the model UserInfoRegister.
    */
@@ -191,6 +332,17 @@ public class UserStories extends Ui {
     this.storyInfoObservableList.setAll(storyRegister.getUserStoryInfos());
   }
 
+  /**
+   * Replaces a single UserStoryInfo in the observable list, without resetting the rest of the
+   * table.
+   *
+   * @param index         The index of the UserStoryInfo in the model UserInfoRegister.
+   * @param userStoryInfo The UserStoryInfo that replaces the old one.
+   */
+  public void updateUserStoryInfo(int index, UserStoryInfo userStoryInfo) {
+    this.storyInfoObservableList.set(index, userStoryInfo);
+  }
+
   /**
    * Gets the root borderpane, on which the all visual components are placed.
    *
@@ -0,0 +1,199 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ScoreAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.HealthGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.ScoreGoal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class GoalExplorerTest {
+
+  Passage village, mine, shop, castle;
+  Link toMine, backToVillage, toShop, toCastle;
+  Story story;
+  Player player;
+
+  @BeforeEach
+  void setUp() {
+    village = new Passage("Village", "villageContent");
+    mine = new Passage("Mine", "mineContent");
+    shop = new Passage("Shop", "shopContent");
+    castle = new Passage("Castle", "castleContent");
+
+    toMine = new Link("Work in the mine", "Mine");
+    toMine.addAction(new GoldAction(10));
+    toMine.addAction(new HealthAction(-1));
+    backToVillage = new Link("Go back", "Village");
+    toShop = new Link("Buy a sword", "Shop");
+    toShop.addGoal(new GoldGoal(20));
+    toShop.addAction(new GoldAction(-20));
+    toShop.addAction(new InventoryAction("Sword"));
+    toCastle = new Link("Storm the castle", "Castle");
+    toCastle.addGoal(new InventoryGoal(List.of("Sword")));
+    toCastle.addAction(new ScoreAction(100));
+
+    village.addLink(toMine);
+    village.addLink(toShop);
+    mine.addLink(backToVillage);
+    shop.addLink(toCastle);
+
+    story = new Story("Kingdom", village);
+    story.addPassage(mine);
+    story.addPassage(shop);
+    story.addPassage(castle);
+
+    player = new Player.Builder("testName").health(3).build();
+  }
+
+  @Nested
+  @DisplayName("Test constructor")
+  class GoalExplorerConstructor {
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if pool is null")
+    void testConstructorWithNullPool() {
+      assertThrows(IllegalArgumentException.class, () -> new GoalExplorer(null, 10));
+    }
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if max states is zero")
+    void testConstructorWithZeroMaxStates() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new GoalExplorer(ForkJoinPool.commonPool(), 0));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test achievable goals")
+  class AchievableGoals {
+
+    @Test
+    @DisplayName("Test goals gated behind links and actions are found")
+    void testAchievableGoals() {
+      Goal scoreGoal = new ScoreGoal(100);
+      Goal inventoryGoal = new InventoryGoal(List.of("Sword"));
+      GoalExploration exploration = new GoalExplorer().explore(story, player,
+          List.of(scoreGoal, inventoryGoal));
+
+      assertTrue(exploration.isAchievable(scoreGoal));
+      assertTrue(exploration.isAchievable(inventoryGoal));
+      assertTrue(exploration.isComplete());
+    }
+
+    @Test
+    @DisplayName("Test goals that need more health than the player can spare are not achievable")
+    void testUnachievableGoalBecauseOfDeath() {
+      player = new Player.Builder("testName").health(2).build();
+      Goal goldGoal = new GoldGoal(30);
+      Goal healthGoal = new HealthGoal(5);
+      GoalExploration exploration = new GoalExplorer().explore(story, player,
+          List.of(goldGoal, healthGoal));
+
+      assertEquals(List.of(goldGoal, healthGoal), exploration.getUnachievedGoals());
+      assertTrue(exploration.isComplete());
+    }
+
+    @Test
+    @DisplayName("Test goals fulfilled at the start of the game have an empty witness path")
+    void testGoalFulfilledAtStart() {
+      Goal healthGoal = new HealthGoal(3);
+      GoalExploration exploration = new GoalExplorer().explore(story, player,
+          List.of(healthGoal));
+
+      assertEquals(List.of(), exploration.getWitnessPath(healthGoal));
+    }
+
+    @Test
+    @DisplayName("Test links with an action of value zero are never taken")
+    void testLinksWithZeroActionAreBlocked() {
+      toShop.addAction(new ScoreAction(0));
+      Goal inventoryGoal = new InventoryGoal(List.of("Sword"));
+      GoalExploration exploration = new GoalExplorer().explore(story, player,
+          List.of(inventoryGoal));
+
+      assertFalse(exploration.isAchievable(inventoryGoal));
+      assertThrows(IllegalArgumentException.class,
+          () -> exploration.getWitnessPath(inventoryGoal));
+    }
+  }
+
+  @Test
+  @DisplayName("Test the witness path reaches the goal when played through Game.go")
+  void testWitnessPathIsPlayable() throws NoMatchingPassageException {
+    Goal scoreGoal = new ScoreGoal(100);
+    List<Link> path = new GoalExplorer().explore(story, player, List.of(scoreGoal))
+        .getWitnessPath(scoreGoal);
+
+    Game game = new Game(player, story, new ArrayList<>(), new LinkRegister());
+    Passage passage = game.begin();
+    for (Link link : path) {
+      assertTrue(passage.getLinks().contains(link));
+      passage = game.go(link);
+    }
+    assertEquals(castle, passage);
+    assertTrue(scoreGoal.isFulfilled(player));
+  }
+
+  @Test
+  @DisplayName("Test the exploration stops at the maximum number of states")
+  void testExplorationStopsAtMaxStates() {
+    player = new Player.Builder("testName").health(1000).build();
+    Goal healthGoal = new HealthGoal(2000);
+    GoalExploration exploration = new GoalExplorer(ForkJoinPool.commonPool(), 100)
+        .explore(story, player, List.of(healthGoal));
+
+    assertFalse(exploration.isAchievable(healthGoal));
+    assertFalse(exploration.isComplete());
+    assertTrue(exploration.getExploredStates() <= 100);
+  }
+
+  @Test
+  @DisplayName("Test concurrent tasks never explore more states than the maximum")
+  void testMaxStatesHoldsWithManyThreads() {
+    player = new Player.Builder("testName").health(1000).build();
+    Goal healthGoal = new HealthGoal(2000);
+    ForkJoinPool pool = new ForkJoinPool(8);
+    try {
+      for (int i = 0; i < 20; i++) {
+        GoalExploration exploration = new GoalExplorer(pool, 100)
+            .explore(story, player, List.of(healthGoal));
+
+        assertEquals(100, exploration.getExploredStates());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Test explore throws Illegal Argument Exception with more than 64 items")
+  void testExploreWithTooManyItems() {
+    for (int i = 0; i < 65; i++) {
+      Link link = new Link("Pick up item" + i, "Village");
+      link.addAction(new InventoryAction("item" + i));
+      mine.addLink(link);
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> new GoalExplorer().explore(story, player, List.of()));
+  }
+}
@@ -0,0 +1,131 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class PlaythroughSimulatorTest {
+
+  Passage crossroads, treasure, dragon, vault;
+  CompiledStory compiledStory;
+  Player player;
+
+  @BeforeEach
+  void setUp() {
+    crossroads = new Passage("Crossroads", "crossroadsContent");
+    treasure = new Passage("Treasure", "treasureContent");
+    dragon = new Passage("Dragon", "dragonContent");
+    vault = new Passage("Vault", "vaultContent");
+
+    Link toTreasure = new Link("Go left", "Treasure");
+    toTreasure.addAction(new GoldAction(50));
+    toTreasure.addAction(new InventoryAction("Crown"));
+    Link toDragon = new Link("Go right", "Dragon");
+    toDragon.addAction(new HealthAction(-100));
+    Link toVault = new Link("Open the vault", "Vault");
+    toVault.addGoal(new GoldGoal(1000));
+    Link broken = new Link("Go nowhere", "Nowhere");
+
+    crossroads.addLink(toTreasure);
+    crossroads.addLink(toDragon);
+    crossroads.addLink(toVault);
+    crossroads.addLink(broken);
+
+    Story story = new Story("Quest", crossroads);
+    story.addPassage(treasure);
+    story.addPassage(dragon);
+    story.addPassage(vault);
+    compiledStory = story.compile();
+
+    player = new Player.Builder("testName").health(10).build();
+  }
+
+  @Nested
+  @DisplayName("Test constructor and arguments")
+  class Arguments {
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if max steps is zero")
+    void testConstructorWithZeroMaxSteps() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new PlaythroughSimulator(ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    @DisplayName("Test simulate throws Illegal Argument Exception if player is null")
+    void testSimulateWithNullPlayer() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new PlaythroughSimulator().simulate(compiledStory, null, 10, 1));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test simulation results")
+  class Results {
+
+    @Test
+    @DisplayName("Test every playthrough ends at an accessible, existing passage")
+    void testEndPassages() {
+      SimulationResult result = new PlaythroughSimulator().simulate(compiledStory, player,
+          10_000, 42);
+
+      assertEquals(10_000, result.getPlaythroughs());
+      assertEquals(result.getDeaths(), result.getEndPassages().get("Dragon").longValue());
+      assertEquals(result.getFinished(), result.getEndPassages().get("Treasure").longValue());
+      assertNull(result.getEndPassages().get("Vault"));
+      assertEquals(0.5, result.getDeathRate(), 0.05);
+    }
+
+    @Test
+    @DisplayName("Test final gold, score and inventory are aggregated")
+    void testFinalStats() {
+      SimulationResult result = new PlaythroughSimulator().simulate(compiledStory, player,
+          1_000, 7);
+
+      assertEquals(0, result.getGold().getMin());
+      assertEquals(50, result.getGold().getMax());
+      assertEquals(result.getFinished(), result.getItems().get("Crown").longValue());
+      assertEquals(0, result.getScore().getMax());
+      assertEquals(0, player.getGold());
+    }
+
+    @Test
+    @DisplayName("Test the same seed gives the same result")
+    void testSameSeedGivesSameResult() {
+      SimulationResult first = new PlaythroughSimulator(new ForkJoinPool(1), 10)
+          .simulate(compiledStory, player, 5_000, 3);
+      SimulationResult second = new PlaythroughSimulator(new ForkJoinPool(4), 10)
+          .simulate(compiledStory, player, 5_000, 3);
+
+      assertEquals(first.getEndPassages(), second.getEndPassages());
+    }
+
+    @Test
+    @DisplayName("Test playthroughs in an endless loop stop at the maximum number of steps")
+    void testEndlessLoopIsUnfinished() {
+      Passage loop = new Passage("Loop", "loopContent");
+      loop.addLink(new Link("Again", "Loop"));
+      Story story = new Story("Loop", loop);
+
+      SimulationResult result = new PlaythroughSimulator(ForkJoinPool.commonPool(), 20)
+          .simulate(story.compile(), player, 100, 1);
+
+      assertEquals(100, result.getUnfinished());
+      assertEquals(20, result.getAverageSteps());
+      assertTrue(result.getPlaythroughsPerSecond() > 0);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.analysis.RouteSolver.Stat;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.ScoreAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class RouteSolverTest {
+
+  Passage gate, market, armory, cave, treasury;
+  Story story;
+  Player player;
+
+  @BeforeEach
+  void setUp() {
+    gate = new Passage("Gate", "gateContent");
+    market = new Passage("Market", "marketContent");
+    armory = new Passage("Armory", "armoryContent");
+    cave = new Passage("Cave", "caveContent");
+    treasury = new Passage("Treasury", "treasuryContent");
+
+    Link toMarket = new Link("Go to the market", "Market");
+    toMarket.addAction(new GoldAction(10));
+    Link toArmory = new Link("Go to the armory", "Armory");
+    toArmory.addAction(new InventoryAction("Sword"));
+    toArmory.addAction(new HealthAction(-2));
+    Link marketToCave = new Link("Sneak into the cave", "Cave");
+    marketToCave.addAction(new HealthAction(-8));
+    Link armoryToCave = new Link("Fight into the cave", "Cave");
+    armoryToCave.addGoal(new InventoryGoal(List.of("Sword")));
+    armoryToCave.addAction(new HealthAction(-3));
+    armoryToCave.addAction(new ScoreAction(5));
+    Link toTreasury = new Link("Open the treasury", "Treasury");
+    toTreasury.addGoal(new InventoryGoal(List.of("Sword")));
+    toTreasury.addAction(new GoldAction(100));
+
+    gate.addLink(toMarket);
+    gate.addLink(toArmory);
+    market.addLink(marketToCave);
+    armory.addLink(armoryToCave);
+    cave.addLink(toTreasury);
+
+    story = new Story("Heist", gate);
+    story.addPassage(market);
+    story.addPassage(armory);
+    story.addPassage(cave);
+    story.addPassage(treasury);
+
+    player = new Player.Builder("testName").health(10).build();
+  }
+
+  /**
+   * Takes the links of a route in a new game, and returns the player at the end of it.
+   */
+  Player replay(Route route) throws Exception {
+    Player copy = new Player.Builder(player.getName()).health(player.getHealth()).build();
+    Game game = new Game(copy, story, new ArrayList<>(), new LinkRegister());
+    for (Link link : route.getLinks()) {
+      game.go(link);
+    }
+    return copy;
+  }
+
+  @Nested
+  @DisplayName("Test constructor and arguments")
+  class Arguments {
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if max states is zero")
+    void testConstructorWithZeroMaxStates() {
+      assertThrows(IllegalArgumentException.class, () -> new RouteSolver(0));
+    }
+
+    @Test
+    @DisplayName("Test maximize throws Illegal Argument Exception if stat is null")
+    void testMaximizeWithNullStat() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new RouteSolver().maximize(story, player, null));
+    }
+
+    @Test
+    @DisplayName("Test reach throws Illegal Argument Exception if passage is not in the story")
+    void testReachWithPassageNotInStory() {
+      Passage other = new Passage("Cave", "otherContent");
+
+      assertThrows(IllegalArgumentException.class,
+          () -> new RouteSolver().reach(story, player, other));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test found routes")
+  class Routes {
+
+    @Test
+    @DisplayName("Test maximize gold takes the route that fulfills the goals of the treasury")
+    void testMaximizeGold() throws Exception {
+      Route route = new RouteSolver().maximize(story, player, Stat.GOLD);
+
+      assertTrue(route.isFound());
+      assertTrue(route.isOptimal());
+      assertEquals(100, route.getGold());
+      assertEquals(5, route.getHealth());
+      assertEquals(5, route.getScore());
+      assertEquals(List.of("Sword"), route.getInventory());
+      assertEquals(3, route.getLinks().size());
+
+      Player end = replay(route);
+      assertEquals(route.getGold(), end.getGold());
+      assertEquals(route.getHealth(), end.getHealth());
+      assertEquals(route.getScore(), end.getScore());
+    }
+
+    @Test
+    @DisplayName("Test reach takes the route that loses the least health")
+    void testReachWithLeastHealthLoss() throws Exception {
+      Route route = new RouteSolver().reach(story, player, cave);
+
+      assertTrue(route.isFound());
+      assertEquals(5, route.getHealth());
+      assertEquals("Armory", route.getLinks().get(0).getReference());
+      assertEquals(route.getHealth(), replay(route).getHealth());
+    }
+
+    @Test
+    @DisplayName("Test routes where the player dies are not found")
+    void testDeadlyRouteIsNotFound() {
+      player.setHealth(4);
+
+      Route route = new RouteSolver().reach(story, player, cave);
+
+      assertFalse(route.isFound());
+      assertTrue(route.isOptimal());
+      assertTrue(route.getLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a loop that costs health does not stop the search")
+    void testCostlyLoopIsOptimal() {
+      Link back = new Link("Go back", "Gate");
+      back.addAction(new HealthAction(-1));
+      market.addLink(back);
+
+      Route route = new RouteSolver().maximize(story, player, Stat.HEALTH);
+
+      assertTrue(route.isOptimal());
+      assertEquals(10, route.getHealth());
+      assertTrue(route.getLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a loop that raises the stat without end gives a route that is not optimal")
+    void testEndlessLoopIsNotOptimal() {
+      Link back = new Link("Go back", "Gate");
+      market.addLink(back);
+
+      Route route = new RouteSolver(500).maximize(story, player, Stat.GOLD);
+
+      assertTrue(route.isFound());
+      assertFalse(route.isOptimal());
+      assertEquals(500, route.getExploredStates());
+      assertTrue(route.getGold() > 100);
+    }
+  }
+}
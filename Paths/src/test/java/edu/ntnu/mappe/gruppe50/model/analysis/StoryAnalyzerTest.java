@@ -0,0 +1,123 @@
+package edu.ntnu.mappe.gruppe50.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryAnalyzerTest {
+
+  Passage entrance, hall, tower, exit, orphan, trap1, trap2, broken;
+  Story story;
+  StoryAnalyzer analyzer;
+
+  @BeforeEach
+  void setUp() {
+    entrance = new Passage("Entrance", "entranceContent");
+    hall = new Passage("Hall", "hallContent");
+    tower = new Passage("Tower", "towerContent");
+    exit = new Passage("Exit", "exitContent");
+    orphan = new Passage("Orphan", "orphanContent");
+    trap1 = new Passage("Trap1", "trapContent");
+    trap2 = new Passage("Trap2", "trapContent");
+    broken = new Passage("Broken", "brokenContent");
+
+    entrance.addLink(new Link("Go to hall", "Hall"));
+    hall.addLink(new Link("Go back to entrance", "Entrance"));
+    hall.addLink(new Link("Climb the tower", "Tower"));
+    hall.addLink(new Link("Go down the stairs", "Trap1"));
+    tower.addLink(new Link("Jump out", "Exit"));
+    tower.addLink(new Link("Look around", "Tower"));
+    trap1.addLink(new Link("Go on", "Trap2"));
+    trap2.addLink(new Link("Go on", "Trap1"));
+    orphan.addLink(new Link("Leave", "Exit"));
+    broken.addLink(new Link("Go nowhere", "Nowhere"));
+
+    story = new Story("Castle", entrance);
+    for (Passage passage : List.of(hall, tower, exit, orphan, trap1, trap2, broken)) {
+      story.addPassage(passage);
+    }
+    analyzer = new StoryAnalyzer();
+  }
+
+  @Nested
+  @DisplayName("Test constructor")
+  class StoryAnalyzerConstructor {
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if pool is null")
+    void testConstructorWithNullPool() {
+      assertThrows(IllegalArgumentException.class, () -> new StoryAnalyzer(null));
+    }
+
+    @Test
+    @DisplayName("Test analyze throws Illegal Argument Exception if story is null")
+    void testAnalyzeWithNullStory() {
+      assertThrows(IllegalArgumentException.class, () -> analyzer.analyze((Story) null));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test reachability")
+  class Reachability {
+
+    @Test
+    @DisplayName("Test reachable passages are found from the opening passage")
+    void testReachablePassages() {
+      StoryAnalysis analysis = analyzer.analyze(story);
+
+      assertEquals(Set.of(entrance, hall, tower, exit, trap1, trap2),
+          Set.copyOf(analysis.getReachablePassages()));
+      assertEquals(List.of(orphan, broken), analysis.getUnreachablePassages());
+    }
+
+    @Test
+    @DisplayName("Test reachability with more passages than are searched on one thread")
+    void testReachabilityOfWideStory() {
+      Passage opening = new Passage("opening", "content");
+      Story wideStory = new Story("wide", opening);
+      for (int i = 0; i < 3000; i++) {
+        Passage passage = new Passage("passage" + i, "content");
+        passage.addLink(new Link("next", "end" + (i % 1500)));
+        opening.addLink(new Link("go", "passage" + i));
+        wideStory.addPassage(passage);
+      }
+      for (int i = 0; i < 2000; i++) {
+        wideStory.addPassage(new Passage("end" + i, "content"));
+      }
+
+      StoryAnalysis analysis = new StoryAnalyzer(new ForkJoinPool(4)).analyze(wideStory);
+
+      assertEquals(4501, analysis.getReachablePassages().size());
+      assertEquals(500, analysis.getUnreachablePassages().size());
+      assertTrue(analysis.getDeadEnds().isEmpty());
+    }
+  }
+
+  @Test
+  @DisplayName("Test dead ends are passages from which no final passage can be reached")
+  void testDeadEnds() {
+    assertEquals(List.of(trap1, trap2, broken), analyzer.analyze(story).getDeadEnds());
+  }
+
+  @Test
+  @DisplayName("Test loops are found, including passages that link to themselves")
+  void testLoops() {
+    List<Set<Passage>> loops = analyzer.analyze(story).getLoops().stream()
+        .map(Set::copyOf)
+        .toList();
+
+    assertEquals(3, loops.size());
+    assertTrue(loops.contains(Set.of(entrance, hall)));
+    assertTrue(loops.contains(Set.of(tower)));
+    assertTrue(loops.contains(Set.of(trap1, trap2)));
+  }
+}
@@ -0,0 +1,156 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class CompiledStoryTest {
+
+  Passage openingPassage, passage1, passage2;
+  Link link01, link02, link12, brokenLink;
+  Story story;
+
+  @BeforeEach
+  void setUp() {
+    openingPassage = new Passage("opening", "openingContent");
+    passage1 = new Passage("title1", "content1");
+    passage2 = new Passage("title2", "content2");
+
+    link01 = new Link("Go to 1", "title1");
+    link02 = new Link("Go to 2", "title2");
+    link12 = new Link("Go to 2", "title2");
+    brokenLink = new Link("Go nowhere", "nowhere");
+
+    openingPassage.addLink(link01);
+    openingPassage.addLink(link02);
+    passage1.addLink(link12);
+    passage1.addLink(brokenLink);
+
+    story = new Story("story", openingPassage);
+    story.addPassage(passage1);
+    story.addPassage(passage2);
+  }
+
+  @Nested
+  @DisplayName("Test passage ids")
+  class PassageIds {
+
+    @Test
+    @DisplayName("Test the opening passage has id zero")
+    void testOpeningPassageHasIdZero() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(0, compiledStory.getOpeningPassageId());
+      assertEquals(0, compiledStory.getPassageId("opening"));
+      assertEquals(openingPassage, compiledStory.getOpeningPassage());
+    }
+
+    @Test
+    @DisplayName("Test passages are given ids in the order they were added")
+    void testPassagesAreGivenIdsInOrder() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(3, compiledStory.getPassageCount());
+      assertEquals(passage1, compiledStory.getPassage(1));
+      assertEquals(passage2, compiledStory.getPassage(2));
+    }
+
+    @Test
+    @DisplayName("Test getPassageId returns NO_PASSAGE for unknown titles")
+    void testGetPassageIdWithUnknownTitle() {
+      assertEquals(CompiledStory.NO_PASSAGE, story.compile().getPassageId("nowhere"));
+    }
+
+    @Test
+    @DisplayName("Test getPassage throws Illegal Argument Exception for invalid id")
+    void testGetPassageWithInvalidId() {
+      CompiledStory compiledStory = story.compile();
+
+      assertThrows(IllegalArgumentException.class, () -> compiledStory.getPassage(-1));
+      assertThrows(IllegalArgumentException.class, () -> compiledStory.getPassage(3));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test links")
+  class Links {
+
+    @Test
+    @DisplayName("Test links of a passage lie between link start and link end")
+    void testLinksOfPassage() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(4, compiledStory.getLinkCount());
+      assertEquals(0, compiledStory.getLinkStart(0));
+      assertEquals(2, compiledStory.getLinkEnd(0));
+      assertSame(link12, compiledStory.getLink(compiledStory.getLinkStart(1)));
+      assertEquals(compiledStory.getLinkEnd(2), compiledStory.getLinkStart(2));
+    }
+
+    @Test
+    @DisplayName("Test link targets are passage ids, and NO_PASSAGE for broken links")
+    void testLinkTargets() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(1, compiledStory.getLinkTarget(0));
+      assertEquals(2, compiledStory.getLinkTarget(1));
+      assertEquals(2, compiledStory.getLinkTarget(2));
+      assertEquals(CompiledStory.NO_PASSAGE, compiledStory.getLinkTarget(3));
+      assertTrue(compiledStory.isBroken(brokenLink));
+      assertFalse(compiledStory.isBroken(link01));
+    }
+
+    @Test
+    @DisplayName("Test getLinks returns a read-only list of the passage's links")
+    void testGetLinksIsReadOnly() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(passage1.getLinks(), compiledStory.getLinks(1));
+      assertThrows(UnsupportedOperationException.class,
+          () -> compiledStory.getLinks(1).add(link01));
+    }
+
+    @Test
+    @DisplayName("Test getPassage with link returns the referenced passage")
+    void testGetPassageWithLink() {
+      CompiledStory compiledStory = story.compile();
+
+      assertEquals(passage1, compiledStory.getPassage(link01));
+      assertThrows(IllegalArgumentException.class, () -> compiledStory.getPassage(brokenLink));
+      assertThrows(IllegalArgumentException.class, () -> compiledStory.getPassage((Link) null));
+    }
+
+    @Test
+    @DisplayName("Test hasGatedLinks is true only for passages with links that have goals")
+    void testHasGatedLinks() {
+      link12.addGoal(new GoldGoal(10));
+      CompiledStory compiledStory = story.compile();
+
+      assertFalse(compiledStory.hasGatedLinks(0));
+      assertTrue(compiledStory.hasGatedLinks(1));
+    }
+  }
+
+  @Test
+  @DisplayName("Test getEndPassages returns passages with no links")
+  void testGetEndPassages() {
+    CompiledStory compiledStory = story.compile();
+
+    assertEquals(1, compiledStory.getEndPassages().size());
+    assertEquals(passage2, compiledStory.getEndPassages().get(0));
+  }
+
+  @Test
+  @DisplayName("Test the compiled story is a snapshot of the story")
+  void testCompiledStoryIsSnapshot() {
+    CompiledStory compiledStory = story.compile();
+    story.addPassage(new Passage("title3", "content3"));
+
+    assertEquals(3, compiledStory.getPassageCount());
+    assertEquals(CompiledStory.NO_PASSAGE, compiledStory.getPassageId("title3"));
+  }
+}
@@ -0,0 +1,144 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class GameSnapshotTest {
+
+  Player player;
+
+  @BeforeEach
+  void setUp() {
+    player = new Player.Builder("testName").health(10).score(20).gold(30).build();
+    player.addToInventory("sword");
+    player.addToInventory("key");
+  }
+
+  @Nested
+  @DisplayName("Tests taking and restoring snapshots with valid input")
+  class PositiveSnapshot {
+
+    @Test
+    @DisplayName("Test a snapshot of a player holds its stats and inventory")
+    void testOf() {
+      GameSnapshot snapshot = GameSnapshot.of(player, "Beginnings", 4, 0L);
+
+      assertEquals("Beginnings", snapshot.getPassageTitle());
+      assertEquals(10, snapshot.getHealth());
+      assertEquals(20, snapshot.getScore());
+      assertEquals(30, snapshot.getGold());
+      assertEquals(List.of("sword", "key"), snapshot.getInventory());
+      assertEquals(4, snapshot.getVisitedLinkCount());
+    }
+
+    @Test
+    @DisplayName("Test a snapshot is not changed when the player is changed")
+    void testSnapshotIsCopy() {
+      GameSnapshot snapshot = GameSnapshot.of(player, "Beginnings", 4, 0L);
+      player.addGold(5);
+      player.removeFromInventory("sword");
+
+      assertEquals(30, snapshot.getGold());
+      assertEquals(List.of("sword", "key"), snapshot.getInventory());
+    }
+
+    @Test
+    @DisplayName("Test restoring a snapshot replaces the stats and inventory of a player")
+    void testRestore() {
+      GameSnapshot snapshot = new GameSnapshot("Beginnings", 0, 1, 2, List.of("key", "key"), 0,
+          0L);
+
+      snapshot.restore(player);
+
+      assertEquals(0, player.getHealth());
+      assertEquals(1, player.getScore());
+      assertEquals(2, player.getGold());
+      assertEquals(List.of("key", "key"), player.getInventory());
+    }
+
+    @Test
+    @DisplayName("Test snapshots with the same parts are equal")
+    void testEquals() {
+      assertEquals(GameSnapshot.of(player, "Beginnings", 4, 0L),
+          GameSnapshot.of(player, "Beginnings", 4, 0L));
+      assertEquals(GameSnapshot.of(player, "Beginnings", 4, 0L).hashCode(),
+          GameSnapshot.of(player, "Beginnings", 4, 0L).hashCode());
+      assertNotEquals(GameSnapshot.of(player, "Beginnings", 4, 0L),
+          GameSnapshot.of(player, "Beginnings", 5, 0L));
+      assertNotEquals(GameSnapshot.of(player, "Beginnings", 4, 0L),
+          GameSnapshot.of(player, "Beginnings", 4, 1L));
+    }
+
+    @Test
+    @DisplayName("Test play throughs are identified by their story and visited links")
+    void testIdentify() {
+      LinkRegister links = new LinkRegister();
+      links.addLink(new Link("Open the door", "Hall"));
+      links.addLink(new Link("Go back", "Beginnings"));
+      LinkRegister otherLinks = new LinkRegister();
+      otherLinks.addLink(new Link("Open the door", "Hall"));
+      otherLinks.addLink(new Link("Climb the stairs", "Tower"));
+
+      assertEquals(GameSnapshot.identify("Story", links, 2),
+          GameSnapshot.identify("Story", links, 2));
+      assertEquals(GameSnapshot.identify("Story", links, 1),
+          GameSnapshot.identify("Story", otherLinks, 1));
+      assertNotEquals(GameSnapshot.identify("Story", links, 2),
+          GameSnapshot.identify("Story", otherLinks, 2));
+      assertNotEquals(GameSnapshot.identify("Story", links, 0),
+          GameSnapshot.identify("Other story", links, 0));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests taking and restoring snapshots with invalid input")
+  class NegativeSnapshot {
+
+    @Test
+    @DisplayName("Test invalid parts throw Illegal Argument Exception")
+    void testInvalidParts() {
+      List<String> withBlankItem = new ArrayList<>(List.of(" "));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot(null, 1, 1, 1, List.of(), 0, 0L));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot(" ", 1, 1, 1, List.of(), 0, 0L));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot("title", -1, 1, 1, List.of(), 0, 0L));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot("title", 1, 1, 1, null, 0, 0L));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot("title", 1, 1, 1, withBlankItem, 0, 0L));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameSnapshot("title", 1, 1, 1, List.of(), -1, 0L));
+    }
+
+    @Test
+    @DisplayName("Test a null player throws Illegal Argument Exception")
+    void testNullPlayer() {
+      GameSnapshot snapshot = GameSnapshot.of(player, "Beginnings", 0, 0L);
+      assertThrows(IllegalArgumentException.class,
+          () -> GameSnapshot.of(null, "Beginnings", 0, 0L));
+      assertThrows(IllegalArgumentException.class, () -> snapshot.restore(null));
+    }
+
+    @Test
+    @DisplayName("Test identifying a play through with invalid input throws Illegal Argument "
+        + "Exception")
+    void testInvalidIdentify() {
+      LinkRegister links = new LinkRegister();
+      links.addLink(new Link("Open the door", "Hall"));
+      assertThrows(IllegalArgumentException.class, () -> GameSnapshot.identify(null, links, 0));
+      assertThrows(IllegalArgumentException.class, () -> GameSnapshot.identify("Story", null, 0));
+      assertThrows(IllegalArgumentException.class, () -> GameSnapshot.identify("Story", links, -1));
+      assertThrows(IllegalArgumentException.class, () -> GameSnapshot.identify("Story", links, 2));
+    }
+  }
+}
@@ -158,6 +158,20 @@ public class GameTest {
 
       assertEquals(2, game.getVisitedLinks().getLinks().size());
     }
+
+    @Test
+    @DisplayName("Test Go tells the link visited listener about each visited link")
+    void testGoTellsLinkVisitedListener() throws NoMatchingPassageException {
+      List<Link> visited = new ArrayList<>();
+      game.setLinkVisitedListener(visited::add);
+
+      game.go(link);
+      assertThrows(IllegalArgumentException.class, () -> game.go(null));
+      game.setLinkVisitedListener(null);
+      game.go(link);
+
+      assertEquals(List.of(link), visited);
+    }
   }
 
   @Nested
@@ -192,6 +206,107 @@ public class GameTest {
       assertEquals(2, game.getAccessibleLinks(passage, player).size());
     }
   }
+  @Nested
+  class GameOnCompiledStory {
+    Passage passage1;
+    Link link1, brokenLink;
+
+    @BeforeEach
+    void setUp() {
+      passage1 = new Passage("title1", "content1");
+      link1 = new Link(passage1.getTitle(), passage1.getTitle());
+      brokenLink = new Link("testText", "testReference");
+      passage.addLink(link1);
+      passage.addLink(brokenLink);
+      story.addPassage(passage1);
+
+      game = Game.fromCompiledStory(player, story.compile(), goals, links);
+    }
+
+    @Test
+    @DisplayName("Test fromCompiledStory throws Illegal Argument Exception if compiled story is null")
+    void testFromCompiledStoryThrowsIllegalArgumentExceptionIfCompiledStoryIsNull() {
+      assertThrows(IllegalArgumentException.class,
+          () -> Game.fromCompiledStory(player, null, goals, links));
+    }
+
+    @Test
+    @DisplayName("Test getStory returns the story that was compiled")
+    void testGetStoryReturnsCompiledStory() {
+      assertEquals(story, game.getStory());
+      assertNotNull(game.getCompiledStory());
+    }
+
+    @Test
+    @DisplayName("Test Go returns correct passage and executes actions")
+    void testGoReturnsCorrectPassage() throws NoMatchingPassageException {
+      link1.addAction(new GoldAction(5));
+
+      assertEquals(passage1, game.go(link1));
+      assertEquals(15, player.getGold());
+      assertEquals(1, game.getVisitedLinks().getLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test Go throws No Matching Link Exception for broken link")
+    void testGoThrowsNoMatchingPassageExceptionForBrokenLink() {
+      assertThrows(NoMatchingPassageException.class, () -> game.go(brokenLink));
+    }
+
+    @Test
+    @DisplayName("Test Go throws Illegal Argument Exception if the goals are not fulfilled")
+    void testGoThrowsIllegalArgumentExceptionIfGoalsAreNotFulfilled() {
+      link1.addGoal(new GoldGoal(20));
+
+      assertThrows(IllegalArgumentException.class, () -> game.go(link1));
+    }
+
+    @Test
+    @DisplayName("Test getAccessibleLinks returns all links if none have goals")
+    void testAccessibleLinksWithoutGoals() {
+      assertEquals(passage.getLinks(), game.getAccessibleLinks(passage, player));
+    }
+
+    @Test
+    @DisplayName("Test getAccessibleLinks filters links with unfulfilled goals")
+    void testAccessibleLinksWithGoals() {
+      link1.addGoal(new GoldGoal(20));
+      game = Game.fromCompiledStory(player, story.compile(), goals, links);
+
+      assertEquals(List.of(brokenLink), game.getAccessibleLinks(passage, player));
+    }
+
+    @Test
+    @DisplayName("Test reloadStory compiles the story and keeps the player and visited links")
+    void testReloadStory() throws NoMatchingPassageException {
+      game.go(link1);
+      Passage newPassage1 = new Passage("title1", "new content1");
+      story.replacePassage(newPassage1);
+
+      assertEquals(newPassage1, game.reloadStory(story, passage1));
+      assertEquals(newPassage1, game.go(link1));
+      assertEquals(2, game.getVisitedLinks().getLinks().size());
+      assertEquals(player, game.getPlayer());
+    }
+
+    @Test
+    @DisplayName("Test reloadStory keeps the current passage if its title was deleted")
+    void testReloadStoryWithDeletedPassage() {
+      Story reloaded = new Story("title", new Passage("title", "content"));
+
+      assertEquals(passage1, game.reloadStory(reloaded, passage1));
+      assertEquals(reloaded, game.getStory());
+      assertEquals(reloaded, game.getCompiledStory().getStory());
+    }
+
+    @Test
+    @DisplayName("Test reloadStory throws Illegal Argument Exception for null input")
+    void testReloadStoryThrowsIllegalArgumentExceptionForNullInput() {
+      assertThrows(IllegalArgumentException.class, () -> game.reloadStory(null, passage));
+      assertThrows(IllegalArgumentException.class, () -> game.reloadStory(story, null));
+    }
+  }
+
   @Nested
   class GameSavedPassages {
     Passage passage1, passage2;
@@ -237,6 +352,235 @@ public class GameTest {
     }
   }
 
+  @Nested
+  class GameRewind {
+    Passage passage1, passage2;
+
+    Link link12, link23;
+
+    @BeforeEach
+    void setUp() {
+      passage1 = new Passage("title1", "content1");
+      passage2 = new Passage("title2", "content2");
+
+      link12 = new Link(passage1.getTitle(), passage1.getTitle());
+      link12.addAction(new GoldAction(5));
+      link12.addAction(new InventoryAction("key"));
+      passage.addLink(link12);
+
+      link23 = new Link(passage2.getTitle(), passage2.getTitle());
+      link23.addAction(new HealthAction(-10));
+      passage1.addLink(link23);
+
+      story.addPassage(passage1);
+      story.addPassage(passage2);
+      game = Game.fromCompiledStory(player, story.compile(), goals, links);
+    }
+
+    @Test
+    @DisplayName("Test rewind restores the player and the visited links one step at a time")
+    void testRewindOneStep() throws NoMatchingPassageException {
+      game.go(link12);
+      game.go(link23);
+      assertEquals(0, player.getHealth());
+      assertEquals(2, game.getRewindableSteps());
+
+      assertEquals(passage1, game.rewind(1));
+      assertEquals(10, player.getHealth());
+      assertEquals(15, player.getGold());
+      assertEquals(List.of("key"), player.getInventory());
+      assertEquals(1, game.getVisitedLinks().size());
+
+      assertEquals(passage, game.rewind(1));
+      assertEquals(10, player.getGold());
+      assertTrue(player.getInventory().isEmpty());
+      assertTrue(game.getVisitedLinks().isEmpty());
+      assertEquals(0, game.getRewindableSteps());
+    }
+
+    @Test
+    @DisplayName("Test rewinding several steps at once gives the same game as one step at a time")
+    void testRewindSeveralSteps() throws NoMatchingPassageException {
+      game.go(link12);
+      game.go(link23);
+
+      assertEquals(passage, game.rewind(2));
+      assertEquals(10, player.getHealth());
+      assertEquals(10, player.getGold());
+      assertTrue(game.getVisitedLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test links visited after rewinding start a new history")
+    void testGoAfterRewind() throws NoMatchingPassageException {
+      for (int i = 0; i < 3; i++) {
+        game.go(link12);
+      }
+      game.rewind(2);
+      game.go(link12);
+      game.go(link23);
+
+      assertEquals(3, game.getRewindableSteps());
+      assertEquals(20, player.getGold());
+      assertEquals(List.of("key", "key"), player.getInventory());
+
+      assertEquals(passage1, game.rewind(1));
+      assertEquals(10, player.getHealth());
+      assertEquals(20, player.getGold());
+    }
+
+    @Test
+    @DisplayName("Test a resumed game cannot be rewound to before the saved passage")
+    void testRewindAfterResume() throws NoMatchingPassageException {
+      game.go(link12);
+      game.getSavedPassage();
+
+      assertEquals(0, game.getRewindableSteps());
+      assertEquals(passage1, game.rewind(0));
+      assertThrows(IllegalArgumentException.class, () -> game.rewind(1));
+    }
+
+    @Test
+    @DisplayName("Test rewinding a negative number of steps throws Illegal Argument Exception")
+    void testRewindNegativeSteps() {
+      assertThrows(IllegalArgumentException.class, () -> game.rewind(-1));
+    }
+  }
+
+  @Nested
+  class GameCheckpoints {
+    Passage passage1, passage2;
+
+    Link link12, link23;
+
+    @BeforeEach
+    void setUp() {
+      passage1 = new Passage("title1", "content1");
+      passage2 = new Passage("title2", "content2");
+
+      link12 = new Link(passage1.getTitle(), passage1.getTitle());
+      link12.addAction(new GoldAction(5));
+      link12.addAction(new InventoryAction("key"));
+      passage.addLink(link12);
+
+      link23 = new Link(passage2.getTitle(), passage2.getTitle());
+      link23.addAction(new ScoreAction(3));
+      passage1.addLink(link23);
+
+      game = new Game(player, story, goals, links);
+
+      story.addPassage(passage1);
+      story.addPassage(passage2);
+    }
+
+    /**
+     * Creates a game of the same story and visited links with a new player, as when a saved game is
+     * read from file.
+     *
+     * @return The game with a new player.
+     */
+    private Game loadGame() {
+      Player newPlayer = new Player.Builder("testName").health(10).score(10).gold(10).build();
+      return new Game(newPlayer, story, goals, links);
+    }
+
+    @Test
+    @DisplayName("Test checkpoint when no links have been visited is at the opening passage")
+    void testCheckpointWithoutLinks() {
+      GameSnapshot snapshot = game.checkpoint();
+
+      assertEquals(passage.getTitle(), snapshot.getPassageTitle());
+      assertEquals(0, snapshot.getVisitedLinkCount());
+      assertEquals(10, snapshot.getGold());
+    }
+
+    @Test
+    @DisplayName("Test resume from a checkpoint gives the same player and passage as a replay")
+    void testResumeFromCheckpoint() throws NoMatchingPassageException {
+      game.go(link12);
+      game.go(link23);
+      GameSnapshot snapshot = game.checkpoint();
+
+      Game resumed = loadGame();
+      assertEquals(passage2, resumed.resume(snapshot));
+      assertEquals(15, resumed.getPlayer().getGold());
+      assertEquals(13, resumed.getPlayer().getScore());
+      assertEquals(List.of("key"), resumed.getPlayer().getInventory());
+
+      Game replayed = loadGame();
+      assertEquals(passage2, replayed.getSavedPassage());
+      assertEquals(resumed.getPlayer().toString(), replayed.getPlayer().toString());
+    }
+
+    @Test
+    @DisplayName("Test resume does not execute the links visited before the checkpoint")
+    void testResumeDoesNotReplay() throws NoMatchingPassageException {
+      game.go(link12);
+      GameSnapshot snapshot = new GameSnapshot(passage1.getTitle(), 1, 2, 99, List.of(), 1,
+          GameSnapshot.identify(game.getStory().getTitle(), game.getVisitedLinks(), 1));
+
+      Game resumed = loadGame();
+      assertEquals(passage1, resumed.resume(snapshot));
+      assertEquals(99, resumed.getPlayer().getGold());
+      assertTrue(resumed.getPlayer().getInventory().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test resume executes the links visited after the checkpoint")
+    void testResumeReplaysLaterLinks() throws NoMatchingPassageException {
+      game.go(link12);
+      GameSnapshot snapshot = game.checkpoint();
+      game.go(link23);
+
+      Game resumed = loadGame();
+      assertEquals(passage2, resumed.resume(snapshot));
+      assertEquals(15, resumed.getPlayer().getGold());
+      assertEquals(13, resumed.getPlayer().getScore());
+    }
+
+    @Test
+    @DisplayName("Test resume replays every link if the snapshot does not belong to the links")
+    void testResumeWithForeignSnapshot() throws NoMatchingPassageException {
+      game.go(link12);
+      long playThroughId =
+          GameSnapshot.identify(game.getStory().getTitle(), game.getVisitedLinks(), 1);
+      GameSnapshot ahead = new GameSnapshot(passage2.getTitle(), 1, 2, 99, List.of(), 2,
+          playThroughId);
+      GameSnapshot otherPassage = new GameSnapshot(passage2.getTitle(), 1, 2, 99, List.of(), 1,
+          playThroughId);
+      GameSnapshot otherPlayThrough = new GameSnapshot(passage1.getTitle(), 1, 2, 99, List.of(),
+          1, playThroughId + 1);
+
+      Game resumed = loadGame();
+      assertEquals(passage1, resumed.resume(ahead));
+      assertEquals(15, resumed.getPlayer().getGold());
+
+      resumed = loadGame();
+      assertEquals(passage1, resumed.resume(otherPassage));
+      assertEquals(15, resumed.getPlayer().getGold());
+
+      resumed = loadGame();
+      assertEquals(passage1, resumed.resume(otherPlayThrough));
+      assertEquals(15, resumed.getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Test resume at a passage that is no longer in the story gives the opening passage")
+    void testResumeAtDeletedPassage() throws NoMatchingPassageException {
+      game.go(link12);
+      GameSnapshot snapshot = game.checkpoint();
+      story.deletePassage(passage1.getTitle());
+
+      assertEquals(passage, loadGame().resume(snapshot));
+    }
+
+    @Test
+    @DisplayName("Test resume throws Illegal Argument Exception if the snapshot is null")
+    void testResumeWithNull() {
+      assertThrows(IllegalArgumentException.class, () -> game.resume(null));
+    }
+  }
+
   @Test
   @DisplayName("Test isNewPlayThrough")
   void testIsNewPlayThrough() {
@@ -107,4 +107,64 @@ public class LinkRegisterTest {
       assertFalse(register.contains(new Link("t", "r")));
     }
   }
+
+  @Nested
+  @DisplayName("Test getLink and size")
+  class GetLinkAndSize {
+
+    LinkRegister register;
+
+    Link link1 = new Link("text1", "reference1");
+    Link link2 = new Link("text2", "reference2");
+
+    @BeforeEach
+    void setUp() {
+      register = new LinkRegister();
+      register.addLink(link1);
+      register.addLink(link2);
+      register.addLink(link1);
+    }
+
+    @Test
+    @DisplayName("Test getLink returns the links in the order they were added")
+    void testGetLink() {
+      assertEquals(3, register.size());
+      assertEquals("reference1", register.getLink(0).getReference());
+      assertEquals("reference2", register.getLink(1).getReference());
+      assertEquals("reference1", register.getLink(2).getReference());
+    }
+
+    @Test
+    @DisplayName("Test getLink outside the register throws Illegal Argument Exception")
+    void testGetLinkOutsideRegister() {
+      assertThrows(IllegalArgumentException.class, () -> register.getLink(-1));
+      assertThrows(IllegalArgumentException.class, () -> register.getLink(3));
+    }
+
+    @Test
+    @DisplayName("Test size of an empty register is zero")
+    void testSizeOfEmptyRegister() {
+      assertEquals(0, new LinkRegister().size());
+    }
+
+    @Test
+    @DisplayName("Test removeLastLinks removes the links that were added last")
+    void testRemoveLastLinks() {
+      register.removeLastLinks(2);
+
+      assertEquals(1, register.size());
+      assertEquals("reference1", register.getLink(0).getReference());
+
+      register.removeLastLinks(0);
+      assertEquals(1, register.size());
+    }
+
+    @Test
+    @DisplayName("Test removeLastLinks with a negative count or more links than the register has")
+    void testRemoveLastLinksOutsideRegister() {
+      assertThrows(IllegalArgumentException.class, () -> register.removeLastLinks(-1));
+      assertThrows(IllegalArgumentException.class, () -> register.removeLastLinks(4));
+      assertEquals(3, register.size());
+    }
+  }
 }
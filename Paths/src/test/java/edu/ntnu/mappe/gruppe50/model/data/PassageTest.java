@@ -5,7 +5,9 @@ import edu.ntnu.mappe.gruppe50.model.data.Passage;
 import org.junit.jupiter.api.*;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +26,45 @@ class PassageTest {
       assertEquals("testContent", passage.getContent());
     }
 
+    @Test
+    @DisplayName("Test withContentSource asks the source for the content")
+    void testWithContentSource() {
+      int[] calls = new int[1];
+      passage = Passage.withContentSource("testTitle", () -> {
+        calls[0]++;
+        return "testContent";
+      });
+      assertEquals(0, calls[0]);
+      assertEquals("testContent", passage.getContent());
+      assertEquals(new Passage("testTitle", "testContent"), passage);
+      assertEquals(2, calls[0]);
+    }
+
+    @Test
+    @DisplayName("Test hashing and comparing passages with the same source does not load content")
+    void testContentSourceIsNotLoadedByHashCodeOrEquals() {
+      int[] calls = new int[1];
+      Supplier<String> source = () -> {
+        calls[0]++;
+        return "testContent";
+      };
+      Passage lazy = Passage.withContentSource("testTitle", source);
+      Passage sameSource = Passage.withContentSource("testTitle", source);
+
+      assertEquals(lazy.hashCode(), sameSource.hashCode());
+      assertEquals(lazy, sameSource);
+      assertTrue(new HashSet<>(List.of(lazy)).contains(sameSource));
+      assertEquals(new Passage("testTitle", "testContent").hashCode(), lazy.hashCode());
+      assertEquals(0, calls[0]);
+    }
+
+    @Test
+    @DisplayName("Test withContentSource throws Illegal Argument Exception if source is null")
+    void testWithContentSourceThrowsIfSourceIsNull() {
+      assertThrows(IllegalArgumentException.class,
+          () -> passage = Passage.withContentSource("testTitle", null));
+    }
+
     @Test
     @DisplayName("Test constructor throws Illegal Argument Exception if title is null")
     void testConstructorThrowsIllegalArgumentExceptionIfTitleIsNull() {
@@ -0,0 +1,81 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class PersistentInventoryTest {
+
+  @Nested
+  @DisplayName("Tests the persistent inventory with valid input")
+  class PositiveInventory {
+
+    @Test
+    @DisplayName("Test items are kept in the order they were added")
+    void testAdd() {
+      PersistentInventory inventory = PersistentInventory.empty().add("sword").add("key");
+
+      assertEquals(List.of("sword", "key"), inventory.toList());
+      assertEquals(2, inventory.size());
+      assertTrue(inventory.contains("key"));
+      assertFalse(inventory.contains("shield"));
+      assertEquals("[sword, key]", inventory.toString());
+    }
+
+    @Test
+    @DisplayName("Test adding and removing items does not change the inventory it was made from")
+    void testImmutable() {
+      PersistentInventory before = PersistentInventory.of(List.of("sword", "key"));
+      PersistentInventory added = before.add("shield");
+      PersistentInventory removed = before.remove("sword");
+
+      assertEquals(List.of("sword", "key"), before.toList());
+      assertEquals(List.of("sword", "key", "shield"), added.toList());
+      assertEquals(List.of("key"), removed.toList());
+    }
+
+    @Test
+    @DisplayName("Test remove removes the first occurrence of an item")
+    void testRemoveFirstOccurrence() {
+      PersistentInventory inventory = PersistentInventory.of(List.of("key", "sword", "key", "coin"));
+
+      assertEquals(List.of("sword", "key", "coin"), inventory.remove("key").toList());
+      assertEquals(List.of("key", "sword", "key"), inventory.remove("coin").toList());
+      assertSame(inventory, inventory.remove("shield"));
+    }
+
+    @Test
+    @DisplayName("Test inventories are equal if they have the same items in the same order")
+    void testEquals() {
+      PersistentInventory inventory = PersistentInventory.of(List.of("sword", "key"));
+      PersistentInventory same = PersistentInventory.empty().add("sword").add("key");
+
+      assertEquals(inventory, same);
+      assertEquals(inventory.hashCode(), same.hashCode());
+      assertEquals(inventory, inventory.add("coin").remove("coin"));
+      assertNotEquals(inventory, PersistentInventory.of(List.of("key", "sword")));
+      assertTrue(PersistentInventory.empty().isEmpty());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests the persistent inventory with invalid input")
+  class NegativeInventory {
+
+    @Test
+    @DisplayName("Test adding a null or blank item throws exception")
+    void testAddInvalidItem() {
+      assertThrows(IllegalArgumentException.class, () -> PersistentInventory.empty().add(null));
+      assertThrows(IllegalArgumentException.class, () -> PersistentInventory.empty().add(" "));
+      assertThrows(IllegalArgumentException.class, () -> PersistentInventory.of(null));
+    }
+  }
+}
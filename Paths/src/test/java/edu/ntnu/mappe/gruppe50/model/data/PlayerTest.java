@@ -1,11 +1,13 @@
 package edu.ntnu.mappe.gruppe50.model.data;
 
 import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.PlayerState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -262,6 +264,53 @@ public class PlayerTest {
     }
   }
 
+  @Nested
+  class PlayerStates {
+
+    Player player;
+
+    @BeforeEach
+    void setUp() {
+      player = new Player.Builder("testName")
+        .health(20)
+        .score(10)
+        .gold(10)
+        .build();
+      player.addToInventory("sword");
+    }
+
+    @Test
+    @DisplayName("Test restoring a state undoes the changes made after it was taken")
+    void testRestoreState() {
+      PlayerState state = player.getState();
+      player.removeHealth(5);
+      player.addGold(5);
+      player.addScore(5);
+      player.addToInventory("shield");
+      player.removeFromInventory("sword");
+
+      player.restoreState(state);
+
+      assertEquals(20, player.getHealth());
+      assertEquals(10, player.getScore());
+      assertEquals(10, player.getGold());
+      assertEquals(List.of("sword"), player.getInventory());
+    }
+
+    @Test
+    @DisplayName("Test a state shares the inventory of the player")
+    void testStateSharesInventory() {
+      assertSame(player.getState().getInventory(), player.getState().getInventory());
+      assertEquals(player.getState(), player.getState());
+    }
+
+    @Test
+    @DisplayName("Test restoring a null state throws Illegal Argument Exception")
+    void testRestoreNullState() {
+      assertThrows(IllegalArgumentException.class, () -> player.restoreState(null));
+    }
+  }
+
   @Nested
   class PlayerRemovers {
 
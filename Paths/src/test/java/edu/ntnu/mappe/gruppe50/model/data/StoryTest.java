@@ -3,6 +3,7 @@ package edu.ntnu.mappe.gruppe50.model.data;
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
 import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -216,6 +217,255 @@ public class StoryTest {
         List<Link> linkList = story.getBrokenLinks();
         assertEquals(link, linkList.get(0));
       }
+
+    @Test
+    @DisplayName("Test adding the referenced passage resolves the broken link")
+    void testAddPassageResolvesBrokenLink() {
+      Link link = new Link("testLink", "testReference");
+      passage1.addLink(link);
+      assertTrue(story.isBroken(link));
+
+      story.addPassage(new Passage("testReference", "testContent"));
+      assertFalse(story.isBroken(link));
+      assertEquals(0, story.getBrokenLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test removing a broken link from a passage removes it from getBrokenLinks")
+    void testRemoveLinkRemovesBrokenLink() {
+      Link link = new Link("testLink", "testReference");
+      passage1.addLink(link);
+      passage1.removeLink(link);
+      assertEquals(0, story.getBrokenLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test broken links of a passage are included when it is added to the story")
+    void testAddPassageWithBrokenLinks() {
+      Passage passage2 = new Passage("title2", "content2");
+      Link link = new Link("testLink", "testReference");
+      passage2.addLink(link);
+      passage2.addLink(new Link("backLink", "testTitle"));
+
+      story.addPassage(passage2);
+      assertEquals(List.of(link), story.getBrokenLinks());
+    }
+
+    @Test
+    @DisplayName("Test broken links of a removed passage are no longer reported")
+    void testRemovePassageRemovesItsBrokenLinks() {
+      passage1.addLink(new Link("testLink", "testReference"));
+      story.removePassage(new Link("testTitle", "testTitle"));
+      assertEquals(0, story.getBrokenLinks().size());
+
+      passage1.addLink(new Link("otherLink", "otherReference"));
+      assertEquals(0, story.getBrokenLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test isBroken throws Illegal Argument Exception if link is null")
+    void testIsBrokenWithNullLink() {
+      assertThrows(IllegalArgumentException.class, () -> story.isBroken(null));
+    }
+  }
+  @Nested
+  @DisplayName("Test the inbound link index")
+  class InboundLinks {
+
+    Story story;
+    Passage openingPassage, passage1, passage2;
+    Link toPassage1;
+
+    @BeforeEach
+    void setUp() {
+      openingPassage = new Passage("openingTitle", "openingContent");
+      passage1 = new Passage("title1", "content1");
+      passage2 = new Passage("title2", "content2");
+      toPassage1 = new Link("title1", "title1");
+      openingPassage.addLink(new Link("Go to 1", "title1"));
+      openingPassage.addLink(new Link("Also go to 1", "title1"));
+      passage2.addLink(new Link("Back to 1", "title1"));
+      story = new Story("grandTitle", openingPassage);
+      story.addPassage(passage1);
+      story.addPassage(passage2);
+    }
+
+    @Test
+    @DisplayName("Test getInDegree counts every link referencing the passage")
+    void testGetInDegree() {
+      assertEquals(3, story.getInDegree(toPassage1));
+      assertEquals(0, story.getInDegree(new Link("title2", "title2")));
+    }
+
+    @Test
+    @DisplayName("Test getInboundPassages returns each linking passage once")
+    void testGetInboundPassages() {
+      assertEquals(List.of(openingPassage, passage2), story.getInboundPassages(toPassage1));
+      assertTrue(story.getInboundPassages(new Link("title2", "title2")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test the index is updated when links are added and removed")
+    void testIndexFollowsLinkChanges() {
+      Link link = new Link("Go to 2", "title2");
+      passage1.addLink(link);
+      assertEquals(1, story.getInDegree(link));
+      assertFalse(story.canRemovePassage(link));
+
+      passage1.removeLink(link);
+      assertEquals(0, story.getInDegree(link));
+      assertTrue(story.canRemovePassage(link));
+    }
+
+    @Test
+    @DisplayName("Test removing a passage removes its links from the index")
+    void testRemovePassageUpdatesIndex() {
+      story.removePassage(new Link("title2", "title2"));
+      assertEquals(2, story.getInDegree(toPassage1));
+      assertEquals(List.of(openingPassage), story.getInboundPassages(toPassage1));
+    }
+
+    @Test
+    @DisplayName("Test canRemovePassage is false for linked and non-existent passages")
+    void testCanRemovePassage() {
+      assertFalse(story.canRemovePassage(toPassage1));
+      assertFalse(story.canRemovePassage(new Link("nowhere", "nowhere")));
+      assertThrows(IllegalArgumentException.class, () -> story.canRemovePassage(null));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test replacing and deleting passages")
+  class ReplaceAndDeletePassages {
+
+    Story story;
+    Passage openingPassage, passage1, passage2;
+
+    @BeforeEach
+    void setUp() {
+      openingPassage = new Passage("openingTitle", "openingContent");
+      passage1 = new Passage("title1", "content1");
+      passage2 = new Passage("title2", "content2");
+      openingPassage.addLink(new Link("Go to 1", "title1"));
+      passage1.addLink(new Link("Go to 2", "title2"));
+      passage2.addLink(new Link("Go to 3", "title3"));
+      story = new Story("grandTitle", openingPassage);
+      story.addPassage(passage1);
+      story.addPassage(passage2);
+    }
+
+    @Test
+    @DisplayName("Test replacePassage keeps the order and updates the indexes")
+    void testReplacePassage() {
+      Passage newPassage1 = new Passage("title1", "new content1");
+      newPassage1.addLink(new Link("Go to 4", "title4"));
+
+      assertEquals(passage1, story.replacePassage(newPassage1));
+      assertEquals(List.of(openingPassage, newPassage1, passage2),
+          new ArrayList<>(story.getPassages()));
+      assertEquals(0, story.getInDegree(new Link("title2", "title2")));
+      assertEquals(2, story.getBrokenLinks().size());
+      assertEquals(newPassage1, story.getPassage(new Link("title1", "title1")));
+    }
+
+    @Test
+    @DisplayName("Test the replaced passage no longer updates the story")
+    void testReplacedPassageIsDetached() {
+      story.replacePassage(new Passage("title1", "new content1"));
+      passage1.addLink(new Link("Go nowhere", "nowhere"));
+
+      assertEquals(1, story.getBrokenLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test replacing the opening passage changes the opening passage")
+    void testReplaceOpeningPassage() {
+      Passage newOpening = new Passage("openingTitle", "new openingContent");
+
+      story.replacePassage(newOpening);
+
+      assertEquals(newOpening, story.getOpeningPassage());
+      assertEquals(newOpening, story.getPassages().iterator().next());
+      assertEquals(0, story.getInDegree(new Link("title1", "title1")));
+    }
+
+    @Test
+    @DisplayName("Test replacePassage throws exception for null or a new title")
+    void testReplacePassageThrows() {
+      assertThrows(IllegalArgumentException.class, () -> story.replacePassage(null));
+      assertThrows(IllegalArgumentException.class,
+          () -> story.replacePassage(new Passage("title3", "content3")));
+    }
+
+    @Test
+    @DisplayName("Test deletePassage deletes a linked passage and breaks its inbound links")
+    void testDeletePassage() {
+      assertEquals(passage2, story.deletePassage("title2"));
+
+      assertEquals(List.of(openingPassage, passage1), new ArrayList<>(story.getPassages()));
+      assertTrue(story.isBroken(new Link("Go to 2", "title2")));
+      assertEquals(List.of(passage1.getLinks().get(0)), story.getBrokenLinks());
+    }
+
+    @Test
+    @DisplayName("Test a deleted passage can be added again")
+    void testDeleteAndAddPassage() {
+      story.deletePassage("title2");
+      story.addPassage(new Passage("title2", "content2"));
+
+      assertTrue(story.getBrokenLinks().isEmpty());
+      assertEquals(1, story.getInDegree(new Link("title2", "title2")));
+    }
+
+    @Test
+    @DisplayName("Test deletePassage throws exception for the opening passage or a missing title")
+    void testDeletePassageThrows() {
+      assertThrows(IllegalArgumentException.class, () -> story.deletePassage(null));
+      assertThrows(IllegalArgumentException.class, () -> story.deletePassage("openingTitle"));
+      assertThrows(IllegalArgumentException.class, () -> story.deletePassage("title3"));
     }
   }
 
+  @Nested
+  @DisplayName("Test interning of titles and references")
+  class Symbols {
+
+    @Test
+    @DisplayName("Test passages and links created from interned strings share them with the story")
+    void testReferencesShareTitle() {
+      SymbolTable symbols = new SymbolTable();
+      Passage opening = new Passage(symbols.intern(new String("title")), "content");
+      Passage other = new Passage(symbols.intern(new String("other")), "content");
+      Link link = new Link(symbols.intern(new String("Go")), symbols.intern(new String("other")));
+      opening.addLink(link);
+      Story story = new Story("story", opening, symbols);
+      story.addPassage(other);
+
+      assertSame(other.getTitle(), link.getReference());
+      assertEquals(3, story.getSymbols().size());
+    }
+
+    @Test
+    @DisplayName("Test the titles and references that key the story are interned")
+    void testKeysAreInterned() {
+      Passage opening = new Passage(new String("title"), "content");
+      Story story = new Story("story", opening);
+      Link first = new Link(new String("Go"), new String("other"));
+      Link second = new Link(new String("Go"), new String("other"));
+      opening.addLink(first);
+      opening.addLink(second);
+
+      assertEquals(2, story.getSymbols().size());
+      assertSame(first.getReference(), story.getSymbols().intern("other"));
+      assertSame(opening.getTitle(), story.getSymbols().intern("title"));
+      assertEquals(SymbolTable.NO_SYMBOL, story.getSymbols().getId("Go"));
+    }
+
+    @Test
+    @DisplayName("Test constructor throws Illegal Argument Exception if symbol table is null")
+    void testConstructorWithNullSymbols() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new Story("story", new Passage("title", "content"), null));
+    }
+  }
+}
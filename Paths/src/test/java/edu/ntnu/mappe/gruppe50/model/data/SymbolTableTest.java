@@ -0,0 +1,104 @@
+package edu.ntnu.mappe.gruppe50.model.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SymbolTableTest {
+
+  SymbolTable symbols;
+
+  @BeforeEach
+  void setUp() {
+    symbols = new SymbolTable();
+  }
+
+  @Nested
+  @DisplayName("Test interning symbols")
+  class Intern {
+
+    @Test
+    @DisplayName("Test equal strings are interned as the same instance")
+    void testEqualStringsGiveSameInstance() {
+      String first = symbols.intern(new String("title"));
+      String second = symbols.intern(new String("title"));
+
+      assertSame(first, second);
+      assertEquals(1, symbols.size());
+    }
+
+    @Test
+    @DisplayName("Test symbols are given ids in the order they were interned")
+    void testIdsFollowOrder() {
+      symbols.intern("first");
+      symbols.intern("second");
+      symbols.intern("first");
+
+      assertEquals(0, symbols.getId("first"));
+      assertEquals(1, symbols.getId("second"));
+      assertEquals("second", symbols.getSymbol(1));
+      assertEquals(SymbolTable.NO_SYMBOL, symbols.getId("third"));
+    }
+
+    @Test
+    @DisplayName("Test the table keeps every symbol when it grows")
+    void testGrowKeepsSymbols() {
+      for (int i = 0; i < 1000; i++) {
+        symbols.intern("title" + i);
+      }
+
+      assertEquals(1000, symbols.size());
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i, symbols.getId("title" + i));
+      }
+    }
+
+    @Test
+    @DisplayName("Test a part of a string is interned as the stored instance of an equal symbol")
+    void testInternPartGivesStoredInstance() {
+      String stored = symbols.intern("title");
+
+      assertSame(stored, symbols.intern("[text](title)", 7, 12));
+      assertEquals(1, symbols.size());
+    }
+
+    @Test
+    @DisplayName("Test a new part of a string is added as its own symbol")
+    void testInternNewPart() {
+      String part = symbols.intern("::title", 2, 7);
+
+      assertEquals("title", part);
+      assertEquals(0, symbols.getId("title"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test invalid arguments")
+  class Arguments {
+
+    @Test
+    @DisplayName("Test intern throws Illegal Argument Exception if symbol is null")
+    void testInternNull() {
+      assertThrows(IllegalArgumentException.class, () -> symbols.intern(null));
+    }
+
+    @Test
+    @DisplayName("Test intern throws Illegal Argument Exception if the part is outside the string")
+    void testInternPartOutOfBounds() {
+      assertThrows(IllegalArgumentException.class, () -> symbols.intern("title", 2, 6));
+      assertThrows(IllegalArgumentException.class, () -> symbols.intern("title", 3, 2));
+    }
+
+    @Test
+    @DisplayName("Test getSymbol throws Illegal Argument Exception if id does not exist")
+    void testGetSymbolWithInvalidId() {
+      symbols.intern("title");
+
+      assertThrows(IllegalArgumentException.class, () -> symbols.getSymbol(1));
+      assertThrows(IllegalArgumentException.class, () -> symbols.getSymbol(-1));
+    }
+  }
+}
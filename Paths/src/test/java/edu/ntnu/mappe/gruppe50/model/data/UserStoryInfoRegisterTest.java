@@ -134,4 +134,36 @@ public class UserStoryInfoRegisterTest {
 
     }
   }
-}
\ No newline at end of file
+
+  @Nested
+  class testReplaceUserStoryInfo {
+    UserStoryInfoRegister userStoryInfoRegister;
+
+    @BeforeEach
+    void setUp() {
+      userStoryInfoRegister = new UserStoryInfoRegister();
+      userStoryInfoRegister.addUserStoryInfo(new UserStoryInfo("testFileName1", "testFilePath1", 5));
+      userStoryInfoRegister.addUserStoryInfo(new UserStoryInfo("testFileName2", "testFilePath2", 10));
+    }
+
+    @Test
+    void testReplaceUserStoryInfoKeepsItsPlace() {
+      UserStoryInfo refreshed = new UserStoryInfo("testFileName2", "testFilePath2", 3);
+
+      assertEquals(1, userStoryInfoRegister.replaceUserStoryInfo(refreshed));
+      assertEquals(2, userStoryInfoRegister.getUserStoryInfos().size());
+      assertEquals(3, userStoryInfoRegister.getUserStoryInfos().get(1).getNumBrokenLinks());
+    }
+
+    @Test
+    void testReplaceUserStoryInfoWhenUserStoryInfoIsNull() {
+      assertThrows(IllegalArgumentException.class, () -> userStoryInfoRegister.replaceUserStoryInfo(null));
+    }
+
+    @Test
+    void testReplaceUserStoryInfoWhenUserStoryInfoIsNotInUserStoryInfos() {
+      UserStoryInfo userStoryInfo = new UserStoryInfo("testFileName3", "testFilePath3", 10);
+      assertThrows(IllegalArgumentException.class, () -> userStoryInfoRegister.replaceUserStoryInfo(userStoryInfo));
+    }
+  }
+}
@@ -102,4 +102,12 @@ public class GoldActionTest {
     int actualHashCode = goldAction.hashCode();
     assertEquals(expectedHashCode, actualHashCode);
   }
+
+  @Test
+  @DisplayName("Test getType and getValue")
+  void testGetTypeAndGetValue() {
+    GoldAction goldAction = new GoldAction(10);
+    assertEquals(ActionType.GOLD, goldAction.getType());
+    assertEquals(10, goldAction.getValue());
+  }
 }
@@ -100,4 +100,12 @@ public class HealthActionTest {
     int actualHashCode = healthAction.hashCode();
     assertEquals(expectedHashCode, actualHashCode);
   }
+
+  @Test
+  @DisplayName("Test getType and getValue")
+  void testGetTypeAndGetValue() {
+    HealthAction healthAction = new HealthAction(10);
+    assertEquals(ActionType.HEALTH, healthAction.getType());
+    assertEquals(10, healthAction.getValue());
+  }
 }
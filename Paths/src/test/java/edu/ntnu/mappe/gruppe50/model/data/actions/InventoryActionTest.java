@@ -113,4 +113,12 @@ public class InventoryActionTest {
     int actualHashCode = inventoryAction.hashCode();
     assertEquals(expectedHashCode, actualHashCode);
   }
+
+  @Test
+  @DisplayName("Test getType and getValue")
+  void testGetTypeAndGetValue() {
+    InventoryAction inventoryAction = new InventoryAction("Sword");
+    assertEquals(ActionType.INVENTORY, inventoryAction.getType());
+    assertEquals("Sword", inventoryAction.getValue());
+  }
 }
@@ -103,4 +103,12 @@ public class ScoreActionTest {
     int actualHashCode = scoreAction.hashCode();
     assertEquals(expectedHashCode, actualHashCode);
   }
+
+  @Test
+  @DisplayName("Test getType and getValue")
+  void testGetTypeAndGetValue() {
+    ScoreAction scoreAction = new ScoreAction(10);
+    assertEquals(ActionType.SCORE, scoreAction.getType());
+    assertEquals(10, scoreAction.getValue());
+  }
 }
@@ -0,0 +1,170 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexTest {
+
+  private SearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new SearchIndex();
+    index.addStory(new IndexedStory.Builder("house.paths", 10, 20)
+        .storyTitle("Haunted House")
+        .passage("Beginnings", "You are in a small, dimly lit room. There is a door.")
+        .passage("Another room", "The door opens to another room with a dusty book.")
+        .passage("The book of spells", "The book is old. A dusty old book.")
+        .build());
+    index.addStory(new IndexedStory.Builder("castle.paths", 30, 40)
+        .storyTitle("Deadly Castle")
+        .passage("Gate", "A dusty gate. The book is not here.")
+        .build());
+  }
+
+  /**
+   * Gets the passage titles of hits.
+   *
+   * @param hits The hits.
+   * @return The passage titles, in the order of the hits.
+   */
+  private static List<String> passageTitles(List<SearchHit> hits) {
+    return hits.stream().map(SearchHit::getPassageTitle).toList();
+  }
+
+  @Nested
+  @DisplayName("Tests searching the index")
+  class PositiveSearch {
+
+    @Test
+    @DisplayName("Test a term is found in every story, best matches first")
+    void testTerm() {
+      List<SearchHit> hits = index.search("book", 10);
+
+      assertEquals(List.of("The book of spells", "Another room", "Gate"), passageTitles(hits));
+      assertEquals(3 + 2, hits.get(0).getScore());
+      assertEquals("house.paths", hits.get(0).getFilePath());
+      assertEquals("Haunted House", hits.get(0).getStoryTitle());
+      assertEquals("Deadly Castle", hits.get(2).getStoryTitle());
+    }
+
+    @Test
+    @DisplayName("Test a phrase only matches terms that follow each other")
+    void testPhrase() {
+      assertEquals(List.of("Another room"), passageTitles(index.search("\"dusty book\"", 10)));
+      assertEquals(List.of("The book of spells"),
+          passageTitles(index.search("\"dusty old book\"", 10)));
+      assertEquals(List.of("Beginnings"), passageTitles(index.search("\"dimly lit room\"", 10)));
+      assertTrue(index.search("\"room dimly\"", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a phrase is found wherever its rarest term is")
+    void testPhraseWithRareTerm() {
+      assertEquals(List.of("Another room"), passageTitles(index.search("\"the door opens\"", 10)));
+      assertEquals(List.of("Beginnings"), passageTitles(index.search("\"you are in\"", 10)));
+      assertEquals(List.of("Gate"), passageTitles(index.search("\"a dusty gate\"", 10)));
+      assertTrue(index.search("\"lit door\"", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a phrase does not span the title and the content")
+    void testPhraseAcrossTitleAndContent() {
+      assertTrue(index.search("\"beginnings you\"", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test every phrase of a query must match")
+    void testSeveralPhrases() {
+      assertEquals(List.of("Gate"), passageTitles(index.search("dusty gate", 10)));
+      assertTrue(index.search("dusty missing", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test searching is not case-sensitive")
+    void testCase() {
+      assertEquals(index.search("book", 10).size(), index.search("BOOK", 10).size());
+    }
+
+    @Test
+    @DisplayName("Test the number of hits is limited")
+    void testLimit() {
+      assertEquals(2, index.search("book", 2).size());
+      assertTrue(index.search("book", 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a replaced or removed story is no longer found")
+    void testReplaceAndRemove() {
+      index.addStory(new IndexedStory.Builder("castle.paths", 31, 41)
+          .storyTitle("Deadly Castle")
+          .passage("Gate", "A closed gate.")
+          .build());
+      assertEquals(List.of("The book of spells", "Another room"),
+          passageTitles(index.search("book", 10)));
+      assertEquals(2, index.getStoryCount());
+
+      assertTrue(index.removeStory("house.paths"));
+      assertFalse(index.removeStory("house.paths"));
+      assertTrue(index.search("book", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a story is up to date only with the same size and last modified time")
+    void testIsUpToDate() {
+      assertTrue(index.isUpToDate("house.paths", 10, 20));
+      assertFalse(index.isUpToDate("house.paths", 10, 21));
+      assertFalse(index.isUpToDate("missing.paths", 10, 20));
+      assertNull(index.getStory("missing.paths"));
+    }
+
+    @Test
+    @DisplayName("Test the snippet is the start of the content")
+    void testSnippet() {
+      String content = "x".repeat(IndexedStory.SNIPPET_LENGTH + 10);
+      index.addStory(new IndexedStory.Builder("long.paths", 0, 0)
+          .storyTitle("Long")
+          .passage("Long passage", content)
+          .build());
+
+      SearchHit hit = index.search("\"long passage\"", 1).get(0);
+      assertEquals(IndexedStory.SNIPPET_LENGTH, hit.getSnippet().length());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests searching the index with invalid input")
+  class NegativeSearch {
+
+    @Test
+    @DisplayName("Test null input and a negative limit throw exception")
+    void testInvalidInput() {
+      assertThrows(IllegalArgumentException.class, () -> index.search((String) null, 10));
+      assertThrows(IllegalArgumentException.class, () -> index.search((SearchQuery) null, 10));
+      assertThrows(IllegalArgumentException.class, () -> index.search("book", -1));
+      assertThrows(IllegalArgumentException.class, () -> index.addStory(null));
+      assertThrows(IllegalArgumentException.class, () -> index.removeStory(null));
+    }
+
+    @Test
+    @DisplayName("Test an indexed story with invalid parts throws exception")
+    void testInvalidIndexedStory() {
+      assertThrows(IllegalArgumentException.class, () -> new IndexedStory("a.paths", "A", 0, 0,
+          List.of("Title"), List.of(), Map.of()));
+      assertThrows(IllegalArgumentException.class, () -> new IndexedStory("a.paths", "A", 0, 0,
+          List.of("Title"), List.of("Snippet"), Map.of("term", new long[] {1L << 32})));
+      assertThrows(IllegalArgumentException.class,
+          () -> new IndexedStory.Builder("a.paths", 0, 0).passage(null, "content"));
+    }
+  }
+}
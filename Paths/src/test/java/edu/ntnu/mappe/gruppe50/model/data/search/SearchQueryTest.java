@@ -0,0 +1,64 @@
+package edu.ntnu.mappe.gruppe50.model.data.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SearchQueryTest {
+
+  @Nested
+  @DisplayName("Tests parsing search queries")
+  class PositiveQuery {
+
+    @Test
+    @DisplayName("Test every word is a phrase of its own")
+    void testWords() {
+      assertEquals(List.of(List.of("dusty"), List.of("book")),
+          SearchQuery.parse("Dusty  BOOK").getPhrases());
+    }
+
+    @Test
+    @DisplayName("Test words in quotes form one phrase")
+    void testQuotedPhrase() {
+      assertEquals(List.of(List.of("door"), List.of("dusty", "book"), List.of("room")),
+          SearchQuery.parse("door \"dusty book\" room").getPhrases());
+    }
+
+    @Test
+    @DisplayName("Test a word with punctuation is split into a phrase")
+    void testPunctuation() {
+      assertEquals(List.of(List.of("don", "t"), List.of("go")),
+          SearchQuery.parse("don't go!").getPhrases());
+    }
+
+    @Test
+    @DisplayName("Test a query without letters or digits is empty")
+    void testEmptyQuery() {
+      assertTrue(SearchQuery.parse("  \"\" ?! ").isEmpty());
+      assertTrue(SearchQuery.parse("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test text is split into terms in lower case")
+    void testTokenize() {
+      assertEquals(List.of("the", "dør", "opens", "2", "times"),
+          SearchQuery.tokenize("The DØR opens, 2 times."));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests parsing search queries with invalid input")
+  class NegativeQuery {
+
+    @Test
+    @DisplayName("Test a null query throws exception")
+    void testNullQuery() {
+      assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse(null));
+    }
+  }
+}
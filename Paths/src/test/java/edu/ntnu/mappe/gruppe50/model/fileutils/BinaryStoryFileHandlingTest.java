@@ -0,0 +1,272 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class BinaryStoryFileHandlingTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("pathsc");
+    directory.toFile().deleteOnExit();
+  }
+
+  /**
+   * Copies a story file from the test resources to the temporary directory.
+   *
+   * @param name The name of the story file.
+   * @return The absolute path of the copy.
+   * @throws IOException If the file cannot be copied.
+   */
+  private String copyStoryFile(String name) throws IOException {
+    Path copy = directory.resolve(name);
+    Files.copy(Path.of(storyFilesPath + name), copy, StandardCopyOption.REPLACE_EXISTING);
+    copy.toFile().deleteOnExit();
+    directory.resolve(name.replace(".paths", ".pathsc")).toFile().deleteOnExit();
+    return copy.toString();
+  }
+
+  @Nested
+  @DisplayName("Tests writing and reading .pathsc files with valid formats")
+  class PositiveWriteAndRead {
+
+    @Test
+    @DisplayName("Test every valid story file is read the same from .pathsc as from .paths")
+    void testCompiledStoryMatchesStory() throws IOException, InvalidStoryFormatException {
+      File[] files = new File(storyFilesPath).listFiles((dir, name) -> name.endsWith(".paths"));
+      assertNotNull(files);
+
+      int compiled = 0;
+      for (File file : files) {
+        Story story;
+        try {
+          story = StoryFileHandling.readStoryFromFile(file.getAbsolutePath());
+        } catch (IOException | InvalidStoryFormatException e) {
+          continue;
+        }
+        String binaryFilePath = BinaryStoryFileHandling.compileStoryFile(
+            copyStoryFile(file.getName()));
+
+        Story compiledStory = BinaryStoryFileHandling.readStoryFromFile(binaryFilePath);
+        assertEquals(story.toString(), compiledStory.toString(), file.getName());
+        assertEquals(story.getOpeningPassage(), compiledStory.getOpeningPassage());
+        compiled++;
+      }
+      assertTrue(compiled > 0);
+    }
+
+    @Test
+    @DisplayName("Test inventory goals and actions keep their items")
+    void testInventoryGoalsAndActions() throws IOException, InvalidStoryFormatException {
+      Passage beginnings = new Passage("Beginnings", "You are in a small, dimly lit room.");
+      Link openDoor = new Link("Open the door", "Another room");
+      openDoor.addGoal(new InventoryGoal(List.of("Key", "Torch")));
+      openDoor.addAction(new InventoryAction("Sword"));
+      beginnings.addLink(openDoor);
+      Story story = new Story("Haunted House", beginnings);
+      String binaryFilePath = directory.resolve("inventory.pathsc").toString();
+      directory.resolve("inventory.pathsc").toFile().deleteOnExit();
+
+      BinaryStoryFileHandling.writeStoryToFile(story, binaryFilePath);
+
+      Link link = BinaryStoryFileHandling.readStoryFromFile(binaryFilePath)
+          .getOpeningPassage().getLinks().get(0);
+      assertEquals(List.of("Key", "Torch"), ((InventoryGoal) link.getGoals().get(0)).getValue());
+      assertEquals("Sword", ((InventoryAction) link.getActions().get(0)).getValue());
+    }
+
+    @Test
+    @DisplayName("Test the precompiled story is read when it is up to date")
+    void testReadPrecompiledStory() throws IOException, InvalidStoryFormatException {
+      String storyFilePath = copyStoryFile("haunted_house_test.paths");
+      BinaryStoryFileHandling.compileStoryFile(storyFilePath);
+
+      assertEquals(StoryFileHandling.readStoryFromFile(storyFilePath).toString(),
+          BinaryStoryFileHandling.readPrecompiledStoryFromFile(storyFilePath).toString());
+    }
+
+    @Test
+    @DisplayName("Test the story file is read when the precompiled story is out of date")
+    void testReadStaleStory() throws IOException, InvalidStoryFormatException {
+      String storyFilePath = copyStoryFile("haunted_house_test.paths");
+      BinaryStoryFileHandling.compileStoryFile(storyFilePath);
+      String precompiled = BinaryStoryFileHandling.readPrecompiledStoryFromFile(storyFilePath)
+          .toString();
+
+      String changed = Files.readString(Path.of(storyFilePath))
+          .replaceFirst("Haunted House", "Haunted Mansion");
+      Files.writeString(Path.of(storyFilePath), changed);
+
+      Story story = BinaryStoryFileHandling.readPrecompiledStoryFromFile(storyFilePath);
+      assertNotEquals(precompiled, story.toString());
+      assertEquals("Haunted Mansion", story.getTitle());
+    }
+
+    @Test
+    @DisplayName("Test the story file is read when there is no precompiled story")
+    void testReadWithoutPrecompiledStory() throws IOException, InvalidStoryFormatException {
+      String storyFilePath = copyStoryFile("haunted_house_test.paths");
+
+      assertEquals(StoryFileHandling.readStoryFromFile(storyFilePath).toString(),
+          BinaryStoryFileHandling.readPrecompiledStoryFromFile(storyFilePath).toString());
+    }
+
+    @Test
+    @DisplayName("Test main compiles every story file in a directory")
+    void testMainCompilesDirectory() throws IOException, InvalidStoryFormatException {
+      copyStoryFile("haunted_house_test.paths");
+      copyStoryFile("basic_format.paths");
+
+      BinaryStoryFileHandling.main(new String[] {directory.toString()});
+
+      assertTrue(Files.isRegularFile(directory.resolve("haunted_house_test.pathsc")));
+      assertTrue(Files.isRegularFile(directory.resolve("basic_format.pathsc")));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests reading .pathsc files with invalid formats")
+  class NegativeRead {
+
+    private String binaryFilePath;
+
+    @BeforeEach
+    void setUp() throws IOException, InvalidStoryFormatException {
+      binaryFilePath = BinaryStoryFileHandling.compileStoryFile(
+          copyStoryFile("haunted_house_test.paths"));
+    }
+
+    @Test
+    @DisplayName("Test reading a file with the wrong magic number throws exception")
+    void testWrongMagic() throws IOException {
+      byte[] bytes = Files.readAllBytes(Path.of(binaryFilePath));
+      bytes[0] = 'X';
+      Files.write(Path.of(binaryFilePath), bytes);
+
+      assertThrows(InvalidStoryFormatException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(binaryFilePath));
+    }
+
+    @Test
+    @DisplayName("Test reading a file of another version throws exception")
+    void testWrongVersion() throws IOException {
+      byte[] bytes = Files.readAllBytes(Path.of(binaryFilePath));
+      bytes[7] = (byte) (BinaryStoryFileHandling.VERSION + 1);
+      Files.write(Path.of(binaryFilePath), bytes);
+
+      assertThrows(InvalidStoryFormatException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(binaryFilePath));
+    }
+
+    @Test
+    @DisplayName("Test reading every truncation of a file throws exception")
+    void testTruncatedFile() throws IOException {
+      byte[] bytes = Files.readAllBytes(Path.of(binaryFilePath));
+
+      for (int length = 0; length < bytes.length; length++) {
+        Files.write(Path.of(binaryFilePath), Arrays.copyOf(bytes, length));
+        assertThrows(InvalidStoryFormatException.class,
+            () -> BinaryStoryFileHandling.readStoryFromFile(binaryFilePath));
+      }
+    }
+
+    @Test
+    @DisplayName("Test reading a file whose links have more goals or actions than its tables "
+        + "throws exception")
+    void testGoalAndActionCountsMismatch() throws IOException, InvalidStoryFormatException {
+      Passage beginnings = new Passage("Beginnings", "You are in a small, dimly lit room.");
+      Link openDoor = new Link("Open the door", "Another room");
+      openDoor.addGoal(new GoldGoal(5));
+      openDoor.addAction(new GoldAction(10));
+      beginnings.addLink(openDoor);
+      String corruptFilePath = directory.resolve("counts.pathsc").toString();
+      directory.resolve("counts.pathsc").toFile().deleteOnExit();
+      BinaryStoryFileHandling.writeStoryToFile(new Story("Haunted House", beginnings),
+          corruptFilePath);
+      byte[] bytes = Files.readAllBytes(Path.of(corruptFilePath));
+      //The goal and action counts of the last link are followed by the goal and action tables,
+      //which each hold one gold goal or action of one type byte and one int
+      int goalCountOffset = bytes.length - 2 * (Integer.BYTES + 1 + Integer.BYTES)
+          - 2 * Integer.BYTES;
+
+      byte[] moreGoals = bytes.clone();
+      moreGoals[goalCountOffset + Integer.BYTES - 1] = 2;
+      Files.write(Path.of(corruptFilePath), moreGoals);
+      assertTrue(assertThrows(InvalidStoryFormatException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(corruptFilePath))
+          .getMessage().contains("goal table"));
+
+      byte[] moreActions = bytes.clone();
+      moreActions[goalCountOffset + 2 * Integer.BYTES - 1] = 2;
+      Files.write(Path.of(corruptFilePath), moreActions);
+      assertTrue(assertThrows(InvalidStoryFormatException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(corruptFilePath))
+          .getMessage().contains("action table"));
+
+      Files.write(Path.of(corruptFilePath), bytes);
+      assertDoesNotThrow(() -> BinaryStoryFileHandling.readStoryFromFile(corruptFilePath));
+    }
+
+    @Test
+    @DisplayName("Test reading a corrupt precompiled story falls back to the story file")
+    void testCorruptPrecompiledStory() throws IOException, InvalidStoryFormatException {
+      String storyFilePath = directory.resolve("haunted_house_test.paths").toString();
+      byte[] bytes = Files.readAllBytes(Path.of(binaryFilePath));
+      Files.write(Path.of(binaryFilePath), Arrays.copyOf(bytes, bytes.length - 1));
+
+      assertEquals(StoryFileHandling.readStoryFromFile(storyFilePath).toString(),
+          BinaryStoryFileHandling.readPrecompiledStoryFromFile(storyFilePath).toString());
+    }
+
+    @Test
+    @DisplayName("Test reading a file that is not .pathsc throws exception")
+    void testWrongFileType() {
+      assertThrows(InvalidStoryFormatException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(
+              storyFilesPath + "haunted_house_test.paths"));
+    }
+
+    @Test
+    @DisplayName("Test reading a file that does not exist throws exception")
+    void testMissingFile() {
+      assertThrows(IOException.class,
+          () -> BinaryStoryFileHandling.readStoryFromFile(
+              directory.resolve("missing.pathsc").toString()));
+    }
+
+    @Test
+    @DisplayName("Test reading a null file path throws exception")
+    void testNullFilePath() {
+      assertThrows(IOException.class, () -> BinaryStoryFileHandling.readStoryFromFile(null));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BrokenLinkCounterTest {
+
+  BrokenLinkCounter counter;
+
+  @BeforeEach
+  void setUp() {
+    counter = new BrokenLinkCounter();
+  }
+
+  @Test
+  @DisplayName("Test a link to a passage that is read later is not broken")
+  void testLinkResolvedByLaterPassage() {
+    counter.onPassage("Beginnings", "content");
+    counter.onLink("Open the door", "Another room");
+    counter.onLink("Open the door again", "Another room");
+    counter.onPassage("Another room", "content");
+    counter.onLink("Go back", "Beginnings");
+
+    assertEquals(0, counter.getBrokenLinkCount());
+    assertEquals(2, counter.getPassageCount());
+    assertEquals(3, counter.getLinkCount());
+  }
+
+  @Test
+  @DisplayName("Test every link to a missing passage is counted")
+  void testBrokenLinksAreCounted() {
+    counter.onPassage("Beginnings", "content");
+    counter.onLink("Open the door", "Nowhere");
+    counter.onLink("Open the window", "Nowhere");
+
+    assertEquals(2, counter.getBrokenLinkCount());
+  }
+
+  @Test
+  @DisplayName("Test a duplicate passage title throws Illegal Argument Exception")
+  void testDuplicatePassage() {
+    counter.onPassage("Beginnings", "content");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> counter.onPassage("Beginnings", "other content"));
+  }
+}
@@ -0,0 +1,111 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class FileWatcherTest {
+
+  private final BlockingQueue<Path> changed = new LinkedBlockingQueue<>();
+  private Path directory;
+  private Path file;
+  private FileWatcher watcher;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("filewatcher");
+    directory.toFile().deleteOnExit();
+    file = directory.resolve("watched.paths");
+    Files.writeString(file, "content");
+    file.toFile().deleteOnExit();
+    watcher = new FileWatcher(100, 1, "Test", changed::add);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    watcher.close();
+  }
+
+  @Nested
+  @DisplayName("Tests watching files")
+  class PositiveWatch {
+
+    @Test
+    @DisplayName("Test several changes of a watched file are passed on once")
+    void testChanges() throws IOException, InterruptedException {
+      watcher.watch(file);
+
+      for (int i = 0; i < 3; i++) {
+        Files.writeString(file, "content " + i);
+      }
+
+      assertEquals(FileWatcher.toWatchedPath(file), changed.poll(10, TimeUnit.SECONDS));
+      assertNull(changed.poll(500, TimeUnit.MILLISECONDS));
+      assertEquals(1, watcher.getChangeCount());
+    }
+
+    @Test
+    @DisplayName("Test other files of the directory are not passed on")
+    void testOtherFile() throws IOException, InterruptedException {
+      watcher.watch(file);
+      Path other = directory.resolve("other.paths");
+      other.toFile().deleteOnExit();
+
+      Files.writeString(other, "content");
+
+      assertNull(changed.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Test an unwatched file is not passed on")
+    void testUnwatch() throws IOException, InterruptedException {
+      watcher.watch(file);
+      assertTrue(watcher.isWatched(file));
+      watcher.unwatch(file);
+      assertFalse(watcher.isWatched(file));
+
+      Files.writeString(file, "changed");
+
+      assertNull(changed.poll(500, TimeUnit.MILLISECONDS));
+      assertEquals(0, watcher.getChangeCount());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests watching files with invalid input")
+  class NegativeWatch {
+
+    @Test
+    @DisplayName("Test invalid constructor arguments throw exception")
+    void testInvalidConstructorArguments() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new FileWatcher(-1, 1, "Test", path -> { }));
+      assertThrows(IllegalArgumentException.class,
+          () -> new FileWatcher(100, 0, "Test", path -> { }));
+      assertThrows(IllegalArgumentException.class,
+          () -> new FileWatcher(100, 1, null, path -> { }));
+      assertThrows(IllegalArgumentException.class, () -> new FileWatcher(100, 1, "Test", null));
+    }
+
+    @Test
+    @DisplayName("Test watching or unwatching null throws exception")
+    void testNullInput() {
+      assertThrows(IllegalArgumentException.class, () -> watcher.watch(null));
+      assertThrows(IllegalArgumentException.class, () -> watcher.unwatch(null));
+    }
+  }
+}
@@ -0,0 +1,388 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidLinkFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.HealthGoal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class LinkJournalTest {
+
+  private String linksFilePath;
+  private String journalFilePath;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    directory.toFile().deleteOnExit();
+    linksFilePath = directory.resolve("links.links").toString();
+    journalFilePath = LinkJournal.getJournalFilePath(linksFilePath);
+    Path.of(linksFilePath).toFile().deleteOnExit();
+    Path.of(journalFilePath).toFile().deleteOnExit();
+  }
+
+  /**
+   * Creates a link to a numbered passage, with a goal and actions, so every part of a link is
+   * journaled.
+   *
+   * @param number The number of the passage.
+   * @return The link.
+   */
+  private static Link createLink(int number) {
+    Link link = new Link("Go to " + number, "Passage " + number);
+    link.addGoal(new HealthGoal(1));
+    link.addAction(new GoldAction(number));
+    link.addAction(new InventoryAction("Key " + number));
+    return link;
+  }
+
+  /**
+   * Gets the links of a register as text, since links are equal by their reference only.
+   *
+   * @param links The register.
+   * @return The text of each link.
+   */
+  private static List<String> linkTexts(LinkRegister links) {
+    return links.getLinks().stream().map(Link::toString).toList();
+  }
+
+  /**
+   * Gets the text of numbered links.
+   *
+   * @param from The number of the first link.
+   * @param to   The number after the last link.
+   * @return The text of each link.
+   */
+  private static List<String> expectedTexts(int from, int to) {
+    List<String> texts = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      texts.add(createLink(i).toString());
+    }
+    return texts;
+  }
+
+  @Nested
+  @DisplayName("Tests journaling links with valid input")
+  class PositiveJournal {
+
+    @Test
+    @DisplayName("Test journaled links are recovered into the links file")
+    void testRecover() throws IOException, InvalidLinkFormatException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        for (int i = 0; i < 5; i++) {
+          journal.append(createLink(i));
+        }
+      }
+
+      LinkRegister links = LinkJournal.recover(linksFilePath, journalFilePath);
+
+      assertEquals(expectedTexts(0, 5), linkTexts(links));
+      assertFalse(Files.exists(Path.of(journalFilePath)));
+      assertEquals(expectedTexts(0, 5),
+          linkTexts(LinkFileHandling.readLinksFromFile(linksFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test journaled links follow the links already in the links file")
+    void testRecoverAfterSavedLinks() throws IOException, InvalidLinkFormatException {
+      LinkRegister saved = new LinkRegister();
+      saved.addLink(createLink(0));
+      saved.addLink(createLink(1));
+      LinkFileHandling.writeLinksToFile(saved, linksFilePath);
+
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(2));
+      }
+
+      assertEquals(expectedTexts(0, 3),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a links file that does not end with an empty line is continued correctly")
+    void testRecoverAfterLinksWithoutEmptyLine() throws IOException, InvalidLinkFormatException {
+      Files.writeString(Path.of(linksFilePath), createLink(0).toString());
+
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(1));
+      }
+
+      assertEquals(expectedTexts(0, 2),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test links appended within the group commit delay are written in one batch")
+    void testGroupCommit() throws IOException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath)
+          .groupCommitMillis(60_000)
+          .force(true)
+          .build()) {
+        for (int i = 0; i < 100; i++) {
+          journal.append(createLink(i));
+        }
+        journal.flush();
+
+        assertEquals(100, journal.getRecordCount());
+        assertEquals(1, journal.getBatchCount());
+      }
+    }
+
+    @Test
+    @DisplayName("Test the journal is folded into the links file once it passes the threshold")
+    void testCompaction() throws IOException, InvalidLinkFormatException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath)
+          .groupCommitMillis(0)
+          .compactionThreshold(200)
+          .build()) {
+        for (int i = 0; i < 30; i++) {
+          journal.append(createLink(i));
+          journal.flush();
+        }
+
+        assertTrue(journal.getCompactionCount() > 0);
+        assertTrue(Files.size(Path.of(journalFilePath)) <= 200);
+      }
+
+      assertEquals(expectedTexts(0, 30),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test rewinding takes back queued links, journaled links and saved links")
+    void testRewind() throws IOException, InvalidLinkFormatException {
+      LinkRegister saved = new LinkRegister();
+      for (int i = 0; i < 3; i++) {
+        saved.addLink(createLink(i));
+      }
+      LinkFileHandling.writeLinksToFile(saved, linksFilePath);
+
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath)
+          .groupCommitMillis(60_000)
+          .build()) {
+        journal.append(createLink(3));
+        journal.append(createLink(4));
+        journal.rewind(1);
+        journal.flush();
+        assertEquals(1, journal.getRecordCount());
+
+        journal.append(createLink(5));
+        journal.flush();
+        journal.rewind(1);
+      }
+
+      assertEquals(expectedTexts(0, 4),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test rewinding past the journal takes back links of the links file when folded")
+    void testRewindIntoLinksFile() throws IOException, InvalidLinkFormatException {
+      LinkRegister saved = new LinkRegister();
+      for (int i = 0; i < 3; i++) {
+        saved.addLink(createLink(i));
+      }
+      LinkFileHandling.writeLinksToFile(saved, linksFilePath);
+      long savedSize = Files.size(Path.of(linksFilePath));
+
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath)
+          .groupCommitMillis(0)
+          .build()) {
+        journal.append(createLink(3));
+        journal.flush();
+        journal.rewind(2);
+        journal.flush();
+        journal.rewind(1);
+        journal.append(createLink(7));
+      }
+
+      assertEquals(savedSize, Files.size(Path.of(linksFilePath)));
+      List<String> expected = new ArrayList<>(expectedTexts(0, 1));
+      expected.add(createLink(7).toString());
+      assertEquals(expected, linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a checkpoint is written after the links queued before it")
+    void testCheckpoint() throws IOException {
+      String snapshotFilePath = linksFilePath.replace(".links", ".snapshot");
+      Path.of(snapshotFilePath).toFile().deleteOnExit();
+      GameSnapshot snapshot = new GameSnapshot("Passage 1", 5, 0, 1, List.of("Key 1"), 1, 0L);
+
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(1));
+        journal.checkpoint(snapshot, snapshotFilePath);
+        journal.flush();
+
+        assertEquals(1, journal.getRecordCount());
+        assertEquals(snapshot, SnapshotFileHandling.readSnapshotFromFile(snapshotFilePath));
+      }
+    }
+
+    @Test
+    @DisplayName("Test a record that was cut short is ignored")
+    void testTornRecord() throws IOException, InvalidLinkFormatException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(0));
+        journal.append(createLink(1));
+      }
+      Path journalPath = Path.of(journalFilePath);
+      byte[] bytes = Files.readAllBytes(journalPath);
+      Files.write(journalPath, Arrays.copyOf(bytes, bytes.length - 3));
+
+      assertEquals(expectedTexts(0, 1),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a fold that was interrupted is done again without repeating links")
+    void testInterruptedFold() throws IOException, InvalidLinkFormatException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(0));
+      }
+      //The start of a fold that was interrupted before the journal was emptied
+      Files.writeString(Path.of(linksFilePath), createLink(0) + "\n\n[Go to",
+          StandardOpenOption.APPEND);
+
+      assertEquals(expectedTexts(0, 1),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a journal of a links file that has since been cleared is ignored")
+    void testStaleJournal() throws IOException, InvalidLinkFormatException {
+      LinkRegister saved = new LinkRegister();
+      saved.addLink(createLink(0));
+      LinkFileHandling.writeLinksToFile(saved, linksFilePath);
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        journal.append(createLink(1));
+      }
+      BaseStoryFileHandling.removeAllLinesFromFile(linksFilePath);
+
+      assertTrue(LinkJournal.recover(linksFilePath, journalFilePath).isEmpty());
+      assertFalse(Files.exists(Path.of(journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a links file without a journal is read as it is")
+    void testRecoverWithoutJournal() throws IOException, InvalidLinkFormatException {
+      LinkRegister saved = new LinkRegister();
+      saved.addLink(createLink(0));
+      LinkFileHandling.writeLinksToFile(saved, linksFilePath);
+
+      assertEquals(expectedTexts(0, 1),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test the journal path is the links path with the journal file type")
+    void testGetJournalFilePath() {
+      assertEquals("/saves/links.journal", LinkJournal.getJournalFilePath("/saves/links.links"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests journaling links with invalid input")
+  class NegativeJournal {
+
+    @Test
+    @DisplayName("Test appending to a closed journal throws exception")
+    void testAppendAfterClose() throws IOException {
+      LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build();
+      journal.close();
+      journal.close();
+
+      assertThrows(IllegalStateException.class, () -> journal.append(createLink(0)));
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() throws IOException {
+      try (LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build()) {
+        assertThrows(IllegalArgumentException.class, () -> journal.append(null));
+        assertThrows(IllegalArgumentException.class, () -> journal.checkpoint(null, "a.snapshot"));
+      }
+      assertThrows(IllegalArgumentException.class, () -> LinkJournal.recover(null, journalFilePath));
+      assertThrows(IllegalArgumentException.class, () -> LinkJournal.getJournalFilePath(null));
+    }
+
+    @Test
+    @DisplayName("Test invalid file types and builder values throw exception")
+    void testInvalidBuilder() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new LinkJournal.Builder("links.txt", journalFilePath));
+      assertThrows(IllegalArgumentException.class,
+          () -> new LinkJournal.Builder(linksFilePath, "links.txt"));
+      assertThrows(IllegalArgumentException.class,
+          () -> new LinkJournal.Builder(linksFilePath, journalFilePath).groupCommitMillis(-1));
+      assertThrows(IllegalArgumentException.class,
+          () -> new LinkJournal.Builder(linksFilePath, journalFilePath).compactionThreshold(0));
+    }
+
+    @Test
+    @DisplayName("Test a journal that fails to write stops writing, and keeps the links before it")
+    void testWriteFailure() throws IOException, InvalidLinkFormatException {
+      String missingSnapshotFilePath = Path.of(linksFilePath).resolveSibling("missing")
+          .resolve("links.snapshot").toString();
+      GameSnapshot snapshot = new GameSnapshot("Passage 1", 5, 0, 1, List.of("Key 1"), 2, 0L);
+
+      LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build();
+      journal.append(createLink(0));
+      journal.append(createLink(1));
+      journal.checkpoint(snapshot, missingSnapshotFilePath);
+
+      assertThrows(IOException.class, journal::flush);
+      assertTrue(journal.isFailed());
+      long journalSize = Files.size(Path.of(journalFilePath));
+      assertThrows(IllegalStateException.class, () -> journal.append(createLink(2)));
+      assertThrows(IllegalStateException.class,
+          () -> journal.checkpoint(snapshot, missingSnapshotFilePath));
+      assertThrows(IOException.class, journal::close);
+
+      assertEquals(journalSize, Files.size(Path.of(journalFilePath)));
+      assertEquals(expectedTexts(0, 2),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test rewinding more links than have been saved fails the journal")
+    void testRewindTooFar() throws IOException, InvalidLinkFormatException {
+      LinkJournal journal = new LinkJournal.Builder(linksFilePath, journalFilePath).build();
+      journal.append(createLink(0));
+      journal.flush();
+
+      assertThrows(IllegalArgumentException.class, () -> journal.rewind(-1));
+      journal.rewind(2);
+      assertThrows(IOException.class, journal::flush);
+      assertThrows(IOException.class, journal::close);
+      assertEquals(expectedTexts(0, 1),
+          linkTexts(LinkJournal.recover(linksFilePath, journalFilePath)));
+    }
+
+    @Test
+    @DisplayName("Test a file that is not a journal throws exception")
+    void testNotAJournal() throws IOException {
+      Files.writeString(Path.of(journalFilePath), "not a journal");
+
+      assertThrows(IOException.class, () -> LinkJournal.recover(linksFilePath, journalFilePath));
+    }
+  }
+}
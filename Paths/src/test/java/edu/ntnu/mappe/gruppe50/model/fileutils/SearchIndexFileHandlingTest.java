@@ -0,0 +1,315 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.search.IndexedStory;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchHit;
+import edu.ntnu.mappe.gruppe50.model.data.search.SearchIndex;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexFileHandlingTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  private static final LoadProgress NO_PROGRESS = (done, total) -> {
+  };
+
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("search");
+    directory.toFile().deleteOnExit();
+  }
+
+  /**
+   * Copies a story file from the test resources to the temporary directory.
+   *
+   * @param name The name of the story file.
+   * @return The absolute path of the copy.
+   * @throws IOException If the file cannot be copied.
+   */
+  private String copyStoryFile(String name) throws IOException {
+    Path copy = directory.resolve(name);
+    Files.copy(Path.of(storyFilesPath + name), copy, StandardCopyOption.REPLACE_EXISTING);
+    copy.toFile().deleteOnExit();
+    return copy.toString();
+  }
+
+  /**
+   * Gets a path in the temporary directory that is deleted on exit.
+   *
+   * @param name The name of the file.
+   * @return The absolute path of the file.
+   */
+  private String tempFile(String name) {
+    Path file = directory.resolve(name);
+    file.toFile().deleteOnExit();
+    return file.toString();
+  }
+
+  @Nested
+  @DisplayName("Tests indexing story files with valid input")
+  class PositiveIndex {
+
+    @Test
+    @DisplayName("Test every passage of a story file is indexed")
+    void testIndexStory() throws IOException, InvalidStoryFormatException {
+      String filePath = copyStoryFile("haunted_house_test.paths");
+
+      IndexedStory indexedStory = SearchIndexFileHandling.indexStory(filePath);
+
+      assertEquals("Haunted House", indexedStory.getStoryTitle());
+      assertEquals(List.of("Beginnings", "Another room", "The book of spells"),
+          indexedStory.getPassageTitles());
+      assertTrue(indexedStory.isUpToDate(Files.size(Path.of(filePath)),
+          Path.of(filePath).toFile().lastModified()));
+    }
+
+    @Test
+    @DisplayName("Test the links of a passage are not indexed")
+    void testLinksNotIndexed() throws IOException, InvalidStoryFormatException {
+      IndexedStory indexedStory = SearchIndexFileHandling.indexStory(
+          copyStoryFile("haunted_house_test.paths"));
+
+      assertFalse(indexedStory.getPostings().containsKey("try"));
+      assertTrue(indexedStory.getPostings().containsKey("dimly"));
+    }
+
+    @Test
+    @DisplayName("Test only new and changed story files are indexed again")
+    void testUpdateIndex() throws IOException {
+      String house = copyStoryFile("haunted_house_test.paths");
+      String castle = copyStoryFile("deadly_castle.paths");
+      SearchIndex index = new SearchIndex();
+
+      assertTrue(SearchIndexFileHandling.updateIndex(index, List.of(house, castle), NO_PROGRESS));
+      IndexedStory indexedHouse = index.getStory(house);
+      IndexedStory indexedCastle = index.getStory(castle);
+      assertEquals(2, index.getStoryCount());
+
+      assertFalse(SearchIndexFileHandling.updateIndex(index, List.of(house, castle), NO_PROGRESS));
+      assertSame(indexedHouse, index.getStory(house));
+
+      Files.writeString(Path.of(house), Files.readString(Path.of(house))
+          .replace("dusty book", "golden book"));
+      Path.of(house).toFile().setLastModified(indexedHouse.getLastModified() + 2000);
+      assertTrue(SearchIndexFileHandling.updateIndex(index, List.of(house, castle), NO_PROGRESS));
+      assertNotSame(indexedHouse, index.getStory(house));
+      assertSame(indexedCastle, index.getStory(castle));
+      assertEquals(1, index.search("\"golden book\"", 10).size());
+      assertTrue(index.search("\"dusty book\"", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test removed, missing and invalid story files are removed from the index")
+    void testUpdateIndexRemoves() throws IOException {
+      String house = copyStoryFile("haunted_house_test.paths");
+      String castle = copyStoryFile("deadly_castle.paths");
+      SearchIndex index = new SearchIndex();
+      SearchIndexFileHandling.updateIndex(index, List.of(house, castle), NO_PROGRESS);
+
+      assertTrue(SearchIndexFileHandling.updateIndex(index, List.of(house), NO_PROGRESS));
+      assertNull(index.getStory(castle));
+
+      Files.writeString(Path.of(house), "Haunted House\n\n\n::Beginnings\nText\n");
+      Path.of(house).toFile().setLastModified(Path.of(house).toFile().lastModified() + 2000);
+      assertTrue(SearchIndexFileHandling.updateIndex(index, List.of(house), NO_PROGRESS));
+      assertNull(index.getStory(house));
+
+      String missing = directory.resolve("missing.paths").toString();
+      assertFalse(SearchIndexFileHandling.updateIndex(index, List.of(missing), NO_PROGRESS));
+      assertEquals(0, index.getStoryCount());
+    }
+
+    @Test
+    @DisplayName("Test the progress is reported for every story file")
+    void testUpdateIndexProgress() throws IOException {
+      String house = copyStoryFile("haunted_house_test.paths");
+      String castle = copyStoryFile("deadly_castle.paths");
+      int[] last = new int[2];
+
+      SearchIndexFileHandling.updateIndex(new SearchIndex(), List.of(house, castle),
+          (done, total) -> {
+            last[0] = (int) done;
+            last[1] = (int) total;
+          });
+
+      assertEquals(2, last[0]);
+      assertEquals(2, last[1]);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests indexing story files with invalid input")
+  class NegativeIndex {
+
+    @Test
+    @DisplayName("Test an invalid story file throws exception")
+    void testInvalidStory() {
+      assertThrows(InvalidStoryFormatException.class,
+          () -> SearchIndexFileHandling.indexStory(storyFilesPath + "no_title.paths"));
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() {
+      SearchIndex index = new SearchIndex();
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.indexStory(null));
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.updateIndex(null, List.of(), NO_PROGRESS));
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.updateIndex(index, null, NO_PROGRESS));
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.updateIndex(index, List.of(), null));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests writing and reading .index files with valid input")
+  class PositiveWriteAndRead {
+
+    @Test
+    @DisplayName("Test an index is read the same as it was written")
+    void testRoundTrip() throws IOException {
+      SearchIndex index = new SearchIndex();
+      SearchIndexFileHandling.updateIndex(index, List.of(copyStoryFile("haunted_house_test.paths"),
+          copyStoryFile("deadly_castle.paths")), NO_PROGRESS);
+      String filePath = tempFile("stories.index");
+
+      SearchIndexFileHandling.writeIndexToFile(index, filePath);
+      SearchIndex read = SearchIndexFileHandling.readIndexFromFile(filePath);
+
+      assertEquals(index.getStoryCount(), read.getStoryCount());
+      for (IndexedStory indexedStory : index.getStories()) {
+        IndexedStory readStory = read.getStory(indexedStory.getFilePath());
+        assertEquals(indexedStory.getStoryTitle(), readStory.getStoryTitle());
+        assertTrue(readStory.isUpToDate(indexedStory.getSize(), indexedStory.getLastModified()));
+        assertEquals(indexedStory.getPassageTitles(), readStory.getPassageTitles());
+        assertEquals(indexedStory.getSnippets(), readStory.getSnippets());
+        assertEquals(indexedStory.getPostings().keySet(), readStory.getPostings().keySet());
+      }
+      List<SearchHit> hits = index.search("door", 10);
+      List<SearchHit> readHits = read.search("door", 10);
+      assertEquals(hits.size(), readHits.size());
+      for (int i = 0; i < hits.size(); i++) {
+        assertEquals(hits.get(i).toString(), readHits.get(i).toString());
+      }
+    }
+
+    @Test
+    @DisplayName("Test a missing file gives an empty index")
+    void testMissingFile() throws IOException {
+      assertEquals(0, SearchIndexFileHandling.readIndexFromFile(
+          directory.resolve("missing.index").toString()).getStoryCount());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests writing and reading .index files with invalid input")
+  class NegativeWriteAndRead {
+
+    @Test
+    @DisplayName("Test a file that is not a search index throws exception")
+    void testWrongMagic() throws IOException {
+      String filePath = tempFile("wrong.index");
+      Files.writeString(Path.of(filePath), "Haunted House");
+
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a file of another version throws exception")
+    void testWrongVersion() throws IOException {
+      String filePath = tempFile("version.index");
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(filePath))) {
+        out.writeInt(SearchIndexFileHandling.MAGIC);
+        out.writeInt(SearchIndexFileHandling.VERSION + 1);
+      }
+
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a file that is cut short throws exception")
+    void testCutShort() throws IOException {
+      SearchIndex index = new SearchIndex();
+      SearchIndexFileHandling.updateIndex(index, List.of(copyStoryFile("haunted_house_test.paths")),
+          NO_PROGRESS);
+      String filePath = tempFile("short.index");
+      SearchIndexFileHandling.writeIndexToFile(index, filePath);
+      byte[] bytes = Files.readAllBytes(Path.of(filePath));
+      Files.write(Path.of(filePath), Arrays.copyOf(bytes, bytes.length / 2));
+
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a count larger than the rest of the file throws exception")
+    void testCountTooLarge() throws IOException {
+      String filePath = tempFile("count.index");
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(filePath))) {
+        out.writeInt(SearchIndexFileHandling.MAGIC);
+        out.writeInt(SearchIndexFileHandling.VERSION);
+        out.writeInt(1);
+        out.writeInt(Integer.MAX_VALUE);
+      }
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(filePath))) {
+        out.writeInt(SearchIndexFileHandling.MAGIC);
+        out.writeInt(SearchIndexFileHandling.VERSION);
+        out.writeInt(1);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeLong(1);
+        out.writeLong(1);
+        out.writeInt(0);
+        out.writeInt(1);
+        out.writeInt(0);
+        out.writeInt(Integer.MAX_VALUE / Long.BYTES);
+      }
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a file type other than .index throws exception")
+    void testWrongFileType() {
+      String filePath = tempFile("stories.txt");
+      assertThrows(IOException.class,
+          () -> SearchIndexFileHandling.writeIndexToFile(new SearchIndex(), filePath));
+      assertThrows(IOException.class, () -> SearchIndexFileHandling.readIndexFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() {
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.writeIndexToFile(null, tempFile("a.index")));
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.writeIndexToFile(new SearchIndex(), null));
+      assertThrows(IllegalArgumentException.class,
+          () -> SearchIndexFileHandling.readIndexFromFile(null));
+    }
+  }
+}
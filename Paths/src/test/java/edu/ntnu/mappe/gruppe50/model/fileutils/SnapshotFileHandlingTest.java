@@ -0,0 +1,170 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.data.GameSnapshot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotFileHandlingTest {
+
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("snapshot");
+    directory.toFile().deleteOnExit();
+  }
+
+  /**
+   * Gets a path in the temporary directory that is deleted on exit.
+   *
+   * @param name The name of the file.
+   * @return The absolute path of the file.
+   */
+  private String tempFile(String name) {
+    Path file = directory.resolve(name);
+    file.toFile().deleteOnExit();
+    return file.toString();
+  }
+
+  @Nested
+  @DisplayName("Tests writing and reading .snapshot files with valid input")
+  class PositiveWriteAndRead {
+
+    @Test
+    @DisplayName("Test a snapshot is read the same as it was written")
+    void testRoundTrip() throws IOException {
+      GameSnapshot snapshot = new GameSnapshot("The book of spells", 5, 10, 100,
+          List.of("sword", "Tower key"), 42, -7L);
+      String filePath = tempFile("links.snapshot");
+
+      SnapshotFileHandling.writeSnapshotToFile(snapshot, filePath);
+
+      assertEquals(snapshot, SnapshotFileHandling.readSnapshotFromFile(filePath));
+      assertEquals("The book of spells\n5, 10, 100, 42, -7\nsword\nTower key\n",
+          Files.readString(Path.of(filePath)).replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    @DisplayName("Test a snapshot replaces the previous snapshot in the file")
+    void testOverwrite() throws IOException {
+      String filePath = tempFile("links.snapshot");
+      SnapshotFileHandling.writeSnapshotToFile(
+          new GameSnapshot("First", 1, 1, 1, List.of("sword"), 1, 0L), filePath);
+      GameSnapshot second = new GameSnapshot("Second", 2, 2, 2, List.of(), 2, 0L);
+
+      SnapshotFileHandling.writeSnapshotToFile(second, filePath);
+
+      assertEquals(second, SnapshotFileHandling.readSnapshotFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a missing or empty file has no snapshot")
+    void testNoSnapshot() throws IOException {
+      String filePath = tempFile("empty.snapshot");
+      assertNull(SnapshotFileHandling.readSnapshotFromFile(filePath));
+
+      Files.writeString(Path.of(filePath), "");
+      assertNull(SnapshotFileHandling.readSnapshotFromFile(filePath));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests finding and deleting the snapshot of a .links file")
+  class SnapshotOfLinks {
+
+    @Test
+    @DisplayName("Test the snapshot of a .links file is next to it, and can be deleted")
+    void testDeleteSnapshot() throws IOException {
+      String filePath = SnapshotFileHandling.getSnapshotFilePath(tempFile("links.links"));
+      assertTrue(filePath.endsWith("links.snapshot"));
+      SnapshotFileHandling.writeSnapshotToFile(
+          new GameSnapshot("Beginnings", 1, 1, 1, List.of(), 0, 0L), filePath);
+
+      SnapshotFileHandling.deleteSnapshot(filePath);
+
+      assertFalse(Files.exists(Path.of(filePath)));
+      assertDoesNotThrow(() -> SnapshotFileHandling.deleteSnapshot(filePath));
+    }
+
+    @Test
+    @DisplayName("Test invalid file paths throw exception")
+    void testInvalidFilePaths() {
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.getSnapshotFilePath("links.snapshot"));
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.getSnapshotFilePath(null));
+      assertThrows(IOException.class, () -> SnapshotFileHandling.deleteSnapshot("links.links"));
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.deleteSnapshot(null));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests writing and reading .snapshot files with invalid input")
+  class NegativeWriteAndRead {
+
+    @Test
+    @DisplayName("Test an invalid snapshot file throws exception")
+    void testInvalidFormat() throws IOException {
+      String filePath = tempFile("invalid.snapshot");
+
+      Files.writeString(Path.of(filePath), "Beginnings\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+
+      Files.writeString(Path.of(filePath), "Beginnings\n1, 2, 3\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+
+      Files.writeString(Path.of(filePath), "Beginnings\n1, two, 3, 4, 5\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+
+      Files.writeString(Path.of(filePath), "Beginnings\n-1, 2, 3, 4, 5\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+
+      Files.writeString(Path.of(filePath), "Beginnings\n1, 2, 3, 4, five\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a snapshot without the identifier of its play through throws exception")
+    void testWithoutPlayThroughId() throws IOException {
+      String filePath = tempFile("old.snapshot");
+      Files.writeString(Path.of(filePath), "Beginnings\n1, 2, 3, 4\nsword\n");
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test a file type other than .snapshot throws exception")
+    void testWrongFileType() {
+      String filePath = tempFile("links.links");
+      GameSnapshot snapshot = new GameSnapshot("Beginnings", 1, 1, 1, List.of(), 0, 0L);
+      assertThrows(IOException.class,
+          () -> SnapshotFileHandling.writeSnapshotToFile(snapshot, filePath));
+      assertThrows(IOException.class, () -> SnapshotFileHandling.readSnapshotFromFile(filePath));
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() {
+      GameSnapshot snapshot = new GameSnapshot("Beginnings", 1, 1, 1, List.of(), 0, 0L);
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.writeSnapshotToFile(null, tempFile("a.snapshot")));
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.writeSnapshotToFile(snapshot, null));
+      assertThrows(IllegalArgumentException.class,
+          () -> SnapshotFileHandling.readSnapshotFromFile(null));
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryCacheTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("storycache");
+    directory.toFile().deleteOnExit();
+  }
+
+  /**
+   * Copies a story file from the test resources to the temporary directory.
+   *
+   * @param name The name of the story file.
+   * @return The absolute path of the copy.
+   * @throws IOException If the file cannot be copied.
+   */
+  private String copyStoryFile(String name) throws IOException {
+    Path copy = directory.resolve(name);
+    Files.copy(Path.of(storyFilesPath + name), copy, StandardCopyOption.REPLACE_EXISTING);
+    copy.toFile().deleteOnExit();
+    return copy.toString();
+  }
+
+  @Nested
+  @DisplayName("Tests reading stories through the cache")
+  class PositiveCache {
+
+    @Test
+    @DisplayName("Test reading a story twice reads the file once")
+    void testHit() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+
+      Story story = cache.getStory(filePath);
+
+      assertSame(story, cache.getStory(filePath));
+      assertEquals(StoryFileHandling.readStoryFromFile(filePath).toString(), story.toString());
+      assertEquals(1, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+      assertEquals(1, cache.getStoryCount());
+      assertEquals(new File(filePath).length(), cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Test the same file through another path is the same cached story")
+    void testCanonicalPath() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+
+      Story story = cache.getStory(filePath);
+
+      assertSame(story, cache.getStory(directory + "/./haunted_house_test.paths"));
+      assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Test a changed file is read again")
+    void testChangedFile() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+      Story story = cache.getStory(filePath);
+
+      Files.writeString(Path.of(filePath), Files.readString(Path.of(filePath))
+          .replaceFirst("Haunted House", "Haunted Mansion"));
+      Story changedStory = cache.getStory(filePath);
+
+      assertNotSame(story, changedStory);
+      assertEquals("Haunted Mansion", changedStory.getTitle());
+      assertEquals(2, cache.getMissCount());
+      assertEquals(1, cache.getStoryCount());
+      assertEquals(new File(filePath).length(), cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Test a file with a new modified time is read again")
+    void testTouchedFile() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+      Story story = cache.getStory(filePath);
+
+      File file = new File(filePath);
+      file.setLastModified(file.lastModified() - 10000);
+
+      assertNotSame(story, cache.getStory(filePath));
+      assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Test the least recently used story is evicted")
+    void testEviction() throws IOException, InvalidStoryFormatException {
+      String first = copyStoryFile("haunted_house_test.paths");
+      String second = copyStoryFile("basic_format.paths");
+      String third = copyStoryFile("passage_with_no_link.paths");
+      long maxSize = new File(first).length() + new File(second).length()
+          + new File(third).length() - 1;
+      StoryCache cache = new StoryCache(maxSize);
+
+      Story firstStory = cache.getStory(first);
+      Story secondStory = cache.getStory(second);
+      cache.getStory(first);
+      cache.getStory(third);
+
+      assertEquals(1, cache.getEvictionCount());
+      assertEquals(2, cache.getStoryCount());
+      assertSame(firstStory, cache.getStory(first));
+      assertNotSame(secondStory, cache.getStory(second));
+    }
+
+    @Test
+    @DisplayName("Test a story larger than the cache is read but not cached")
+    void testStoryLargerThanCache() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(1);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+
+      assertNotNull(cache.getStory(filePath));
+      assertEquals(0, cache.getStoryCount());
+      assertEquals(0, cache.getEvictionCount());
+      assertEquals(0L, cache.getSize());
+    }
+
+    @Test
+    @DisplayName("Test clearing the cache keeps the counters")
+    void testClear() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+      Story story = cache.getStory(filePath);
+
+      cache.clear();
+
+      assertEquals(0, cache.getStoryCount());
+      assertNotSame(story, cache.getStory(filePath));
+      assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Test cached stories have the broken links counted by streaming the file")
+    void testBrokenLinks() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      File[] files = new File(storyFilesPath).listFiles((dir, name) -> name.endsWith(".paths"));
+      assertNotNull(files);
+
+      for (File file : files) {
+        int brokenLinks;
+        try {
+          brokenLinks = StoryFileHandling.countBrokenLinks(file.getAbsolutePath());
+        } catch (IOException | InvalidStoryFormatException e) {
+          continue;
+        }
+        assertEquals(brokenLinks,
+            cache.getStory(file.getAbsolutePath()).getBrokenLinks().size(), file.getName());
+      }
+    }
+
+    @Test
+    @DisplayName("Test a cached story is reported as read all at once")
+    void testProgress() throws IOException, InvalidStoryFormatException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("haunted_house_test.paths");
+      long size = new File(filePath).length();
+      cache.getStory(filePath);
+      long[] progress = new long[2];
+
+      cache.getStory(filePath, (done, total) -> {
+        progress[0] = done;
+        progress[1] = total;
+      });
+
+      assertEquals(size, progress[0]);
+      assertEquals(size, progress[1]);
+    }
+
+    @Test
+    @DisplayName("Test the shared cache is the same cache every time")
+    void testSharedCache() {
+      assertSame(StoryCache.getSharedCache(), StoryCache.getSharedCache());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests reading stories through the cache with invalid input")
+  class NegativeCache {
+
+    @Test
+    @DisplayName("Test an invalid story file throws exception and is not cached")
+    void testInvalidFile() throws IOException {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+      String filePath = copyStoryFile("duplicate_passage.paths");
+
+      assertThrows(InvalidStoryFormatException.class, () -> cache.getStory(filePath));
+      assertThrows(InvalidStoryFormatException.class, () -> cache.getStory(filePath));
+      assertEquals(0, cache.getStoryCount());
+      assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Test a file that does not exist throws exception")
+    void testMissingFile() {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+
+      assertThrows(IOException.class,
+          () -> cache.getStory(directory.resolve("missing.paths").toString()));
+    }
+
+    @Test
+    @DisplayName("Test a null file path throws exception")
+    void testNullFilePath() {
+      StoryCache cache = new StoryCache(StoryCache.DEFAULT_MAX_SIZE);
+
+      assertThrows(IOException.class, () -> cache.getStory(null));
+    }
+
+    @Test
+    @DisplayName("Test a negative maximum size throws exception")
+    void testNegativeMaxSize() {
+      assertThrows(IllegalArgumentException.class, () -> new StoryCache(-1));
+    }
+  }
+}
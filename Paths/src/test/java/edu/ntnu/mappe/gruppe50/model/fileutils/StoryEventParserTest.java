@@ -0,0 +1,118 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.actions.Action;
+import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryEventParserTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  /**
+   * Handler that records every element it receives as a line of text.
+   */
+  static class RecordingHandler implements StoryHandler {
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onStoryTitle(String title) {
+      events.add("story " + title);
+    }
+
+    @Override
+    public void onPassage(String title, String content) {
+      events.add("passage " + title);
+    }
+
+    @Override
+    public void onLink(String text, String reference) {
+      events.add("link " + reference);
+    }
+
+    @Override
+    public void onGoal(Goal goal) {
+      events.add("goal " + goal);
+    }
+
+    @Override
+    public void onAction(Action action) {
+      events.add("action " + action);
+    }
+
+    @Override
+    public void onPassageEnd() {
+      events.add("end");
+    }
+  }
+
+  @Nested
+  @DisplayName("Test parsing valid files")
+  class ValidFiles {
+
+    @Test
+    @DisplayName("Test the elements of a story are received in the order of the file")
+    void testEventsInFileOrder() throws IOException, InvalidStoryFormatException {
+      RecordingHandler handler = new RecordingHandler();
+
+      StoryEventParser.parse(storyFilesPath + "haunted_house_test.paths", handler);
+
+      assertEquals(List.of("story Haunted House",
+          "passage Beginnings", "link Another room", "end",
+          "passage Another room", "link The book of spells", "goal <Gold:100>",
+          "action {Gold:100}", "link Beginnings", "end",
+          "passage The book of spells", "link Another room", "action {Score:50}",
+          "action {Inventory:sword}", "end"), handler.events);
+    }
+
+    @Test
+    @DisplayName("Test a handler that only implements some elements can parse a story")
+    void testHandlerWithDefaultMethods() {
+      assertDoesNotThrow(() -> StoryEventParser.parse(storyFilesPath + "haunted_house_test.paths",
+          new StoryHandler() {
+          }));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test parsing invalid files")
+  class InvalidFiles {
+
+    @Test
+    @DisplayName("Test a link with two goals of the same type throws Invalid Story Format Exception")
+    void testDoubleGoalType() {
+      assertThrows(InvalidStoryFormatException.class, () -> StoryEventParser.parse(
+          storyFilesPath + "double_goal_type.paths", new RecordingHandler()));
+    }
+
+    @Test
+    @DisplayName("Test a story without a title throws Invalid Story Format Exception")
+    void testNoTitle() {
+      assertThrows(InvalidStoryFormatException.class, () -> StoryEventParser.parse(
+          storyFilesPath + "no_title.paths", new RecordingHandler()));
+    }
+
+    @Test
+    @DisplayName("Test a file that does not exist throws IO Exception")
+    void testMissingFile() {
+      assertThrows(IOException.class, () -> StoryEventParser.parse(
+          storyFilesPath + "missing.paths", new RecordingHandler()));
+    }
+
+    @Test
+    @DisplayName("Test parse throws Illegal Argument Exception if the handler is null")
+    void testNullHandler() {
+      assertThrows(IllegalArgumentException.class, () -> StoryEventParser.parse(
+          storyFilesPath + "haunted_house_test.paths", null));
+    }
+  }
+}
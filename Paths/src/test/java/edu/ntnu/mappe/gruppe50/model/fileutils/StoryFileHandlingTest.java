@@ -1,7 +1,10 @@
 package edu.ntnu.mappe.gruppe50.model.fileutils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import edu.ntnu.mappe.gruppe50.model.data.Link;
 import edu.ntnu.mappe.gruppe50.model.data.Passage;
@@ -13,7 +16,14 @@ import edu.ntnu.mappe.gruppe50.model.data.actions.ScoreAction;
 import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
 import edu.ntnu.mappe.gruppe50.model.data.goals.Goal;
 import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import org.junit.jupiter.api.*;
 
@@ -76,6 +86,20 @@ public class StoryFileHandlingTest {
       assertEquals(writtenStory.toString(), codedStory.toString());
     }
 
+    @Test
+    @DisplayName("Test reading a story interns link references as the passage titles")
+    void testReadFromFileInternsReferences() throws IOException, InvalidStoryFormatException {
+      String storyFilePath = System.getProperty("user.dir")
+          + "/src/test/resources/storyFiles/haunted_house_test.paths";
+
+      Story writtenStory = StoryFileHandling.readStoryFromFile(storyFilePath);
+      Link link = writtenStory.getOpeningPassage().getLinks().get(0);
+
+      assertSame(writtenStory.getPassage(link).getTitle(), link.getReference());
+      assertEquals(writtenStory.getSymbols().getSymbol(
+          writtenStory.getSymbols().getId(link.getReference())), link.getReference());
+    }
+
     @Test
     @DisplayName("Test read from file with the basic .paths file format")
     void testReadFromFileWithBaseFormat() throws IOException, InvalidStoryFormatException {
@@ -148,6 +172,24 @@ public class StoryFileHandlingTest {
       assertEquals(codedStory.toString(), StoryFileHandling.readStoryFromFile(writeFormatWithGoalsAndLinksFilePath).toString());
     }
 
+    @Test
+    @DisplayName("Test every reader decodes a .paths file as UTF-8")
+    void testReadersDecodeUtf8() throws InvalidStoryFormatException, IOException {
+      Path file = Files.createTempFile("utf8", ".paths");
+      file.toFile().deleteOnExit();
+      Files.write(file, ("Sjøhuset\n\n::Bryggå\nDu står på brygga.\n[Gå inn](Bryggå)\n")
+          .getBytes(StandardCharsets.UTF_8));
+      String filePath = file.toString();
+
+      Passage bryggå = new Passage("Bryggå", "Du står på brygga.");
+      bryggå.addLink(new Link("Gå inn", "Bryggå"));
+      String expected = new Story("Sjøhuset", bryggå).toString();
+
+      assertEquals(expected, StoryFileHandling.readStoryFromFile(filePath).toString());
+      assertEquals(expected, StoryFileHandling.readLazyStoryFromFile(filePath).toString());
+      assertEquals(expected, StoryFileHandling.readParallelStoryFromFile(filePath).toString());
+    }
+
   }
 
   @Nested
@@ -464,4 +506,191 @@ public class StoryFileHandlingTest {
       );
     }
   }
+
+  @Nested
+  @DisplayName("Tests reading stories with lazily loaded passage content")
+  class LazyRead {
+
+    private final String storyFilesPath = System.getProperty("user.dir")
+        + "/src/test/resources/storyFiles/";
+
+    @Test
+    @DisplayName("Test lazy reading gives the same story or exception as reading every file")
+    void testLazyReadMatchesRead() throws IOException {
+      File[] files = new File(storyFilesPath).listFiles();
+      assertNotNull(files);
+
+      for (File file : files) {
+        String filePath = file.getAbsolutePath();
+        String expected;
+        try {
+          expected = StoryFileHandling.readStoryFromFile(filePath).toString();
+        } catch (IOException | InvalidStoryFormatException e) {
+          expected = e.getClass().getName();
+        }
+        String actual;
+        try {
+          actual = StoryFileHandling.readLazyStoryFromFile(filePath).toString();
+        } catch (IOException | InvalidStoryFormatException e) {
+          actual = e.getClass().getName();
+        }
+        assertEquals(expected, actual, file.getName());
+      }
+    }
+
+    @Test
+    @DisplayName("Test content is decoded again after it is evicted from the cache")
+    void testContentAfterEviction() throws IOException, InvalidStoryFormatException {
+      String filePath = storyFilesPath + "haunted_house_test.paths";
+      Story story = StoryFileHandling.readStoryFromFile(filePath);
+      Story lazyStory = StoryFileHandling.readLazyStoryFromFile(filePath, 1);
+
+      for (int i = 0; i < 2; i++) {
+        for (Passage passage : story.getPassages()) {
+          assertEquals(passage.getContent(),
+              lazyStory.getPassage(new Link("link", passage.getTitle())).getContent());
+        }
+      }
+    }
+
+    @Test
+    @DisplayName("Test lazy reading throws Illegal Argument Exception if the cache size is zero")
+    void testLazyReadWithZeroCacheSize() {
+      assertThrows(IllegalArgumentException.class, () -> StoryFileHandling.readLazyStoryFromFile(
+          storyFilesPath + "haunted_house_test.paths", 0));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests counting broken links without reading the story")
+  class CountBrokenLinks {
+
+    private final String storyFilesPath = System.getProperty("user.dir")
+        + "/src/test/resources/storyFiles/";
+
+    @Test
+    @DisplayName("Test counting gives the same number or exception as reading every file")
+    void testCountMatchesRead() throws IOException {
+      File[] files = new File(storyFilesPath).listFiles();
+      assertNotNull(files);
+
+      for (File file : files) {
+        String filePath = file.getAbsolutePath();
+        String expected;
+        try {
+          expected = String.valueOf(
+              StoryFileHandling.readStoryFromFile(filePath).getBrokenLinks().size());
+        } catch (IOException | InvalidStoryFormatException e) {
+          expected = e.getClass().getName();
+        }
+        String actual;
+        try {
+          actual = String.valueOf(StoryFileHandling.countBrokenLinks(filePath));
+        } catch (IOException | InvalidStoryFormatException e) {
+          actual = e.getClass().getName();
+        }
+        assertEquals(expected, actual, file.getName());
+      }
+    }
+
+    @Test
+    @DisplayName("Test counting finds the broken link of a story")
+    void testCountBrokenLink() throws IOException, InvalidStoryFormatException {
+      assertEquals(1, StoryFileHandling.countBrokenLinks(storyFilesPath + "basic_format.paths"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests reading stories in parallel")
+  class ParallelRead {
+
+    private final String storyFilesPath = System.getProperty("user.dir")
+        + "/src/test/resources/storyFiles/";
+
+    @Test
+    @DisplayName("Test parallel reading gives the same story or error as reading every file")
+    void testParallelReadMatchesRead() throws IOException {
+      File[] files = new File(storyFilesPath).listFiles();
+      assertNotNull(files);
+
+      for (File file : files) {
+        String filePath = file.getAbsolutePath();
+        String expected;
+        try {
+          expected = StoryFileHandling.readStoryFromFile(filePath).toString();
+        } catch (IOException | InvalidStoryFormatException e) {
+          expected = e.getClass().getName() + ": " + e.getMessage();
+        }
+        for (int chunkSize : new int[] {1, 64, StoryFileHandling.DEFAULT_CHUNK_SIZE}) {
+          String actual;
+          try {
+            actual = StoryFileHandling.readParallelStoryFromFile(filePath, chunkSize).toString();
+          } catch (IOException | InvalidStoryFormatException e) {
+            actual = e.getClass().getName() + ": " + e.getMessage();
+          }
+          assertEquals(expected, actual, file.getName() + " in chunks of " + chunkSize);
+        }
+      }
+    }
+
+    @Test
+    @DisplayName("Test the first passage of the file is the opening passage")
+    void testOpeningPassageComesFirst() throws IOException, InvalidStoryFormatException {
+      Story story = StoryFileHandling.readParallelStoryFromFile(
+          storyFilesPath + "haunted_house_test.paths", 1);
+
+      assertEquals("Beginnings", story.getOpeningPassage().getTitle());
+      assertEquals(3, story.getPassages().size());
+    }
+
+    @Test
+    @DisplayName("Test parallel reading throws Illegal Argument Exception if the chunk size is zero")
+    void testParallelReadWithZeroChunkSize() {
+      assertThrows(IllegalArgumentException.class, () -> StoryFileHandling
+          .readParallelStoryFromFile(storyFilesPath + "haunted_house_test.paths", 0));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests reading a story while reporting the progress")
+  class ProgressRead {
+
+    private final String storyFilesPath = System.getProperty("user.dir")
+        + "/src/test/resources/storyFiles/";
+
+    @Test
+    @DisplayName("Test the progress increases until the whole file has been read")
+    void testProgressReachesTotal() throws IOException, InvalidStoryFormatException {
+      String filePath = storyFilesPath + "deadly_castle.paths";
+      long size = new File(filePath).length();
+      List<Long> updates = new ArrayList<>();
+
+      Story story = StoryFileHandling.readStoryFromFile(filePath, (done, total) -> {
+        assertEquals(size, total);
+        updates.add(done);
+      });
+
+      assertEquals(StoryFileHandling.readStoryFromFile(filePath).toString(), story.toString());
+      assertEquals(size, updates.get(updates.size() - 1).longValue());
+      for (int i = 1; i < updates.size(); i++) {
+        assertTrue(updates.get(i) >= updates.get(i - 1));
+      }
+    }
+
+    @Test
+    @DisplayName("Test a cancelled reading stops with a cancellation exception")
+    void testCancel() {
+      assertThrows(CancellationException.class, () -> StoryFileHandling.readStoryFromFile(
+          storyFilesPath + "deadly_castle.paths", (done, total) -> {
+            throw new CancellationException();
+          }));
+    }
+
+    @Test
+    @DisplayName("Test reading with a null progress throws exception")
+    void testNullProgress() {
+      assertThrows(IllegalArgumentException.class, () -> StoryFileHandling.readStoryFromFile(
+          storyFilesPath + "deadly_castle.paths", null));
+    }
+  }
 }
@@ -0,0 +1,114 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.mappe.gruppe50.model.data.SymbolTable;
+import edu.ntnu.mappe.gruppe50.model.fileutils.StoryLexer.Token;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryLexerTest {
+
+  StoryLexer lexer;
+
+  @BeforeEach
+  void setUp() {
+    lexer = new StoryLexer();
+  }
+
+  @Nested
+  @DisplayName("Test classifying lines")
+  class Classify {
+
+    @Test
+    @DisplayName("Test every kind of line is classified by its first character")
+    void testKindsOfLines() {
+      assertEquals(Token.PASSAGE_TITLE, lexer.lex("::Beginnings"));
+      assertEquals(Token.LINK, lexer.lex("[Try to open the door](Another room)"));
+      assertEquals(Token.ACTION, lexer.lex("{Gold:10}"));
+      assertEquals(Token.GOAL, lexer.lex("<Inventory:[Sword, Shield]>"));
+      assertEquals(Token.TEXT, lexer.lex("You are in a small room: it is dark."));
+      assertEquals(Token.BLANK, lexer.lex(""));
+      assertEquals(Token.BLANK, lexer.lex(" \t "));
+    }
+
+    @Test
+    @DisplayName("Test elements that do not start at the first character are text")
+    void testElementsAfterFirstCharacterAreText() {
+      assertEquals(Token.TEXT, lexer.lex(" [text](reference)"));
+      assertEquals(Token.TEXT, lexer.lex(" ::title"));
+      assertEquals(Token.TEXT, lexer.lex("The door says {Gold:10}"));
+    }
+
+    @Test
+    @DisplayName("Test incomplete elements are text")
+    void testIncompleteElementsAreText() {
+      assertEquals(Token.TEXT, lexer.lex(":title"));
+      assertEquals(Token.TEXT, lexer.lex("[text(reference)"));
+      assertEquals(Token.TEXT, lexer.lex("[text](reference"));
+      assertEquals(Token.TEXT, lexer.lex("{Gold10}"));
+      assertEquals(Token.TEXT, lexer.lex("<Gold:10"));
+      assertEquals(Token.TEXT, lexer.lex("{Gold:10} "));
+    }
+
+    @Test
+    @DisplayName("Test lex throws Illegal Argument Exception if the line is null")
+    void testLexNull() {
+      assertThrows(IllegalArgumentException.class, () -> lexer.lex(null));
+    }
+  }
+
+  @Nested
+  @DisplayName("Test parts of lines")
+  class Parts {
+
+    @Test
+    @DisplayName("Test the title of a passage is everything after the double colons")
+    void testTitle() {
+      lexer.lex("::Room: the second");
+
+      assertEquals("Room: the second", lexer.getTitle());
+    }
+
+    @Test
+    @DisplayName("Test a link text can contain parentheses")
+    void testLinkTextWithParentheses() {
+      lexer.lex("[Go left (carefully)](Left room)");
+
+      assertEquals("Go left (carefully)", lexer.getText());
+      assertEquals("Left room", lexer.getReference());
+    }
+
+    @Test
+    @DisplayName("Test the type and value of an action are split at the first colon")
+    void testActionTypeAndValue() {
+      lexer.lex("{Inventory:Key: silver}");
+
+      assertEquals("Inventory", lexer.getType());
+      assertEquals("Key: silver", lexer.getValue());
+    }
+
+    @Test
+    @DisplayName("Test the parts of a link are found in a symbol table")
+    void testPartsFromSymbolTable() {
+      SymbolTable symbols = new SymbolTable();
+      String reference = symbols.intern("Another room");
+
+      lexer.lex("[Open the door](Another room)");
+
+      assertSame(reference, lexer.getReference(symbols));
+      assertEquals("Open the door", lexer.getText(symbols));
+    }
+
+    @Test
+    @DisplayName("Test parts of another kind of line throw Illegal State Exception")
+    void testPartsOfOtherKind() {
+      lexer.lex("{Gold:10}");
+
+      assertThrows(IllegalStateException.class, () -> lexer.getText());
+      assertThrows(IllegalStateException.class, () -> lexer.getTitle());
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryReloaderTest {
+
+  private static final String story = "Haunted House\n\n"
+      + "::Beginnings\nYou are in a small room.\n[Try to open the door](Another room)\n\n"
+      + "::Another room\nThe door opens to another room.\n[Open the book](The book of spells)\n"
+      + "[Go back](Beginnings)\n\n"
+      + "::The book of spells\nThe book is empty.\n[Go back](Another room)\n";
+
+  private Path file;
+  private StoryReloader reloader;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.createTempFile("reload", ".paths");
+    file.toFile().deleteOnExit();
+    Files.writeString(file, story);
+    reloader = new StoryReloader(file.toString());
+  }
+
+  /**
+   * Reads the file and applies the reload.
+   *
+   * @return The story with the reload applied.
+   * @throws IOException                 If the file cannot be read.
+   * @throws InvalidStoryFormatException If the file is not a valid story.
+   */
+  private Story reload() throws IOException, InvalidStoryFormatException {
+    return reloader.apply(reloader.read());
+  }
+
+  /**
+   * Gets a passage of a story by its title.
+   *
+   * @param reloaded The story.
+   * @param title    The title of the passage.
+   * @return The passage.
+   */
+  private static Passage passage(Story reloaded, String title) {
+    return reloaded.getPassage(new Link(title, title));
+  }
+
+  @Nested
+  @DisplayName("Tests reloading stories")
+  class PositiveReload {
+
+    @Test
+    @DisplayName("Test the first read creates the story from the whole file")
+    void testFirstRead() throws IOException, InvalidStoryFormatException {
+      StoryReload reload = reloader.read();
+      Story reloaded = reloader.apply(reload);
+
+      assertTrue(reload.isFullReload());
+      assertEquals(3, reload.getParsedPassageCount());
+      assertEquals(StoryFileHandling.readStoryFromFile(file.toString()).toString(),
+          reloaded.toString());
+    }
+
+    @Test
+    @DisplayName("Test only the changed passage is parsed and replaced")
+    void testChangedPassage() throws IOException, InvalidStoryFormatException {
+      Story reloaded = reload();
+      Passage beginnings = passage(reloaded, "Beginnings");
+      Passage anotherRoom = passage(reloaded, "Another room");
+
+      Files.writeString(file, story.replace("The book is empty.", "The book is full of spells."));
+      StoryReload reload = reloader.read();
+
+      assertFalse(reload.isFullReload());
+      assertEquals(1, reload.getParsedPassageCount());
+      assertSame(reloaded, reloader.apply(reload));
+      assertSame(beginnings, passage(reloaded, "Beginnings"));
+      assertSame(anotherRoom, passage(reloaded, "Another room"));
+      assertEquals("The book is full of spells.",
+          passage(reloaded, "The book of spells").getContent());
+    }
+
+    @Test
+    @DisplayName("Test a reloaded story equals the story read from the file")
+    void testMatchesWholeFile() throws IOException, InvalidStoryFormatException {
+      reload();
+      Files.writeString(file, story.replace("[Go back](Beginnings)\n",
+          "[Go back](Beginnings)\n[Go down](Cellar)\n") + "\n::Cellar\nIt is dark.");
+
+      Story reloaded = reload();
+      Story read = StoryFileHandling.readStoryFromFile(file.toString());
+
+      assertEquals(new ArrayList<>(read.getPassages()).toString(),
+          new ArrayList<>(reloaded.getPassages()).toString());
+      assertTrue(reloaded.getBrokenLinks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a passage deleted from the file is deleted and its links become broken")
+    void testDeletedPassage() throws IOException, InvalidStoryFormatException {
+      reload();
+      Files.writeString(file, story.substring(0, story.indexOf("\n\n::The book of spells")));
+
+      Story reloaded = reload();
+
+      assertEquals(2, reloaded.getPassages().size());
+      assertEquals(List.of(new Link("Open the book", "The book of spells")),
+          reloaded.getBrokenLinks());
+    }
+
+    @Test
+    @DisplayName("Test a changed story title creates the story again")
+    void testChangedStoryTitle() throws IOException, InvalidStoryFormatException {
+      Story reloaded = reload();
+      Files.writeString(file, story.replace("Haunted House", "Haunted Mansion"));
+
+      StoryReload reload = reloader.read();
+      Story recreated = reloader.apply(reload);
+
+      assertTrue(reload.isFullReload());
+      assertNotEquals(reloaded, recreated);
+      assertEquals("Haunted Mansion", recreated.getTitle());
+    }
+
+    @Test
+    @DisplayName("Test a reload that is older than an applied reload is ignored")
+    void testOlderReloadIsIgnored() throws IOException, InvalidStoryFormatException {
+      reload();
+      Files.writeString(file, story.replace("The book is empty.", "First change."));
+      StoryReload older = reloader.read();
+      Files.writeString(file, story.replace("The book is empty.", "Second change."));
+      StoryReload newer = reloader.read();
+
+      Story reloaded = reloader.apply(newer);
+      reloader.apply(older);
+
+      assertEquals("Second change.", passage(reloaded, "The book of spells").getContent());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests reloading stories with invalid input")
+  class NegativeReload {
+
+    @Test
+    @DisplayName("Test an invalid passage throws exception and leaves the story as it was")
+    void testInvalidPassage() throws IOException, InvalidStoryFormatException {
+      Story reloaded = reload();
+      Files.writeString(file, story.replace("[Go back](Another room)", "[Go back]( )"));
+
+      assertThrows(InvalidStoryFormatException.class, () -> reloader.read());
+      assertEquals("The book is empty.", passage(reloaded, "The book of spells").getContent());
+
+      Files.writeString(file, story.replace("The book is empty.", "Fixed."));
+      StoryReload reload = reloader.read();
+      assertFalse(reload.isFullReload());
+      assertEquals(1, reload.getParsedPassageCount());
+    }
+
+    @Test
+    @DisplayName("Test two passages with the same title throw exception")
+    void testDuplicateTitle() throws IOException, InvalidStoryFormatException {
+      reload();
+      Files.writeString(file, story + "\n::Beginnings\nAgain.");
+
+      assertThrows(InvalidStoryFormatException.class, () -> reloader.read());
+    }
+
+    @Test
+    @DisplayName("Test blank lines that break the format throw exception")
+    void testInvalidBlankLines() throws IOException, InvalidStoryFormatException {
+      reload();
+      Files.writeString(file, story.replace("\n\n::Another room", "\n\n\n::Another room"));
+      assertThrows(InvalidStoryFormatException.class, () -> reloader.read());
+
+      Files.writeString(file, story + "\n\n");
+      assertThrows(InvalidStoryFormatException.class, () -> reloader.read());
+    }
+
+    @Test
+    @DisplayName("Test a missing file throws exception")
+    void testMissingFile() {
+      StoryReloader missing = new StoryReloader(file + ".missing.paths");
+
+      assertThrows(IOException.class, missing::read);
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() {
+      assertThrows(IllegalArgumentException.class, () -> new StoryReloader(null));
+      assertThrows(IllegalArgumentException.class, () -> reloader.apply(null));
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.InventoryGoal;
+import edu.ntnu.mappe.gruppe50.model.data.goals.ScoreGoal;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class StoryWriterTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  @Nested
+  @DisplayName("Tests writing stories with valid input")
+  class PositiveWrite {
+
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+      Passage beginnings = new Passage("Beginnings", "You are in a small, dimly lit room.");
+      Passage anotherRoom = new Passage("Another room", "The door opens to another room.");
+      Link openDoor = new Link("Open the door", "Another room");
+      openDoor.addGoal(new ScoreGoal(10));
+      openDoor.addGoal(new InventoryGoal(List.of("Key", "Torch")));
+      openDoor.addAction(new GoldAction(5));
+      openDoor.addAction(new InventoryAction("Sword"));
+      beginnings.addLink(openDoor);
+      beginnings.addLink(new Link("Stay", "Beginnings"));
+      anotherRoom.addLink(new Link("Go back", "Beginnings"));
+
+      story = new Story("Haunted House", beginnings);
+      story.addPassage(anotherRoom);
+    }
+
+    @Test
+    @DisplayName("Test the written story is identical to the story as a string")
+    void testWriteMatchesToString() throws IOException {
+      StringWriter out = new StringWriter();
+
+      new StoryWriter(out).write(story);
+
+      assertEquals(story.toString(), out.toString());
+    }
+
+    @Test
+    @DisplayName("Test written passages and links are identical to their strings")
+    void testWritePassageAndLink() throws IOException {
+      Passage beginnings = story.getOpeningPassage();
+      StringWriter passageOut = new StringWriter();
+      StringWriter linkOut = new StringWriter();
+
+      new StoryWriter(passageOut).write(beginnings);
+      new StoryWriter(linkOut).write(beginnings.getLinks().get(0));
+
+      assertEquals(beginnings.toString(), passageOut.toString());
+      assertEquals(beginnings.getLinks().get(0).toString(), linkOut.toString());
+    }
+
+    @Test
+    @DisplayName("Test every valid story file is written identical to the story as a string")
+    void testWriteStoryFiles() throws IOException {
+      File[] files = new File(storyFilesPath).listFiles((dir, name) -> name.endsWith(".paths"));
+      assertNotNull(files);
+
+      int written = 0;
+      for (File file : files) {
+        Story fileStory;
+        try {
+          fileStory = StoryFileHandling.readStoryFromFile(file.getAbsolutePath());
+        } catch (IOException | InvalidStoryFormatException e) {
+          continue;
+        }
+        StringWriter out = new StringWriter();
+        new StoryWriter(out).write(fileStory);
+        assertEquals(fileStory.toString(), out.toString(), file.getName());
+        written++;
+      }
+      assertTrue(written > 0);
+    }
+
+    @Test
+    @DisplayName("Test the story file has the same bytes as the story as a string")
+    void testWriteStoryToFileBytes() throws IOException, InvalidStoryFormatException {
+      Path file = Files.createTempFile("story", ".paths");
+      file.toFile().deleteOnExit();
+
+      StoryFileHandling.writeStoryToFile(story, file.toString());
+
+      assertArrayEquals(story.toString().getBytes(), Files.readAllBytes(file));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests writing stories with invalid input")
+  class NegativeWrite {
+
+    @Test
+    @DisplayName("Test creating a story writer with a null writer throws exception")
+    void testNullWriter() {
+      assertThrows(IllegalArgumentException.class, () -> new StoryWriter(null));
+    }
+
+    @Test
+    @DisplayName("Test writing null throws exception")
+    void testWriteNull() {
+      StoryWriter storyWriter = new StoryWriter(new StringWriter());
+
+      assertThrows(IllegalArgumentException.class, () -> storyWriter.write((Story) null));
+      assertThrows(IllegalArgumentException.class, () -> storyWriter.write((Passage) null));
+      assertThrows(IllegalArgumentException.class, () -> storyWriter.write((Link) null));
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class UserStoryImporterTest {
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  private Path directory;
+  private Path goalsDirectory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("storyimport");
+    directory.toFile().deleteOnExit();
+    goalsDirectory = Files.createTempDirectory("goalimport");
+    goalsDirectory.toFile().deleteOnExit();
+    for (String name : List.of("haunted_house_test.paths", "basic_format.paths",
+        "deadly_castle.paths", "duplicate_passage.paths", "invalid_file_type.poths")) {
+      Path copy = directory.resolve(name);
+      Files.copy(Path.of(storyFilesPath + name), copy, StandardCopyOption.REPLACE_EXISTING);
+      copy.toFile().deleteOnExit();
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests importing directories of stories")
+  class PositiveImport {
+
+    @Test
+    @DisplayName("Test the valid stories of a directory are imported in file name order")
+    void testImportDirectory() throws IOException, InvalidStoryFormatException {
+      UserStoryImportResult result = new UserStoryImporter(2).importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(), LoadProgress.NONE);
+
+      List<UserStoryInfo> imported = result.getImported();
+      assertEquals(3, imported.size());
+      assertEquals("basic_format.paths", imported.get(0).getFileName());
+      assertEquals("deadly_castle.paths", imported.get(1).getFileName());
+      assertEquals("haunted_house_test.paths", imported.get(2).getFileName());
+      for (UserStoryInfo userStoryInfo : imported) {
+        assertEquals(StoryFileHandling.countBrokenLinks(userStoryInfo.getFilePath()),
+            userStoryInfo.getNumBrokenLinks());
+        File goalsFile = goalsDirectory.resolve(
+            userStoryInfo.getFileName().replace(".paths", ".goals")).toFile();
+        goalsFile.deleteOnExit();
+        assertTrue(goalsFile.exists());
+      }
+    }
+
+    @Test
+    @DisplayName("Test an invalid story is reported and gets no goals file")
+    void testInvalidStory() throws IOException {
+      UserStoryImportResult result = new UserStoryImporter(2).importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(), LoadProgress.NONE);
+
+      assertEquals(1, result.getFailures().size());
+      assertTrue(result.getFailures().containsKey("duplicate_passage.paths"));
+      assertTrue(!goalsDirectory.resolve("duplicate_passage.goals").toFile().exists());
+    }
+
+    @Test
+    @DisplayName("Test a story that is already added is not imported again")
+    void testAlreadyAdded() throws IOException {
+      String added = new File(directory.toFile(), "basic_format.paths").getPath();
+
+      UserStoryImportResult result = new UserStoryImporter(2).importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(added), LoadProgress.NONE);
+
+      assertEquals(2, result.getImported().size());
+      assertTrue(result.getFailures().containsKey("basic_format.paths"));
+      assertTrue(!goalsDirectory.resolve("basic_format.goals").toFile().exists());
+    }
+
+    @Test
+    @DisplayName("Test a single thread imports the same stories")
+    void testSingleThread() throws IOException {
+      UserStoryImportResult parallel = new UserStoryImporter(4).importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(), LoadProgress.NONE);
+      UserStoryImportResult sequential = new UserStoryImporter(1).importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(), LoadProgress.NONE);
+
+      assertEquals(parallel.getImported(), sequential.getImported());
+      assertEquals(parallel.getFailures().keySet(), sequential.getFailures().keySet());
+    }
+
+    @Test
+    @DisplayName("Test the progress counts every .paths file")
+    void testProgress() throws IOException {
+      List<Long> done = new ArrayList<>();
+
+      new UserStoryImporter(2).importDirectory(directory.toString(), goalsDirectory.toString(),
+          List.of(), (count, total) -> {
+            assertEquals(4, total);
+            done.add(count);
+          });
+
+      assertEquals(List.of(1L, 2L, 3L, 4L), done);
+    }
+
+    @Test
+    @DisplayName("Test an empty directory imports nothing")
+    void testEmptyDirectory() throws IOException {
+      Path empty = Files.createTempDirectory("emptyimport");
+      empty.toFile().deleteOnExit();
+
+      UserStoryImportResult result = new UserStoryImporter(2).importDirectory(
+          empty.toString(), goalsDirectory.toString(), List.of(), LoadProgress.NONE);
+
+      assertTrue(result.getImported().isEmpty());
+      assertTrue(result.getFailures().isEmpty());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests importing directories of stories with invalid input")
+  class NegativeImport {
+
+    @Test
+    @DisplayName("Test a cancelled import throws exception")
+    void testCancel() {
+      UserStoryImporter importer = new UserStoryImporter(2);
+
+      assertThrows(CancellationException.class, () -> importer.importDirectory(
+          directory.toString(), goalsDirectory.toString(), List.of(), (done, total) -> {
+            throw new CancellationException();
+          }));
+    }
+
+    @Test
+    @DisplayName("Test a directory that does not exist throws exception")
+    void testMissingDirectory() {
+      UserStoryImporter importer = new UserStoryImporter(2);
+
+      assertThrows(IOException.class, () -> importer.importDirectory(
+          directory.resolve("missing").toString(), goalsDirectory.toString(), List.of(),
+          LoadProgress.NONE));
+    }
+
+    @Test
+    @DisplayName("Test null input throws exception")
+    void testNullInput() {
+      UserStoryImporter importer = new UserStoryImporter(2);
+      String path = directory.toString();
+      String goalsPath = goalsDirectory.toString();
+
+      assertThrows(IllegalArgumentException.class,
+          () -> importer.importDirectory(null, goalsPath, List.of(), LoadProgress.NONE));
+      assertThrows(IllegalArgumentException.class,
+          () -> importer.importDirectory(path, null, List.of(), LoadProgress.NONE));
+      assertThrows(IllegalArgumentException.class,
+          () -> importer.importDirectory(path, goalsPath, null, LoadProgress.NONE));
+      assertThrows(IllegalArgumentException.class,
+          () -> importer.importDirectory(path, goalsPath, List.of(), null));
+    }
+
+    @Test
+    @DisplayName("Test a maximum number of threads below one throws exception")
+    void testInvalidMaxThreads() {
+      assertThrows(IllegalArgumentException.class, () -> new UserStoryImporter(0));
+    }
+  }
+}
@@ -8,6 +8,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -238,5 +243,68 @@ public class UserStoryInfoFileHandlingTest {
       assertThrows(IllegalArgumentException.class, () -> UserStoryInfoFileHandling.removeUserStoryInfoFromFile("test", ""));
     }
   }
-}
 
+  @Nested
+  @DisplayName("Test writeUserStoryInfosToFile")
+  class TestWriteUserStoryInfosToFile {
+    UserStoryInfo userStoryInfo1, userStoryInfo2, userStoryInfo3;
+    Path filePath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+      userStoryInfo1 = new UserStoryInfo("test1.paths", "/test/path/test1.paths", 1);
+      userStoryInfo2 = new UserStoryInfo("test2.paths", "/test/path/test2.paths", 2);
+      userStoryInfo3 = new UserStoryInfo("test3.paths", "/test/path/test3.paths", 3);
+      Path directory = Files.createTempDirectory("userstoryinfo");
+      directory.toFile().deleteOnExit();
+      filePath = directory.resolve("batch.userStoryInfo");
+      filePath.toFile().deleteOnExit();
+    }
+
+    @Test
+    @DisplayName("Test writeUserStoryInfosToFile creates the file")
+    void testWriteUserStoryInfosToNewFile() throws IOException {
+      UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1, userStoryInfo2), filePath.toString());
+
+      UserStoryInfoRegister register = UserStoryInfoFileHandling.readUserStoryInfoFromFile(filePath.toString());
+      assertEquals(List.of(userStoryInfo1, userStoryInfo2), register.getUserStoryInfos());
+      try (Stream<Path> files = Files.list(filePath.getParent())) {
+        assertEquals(1, files.count());
+      }
+    }
+
+    @Test
+    @DisplayName("Test writeUserStoryInfosToFile replaces existing UserStoryInfos in place and adds new ones")
+    void testWriteUserStoryInfosMergesWithFile() throws IOException {
+      UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1, userStoryInfo2), filePath.toString());
+      UserStoryInfo refreshed = new UserStoryInfo("test1.paths", "/test/path/test1.paths", 7);
+
+      UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo3, refreshed), filePath.toString());
+
+      List<UserStoryInfo> fromFile = UserStoryInfoFileHandling.readUserStoryInfoFromFile(filePath.toString()).getUserStoryInfos();
+      assertEquals(List.of(userStoryInfo1, userStoryInfo2, userStoryInfo3), fromFile);
+      assertEquals(7, fromFile.get(0).getNumBrokenLinks());
+    }
+
+    @Test
+    @DisplayName("Test writeUserStoryInfosToFile with a null UserStoryInfo leaves the file unchanged.")
+    void testWriteUserStoryInfosWhenUserStoryInfoIsNull() throws IOException {
+      UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1), filePath.toString());
+      List<UserStoryInfo> userStoryInfos = new ArrayList<>();
+      userStoryInfos.add(userStoryInfo2);
+      userStoryInfos.add(null);
+
+      assertThrows(IllegalArgumentException.class, () -> UserStoryInfoFileHandling.writeUserStoryInfosToFile(userStoryInfos, filePath.toString()));
+      assertEquals(1, UserStoryInfoFileHandling.readUserStoryInfoFromFile(filePath.toString()).getUserStoryInfos().size());
+    }
+
+    @Test
+    @DisplayName("Test writeUserStoryInfosToFile with invalid input.")
+    void testWriteUserStoryInfosWithInvalidInput() {
+      assertThrows(IllegalArgumentException.class, () -> UserStoryInfoFileHandling.writeUserStoryInfosToFile(null, filePath.toString()));
+      assertThrows(IllegalArgumentException.class, () -> UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1), null));
+      assertThrows(IllegalArgumentException.class, () -> UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1), ""));
+      assertThrows(IOException.class, () -> UserStoryInfoFileHandling.writeUserStoryInfosToFile(List.of(userStoryInfo1), filePath + ".txt"));
+    }
+  }
+}
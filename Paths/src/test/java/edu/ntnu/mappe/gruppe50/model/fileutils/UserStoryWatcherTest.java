@@ -0,0 +1,196 @@
+package edu.ntnu.mappe.gruppe50.model.fileutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.InvalidStoryFormatException;
+import edu.ntnu.mappe.gruppe50.model.data.UserStoryInfo;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class UserStoryWatcherTest {
+
+  private static final String brokenPassage = "\n\n::Lost\nYou are lost.\n[Go on](Nowhere)";
+
+  private final String storyFilesPath = System.getProperty("user.dir")
+      + "/src/test/resources/storyFiles/";
+
+  private final BlockingQueue<UserStoryInfo> refreshed = new LinkedBlockingQueue<>();
+  private Path directory;
+  private UserStoryWatcher watcher;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("storywatcher");
+    directory.toFile().deleteOnExit();
+    watcher = new UserStoryWatcher(100, refreshed::add);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    watcher.close();
+  }
+
+  /**
+   * Copies a story file from the test resources to the temporary directory, and creates its user
+   * story info.
+   *
+   * @param name The name of the story file.
+   * @return The user story info of the copy.
+   * @throws IOException                 If the file cannot be copied.
+   * @throws InvalidStoryFormatException If the story file is invalid.
+   */
+  private UserStoryInfo copyStoryFile(String name)
+      throws IOException, InvalidStoryFormatException {
+    Path copy = directory.resolve(name);
+    Files.copy(Path.of(storyFilesPath + name), copy, StandardCopyOption.REPLACE_EXISTING);
+    copy.toFile().deleteOnExit();
+    return new UserStoryInfo(name, copy.toString(),
+        StoryFileHandling.countBrokenLinks(copy.toString()));
+  }
+
+  /**
+   * Appends text to a file.
+   *
+   * @param userStoryInfo The user story info of the file.
+   * @param text          The text that is appended.
+   * @throws IOException If the file cannot be written to.
+   */
+  private void append(UserStoryInfo userStoryInfo, String text) throws IOException {
+    Files.writeString(Path.of(userStoryInfo.getFilePath()), text, StandardOpenOption.APPEND);
+  }
+
+  @Nested
+  @DisplayName("Tests watching user stories")
+  class PositiveWatch {
+
+    @Test
+    @DisplayName("Test a changed file is refreshed with its new number of broken links")
+    void testRefresh()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      UserStoryInfo userStoryInfo = copyStoryFile("haunted_house_test.paths");
+      watcher.watch(userStoryInfo);
+
+      append(userStoryInfo, brokenPassage);
+      UserStoryInfo refreshedInfo = refreshed.poll(10, TimeUnit.SECONDS);
+
+      assertNotNull(refreshedInfo);
+      assertEquals(userStoryInfo, refreshedInfo);
+      assertEquals(userStoryInfo.getNumBrokenLinks() + 1, refreshedInfo.getNumBrokenLinks());
+      assertEquals(userStoryInfo.getFileName(), refreshedInfo.getFileName());
+    }
+
+    @Test
+    @DisplayName("Test several changes within the debounce delay are checked once")
+    void testDebounce()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      watcher.close();
+      watcher = new UserStoryWatcher(1000, refreshed::add);
+      UserStoryInfo userStoryInfo = copyStoryFile("haunted_house_test.paths");
+      watcher.watch(userStoryInfo);
+
+      for (int i = 0; i < 5; i++) {
+        append(userStoryInfo, brokenPassage.replace("Lost", "Lost " + i));
+      }
+      UserStoryInfo refreshedInfo = refreshed.poll(10, TimeUnit.SECONDS);
+
+      assertNotNull(refreshedInfo);
+      assertEquals(userStoryInfo.getNumBrokenLinks() + 5, refreshedInfo.getNumBrokenLinks());
+      assertNull(refreshed.poll(1500, TimeUnit.MILLISECONDS));
+      assertEquals(1, watcher.getCheckCount());
+    }
+
+    @Test
+    @DisplayName("Test only the changed file of several watched files is checked")
+    void testOnlyChangedFile()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      UserStoryInfo changedInfo = copyStoryFile("haunted_house_test.paths");
+      UserStoryInfo unchangedInfo = copyStoryFile("basic_format.paths");
+      watcher.watch(changedInfo);
+      watcher.watch(unchangedInfo);
+
+      append(changedInfo, brokenPassage);
+
+      assertEquals(changedInfo, refreshed.poll(10, TimeUnit.SECONDS));
+      assertNull(refreshed.poll(500, TimeUnit.MILLISECONDS));
+      assertEquals(1, watcher.getCheckCount());
+    }
+
+    @Test
+    @DisplayName("Test a change that keeps the number of broken links is not passed on")
+    void testUnchangedNumberOfBrokenLinks()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      UserStoryInfo userStoryInfo = copyStoryFile("haunted_house_test.paths");
+      watcher.watch(userStoryInfo);
+
+      append(userStoryInfo, "\n");
+
+      assertNull(refreshed.poll(1000, TimeUnit.MILLISECONDS));
+      assertEquals(1, watcher.getCheckCount());
+    }
+
+    @Test
+    @DisplayName("Test a file that is no longer a valid story is not passed on")
+    void testInvalidStory()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      UserStoryInfo userStoryInfo = copyStoryFile("haunted_house_test.paths");
+      watcher.watch(userStoryInfo);
+
+      append(userStoryInfo, "\n\n::Beginnings\nA passage with the same title.\n");
+
+      assertNull(refreshed.poll(1000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Test an unwatched file is not checked")
+    void testUnwatch()
+        throws IOException, InvalidStoryFormatException, InterruptedException {
+      UserStoryInfo userStoryInfo = copyStoryFile("haunted_house_test.paths");
+      watcher.watch(userStoryInfo);
+      watcher.unwatch(userStoryInfo.getFilePath());
+
+      append(userStoryInfo, brokenPassage);
+
+      assertNull(refreshed.poll(1000, TimeUnit.MILLISECONDS));
+      assertEquals(0, watcher.getCheckCount());
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests watching user stories with invalid input")
+  class NegativeWatch {
+
+    @Test
+    @DisplayName("Test a negative debounce delay throws exception")
+    void testNegativeDebounce() {
+      assertThrows(IllegalArgumentException.class, () -> new UserStoryWatcher(-1, info -> {
+      }));
+    }
+
+    @Test
+    @DisplayName("Test a null listener throws exception")
+    void testNullListener() {
+      assertThrows(IllegalArgumentException.class, () -> new UserStoryWatcher(100, null));
+    }
+
+    @Test
+    @DisplayName("Test watching or unwatching null throws exception")
+    void testNullInput() {
+      assertThrows(IllegalArgumentException.class, () -> watcher.watch(null));
+      assertThrows(IllegalArgumentException.class, () -> watcher.unwatch(null));
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class GameServerTest {
+
+  CompiledStory story;
+  GameServer server;
+  HttpClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Passage opening = new Passage("Start", "The gate is open");
+    Link hallLink = new Link("Enter the hall", "Hall");
+    hallLink.addAction(new GoldAction(5));
+    opening.addLink(hallLink);
+    opening.addLink(new Link("Walk into the void", "Void"));
+    Story uncompiled = new Story("Castle", opening);
+    Passage hall = new Passage("Hall", "A dark hall");
+    hall.addLink(new Link("Go back", "Start"));
+    uncompiled.addPassage(hall);
+
+    story = uncompiled.compile();
+    server = new GameServer.Builder(story).port(0).threads(2).build();
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  HttpResponse<String> send(String method, String path) throws Exception {
+    return client.send(HttpRequest.newBuilder(
+            URI.create("http://localhost:" + server.getPort() + path))
+        .method(method, HttpRequest.BodyPublishers.noBody()).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  String createSession() throws Exception {
+    HttpResponse<String> response = send("POST", "/sessions?player=Ann%20Lee");
+    assertEquals(201, response.statusCode());
+    String body = response.body();
+    int start = body.indexOf("\"session\":\"") + "\"session\":\"".length();
+    return body.substring(start, body.indexOf('"', start));
+  }
+
+  @Nested
+  @DisplayName("Tests the game server with valid requests")
+  class PositiveGameServer {
+
+    @Test
+    @DisplayName("Test a new session starts at the opening passage of the shared story")
+    void testCreateSession() throws Exception {
+      String id = createSession();
+
+      HttpResponse<String> response = send("GET", "/sessions/" + id);
+      assertEquals(200, response.statusCode());
+      assertTrue(response.body().contains("\"title\":\"Start\""));
+      assertTrue(response.body().contains("\"name\":\"Ann Lee\""));
+      assertEquals(1, server.getSessionCount());
+      assertEquals(story, server.getSession(id).getGame().getCompiledStory());
+    }
+
+    @Test
+    @DisplayName("Test go follows a link, and only changes the game of its own session")
+    void testGo() throws Exception {
+      String id = createSession();
+      String otherId = createSession();
+
+      HttpResponse<String> response = send("POST", "/sessions/" + id + "/go?link=0");
+      assertEquals(200, response.statusCode());
+      assertTrue(response.body().contains("\"title\":\"Hall\""));
+      assertTrue(response.body().contains("\"gold\":5"));
+      assertTrue(response.body().contains("\"visitedLinks\":1"));
+      assertEquals(0, server.getSession(otherId).getGame().getPlayer().getGold());
+      assertNotSame(server.getSession(id).getGame().getPlayer(),
+          server.getSession(otherId).getGame().getPlayer());
+    }
+
+    @Test
+    @DisplayName("Test delete ends a session")
+    void testDelete() throws Exception {
+      String id = createSession();
+
+      assertEquals(204, send("DELETE", "/sessions/" + id).statusCode());
+      assertNull(server.getSession(id));
+      assertEquals(404, send("GET", "/sessions/" + id).statusCode());
+    }
+
+    @Test
+    @DisplayName("Test a spilled session is rehydrated by the next go, and counted in the stats")
+    void testSpilledSession() throws Exception {
+      server.close();
+      server = new GameServer.Builder(story).port(0).idleMillis(0).build();
+      String id = createSession();
+      server.getSessionStore().evict();
+      assertFalse(server.getSession(id).isResident());
+
+      HttpResponse<String> response = send("POST", "/sessions/" + id + "/go?link=0");
+      assertEquals(200, response.statusCode());
+      assertTrue(response.body().contains("\"gold\":5"));
+      assertTrue(server.getSessionStore().getRehydrationCount() >= 1);
+
+      HttpResponse<String> stats = send("GET", "/stats");
+      assertEquals(200, stats.statusCode());
+      assertTrue(stats.body().startsWith("{\"sessions\":1,"));
+    }
+
+    @Test
+    @DisplayName("Test the load test client plays sessions and reports the latency of go")
+    void testLoadTestClient() throws Exception {
+      LoadTestClient.Result result = new LoadTestClient("localhost:" + server.getPort())
+          .run(20, 5, 4);
+
+      assertEquals(20, result.getSessions());
+      assertEquals(100, result.getRequests());
+      assertTrue(result.getP50Nanos() <= result.getP99Nanos());
+      assertTrue(result.getP99Nanos() <= result.getMaxNanos());
+      assertEquals(0, server.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test the query and state of a session are parsed")
+    void testParsing() throws Exception {
+      assertEquals(Map.of("player", "Ann Lee", "link", "2"),
+          GameServer.parseQuery("player=Ann+Lee&link=2"));
+      assertArrayEquals(new int[] {0, 2},
+          LoadTestClient.accessibleLinks("{\"accessibleLinks\":[0,2],\"player\":{}}"));
+      assertEquals(2, LoadTestClient.percentile(new long[] {1, 2, 3, 4}, 50));
+      assertEquals(4, LoadTestClient.percentile(new long[] {1, 2, 3, 4}, 99));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests the game server with invalid requests")
+  class NegativeGameServer {
+
+    @Test
+    @DisplayName("Test requests to an unknown session answer 404")
+    void testUnknownSession() throws Exception {
+      assertEquals(404, send("GET", "/sessions/unknown").statusCode());
+      assertEquals(404, send("POST", "/sessions/unknown/go?link=0").statusCode());
+      assertTrue(send("GET", "/sessions/unknown").body().startsWith("{\"error\":"));
+    }
+
+    @Test
+    @DisplayName("Test go with an invalid link answers 400, and a broken link answers 409")
+    void testGoWithInvalidLink() throws Exception {
+      String id = createSession();
+
+      assertEquals(400, send("POST", "/sessions/" + id + "/go?link=7").statusCode());
+      assertEquals(400, send("POST", "/sessions/" + id + "/go?link=first").statusCode());
+      assertEquals(409, send("POST", "/sessions/" + id + "/go?link=1").statusCode());
+      assertEquals(405, send("PUT", "/sessions/" + id).statusCode());
+    }
+
+    @Test
+    @DisplayName("Test builder throws exception with invalid values")
+    void testBuilderWithInvalidValues() {
+      assertThrows(IllegalArgumentException.class, () -> new GameServer.Builder(null));
+      assertThrows(IllegalArgumentException.class, () -> new GameServer.Builder(story).port(-1));
+      assertThrows(IllegalArgumentException.class, () -> new GameServer.Builder(story).threads(0));
+      assertThrows(IllegalArgumentException.class,
+          () -> new GameServer.Builder(story).startingHealth(0));
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.customexceptions.NoMatchingPassageException;
+import edu.ntnu.mappe.gruppe50.model.data.Game;
+import edu.ntnu.mappe.gruppe50.model.data.LinkRegister;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.HealthAction;
+import edu.ntnu.mappe.gruppe50.model.data.goals.GoldGoal;
+import java.util.ArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class GameSessionTest {
+
+  Story story;
+  Player player;
+  GameSession session;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Passage opening = new Passage("Start", "The \"castle\" gate\nis open");
+    opening.addLink(new Link("Enter the hall", "Hall"));
+    opening.addLink(new Link("Walk into the void", "Void"));
+    Link vault = new Link("Open the vault", "Hall");
+    vault.addGoal(new GoldGoal(1000));
+    opening.addLink(vault);
+    Link trap = new Link("Step on the trap", "Hall");
+    trap.addAction(new HealthAction(-100));
+    opening.addLink(trap);
+
+    story = new Story("Castle", opening);
+    Passage hall = new Passage("Hall", "A dark hall");
+    hall.addLink(new Link("Go back", "Start"));
+    story.addPassage(hall);
+    player = new Player.Builder("Ann \\ Bob").health(100).build();
+    Game game = Game.fromCompiledStory(player, story.compile(), new ArrayList<>(),
+        new LinkRegister());
+    session = new GameSession("id", game);
+  }
+
+  @Nested
+  @DisplayName("Tests the game session with valid input")
+  class PositiveGameSession {
+
+    @Test
+    @DisplayName("Test the session starts at the opening passage")
+    void testStartsAtOpeningPassage() {
+      assertEquals("Start", session.getCurrentPassage().getTitle());
+      assertEquals("id", session.getId());
+    }
+
+    @Test
+    @DisplayName("Test go follows the link at the index and moves to its passage")
+    void testGo() throws Exception {
+      Passage hall = session.go(0);
+
+      assertEquals("Hall", hall.getTitle());
+      assertEquals(hall, session.getCurrentPassage());
+      assertEquals(1, session.getGame().getVisitedLinks().size());
+    }
+
+    @Test
+    @DisplayName("Test toJson writes the passage, followable links and player, escaping strings")
+    void testToJson() {
+      assertEquals("{\"session\":\"id\",\"passage\":{\"title\":\"Start\","
+          + "\"content\":\"The \\\"castle\\\" gate\\nis open\",\"links\":[\"Enter the hall\","
+          + "\"Walk into the void\",\"Open the vault\",\"Step on the trap\"]},"
+          + "\"accessibleLinks\":[0,3],\"player\":{\"name\":\"Ann \\\\ Bob\",\"health\":100,"
+          + "\"score\":0,\"gold\":0,\"inventory\":[]},\"visitedLinks\":0}", session.toJson());
+    }
+
+    @Test
+    @DisplayName("Test a dead player has no accessible links")
+    void testDeadPlayerHasNoAccessibleLinks() throws Exception {
+      session.go(3);
+
+      assertEquals(0, player.getHealth());
+      assertTrue(session.toJson().contains("\"accessibleLinks\":[]"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests the game session with invalid input")
+  class NegativeGameSession {
+
+    @Test
+    @DisplayName("Test constructor throws exception if id or game is null")
+    void testConstructorWithNull() {
+      Game game = session.getGame();
+
+      assertThrows(IllegalArgumentException.class, () -> new GameSession(null, game));
+      assertThrows(IllegalArgumentException.class, () -> new GameSession("id", null));
+      assertThrows(IllegalArgumentException.class, () -> new GameSession("id", game, null));
+    }
+
+    @Test
+    @DisplayName("Test go throws exception if there is no link at the index")
+    void testGoWithInvalidIndex() {
+      assertThrows(IllegalArgumentException.class, () -> session.go(-1));
+      assertThrows(IllegalArgumentException.class, () -> session.go(4));
+    }
+
+    @Test
+    @DisplayName("Test go throws exception if the link is broken or not accessible")
+    void testGoWithUnusableLink() {
+      assertThrows(NoMatchingPassageException.class, () -> session.go(1));
+      assertThrows(IllegalArgumentException.class, () -> session.go(2));
+      assertEquals("Start", session.getCurrentPassage().getTitle());
+    }
+
+    @Test
+    @DisplayName("Test go throws exception if the player is dead")
+    void testGoWhenDead() throws Exception {
+      session.go(3);
+
+      assertThrows(IllegalArgumentException.class, () -> session.go(0));
+    }
+  }
+}
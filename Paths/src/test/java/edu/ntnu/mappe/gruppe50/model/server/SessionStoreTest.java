@@ -0,0 +1,263 @@
+package edu.ntnu.mappe.gruppe50.model.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.mappe.gruppe50.model.data.CompiledStory;
+import edu.ntnu.mappe.gruppe50.model.data.Link;
+import edu.ntnu.mappe.gruppe50.model.data.Passage;
+import edu.ntnu.mappe.gruppe50.model.data.Player;
+import edu.ntnu.mappe.gruppe50.model.data.Story;
+import edu.ntnu.mappe.gruppe50.model.data.actions.GoldAction;
+import edu.ntnu.mappe.gruppe50.model.data.actions.InventoryAction;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class SessionStoreTest {
+
+  private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+  CompiledStory story;
+  Path directory;
+  SessionStore store;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Passage opening = new Passage("Start", "The gate is open");
+    Link hallLink = new Link("Enter the hall", "Hall");
+    hallLink.addAction(new GoldAction(5));
+    hallLink.addAction(new InventoryAction("Torch"));
+    opening.addLink(hallLink);
+    Story uncompiled = new Story("Castle", opening);
+    Passage hall = new Passage("Hall", "A dark hall");
+    hall.addLink(new Link("Go back", "Start"));
+    uncompiled.addPassage(hall);
+    story = uncompiled.compile();
+
+    directory = Files.createTempDirectory("sessionstore");
+    directory.toFile().deleteOnExit();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * Creates a store whose background thread only spills sessions when the store is over its
+   * capacity, so the tests decide when idle sessions are spilled.
+   *
+   * @param idleMillis The idle time of the store.
+   * @param capacity   The capacity of the store.
+   * @return The store.
+   * @throws IOException If the directory cannot be created.
+   */
+  private SessionStore createStore(long idleMillis, int capacity) throws IOException {
+    store = new SessionStore.Builder(story, directory)
+        .idleMillis(idleMillis)
+        .capacity(capacity)
+        .evictionIntervalMillis(HOUR_MILLIS)
+        .build();
+    return store;
+  }
+
+  private Player createPlayer(String name) {
+    return new Player.Builder(name).health(10).build();
+  }
+
+  private long countSnapshots() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests the session store with valid input")
+  class PositiveSessionStore {
+
+    @Test
+    @DisplayName("Test an idle session is spilled to disk, and rehydrated on the next go")
+    void testSpillAndRehydrate() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      session.go(0);
+
+      assertEquals(1, store.evict());
+      assertFalse(session.isResident());
+      assertEquals(0, store.getResidentCount());
+      assertEquals(1, store.getSpillCount());
+      assertEquals(1, countSnapshots());
+
+      assertEquals("Start", session.go(0).getTitle());
+      assertTrue(session.isResident());
+      assertEquals(1, store.getResidentCount());
+      assertEquals(1, store.getRehydrationCount());
+      assertEquals(0, countSnapshots());
+      assertEquals(5, session.getGame().getPlayer().getGold());
+      assertEquals(List.of("Torch"), session.getGame().getPlayer().getInventory());
+      assertTrue(session.toJson().contains("\"visitedLinks\":2"));
+      assertTrue(store.getMaxRehydrationNanos() >= store.getAverageRehydrationNanos());
+    }
+
+    @Test
+    @DisplayName("Test a rehydrated session has the visited links and rewind history it had")
+    void testRehydrateKeepsVisitedLinks() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      session.go(0);
+      session.go(0);
+      session.go(0);
+      List<Link> visitedLinks = session.getGame().getVisitedLinks().getLinks();
+
+      store.evict();
+      assertFalse(session.isResident());
+
+      List<Link> rehydratedLinks = session.getGame().getVisitedLinks().getLinks();
+      assertEquals(visitedLinks.size(), rehydratedLinks.size());
+      for (int i = 0; i < visitedLinks.size(); i++) {
+        assertSame(visitedLinks.get(i), rehydratedLinks.get(i));
+      }
+      assertEquals(3, session.getGame().getRewindableSteps());
+      assertEquals("Hall", session.getCurrentPassage().getTitle());
+      assertEquals(10, session.getGame().getPlayer().getGold());
+
+      assertEquals("Hall", session.getGame().rewind(2).getTitle());
+      assertEquals(5, session.getGame().getPlayer().getGold());
+    }
+
+    @Test
+    @DisplayName("Test sessions that have been used within the idle time are kept in memory")
+    void testRecentSessionsAreKept() throws Exception {
+      createStore(HOUR_MILLIS, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+
+      assertEquals(0, store.evict());
+      assertTrue(session.isResident());
+      assertEquals(1, store.getResidentCount());
+    }
+
+    @Test
+    @DisplayName("Test the sessions used the longest ago are spilled when over capacity")
+    void testCapacity() throws Exception {
+      createStore(HOUR_MILLIS, 2);
+      GameSession first = store.create(createPlayer("Ann"));
+      GameSession second = store.create(createPlayer("Bob"));
+      first.toJson();
+      GameSession third = store.create(createPlayer("Cid"));
+      store.evict();
+
+      assertTrue(first.isResident());
+      assertFalse(second.isResident());
+      assertTrue(third.isResident());
+      assertEquals(3, store.size());
+      assertEquals(2, store.getResidentCount());
+      assertEquals(1, store.getSpillCount());
+    }
+
+    @Test
+    @DisplayName("Test a session is found by its id whether it is spilled or not")
+    void testGet() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      store.evict();
+
+      assertSame(session, store.get(session.getId()));
+      assertNull(store.get("unknown"));
+      assertNull(store.get(null));
+    }
+
+    @Test
+    @DisplayName("Test removing a spilled session deletes its snapshot")
+    void testRemove() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      store.evict();
+
+      assertTrue(store.remove(session.getId()));
+      assertFalse(store.remove(session.getId()));
+      assertEquals(0, store.size());
+      assertEquals(0, countSnapshots());
+    }
+
+    @Test
+    @DisplayName("Test closing the store deletes the snapshots of the spilled sessions")
+    void testClose() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      store.create(createPlayer("Ann"));
+      store.create(createPlayer("Bob"));
+      store.evict();
+
+      assertEquals(2, countSnapshots());
+      store.close();
+      assertEquals(0, countSnapshots());
+    }
+
+    @Test
+    @DisplayName("Test toJson writes the counters of the store")
+    void testToJson() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      store.create(createPlayer("Ann"));
+      store.evict();
+
+      assertTrue(store.toJson().startsWith(
+          "{\"sessions\":1,\"resident\":0,\"spills\":1,\"spillFailures\":0,\"rehydrations\":0,"));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests the session store with invalid input")
+  class NegativeSessionStore {
+
+    @Test
+    @DisplayName("Test builder throws exception with invalid values")
+    void testBuilderWithInvalidValues() {
+      assertThrows(IllegalArgumentException.class, () -> new SessionStore.Builder(null, directory));
+      assertThrows(IllegalArgumentException.class, () -> new SessionStore.Builder(story, null));
+      assertThrows(IllegalArgumentException.class,
+          () -> new SessionStore.Builder(story, directory).idleMillis(-1));
+      assertThrows(IllegalArgumentException.class,
+          () -> new SessionStore.Builder(story, directory).capacity(-1));
+      assertThrows(IllegalArgumentException.class,
+          () -> new SessionStore.Builder(story, directory).evictionIntervalMillis(0));
+    }
+
+    @Test
+    @DisplayName("Test a session whose snapshot is not a session snapshot cannot be rehydrated")
+    void testInvalidSnapshot() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      store.evict();
+      File snapshot = directory.resolve(session.getId() + ".session").toFile();
+      Files.writeString(snapshot.toPath(), "Start\n10, 0, 0, 0\n");
+
+      assertThrows(IOException.class, () -> store.readSnapshot(session.getId()));
+      assertThrows(IllegalStateException.class, () -> session.go(0));
+    }
+
+    @Test
+    @DisplayName("Test a spilled session cannot be used after it is removed")
+    void testRemovedSession() throws Exception {
+      createStore(0, SessionStore.DEFAULT_CAPACITY);
+      GameSession session = store.create(createPlayer("Ann"));
+      store.evict();
+      store.remove(session.getId());
+
+      assertThrows(IllegalStateException.class, () -> session.go(0));
+    }
+  }
+}